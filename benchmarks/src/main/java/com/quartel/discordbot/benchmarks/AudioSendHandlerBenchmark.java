@@ -0,0 +1,68 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.modules.music.player.AudioPlayerSendHandler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abruf eines 20-ms-Frames durch JDA über den {@link AudioPlayerSendHandler}: {@code canProvide()} gefolgt
+ * von {@code provide20MsAudio()}, einmal mit verfügbarem Frame und einmal mit fehlendem Frame während der
+ * Wiedergabe. Der Player ist ein Platzhalter, der einen festen Opus-Frame liefert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AudioSendHandlerBenchmark {
+
+    // Typische Größe eines Opus-Frames mit 20 ms bei 128 kbit/s
+    private static final byte[] OPUS_FRAME = new byte[320];
+
+    private AudioPlayerSendHandler providing;
+    private AudioPlayerSendHandler missing;
+
+    @Setup
+    public void setUp() {
+        AudioTrack playing = Stubs.track(0, 180_000);
+
+        AudioPlayer providingPlayer = Stubs.of(AudioPlayer.class, Map.of(
+                "getPlayingTrack", playing,
+                "provide", (Stubs.Answer) args -> {
+                    ((MutableAudioFrame) args[0]).store(OPUS_FRAME, 0, OPUS_FRAME.length);
+                    return true;
+                }));
+        AudioPlayer missingPlayer = Stubs.of(AudioPlayer.class, Map.of(
+                "getPlayingTrack", playing,
+                "provide", false));
+
+        providing = new AudioPlayerSendHandler(providingPlayer, 1L);
+        missing = new AudioPlayerSendHandler(missingPlayer, 2L);
+    }
+
+    @Benchmark
+    public ByteBuffer provideFrame() {
+        return providing.canProvide() ? providing.provide20MsAudio() : null;
+    }
+
+    @Benchmark
+    public boolean missingFrame() {
+        return missing.canProvide();
+    }
+}
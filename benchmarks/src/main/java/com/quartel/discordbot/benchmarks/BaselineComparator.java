@@ -0,0 +1,118 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vergleicht ein JMH-Ergebnis ({@code -rf json}) mit der eingecheckten Baseline.
+ * <p>
+ * Aufruf: {@code java -cp target/benchmarks.jar com.quartel.discordbot.benchmarks.BaselineComparator
+ * baseline/baseline.json result.json [schwelle-in-prozent]}. Gibt pro Benchmark die Veränderung aus und
+ * endet mit Status 1, wenn ein Benchmark um mehr als die Schwelle (Standard 10 %) langsamer geworden ist.
+ * Benchmarks, die nur in einer der beiden Dateien vorkommen, werden aufgelistet, zählen aber nicht als Rückschritt.
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    /**
+     * Ein Messwert aus einer JMH-Ergebnisdatei.
+     */
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Aufruf: BaselineComparator <baseline.json> <ergebnis.json> [schwelle-in-prozent]");
+            System.exit(2);
+        }
+
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Aktuell", "Änderung");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14s %9s%n", entry.getKey(), "-", format(now), "neu");
+                continue;
+            }
+            if (!before.unit().equals(now.unit())) {
+                System.out.printf("%-80s %14s %14s %9s%n", entry.getKey(), format(before), format(now), "Einheit?");
+                continue;
+            }
+
+            // Positiv bedeutet langsamer, unabhängig davon, ob Zeit oder Durchsatz gemessen wurde
+            double change = (now.value() - before.value()) / before.value() * 100;
+            double slowdown = now.higherIsBetter() ? -change : change;
+            boolean regression = slowdown > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14s %14s %+8.1f%%%s%n", entry.getKey(), format(before), format(now), change,
+                    regression ? "  << langsamer" : "");
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-80s %14s %14s %9s%n", name, format(baseline.get(name)), "-", "fehlt");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d Benchmark(s) mehr als %.1f%% langsamer als die Baseline%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.println("Keine Rückschritte gegenüber der Baseline");
+    }
+
+    /**
+     * Liest eine JMH-Ergebnisdatei; der Schlüssel besteht aus Benchmark-Name und Parametern.
+     */
+    private static Map<String, Score> read(Path file) throws IOException {
+        JsonArray results;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            results = JsonParser.parseReader(reader).getAsJsonArray();
+        }
+
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            String name = result.get("benchmark").getAsString()
+                    .replace("com.quartel.discordbot.benchmarks.", "");
+
+            if (result.has("params")) {
+                Map<String, String> params = new TreeMap<>();
+                result.getAsJsonObject("params").entrySet()
+                        .forEach(param -> params.put(param.getKey(), param.getValue().getAsString()));
+                name += params;
+            }
+
+            JsonObject metric = result.getAsJsonObject("primaryMetric");
+            boolean higherIsBetter = "thrpt".equals(result.get("mode").getAsString());
+            scores.put(name, new Score(metric.get("score").getAsDouble(),
+                    metric.get("scoreUnit").getAsString(), higherIsBetter));
+        }
+        return scores;
+    }
+
+    private static String format(Score score) {
+        return String.format("%.1f %s", score.value(), score.unit());
+    }
+}
@@ -0,0 +1,49 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.util.BotUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Präfix-Auswertung von Textnachrichten über {@link BotUtils}: Prüfung, Befehl und Argumente.
+ * Nachrichten ohne Präfix sind der häufigste Fall und sollten fast nichts kosten.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BotUtilsBenchmark {
+
+    @Param({
+            "Hallo zusammen, wer kommt heute Abend mit ins Kino?",
+            "!play https://example.invalid/track/1 laut",
+            "!queue"
+    })
+    public String content;
+
+    @Benchmark
+    public boolean startsWithPrefix() {
+        return BotUtils.startsWithPrefix(content);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        if (BotUtils.startsWithPrefix(content)) {
+            blackhole.consume(BotUtils.getCommand(content));
+            blackhole.consume(BotUtils.getArgs(content));
+        }
+    }
+}
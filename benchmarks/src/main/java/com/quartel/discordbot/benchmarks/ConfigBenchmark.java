@@ -0,0 +1,55 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lesezugriffe auf die Konfiguration: ein gesetzter Schlüssel, ein Schlüssel, der auf den Standardwert des
+ * {@code DefaultConfigManager} zurückfällt, ein unbekannter Schlüssel und ein typisierter Wert aus dem
+ * Snapshot. {@code contended} liest mit vier Threads gleichzeitig.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmark {
+
+    @Benchmark
+    public String presentKey() {
+        return Config.getProperty("bot.prefix");
+    }
+
+    @Benchmark
+    public String defaultedKey() {
+        return Config.getProperty("music.permissions.skip");
+    }
+
+    @Benchmark
+    public String missingKey() {
+        return Config.getProperty("benchmark.unbekannt", "fallback");
+    }
+
+    @Benchmark
+    public int snapshotValue() {
+        return Config.get().musicTimeout();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String contended() {
+        return Config.getProperty("music.permissions.skip");
+    }
+}
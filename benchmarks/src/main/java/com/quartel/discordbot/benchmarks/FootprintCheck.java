@@ -0,0 +1,463 @@
+package com.quartel.discordbot.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.modules.music.player.GuildMusicManager;
+import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
+import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.AudioSourceManagers;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.Reference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Misst mit JOL den Speicherbedarf des Zustands, den der Bot pro Server hält, und vergleicht ihn mit der
+ * eingecheckten Baseline ({@code benchmarks/baseline/footprint.properties}).
+ * <p>
+ * Gemessen wird der zurückgehaltene Speicher (alle Objekte, die nur über den gemessenen Zustand erreichbar sind):
+ * ein {@link GuildMusicManager} im Leerlauf, während der Wiedergabe und mit 100, 1.000 und 10.000 Tracks in der
+ * Warteschlange, der Zustand eines überwachenden Warteraums im {@link WaitingRoomManager} samt Servereinstellungen
+ * und die Dateiliste einer Playlist pro 1.000 Dateien. Gemeinsam genutzte Objekte (AudioPlayerManager, Singletons)
+ * zählen nicht mit: gemessen wird, um wie viel der erreichbare Objektgraph durch die gemessenen Objekte wächst,
+ * geteilt durch ihre Anzahl. Die Objektgrößen liefert JOL; Threads, Klassen und Class-Loader werden nicht
+ * durchlaufen. Zum Schluss wird der Heap-Bedarf für verschiedene Serverzahlen geschätzt.
+ * <p>
+ * Endet mit Status 1, wenn eine Messung die Baseline um mehr als die Schwelle überschreitet. Aufruf aus einem
+ * neuen, leeren Arbeitsverzeichnis, da Warteräume in den Servereinstellungen gespeichert werden und vorhandene
+ * {@code config/} und {@code data/} den Wert für {@code warteraum} verändern; {@code mvn install -Pbenchmarks}
+ * legt dafür jedes Mal ein eigenes Verzeichnis unter {@code benchmarks/target/} an:
+ * <pre>
+ * java -cp benchmarks.jar com.quartel.discordbot.benchmarks.FootprintCheck \
+ *     --baseline=/pfad/zu/benchmarks/baseline/footprint.properties
+ * </pre>
+ * Optionen (mit Standardwert): {@code baseline=benchmarks/baseline/footprint.properties}, {@code threshold=10}
+ * (Prozent), {@code write-baseline=false} (Baseline mit den Messwerten überschreiben), {@code guilds=100}
+ * (Instanzen pro Messung, bei Warteräumen zehnmal so viele), {@code playlist} (echte Playlist statt künstlicher Dateien), {@code playing=0.2} und
+ * {@code waiting-rooms=0.1} (Anteile für die Schätzung), {@code log=WARN}.
+ */
+public final class FootprintCheck {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FootprintCheck.class);
+
+    private static final long FIRST_GUILD_ID = 100_000_000_000L;
+    private static final int[] QUEUE_SIZES = {100, 1_000, 10_000};
+    private static final int LIBRARY_FILES = 1_000;
+    private static final int[] ESTIMATE_GUILDS = {100, 1_000, 10_000};
+
+    // Höchstzahl eingereihter Tracks pro Messung, damit 10.000er-Warteschlangen den Heap nicht sprengen
+    private static final int MAX_TRACKS_PER_MEASUREMENT = 100_000;
+
+    // Positionen der Referenzfelder pro Klasse, einschließlich geerbter
+    private static final ClassValue<long[]> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected long[] computeValue(Class<?> type) {
+            VirtualMachine vm = VM.current();
+            List<Long> offsets = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        offsets.add(vm.fieldOffset(field));
+                    }
+                }
+            }
+            return offsets.stream().mapToLong(Long::longValue).toArray();
+        }
+    };
+
+    private final Map<String, String> options;
+
+    // Bytes pro gemessener Einheit, in Ausgabereihenfolge
+    private final Map<String, Long> results = new LinkedHashMap<>();
+
+    private FootprintCheck(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Feldpositionen auch für Records und Lambdas bestimmen, bevor JOL die VM untersucht
+        System.setProperty("jol.magicFieldOffset", "true");
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator <= 0) {
+                System.err.println("Unbekannte Option: " + arg + " (erwartet --name=wert)");
+                System.exit(2);
+            }
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+
+        int regressions;
+        try {
+            regressions = new FootprintCheck(options).run();
+        } catch (Exception e) {
+            // Die Thread-Pools der Manager würden die JVM sonst am Leben halten
+            LOGGER.error("Speicherbedarf konnte nicht gemessen werden", e);
+            System.exit(2);
+            return;
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private int run() throws Exception {
+        Level level = Level.toLevel(stringOption("log", "WARN"), Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(level);
+
+        int guildCount = intOption("guilds", 100);
+        System.out.printf("Speicherbedarf: %d Instanzen pro Messung, Arbeitsverzeichnis %s%n",
+                guildCount, Path.of("").toAbsolutePath());
+        if (Files.exists(Path.of("config")) || Files.exists(Path.of("data"))) {
+            LOGGER.warn("Arbeitsverzeichnis enthält config/ oder data/, der Wert für warteraum ist nicht mit der "
+                    + "Baseline vergleichbar");
+        }
+
+        measureMusicManagers(guildCount);
+        // Ein Warteraum belegt nur wenige hundert Bytes; mit zehnmal so vielen Servern fällt das Wachsen der Maps
+        // nicht ins Gewicht
+        measureWaitingRooms(guildCount * 10);
+        measureLibrary();
+
+        int regressions = compare(Path.of(stringOption("baseline", "benchmarks/baseline/footprint.properties")));
+        printEstimate();
+
+        return regressions;
+    }
+
+    /**
+     * Misst Musik-Manager im Leerlauf, bei Wiedergabe und mit gefüllter Warteschlange.
+     */
+    private void measureMusicManagers(int guildCount) throws InterruptedException {
+        AudioPlayerManager playerManager = new DefaultAudioPlayerManager();
+        AudioSourceManagers.registerLocalSource(playerManager);
+
+        // Ein Durchlauf vorab, damit Thread-Pool und Puffer des AudioPlayerManagers nicht der ersten Messung
+        // zugerechnet werden
+        measureMusicManagers(playerManager, guildCount, 0);
+
+        results.put("musik.leerlauf", measureMusicManagers(playerManager, guildCount, -1));
+        results.put("musik.wiedergabe", measureMusicManagers(playerManager, guildCount, 0));
+        for (int queueSize : QUEUE_SIZES) {
+            int managerCount = Math.max(1, Math.min(guildCount, MAX_TRACKS_PER_MEASUREMENT / queueSize));
+            results.put("musik.warteschlange." + queueSize,
+                    measureMusicManagers(playerManager, managerCount, queueSize));
+        }
+        playerManager.shutdown();
+    }
+
+    /**
+     * Speicher pro Manager: Größe des Graphen aus AudioPlayerManager und Managern abzüglich der Größe des
+     * AudioPlayerManagers vor dem Erstellen. So zählt auch mit, was der AudioPlayerManager für laufende Tracks
+     * festhält; gemeinsam genutzte Objekte zählen nicht.
+     *
+     * @param queueSize Tracks in der Warteschlange; 0 = nur ein laufender Track, negativ = Leerlauf
+     */
+    private static long measureMusicManagers(AudioPlayerManager playerManager, int count, int queueSize)
+            throws InterruptedException {
+        long before = graphSize(playerManager);
+
+        List<GuildMusicManager> managers = createMusicManagers(playerManager, count);
+        if (queueSize >= 0) {
+            fill(managers, queueSize);
+        }
+        Object[] roots = new Object[count + 1];
+        roots[0] = playerManager;
+        for (int i = 0; i < count; i++) {
+            roots[i + 1] = managers.get(i);
+        }
+        long after = graphSize(roots);
+
+        for (GuildMusicManager manager : managers) {
+            manager.getTrackScheduler().clearQueue();
+            manager.getAudioPlayer().destroy();
+        }
+        return (after - before) / count;
+    }
+
+    private static List<GuildMusicManager> createMusicManagers(AudioPlayerManager playerManager, int count) {
+        List<GuildMusicManager> managers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            managers.add(new GuildMusicManager(playerManager, FIRST_GUILD_ID + i));
+        }
+        return managers;
+    }
+
+    /**
+     * Startet einen Track pro Manager und reiht weitere ein. Die Tracks haben Titel, Künstler und Pfade wie
+     * Dateien aus der Musikbibliothek, jeweils als eigene Strings.
+     */
+    private static void fill(List<GuildMusicManager> managers, int queueSize) throws InterruptedException {
+        int index = 0;
+        for (GuildMusicManager manager : managers) {
+            for (int i = 0; i <= queueSize; i++) {
+                manager.getTrackScheduler().queue(libraryTrack(index++));
+            }
+        }
+        // Die Wiedergabe-Threads legen ihren Zustand beim Start an
+        Thread.sleep(500);
+    }
+
+    /**
+     * ShardManager, der die angegebenen Server meldet, einzelne Server aber keiner Shard zuordnet.
+     */
+    private static ShardManager shardManager(List<Guild> guilds) {
+        return Stubs.deep(ShardManager.class, Map.of(
+                "getGuilds", guilds,
+                "getShardById", (Stubs.Answer) args -> null));
+    }
+
+    private static Stubs.IdleTrack libraryTrack(int index) {
+        String artist = String.format(Locale.ROOT, "Interpret %03d", index % 200);
+        String title = String.format(Locale.ROOT, "Titel %05d", index);
+        String path = "music_library/chill/" + artist + " - " + title + ".mp3";
+        return new Stubs.IdleTrack(new AudioTrackInfo(title, artist, 180_000 + index % 120_000, path, false, path));
+    }
+
+    /**
+     * Misst überwachende Warteräume, so wie sie nach einem Neustart aus den Servereinstellungen wiederhergestellt
+     * werden, einschließlich der Einstellungen selbst.
+     */
+    private void measureWaitingRooms(int guildCount) {
+        WaitingRoomManager waitingRooms = WaitingRoomManager.getInstance();
+        GuildSettingsStore store = GuildSettingsStore.getInstance();
+
+        // Ohne Server, damit der Manager keine Platzhalter festhält
+        ShardManager empty = shardManager(List.of());
+        waitingRooms.setShardManager(empty);
+        long before = graphSize(waitingRooms, store);
+
+        List<Guild> guilds = new ArrayList<>(guildCount);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < guildCount; i++) {
+            long guildId = FIRST_GUILD_ID + i;
+            guilds.add(Stubs.of(Guild.class, Map.of("getIdLong", guildId, "getName", "Server " + i)));
+            writes.add(store.set(guildId, GuildSettings.WAITING_ROOM_CHANNEL, String.valueOf(guildId + 1)));
+            writes.add(store.set(guildId, GuildSettings.WAITING_ROOM_PLAYLIST, "chill"));
+            writes.add(store.set(guildId, GuildSettings.WAITING_ROOM_ACTIVE, "true"));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+
+        waitingRooms.setShardManager(shardManager(guilds));
+        waitingRooms.setShardManager(empty);
+        long after = graphSize(waitingRooms, store);
+        results.put("warteraum", (after - before) / guildCount);
+
+        // Einstellungen wieder entfernen, damit ein weiterer Lauf im selben Verzeichnis dasselbe misst
+        writes.clear();
+        for (int i = 0; i < guildCount; i++) {
+            long guildId = FIRST_GUILD_ID + i;
+            writes.add(store.remove(guildId, GuildSettings.WAITING_ROOM_CHANNEL));
+            writes.add(store.remove(guildId, GuildSettings.WAITING_ROOM_PLAYLIST));
+            writes.add(store.remove(guildId, GuildSettings.WAITING_ROOM_ACTIVE));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Misst die Dateiliste einer Playlist, wie sie {@link MusicLibraryManager#findAudioFilesInPlaylist} liefert,
+     * umgerechnet auf 1.000 Dateien. Ohne {@code playlist} werden leere Dateien in einem temporären Verzeichnis
+     * angelegt und mit denselben Schritten eingelesen, als lägen sie unter {@code music_library/chill}.
+     */
+    private void measureLibrary() throws IOException {
+        String playlist = options.get("playlist");
+        List<String> files;
+        if (playlist != null) {
+            files = new MusicLibraryManager().findAudioFilesInPlaylist(playlist);
+            if (files.isEmpty()) {
+                System.out.printf("Playlist '%s' enthält keine Audiodateien, Bibliothek wird übersprungen%n",
+                        playlist);
+                return;
+            }
+        } else {
+            files = syntheticPlaylist();
+        }
+        results.put("bibliothek.1000", graphSize(files) * LIBRARY_FILES / files.size());
+    }
+
+    private static List<String> syntheticPlaylist() throws IOException {
+        Path directory = Files.createTempDirectory("footprint-library");
+        try {
+            for (int i = 0; i < LIBRARY_FILES; i++) {
+                Files.createFile(directory.resolve(
+                        String.format(Locale.ROOT, "Interpret %03d - Titel %05d.mp3", i % 200, i)));
+            }
+
+            Path configured = Path.of("music_library", "chill");
+            try (Stream<Path> walk = Files.walk(directory)) {
+                return walk.filter(Files::isRegularFile)
+                        .map(file -> configured.resolve(directory.relativize(file)).toString())
+                        .filter(file -> file.toLowerCase().endsWith(".mp3"))
+                        .collect(Collectors.toList());
+            }
+        } finally {
+            try (Stream<Path> walk = Files.walk(directory)) {
+                for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Summe der Objektgrößen (laut JOL) aller von den Wurzeln erreichbaren Objekte. Threads, Thread-Gruppen,
+     * Klassen und Class-Loader werden weder gezählt noch durchlaufen: über sie ist fast der ganze Prozess
+     * erreichbar, und ihr Speicher gehört nicht zum Zustand eines Servers. Dasselbe gilt für
+     * {@link Reference}-Objekte: über die Cleaner-Liste z. B. eines FileChannels erreichen sie alle anderen
+     * Cleaner der JVM, deren Zahl sich mit jedem GC-Lauf ändert.
+     */
+    private static long graphSize(Object... roots) {
+        VirtualMachine vm = VM.current();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        for (Object root : roots) {
+            if (root != null) {
+                pending.push(root);
+            }
+        }
+
+        long total = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object instanceof Class || object instanceof ClassLoader || object instanceof Thread
+                    || object instanceof ThreadGroup || object instanceof Reference || !visited.add(object)) {
+                continue;
+            }
+            total += vm.sizeOf(object);
+
+            if (object instanceof Object[] array) {
+                for (Object element : array) {
+                    if (element != null) {
+                        pending.push(element);
+                    }
+                }
+                continue;
+            }
+            for (long offset : REFERENCE_FIELDS.get(object.getClass())) {
+                Object value = vm.getObject(object, offset);
+                if (value != null) {
+                    pending.push(value);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Vergleicht die Messwerte mit der Baseline oder schreibt sie als neue Baseline.
+     *
+     * @return Anzahl der Messungen über der Schwelle
+     */
+    private int compare(Path baselineFile) throws IOException {
+        if (Boolean.parseBoolean(stringOption("write-baseline", "false"))) {
+            Properties properties = new Properties();
+            results.forEach((name, bytes) -> properties.setProperty(name, String.valueOf(bytes)));
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Speicherbedarf in Bytes, erzeugt von FootprintCheck");
+            }
+            System.out.println("Baseline geschrieben: " + baselineFile.toAbsolutePath());
+        }
+
+        Properties baseline = new Properties();
+        if (Files.isRegularFile(baselineFile)) {
+            try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+                baseline.load(reader);
+            }
+        } else {
+            LOGGER.warn("Keine Baseline unter {}, es wird nur gemessen", baselineFile.toAbsolutePath());
+        }
+        double threshold = doubleOption("threshold", 10.0);
+
+        int regressions = 0;
+        System.out.println();
+        System.out.println("=== Speicherbedarf (Bytes) ===");
+        System.out.printf("%-28s %12s %12s %9s%n", "Messung", "Baseline", "Aktuell", "Änderung");
+        for (Map.Entry<String, Long> entry : results.entrySet()) {
+            String before = baseline.getProperty(entry.getKey());
+            long now = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-28s %12s %12d %9s%n", entry.getKey(), "-", now, "neu");
+                continue;
+            }
+
+            long limit = Long.parseLong(before.trim());
+            double change = (now - limit) * 100.0 / limit;
+            boolean regression = change > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-28s %12d %12d %+8.1f%%%s%n", entry.getKey(), limit, now, change,
+                    regression ? "  << größer" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d Messung(en) mehr als %.1f%% über der Baseline%n", regressions, threshold);
+        }
+        return regressions;
+    }
+
+    /**
+     * Schätzt den Heap für den Zustand pro Server; Grundbedarf von JVM, JDA und LavaPlayer kommt hinzu.
+     */
+    private void printEstimate() {
+        double playingShare = doubleOption("playing", 0.2);
+        double waitingRoomShare = doubleOption("waiting-rooms", 0.1);
+        long idle = results.getOrDefault("musik.leerlauf", 0L);
+        long queued = results.getOrDefault("musik.warteschlange.100", 0L);
+        long waitingRoom = results.getOrDefault("warteraum", 0L);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "=== Heap-Schätzung (MB, ohne Grundbedarf; %.0f %% spielen mit 100 Tracks, "
+                + "%.0f %% mit Warteraum) ===%n", playingShare * 100, waitingRoomShare * 100);
+        System.out.printf("%-10s %12s %12s%n", "Server", "Leerlauf", "Mischung");
+        for (int guilds : ESTIMATE_GUILDS) {
+            double idleBytes = (double) guilds * idle;
+            double mixedBytes = idleBytes + guilds * playingShare * (queued - idle) + guilds * waitingRoomShare * waitingRoom;
+            System.out.printf(Locale.ROOT, "%-10d %12.1f %12.1f%n", guilds,
+                    idleBytes / (1024 * 1024), mixedBytes / (1024 * 1024));
+        }
+    }
+
+    private String stringOption(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return Integer.parseInt(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private double doubleOption(String name, double fallback) {
+        return Double.parseDouble(stringOption(name, String.valueOf(fallback)));
+    }
+}
@@ -0,0 +1,461 @@
+package com.quartel.discordbot.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import com.quartel.discordbot.metrics.LatencyHistogram;
+import com.quartel.discordbot.modules.music.player.AudioPlayerSendHandler;
+import com.quartel.discordbot.trace.FrameTrace;
+import com.sedmelluq.discord.lavaplayer.filter.PcmFilterFactory;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventListener;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrame;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Gibt aufgezeichnete Opus-Frames (siehe {@code trace.frames.enabled}) über die echten
+ * {@link AudioPlayerSendHandler} vieler simulierter Server wieder, ohne Decodierung und ohne Discord.
+ * <p>
+ * Jeder Server erhält einen Player, der die aufgezeichneten Abrufe der Reihe nach liefert, einschließlich der
+ * Lücken, mit eigenem Startpunkt und in Schleife. Sendethreads fragen wie JDA pro Server {@code canProvide()} und
+ * {@code provide20MsAudio()} ab und kopieren den Frame mit RTP-Kopf in einen Paketpuffer; Verschlüsselung und
+ * Socket sind nicht enthalten. Gemessen werden nur Sendethreads, nach einer Aufwärmphase:
+ * <ul>
+ *     <li>{@code mode=paced}: 20-ms-Takt wie JDA; Abweichung der Abrufabstände pro Server vom Sollabstand</li>
+ *     <li>{@code mode=max}: ohne Pausen; höchster Durchsatz an Abrufen</li>
+ * </ul>
+ * Ausgegeben werden Abrufe, Frames und Bytes pro Sekunde, Jitter, CPU-Zeit und allokierte Bytes pro Abruf.
+ * Die Player sind eigene Klassen statt Platzhalter, damit sie selbst nichts allokieren.
+ * <pre>
+ * java -cp benchmarks.jar com.quartel.discordbot.benchmarks.FrameReplay --trace=logs/traces --guilds=2000
+ * </pre>
+ * Optionen (mit Standardwert): {@code trace} (Datei oder Verzeichnis mit {@code frames-*.trace}),
+ * {@code guilds=100}, {@code seconds=30}, {@code warmup=5}, {@code mode=paced}, {@code send-threads=Kerne},
+ * {@code log=WARN}, {@code seed=42}.
+ */
+public final class FrameReplay {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameReplay.class);
+
+    private static final long FRAME_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int RTP_HEADER_SIZE = 12;
+
+    private final Map<String, String> options;
+    private final SplittableRandom random;
+
+    // Gemessen wird erst nach der Aufwärmphase
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    private final List<Thread> sendThreads = new CopyOnWriteArrayList<>();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LatencyHistogram pollJitter = new LatencyHistogram();
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+    private final AtomicLong lateTicks = new AtomicLong();
+
+    /**
+     * Ein Server mit Send-Handler und dem Zeitpunkt seines letzten Abrufs.
+     */
+    private static final class ReplayGuild {
+        private final AudioPlayerSendHandler handler;
+        private final int ssrc;
+        private char sequence;
+        private long lastPollNanos;
+
+        private ReplayGuild(AudioPlayerSendHandler handler, int ssrc) {
+            this.handler = handler;
+            this.ssrc = ssrc;
+        }
+    }
+
+    private FrameReplay(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(longOption("seed", 42));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator <= 0) {
+                System.err.println("Unbekannte Option: " + arg + " (erwartet --name=wert)");
+                System.exit(2);
+            }
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+
+        new FrameReplay(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Level level = Level.toLevel(stringOption("log", "WARN"), Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(level);
+
+        String trace = stringOption("trace", "");
+        if (trace.isBlank()) {
+            System.err.println("Keine Aufzeichnung angegeben (--trace=<datei oder verzeichnis>)");
+            System.exit(2);
+        }
+        List<byte[][]> traces = loadTraces(Path.of(trace));
+        if (traces.isEmpty()) {
+            System.err.println("Keine Frame-Aufzeichnungen gefunden: " + Path.of(trace).toAbsolutePath());
+            System.exit(2);
+        }
+
+        int guildCount = intOption("guilds", 100);
+        boolean paced = !"max".equalsIgnoreCase(stringOption("mode", "paced"));
+        int threadCount = Math.max(1, Math.min(guildCount, intOption("send-threads",
+                Runtime.getRuntime().availableProcessors())));
+
+        AudioTrack track = Stubs.track(0, 180_000);
+        List<ReplayGuild> guilds = new ArrayList<>(guildCount);
+        for (int i = 0; i < guildCount; i++) {
+            byte[][] polls = traces.get(i % traces.size());
+            ReplayPlayer player = new ReplayPlayer(polls, random.nextInt(polls.length), track);
+            guilds.add(new ReplayGuild(new AudioPlayerSendHandler(player, i + 1L), random.nextInt()));
+        }
+
+        System.out.printf("Wiedergabe: %d Server, %d Sendethreads, Modus %s, %d s (+%d s Aufwärmen)%n",
+                guildCount, threadCount, paced ? "paced" : "max", intOption("seconds", 30), intOption("warmup", 5));
+
+        CountDownLatch finished = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            List<ReplayGuild> partition = new ArrayList<>();
+            for (int i = t; i < guilds.size(); i += threadCount) {
+                partition.add(guilds.get(i));
+            }
+            Thread thread = new Thread(() -> {
+                try {
+                    sendLoop(partition, paced);
+                } finally {
+                    finished.countDown();
+                }
+            }, "replay-send-" + t);
+            thread.setDaemon(true);
+            sendThreads.add(thread);
+        }
+        sendThreads.forEach(Thread::start);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(intOption("warmup", 5)));
+        long cpuBefore = sendThreadCpuNanos();
+        long allocatedBefore = sendThreadAllocatedBytes();
+        long start = System.nanoTime();
+        measuring = true;
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(intOption("seconds", 30)));
+        measuring = false;
+        long elapsedNanos = System.nanoTime() - start;
+        long cpuNanos = sendThreadCpuNanos() - cpuBefore;
+        long allocated = sendThreadAllocatedBytes() - allocatedBefore;
+        stopped = true;
+        finished.await(5, TimeUnit.SECONDS);
+
+        report(guildCount, paced, elapsedNanos, cpuNanos, allocated);
+    }
+
+    /**
+     * Fragt die Server eines Threads ab, im 20-ms-Takt oder ohne Pausen.
+     */
+    private void sendLoop(List<ReplayGuild> partition, boolean paced) {
+        ByteBuffer packet = ByteBuffer.allocate(RTP_HEADER_SIZE + 1024);
+        long nextTick = System.nanoTime();
+
+        while (!stopped) {
+            long tickStart = System.nanoTime();
+            long tickPolls = 0;
+            long tickFrames = 0;
+            long tickBytes = 0;
+
+            for (ReplayGuild guild : partition) {
+                long now = paced ? System.nanoTime() : tickStart;
+                if (paced && measuring && guild.lastPollNanos != 0) {
+                    pollJitter.recordNanos(Math.abs(now - guild.lastPollNanos - FRAME_INTERVAL_NANOS));
+                }
+                guild.lastPollNanos = now;
+
+                tickPolls++;
+                if (guild.handler.canProvide()) {
+                    ByteBuffer frame = guild.handler.provide20MsAudio();
+                    packet.clear();
+                    packet.put((byte) 0x80).put((byte) 0x78).putChar(guild.sequence++)
+                            .putInt(guild.sequence * 960).putInt(guild.ssrc);
+                    packet.put(frame);
+                    tickFrames++;
+                    tickBytes += packet.position();
+                }
+            }
+
+            if (measuring) {
+                polls.addAndGet(tickPolls);
+                frames.addAndGet(tickFrames);
+                bytes.addAndGet(tickBytes);
+                if (paced) {
+                    long duration = System.nanoTime() - tickStart;
+                    tickDurations.recordNanos(duration);
+                    if (duration > FRAME_INTERVAL_NANOS) {
+                        lateTicks.incrementAndGet();
+                    }
+                }
+            }
+
+            if (paced) {
+                nextTick += FRAME_INTERVAL_NANOS;
+                long sleepNanos = nextTick - System.nanoTime();
+                if (sleepNanos > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                } else {
+                    // Verspätung nicht nachholen, wie JDA
+                    nextTick = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    private void report(int guildCount, boolean paced, long elapsedNanos, long cpuNanos, long allocated) {
+        double seconds = elapsedNanos / 1e9;
+        long pollCount = polls.get();
+
+        System.out.println();
+        System.out.println("=== Durchsatz ===");
+        System.out.printf(Locale.ROOT, "Abrufe: %10d (%.0f/s, %.1f pro Server und Sekunde)%n",
+                pollCount, pollCount / seconds, pollCount / seconds / guildCount);
+        System.out.printf(Locale.ROOT, "Frames: %10d (%.0f/s), %d fehlend%n",
+                frames.get(), frames.get() / seconds, pollCount - frames.get());
+        System.out.printf(Locale.ROOT, "Daten:  %10.1f MB (%.2f Mbit/s)%n",
+                bytes.get() / 1e6, bytes.get() * 8 / 1e6 / seconds);
+
+        if (paced) {
+            System.out.println();
+            System.out.println("=== Takt (ms) ===");
+            System.out.printf("%-24s %8s %8s %8s %8s %8s%n", "", "Anzahl", "p50", "p95", "p99", "max");
+            printHistogram("Jitter pro Server", pollJitter);
+            printHistogram("Sendetakt Dauer", tickDurations);
+            System.out.printf("Sendetakte über 20 ms: %d%n", lateTicks.get());
+        }
+
+        System.out.println();
+        System.out.println("=== Sendethreads ===");
+        System.out.printf(Locale.ROOT, "CPU:        %.1f%% eines Kerns, %.0f ns pro Abruf%n",
+                cpuNanos / (double) elapsedNanos * 100, pollCount > 0 ? cpuNanos / (double) pollCount : 0.0);
+        System.out.printf(Locale.ROOT, "Allokation: %.1f MB, %.2f Bytes pro Abruf%n",
+                allocated / 1e6, pollCount > 0 ? allocated / (double) pollCount : 0.0);
+    }
+
+    private static void printHistogram(String name, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        System.out.printf(Locale.ROOT, "%-24s %8d %8.2f %8.2f %8.2f %8.2f%n", name, snapshot.count(),
+                snapshot.p50() / 1000.0, snapshot.p95() / 1000.0, snapshot.p99() / 1000.0, snapshot.max() / 1000.0);
+    }
+
+    /**
+     * Liest eine Aufzeichnung oder alle {@code frames-*.trace} eines Verzeichnisses; pro Aufzeichnung die
+     * Abrufe in Reihenfolge, null für einen fehlenden Frame.
+     */
+    private static List<byte[][]> loadTraces(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> list = Files.list(path)) {
+                files = list.filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith("frames-") && name.endsWith(".trace");
+                }).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+
+        List<byte[][]> traces = new ArrayList<>();
+        for (Path file : files) {
+            List<byte[]> polls = new ArrayList<>();
+            long frameCount = 0;
+            long frameBytes = 0;
+            long durationMicros;
+            try (FrameTrace.Reader reader = new FrameTrace.Reader(file)) {
+                FrameTrace.Entry last = null;
+                for (FrameTrace.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+                    polls.add(entry.frame());
+                    if (entry.frame() != null) {
+                        frameCount++;
+                        frameBytes += entry.frame().length;
+                    }
+                    last = entry;
+                }
+                durationMicros = last != null ? last.offsetMicros() : 0;
+            }
+
+            if (frameCount == 0) {
+                LOGGER.warn("Aufzeichnung {} enthält keine Frames und wird übersprungen", file);
+                continue;
+            }
+            // Die Pause, nach der die Aufzeichnung endete, würde in der Schleife jede Wiederholung verlängern
+            while (polls.getLast() == null) {
+                polls.removeLast();
+            }
+            System.out.printf(Locale.ROOT, "%s: %d Abrufe, %d Frames (%.0f Bytes im Mittel), %.1f s%n",
+                    file.getFileName(), polls.size(), frameCount, frameBytes / (double) frameCount,
+                    durationMicros / 1e6);
+            traces.add(polls.toArray(new byte[0][]));
+        }
+        return traces;
+    }
+
+    private long sendThreadCpuNanos() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : sendThreads) {
+            total += Math.max(0, threads.getThreadCpuTime(thread.threadId()));
+        }
+        return total;
+    }
+
+    private long sendThreadAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+            LOGGER.warn("Allokation pro Thread nicht verfügbar");
+            return 0;
+        }
+        long total = 0;
+        for (Thread thread : sendThreads) {
+            total += Math.max(0, threads.getThreadAllocatedBytes(thread.threadId()));
+        }
+        return total;
+    }
+
+    private String stringOption(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return Integer.parseInt(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private long longOption(String name, long fallback) {
+        return Long.parseLong(stringOption(name, String.valueOf(fallback)));
+    }
+
+    /**
+     * Player, der aufgezeichnete Abrufe der Reihe nach und in Schleife liefert. Spielt immer, damit fehlende
+     * Frames wie während einer Wiedergabe gezählt werden.
+     */
+    private static final class ReplayPlayer implements AudioPlayer {
+        private final byte[][] polls;
+        private final AudioTrack track;
+        private int next;
+
+        private ReplayPlayer(byte[][] polls, int start, AudioTrack track) {
+            this.polls = polls;
+            this.next = start;
+            this.track = track;
+        }
+
+        @Override
+        public boolean provide(MutableAudioFrame targetFrame) {
+            byte[] frame = polls[next];
+            next = next + 1 < polls.length ? next + 1 : 0;
+            if (frame == null) {
+                return false;
+            }
+            targetFrame.store(frame, 0, frame.length);
+            return true;
+        }
+
+        @Override
+        public boolean provide(MutableAudioFrame targetFrame, long timeout, TimeUnit unit) {
+            return provide(targetFrame);
+        }
+
+        @Override
+        public AudioFrame provide() {
+            throw new UnsupportedOperationException("Nur provide(MutableAudioFrame) wird wiedergegeben");
+        }
+
+        @Override
+        public AudioFrame provide(long timeout, TimeUnit unit) {
+            return provide();
+        }
+
+        @Override
+        public AudioTrack getPlayingTrack() {
+            return track;
+        }
+
+        @Override
+        public boolean isPaused() {
+            return false;
+        }
+
+        @Override
+        public int getVolume() {
+            return 100;
+        }
+
+        @Override
+        public void playTrack(AudioTrack track) {
+        }
+
+        @Override
+        public boolean startTrack(AudioTrack track, boolean noInterrupt) {
+            return false;
+        }
+
+        @Override
+        public void stopTrack() {
+        }
+
+        @Override
+        public void setVolume(int volume) {
+        }
+
+        @Override
+        public void setFilterFactory(PcmFilterFactory factory) {
+        }
+
+        @Override
+        public void setFrameBufferDuration(Integer duration) {
+        }
+
+        @Override
+        public void setPaused(boolean value) {
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public void addListener(AudioEventListener listener) {
+        }
+
+        @Override
+        public void removeListener(AudioEventListener listener) {
+        }
+
+        @Override
+        public void checkCleanup(long threshold) {
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.quartel.discordbot.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import com.quartel.discordbot.core.CommandManager;
+import com.quartel.discordbot.metrics.LatencyHistogram;
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.quartel.discordbot.modules.music.MusicModule;
+import com.quartel.discordbot.modules.music.player.AudioPlayerSendHandler;
+import com.quartel.discordbot.modules.music.player.GuildMusicManager;
+import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
+import net.dv8tion.jda.api.events.guild.voice.GuildVoiceUpdateEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Lastsimulation mit vielen künstlichen Servern im selben Prozess, ohne Discord.
+ * <p>
+ * Die Simulation erstellt {@code guilds} Server aus Platzhaltern ({@link SimulatedGuild}) und treibt die echten
+ * Manager des Bots: Slash-Befehle laufen über den {@link CommandManager} (Flutschutz, Schott, Watchdog,
+ * Berechtigungen), Sprachkanal-Beitritte und -Austritte gehen an den {@link WaitingRoomManager}, und Tracks
+ * werden über den {@link PlayerManager} aus einem lokalen Dateikorpus geladen. Eine Sendeschleife holt wie JDA
+ * alle 20 ms einen Frame pro verbundenem Server.
+ * <p>
+ * Am Ende werden Durchsatz, Latenzperzentile, CPU-Zeit und Heap pro Server ausgegeben. Aufruf aus einem
+ * eigenen Arbeitsverzeichnis mit Kopie von {@code config/} und {@code music_library/}, da Warteräume in den
+ * Servereinstellungen gespeichert werden:
+ * <pre>
+ * java -cp benchmarks.jar com.quartel.discordbot.benchmarks.LoadSimulation --guilds=10000 --seconds=120
+ * </pre>
+ * Optionen (mit Standardwert): {@code guilds=1000}, {@code members=20}, {@code seconds=60},
+ * {@code commands=200} (Befehle/s), {@code loads=50} (Ladevorgänge/s), {@code voice=200} (Sprachereignisse/s),
+ * {@code waiting-rooms=0.1} (Anteil der Server mit Warteraum), {@code playlist=chill},
+ * {@code corpus=music_library}, {@code send-threads=Kerne}, {@code max-queue=25}, {@code log=WARN},
+ * {@code seed=42}.
+ */
+public final class LoadSimulation {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadSimulation.class);
+
+    private static final long FRAME_INTERVAL_MILLIS = 20;
+    private static final long DRIVER_INTERVAL_MILLIS = 10;
+    private static final long FIRST_GUILD_ID = 100_000_000_000L;
+
+    private static final String[] AUDIO_EXTENSIONS = {".mp3", ".wav", ".flac", ".ogg", ".m4a"};
+
+    // Befehle mit Gewichtung; alle kommen ohne Optionen aus
+    private static final String[] COMMANDS = {
+            "queue", "queue", "queue", "nowplaying", "nowplaying", "nowplaying", "skip", "skip", "pause", "resume"
+    };
+
+    private final Map<String, String> options;
+    private final SplittableRandom random;
+
+    private final List<SimulatedGuild> guilds = new ArrayList<>();
+    private final Map<Long, SimulatedGuild> guildsById = new HashMap<>();
+    private final List<SimulatedGuild> musicGuilds = new ArrayList<>();
+    private final List<SimulatedGuild> waitingRoomGuilds = new ArrayList<>();
+    private List<Path> corpus = List.of();
+
+    private JDA jda;
+    private CommandManager commandManager;
+
+    // Zähler der erzeugten Last
+    private final AtomicLong interactionIds = new AtomicLong(1);
+    private long commandsSent;
+    private long loadsSent;
+    private long voiceEventsSent;
+    private long skipsForQueueLimit;
+
+    // Sendeschleife
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+    private final LatencyHistogram tickLateness = new LatencyHistogram();
+    private final AtomicLong lateTicks = new AtomicLong();
+    private final AtomicLong framesPolled = new AtomicLong();
+
+    private LoadSimulation(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(longOption("seed", 42));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator <= 0) {
+                System.err.println("Unbekannte Option: " + arg + " (erwartet --name=wert)");
+                System.exit(2);
+            }
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+
+        new LoadSimulation(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Level level = Level.toLevel(stringOption("log", "WARN"), Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(level);
+
+        int guildCount = intOption("guilds", 1000);
+        int seconds = intOption("seconds", 60);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.out.printf("Lastsimulation: %d Server, %d s, Arbeitsverzeichnis %s%n",
+                guildCount, seconds, Path.of("").toAbsolutePath());
+
+        corpus = loadCorpus(Path.of(stringOption("corpus", "music_library")));
+        if (corpus.isEmpty()) {
+            System.out.println("Kein Audiokorpus gefunden, Ladevorgänge werden übersprungen");
+        }
+
+        long heapBefore = usedHeapAfterGc(memory);
+        long setupStart = System.nanoTime();
+        setUp(guildCount);
+        long setupMillis = (System.nanoTime() - setupStart) / 1_000_000;
+        long heapAfterSetup = usedHeapAfterGc(memory);
+        System.out.printf("Aufbau: %d ms, %d Server mit Warteraum%n", setupMillis, waitingRoomGuilds.size());
+
+        ScheduledExecutorService sendLoop = startSendLoop(intOption("send-threads",
+                Runtime.getRuntime().availableProcessors()));
+
+        long cpuBefore = processCpuNanos();
+        long framesProvidedBefore = AudioPlayerSendHandler.getFramesProvided();
+        long framesMissedBefore = AudioPlayerSendHandler.getFramesMissed();
+        long start = System.nanoTime();
+
+        drive(seconds);
+
+        // Laufende Befehle und Ladevorgänge abschließen lassen, bevor gemessen wird
+        Thread.sleep(2_000);
+        long elapsedNanos = System.nanoTime() - start;
+        long cpuNanos = processCpuNanos() - cpuBefore;
+        long heapPeak = memory.getHeapMemoryUsage().getUsed();
+
+        sendLoop.shutdownNow();
+        sendLoop.awaitTermination(5, TimeUnit.SECONDS);
+        long heapAfterRun = usedHeapAfterGc(memory);
+
+        report(elapsedNanos, cpuNanos,
+                AudioPlayerSendHandler.getFramesProvided() - framesProvidedBefore,
+                AudioPlayerSendHandler.getFramesMissed() - framesMissedBefore,
+                heapBefore, heapAfterSetup, heapPeak, heapAfterRun);
+
+        commandManager.shutdown();
+        PlayerManager.getInstance().shutdown();
+    }
+
+    /**
+     * Erstellt Server, Musik-Manager, Befehle und Warteräume.
+     */
+    private void setUp(int guildCount) {
+        Map<String, Object> jdaAnswers = new HashMap<>();
+        jdaAnswers.put("getGuilds", (Stubs.Answer) args -> List.copyOf(guildsFor()));
+        jdaAnswers.put("getGuildById", (Stubs.Answer) args -> {
+            SimulatedGuild guild = guildsById.get(Long.parseLong(String.valueOf(args[0])));
+            return guild != null ? guild.getGuild() : null;
+        });
+        jda = Stubs.deep(JDA.class, jdaAnswers);
+        // Eine einzige Shard, über die alle Server aufgelöst werden
+        ShardManager shardManager = Stubs.deep(ShardManager.class, Map.of(
+                "getShardsTotal", 1,
+                "getShardById", (Stubs.Answer) args -> jda,
+                "getGuilds", (Stubs.Answer) args -> List.copyOf(guildsFor())));
+
+        int members = intOption("members", 20);
+        for (int i = 0; i < guildCount; i++) {
+            SimulatedGuild guild = new SimulatedGuild(jda, FIRST_GUILD_ID + i, members);
+            guilds.add(guild);
+            guildsById.put(guild.getId(), guild);
+        }
+
+        PlayerManager playerManager = PlayerManager.getInstance();
+        playerManager.setShardManager(shardManager);
+        for (SimulatedGuild guild : guilds) {
+            playerManager.getMusicManager(guild.getGuild());
+        }
+
+        commandManager = new CommandManager(shardManager);
+        commandManager.registerSlashCommands(new MusicModule().getSlashCommands());
+
+        WaitingRoomManager waitingRooms = WaitingRoomManager.getInstance();
+        waitingRooms.setShardManager(shardManager);
+        double waitingRoomShare = doubleOption("waiting-rooms", 0.1);
+        String playlist = stringOption("playlist", "chill");
+        for (SimulatedGuild guild : guilds) {
+            if (random.nextDouble() < waitingRoomShare) {
+                waitingRooms.setWaitingRoomChannel(guild.getGuild(), (VoiceChannel) guild.getChannel());
+                if (waitingRooms.activateWaitingRoom(guild.getGuild(), playlist)) {
+                    waitingRoomGuilds.add(guild);
+                    continue;
+                }
+            }
+            musicGuilds.add(guild);
+        }
+    }
+
+    private List<Guild> guildsFor() {
+        List<Guild> result = new ArrayList<>(guilds.size());
+        for (SimulatedGuild guild : guilds) {
+            result.add(guild.getGuild());
+        }
+        return result;
+    }
+
+    /**
+     * Erzeugt die Last im festen Takt, bis die Laufzeit abgelaufen ist.
+     */
+    private void drive(int seconds) throws InterruptedException {
+        double commandsPerTick = doubleOption("commands", 200) * DRIVER_INTERVAL_MILLIS / 1000.0;
+        double loadsPerTick = corpus.isEmpty() ? 0 : doubleOption("loads", 50) * DRIVER_INTERVAL_MILLIS / 1000.0;
+        double voicePerTick = doubleOption("voice", 200) * DRIVER_INTERVAL_MILLIS / 1000.0;
+        int maxQueue = intOption("max-queue", 25);
+
+        double commandBudget = 0;
+        double loadBudget = 0;
+        double voiceBudget = 0;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long nextTick = System.nanoTime();
+        long nextProgress = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (System.nanoTime() < end) {
+            commandBudget += commandsPerTick;
+            loadBudget += loadsPerTick;
+            voiceBudget += voicePerTick;
+
+            for (; commandBudget >= 1; commandBudget--) {
+                sendCommand();
+            }
+            for (; loadBudget >= 1; loadBudget--) {
+                loadTrack(maxQueue);
+            }
+            for (; voiceBudget >= 1; voiceBudget--) {
+                sendVoiceEvent();
+            }
+
+            if (System.nanoTime() >= nextProgress) {
+                System.out.printf("  %d Befehle, %d Ladevorgänge, %d Sprachereignisse%n",
+                        commandsSent, loadsSent, voiceEventsSent);
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+
+            nextTick += TimeUnit.MILLISECONDS.toNanos(DRIVER_INTERVAL_MILLIS);
+            long sleepNanos = nextTick - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+        }
+    }
+
+    /**
+     * Sendet einen Slash-Befehl eines Mitglieds, das im Sprachkanal seines Servers ist.
+     */
+    private void sendCommand() {
+        if (musicGuilds.isEmpty()) {
+            return;
+        }
+        SimulatedGuild guild = musicGuilds.get(random.nextInt(musicGuilds.size()));
+        int memberIndex = random.nextInt(guild.getMemberCount());
+        guild.join(memberIndex);
+        Member member = guild.getMember(memberIndex);
+        String name = COMMANDS[random.nextInt(COMMANDS.length)];
+
+        long interactionId = interactionIds.getAndIncrement();
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getName", name);
+        answers.put("getFullCommandName", name);
+        answers.put("getIdLong", interactionId);
+        answers.put("getId", String.valueOf(interactionId));
+        answers.put("getGuild", guild.getGuild());
+        answers.put("getMember", member);
+        answers.put("getUser", member.getUser());
+        answers.put("getJDA", jda);
+        answers.put("isFromGuild", true);
+        answers.put("getOptions", List.of());
+        answers.put("getTimeCreated", (Stubs.Answer) args -> OffsetDateTime.now());
+        SlashCommandInteraction interaction = Stubs.deep(SlashCommandInteraction.class, answers);
+
+        commandManager.dispatch(new SlashCommandInteractionEvent(jda, interactionId, interaction));
+        commandsSent++;
+    }
+
+    /**
+     * Lädt eine Datei aus dem Korpus auf einem Server, mit dem der Bot dafür verbunden wird.
+     * Ist die Warteschlange voll, wird stattdessen übersprungen, damit sie nicht unbegrenzt wächst.
+     */
+    private void loadTrack(int maxQueue) {
+        if (musicGuilds.isEmpty()) {
+            return;
+        }
+        SimulatedGuild guild = musicGuilds.get(random.nextInt(musicGuilds.size()));
+        GuildMusicManager musicManager = PlayerManager.getInstance().getMusicManager(guild.getGuild());
+        if (musicManager.getTrackScheduler().getQueueSize() >= maxQueue) {
+            musicManager.getTrackScheduler().nextTrack(true);
+            skipsForQueueLimit++;
+            return;
+        }
+
+        if (!guild.isConnected()) {
+            guild.getGuild().getAudioManager().openAudioConnection(guild.getChannel());
+        }
+        Path file = corpus.get(random.nextInt(corpus.size()));
+        PlayerManager.getInstance().loadAndPlay(guild.getGuild(), file.toString());
+        loadsSent++;
+    }
+
+    /**
+     * Lässt ein Mitglied einen Sprachkanal betreten oder verlassen. Warteraum-Server werden bevorzugt,
+     * da nur dort Sprachereignisse etwas auslösen.
+     */
+    private void sendVoiceEvent() {
+        List<SimulatedGuild> pool = !waitingRoomGuilds.isEmpty() && random.nextInt(4) != 0
+                ? waitingRoomGuilds
+                : guilds;
+        SimulatedGuild guild = pool.get(random.nextInt(pool.size()));
+        int memberIndex = random.nextInt(guild.getMemberCount());
+
+        Member joined = guild.join(memberIndex);
+        GuildVoiceUpdateEvent event = joined != null
+                ? new GuildVoiceUpdateEvent(jda, 0, joined, null)
+                : new GuildVoiceUpdateEvent(jda, 0, guild.leave(memberIndex), guild.getChannel());
+        WaitingRoomManager.getInstance().onGuildVoiceUpdate(event);
+        voiceEventsSent++;
+    }
+
+    /**
+     * Startet die Sendeschleife: Jeder Thread ist für einen Teil der Server zuständig und fragt alle 20 ms
+     * für jeden verbundenen Server einen Frame ab, wie es das Sendesystem von JDA tut.
+     */
+    private ScheduledExecutorService startSendLoop(int threads) {
+        int threadCount = Math.max(1, threads);
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "simulation-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int t = 0; t < threadCount; t++) {
+            List<SimulatedGuild> partition = new ArrayList<>();
+            for (int i = t; i < guilds.size(); i += threadCount) {
+                partition.add(guilds.get(i));
+            }
+
+            long[] expected = {System.nanoTime()};
+            executor.scheduleAtFixedRate(() -> {
+                long tickStart = System.nanoTime();
+                tickLateness.recordNanos(Math.max(0, tickStart - expected[0]));
+                expected[0] = Math.max(expected[0], tickStart - TimeUnit.MILLISECONDS.toNanos(FRAME_INTERVAL_MILLIS))
+                        + TimeUnit.MILLISECONDS.toNanos(FRAME_INTERVAL_MILLIS);
+
+                long polled = 0;
+                for (SimulatedGuild guild : partition) {
+                    AudioSendHandler handler = guild.getConnectedSendHandler();
+                    if (handler != null) {
+                        polled++;
+                        if (handler.canProvide()) {
+                            handler.provide20MsAudio();
+                        }
+                    }
+                }
+                framesPolled.addAndGet(polled);
+
+                long duration = System.nanoTime() - tickStart;
+                tickDurations.recordNanos(duration);
+                if (duration > TimeUnit.MILLISECONDS.toNanos(FRAME_INTERVAL_MILLIS)) {
+                    lateTicks.incrementAndGet();
+                }
+            }, 0, FRAME_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return executor;
+    }
+
+    /**
+     * Gibt die Ergebnisse aus.
+     */
+    private void report(long elapsedNanos, long cpuNanos, long framesProvided, long framesMissed,
+                        long heapBefore, long heapAfterSetup, long heapPeak, long heapAfterRun) {
+        double seconds = elapsedNanos / 1e9;
+        int guildCount = guilds.size();
+        long connected = guilds.stream().filter(SimulatedGuild::isConnected).count();
+
+        System.out.println();
+        System.out.println("=== Durchsatz ===");
+        System.out.printf(Locale.ROOT, "Befehle:          %8d (%.1f/s)%n", commandsSent, commandsSent / seconds);
+        System.out.printf(Locale.ROOT, "Ladevorgänge:     %8d (%.1f/s), %d wegen voller Warteschlange übersprungen%n",
+                loadsSent, loadsSent / seconds, skipsForQueueLimit);
+        System.out.printf(Locale.ROOT, "Sprachereignisse: %8d (%.1f/s)%n", voiceEventsSent, voiceEventsSent / seconds);
+        System.out.printf(Locale.ROOT, "Frames:           %8d geliefert, %d fehlend, %d abgefragt (%.0f/s)%n",
+                framesProvided, framesMissed, framesPolled.get(), framesPolled.get() / seconds);
+        System.out.printf("Verbunden:        %8d von %d Servern, Warteräume verbunden: %d, überwachend: %d%n",
+                connected, guildCount,
+                WaitingRoomManager.getInstance().countWaitingRooms(WaitingRoomManager.WaitingRoomState.CONNECTED),
+                WaitingRoomManager.getInstance().countWaitingRooms(WaitingRoomManager.WaitingRoomState.MONITORING));
+
+        System.out.println();
+        System.out.println("=== Latenzen (ms) ===");
+        System.out.printf("%-24s %8s %8s %8s %8s %8s%n", "", "Anzahl", "p50", "p95", "p99", "max");
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.getHistograms(MetricsRegistry.Kind.COMMAND)
+                .forEach((name, histogram) -> printHistogram("/" + name, histogram));
+        metrics.getHistograms(MetricsRegistry.Kind.TRACK_LOAD)
+                .forEach((name, histogram) -> printHistogram("Laden " + name, histogram));
+        printHistogram("Sendetakt Dauer", tickDurations);
+        printHistogram("Sendetakt Verspätung", tickLateness);
+        System.out.printf("Sendetakte über 20 ms: %d%n", lateTicks.get());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println();
+        System.out.println("=== Ressourcen ===");
+        System.out.printf(Locale.ROOT, "CPU:  %.1f%% von %d Kernen, %.3f ms CPU pro Server und Sekunde%n",
+                cpuNanos / (double) elapsedNanos / cores * 100, cores,
+                cpuNanos / 1e6 / seconds / guildCount);
+        System.out.printf(Locale.ROOT, "Heap: %.1f KB pro Server nach Aufbau, %.1f KB nach Lauf, Spitze %d MB%n",
+                (heapAfterSetup - heapBefore) / 1024.0 / guildCount,
+                (heapAfterRun - heapBefore) / 1024.0 / guildCount,
+                heapPeak / (1024 * 1024));
+        System.out.printf("Threads: %d%n", ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private static void printHistogram(String name, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        System.out.printf(Locale.ROOT, "%-24s %8d %8.2f %8.2f %8.2f %8.2f%n", name, snapshot.count(),
+                snapshot.p50() / 1000.0, snapshot.p95() / 1000.0, snapshot.p99() / 1000.0, snapshot.max() / 1000.0);
+    }
+
+    /**
+     * Sucht alle Audiodateien unterhalb eines Verzeichnisses.
+     */
+    private static List<Path> loadCorpus(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+                        for (String extension : AUDIO_EXTENSIONS) {
+                            if (name.endsWith(extension)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    })
+                    .map(Path::toAbsolutePath)
+                    .toList();
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        LOGGER.warn("Prozess-CPU-Zeit nicht verfügbar");
+        return 0;
+    }
+
+    private String stringOption(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return Integer.parseInt(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private long longOption(String name, long fallback) {
+        return Long.parseLong(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private double doubleOption(String name, double fallback) {
+        return Double.parseDouble(stringOption(name, String.valueOf(fallback)));
+    }
+}
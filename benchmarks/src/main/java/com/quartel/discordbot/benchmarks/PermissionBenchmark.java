@@ -0,0 +1,89 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.core.permissions.PermissionManager;
+import com.quartel.discordbot.core.permissions.PermissionManager.PermissionLevel;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PermissionManager#hasPermission(Member, PermissionLevel, String)} für einen Server mit 50 Rollen und
+ * ein Mitglied mit 10 Rollen, darunter eine DJ-Rolle.
+ * <p>
+ * {@code everyone} prüft einen Befehl ohne Einschränkung, {@code djCached} einen DJ-Befehl mit gespeicherten
+ * Rollen-Merkmalen und {@code djUncached} einen DJ-Befehl, nachdem die Merkmale verworfen wurden
+ * (wie nach einer Rollenänderung).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionBenchmark {
+
+    private static final long GUILD_ID = 42L;
+    private static final long MEMBER_ID = 4242L;
+
+    private PermissionManager permissionManager;
+    private Member member;
+
+    @Setup
+    public void setUp() {
+        List<Role> guildRoles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            guildRoles.add(Stubs.of(Role.class, Map.of(
+                    "getIdLong", 10_000L + i,
+                    "getName", i == 7 ? "DJ" : "Rolle " + i)));
+        }
+
+        Guild guild = Stubs.of(Guild.class, Map.of(
+                "getIdLong", GUILD_ID,
+                "getOwnerIdLong", 1L,
+                "getName", "Benchmark-Server",
+                "getRoles", guildRoles));
+
+        Map<String, Object> memberAnswers = new HashMap<>();
+        memberAnswers.put("getIdLong", MEMBER_ID);
+        memberAnswers.put("getGuild", guild);
+        memberAnswers.put("getRoles", List.copyOf(guildRoles.subList(0, 10)));
+        memberAnswers.put("hasPermission", false);
+        member = Stubs.of(Member.class, memberAnswers);
+
+        permissionManager = PermissionManager.getInstance();
+        // Richtlinie einmal kompilieren, damit nur die Prüfung gemessen wird
+        permissionManager.hasPermission(member, PermissionLevel.DJ_ROLE, "skip");
+    }
+
+    @Benchmark
+    public boolean everyone() {
+        return permissionManager.hasPermission(member, PermissionLevel.EVERYONE, "play");
+    }
+
+    @Benchmark
+    public boolean djCached() {
+        return permissionManager.hasPermission(member, PermissionLevel.DJ_ROLE, "skip");
+    }
+
+    @Benchmark
+    public boolean djUncached() {
+        permissionManager.invalidateMember(GUILD_ID, MEMBER_ID);
+        return permissionManager.hasPermission(member, PermissionLevel.DJ_ROLE, "skip");
+    }
+}
@@ -0,0 +1,87 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.quartel.discordbot.core.listeners.SlashCommandListener;
+import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-Completion der Playlists für /play.
+ * <p>
+ * {@code libraryRequest} bildet eine Anfrage so ab, wie der Listener sie heute bearbeitet: Musikbibliothek
+ * einlesen und passende Playlists suchen. Läuft im aktuellen Arbeitsverzeichnis, daher aus dem Hauptverzeichnis
+ * des Bots starten. {@code matchOnly} misst nur die Suche über eine erzeugte Bibliothek mit {@code playlists}
+ * Einträgen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaylistAutocompleteBenchmark {
+
+    /**
+     * Eingabe für die Anfrage gegen die echte Musikbibliothek.
+     */
+    @State(Scope.Benchmark)
+    public static class LibraryState {
+        @Param({"", "chi"})
+        public String input;
+    }
+
+    /**
+     * Erzeugte Bibliothek mit {@code playlists} Einträgen.
+     */
+    @State(Scope.Benchmark)
+    public static class GeneratedState {
+        @Param({"10", "500"})
+        public int playlists;
+
+        @Param({"", "chi"})
+        public String input;
+
+        private JsonObject library;
+
+        @Setup
+        public void setUp() {
+            JsonArray entries = new JsonArray();
+            for (int i = 0; i < playlists; i++) {
+                JsonObject playlist = new JsonObject();
+                playlist.addProperty("name", (i % 3 == 0 ? "chill-" : "energetic-") + i);
+                playlist.addProperty("description", "Playlist Nummer " + i);
+                playlist.addProperty("directory", "music_library/playlist-" + i);
+                entries.add(playlist);
+            }
+            library = new JsonObject();
+            library.add("playlists", entries);
+        }
+    }
+
+    @Benchmark
+    public List<Command.Choice> libraryRequest(LibraryState state) {
+        JsonObject config = MusicLibraryManager.getInstance().loadMusicLibraryConfig();
+        return config == null || !config.has("playlists")
+                ? List.of()
+                : SlashCommandListener.findPlaylistChoices(config, "playlist", state.input);
+    }
+
+    @Benchmark
+    public List<Command.Choice> matchOnly(GeneratedState state) {
+        return SlashCommandListener.findPlaylistChoices(state.library, "playlist", state.input);
+    }
+}
@@ -0,0 +1,108 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.modules.music.player.GuildMusicManager;
+import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.modules.music.player.TrackScheduler;
+import com.quartel.discordbot.modules.music.util.MusicUtil;
+import com.quartel.discordbot.modules.music.util.QueueRenderCache;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.managers.AudioManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MusicUtil#createQueueEmbed(Guild, int)} auf großen Warteschlangen.
+ * <p>
+ * {@code cachedPage} ruft wiederholt dieselbe Seite einer unveränderten Warteschlange ab (der Normalfall beim
+ * Blättern); {@code pageAfterChange} ändert vor jedem Abruf die Warteschlange, sodass die Seite neu gerendert
+ * werden muss.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueEmbedBenchmark {
+
+    // Jede Parameterkombination erhält einen eigenen Server im PlayerManager
+    private static final AtomicLong NEXT_GUILD_ID = new AtomicLong(1_000);
+
+    @Param({"1000", "10000"})
+    public int queueSize;
+
+    @Param({"0", "50"})
+    public int page;
+
+    private Guild guild;
+    private GuildMusicManager musicManager;
+
+    // Für pageAfterChange: Warteschlange mit Platzhalter-Player, damit Änderungen keine Wiedergabe auslösen
+    private long changingGuildId;
+    private TrackScheduler changingScheduler;
+    private AudioTrack changingCurrent;
+    private AudioTrack extraTrack;
+
+    @Setup
+    public void setUp() {
+        long guildId = NEXT_GUILD_ID.incrementAndGet();
+        AudioManager audioManager = Stubs.of(AudioManager.class, Map.of());
+        guild = Stubs.of(Guild.class, Map.of(
+                "getIdLong", guildId,
+                "getId", String.valueOf(guildId),
+                "getName", "Benchmark-Server",
+                "getAudioManager", audioManager));
+
+        musicManager = PlayerManager.getInstance().getMusicManager(guild);
+        TrackScheduler scheduler = musicManager.getTrackScheduler();
+        // Der erste Track wird gestartet und bleibt aktiv, alle weiteren landen in der Warteschlange
+        for (int i = 0; i <= queueSize; i++) {
+            scheduler.queue(Stubs.track(i, 180_000 + i));
+        }
+
+        changingGuildId = NEXT_GUILD_ID.incrementAndGet();
+        changingCurrent = Stubs.track(-1, 240_000);
+        AudioPlayer player = Stubs.of(AudioPlayer.class, Map.of(
+                "startTrack", false,
+                "getPlayingTrack", changingCurrent));
+        changingScheduler = new TrackScheduler(player, changingGuildId);
+        for (int i = 0; i < queueSize; i++) {
+            changingScheduler.queue(Stubs.track(i, 180_000 + i));
+        }
+        extraTrack = Stubs.track(queueSize, 200_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        musicManager.getTrackScheduler().clearQueue();
+    }
+
+    @Benchmark
+    public MessageEmbed cachedPage() {
+        return MusicUtil.createQueueEmbed(guild, page);
+    }
+
+    @Benchmark
+    public QueueRenderCache.QueuePage pageAfterChange() {
+        changingScheduler.queue(extraTrack);
+        changingScheduler.nextTrack(false);
+        return QueueRenderCache.getInstance().getPage(changingGuildId, changingScheduler, changingCurrent, page);
+    }
+}
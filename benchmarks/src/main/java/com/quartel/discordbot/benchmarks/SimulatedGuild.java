@@ -0,0 +1,213 @@
+package com.quartel.discordbot.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+import net.dv8tion.jda.api.managers.AudioManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ein künstlicher Server für die {@link LoadSimulation}: ein Sprachkanal, eine feste Anzahl an Mitgliedern
+ * und ein AudioManager, der Verbindungen nur vermerkt und den AudioSendHandler für die Sendeschleife bereithält.
+ * <p>
+ * Alle JDA-Objekte sind Platzhalter aus {@link Stubs}, deren Antworten aus dem Zustand dieses Objekts gelesen
+ * werden. Mitglieder betreten und verlassen den Sprachkanal über {@link #join(int)} und {@link #leave(int)}.
+ */
+final class SimulatedGuild {
+
+    private final long id;
+    private final long channelId;
+    private final Guild guild;
+    private final AudioChannelUnion channel;
+    private final List<Member> members = new ArrayList<>();
+    private final CopyOnWriteArrayList<Member> inChannel = new CopyOnWriteArrayList<>();
+    private final Member selfMember;
+
+    private volatile boolean connected;
+    private volatile AudioSendHandler sendHandler;
+
+    /**
+     * Erstellt einen Server.
+     *
+     * @param jda         Die gemeinsame JDA-Instanz der Simulation
+     * @param id          Die Server-ID
+     * @param memberCount Die Anzahl der Mitglieder
+     */
+    SimulatedGuild(JDA jda, long id, int memberCount) {
+        this.id = id;
+        this.channelId = id * 10 + 1;
+
+        // Die Platzhalter verweisen aufeinander; die Antworten lesen die Felder daher erst beim Aufruf
+        Guild[] guildRef = new Guild[1];
+
+        channel = Stubs.deep(AudioChannelUnion.class, Map.of(
+                "getIdLong", channelId,
+                "getId", String.valueOf(channelId),
+                "getName", "Warteraum",
+                "getType", ChannelType.VOICE,
+                "getGuild", (Stubs.Answer) args -> guildRef[0],
+                "getJDA", jda,
+                "getMembers", (Stubs.Answer) args -> List.copyOf(inChannel),
+                "asVoiceChannel", (Stubs.Answer) args -> channelAsVoice()),
+                VoiceChannel.class);
+
+        AudioManager audioManager = Stubs.deep(AudioManager.class, Map.of(
+                "openAudioConnection", (Stubs.Answer) args -> {
+                    connected = true;
+                    return null;
+                },
+                "closeAudioConnection", (Stubs.Answer) args -> {
+                    connected = false;
+                    return null;
+                },
+                "isConnected", (Stubs.Answer) args -> connected,
+                "getConnectedChannel", (Stubs.Answer) args -> connected ? channel : null,
+                "setSendingHandler", (Stubs.Answer) args -> {
+                    sendHandler = (AudioSendHandler) args[0];
+                    return null;
+                },
+                "getSendingHandler", (Stubs.Answer) args -> sendHandler,
+                "getGuild", (Stubs.Answer) args -> guildRef[0]));
+
+        selfMember = createMember(jda, guildRef, id * 1_000, "Adelheit", true,
+                () -> connected);
+
+        for (int i = 0; i < memberCount; i++) {
+            Member[] memberRef = new Member[1];
+            memberRef[0] = createMember(jda, guildRef, id * 1_000 + 1 + i, "Mitglied " + i, false,
+                    () -> inChannel.contains(memberRef[0]));
+            members.add(memberRef[0]);
+        }
+
+        Map<String, Object> guildAnswers = new HashMap<>();
+        guildAnswers.put("getIdLong", id);
+        guildAnswers.put("getId", String.valueOf(id));
+        guildAnswers.put("getName", "Server " + id);
+        guildAnswers.put("getJDA", jda);
+        guildAnswers.put("getOwnerIdLong", id * 1_000 + 999);
+        guildAnswers.put("getAudioManager", audioManager);
+        guildAnswers.put("getSelfMember", selfMember);
+        guildAnswers.put("getRoles", List.of());
+        guildAnswers.put("getVoiceChannelById", (Stubs.Answer) args ->
+                String.valueOf(channelId).equals(String.valueOf(args[0])) ? channelAsVoice() : null);
+        guildAnswers.put("getVoiceChannels", (Stubs.Answer) args -> List.of(channelAsVoice()));
+        guildAnswers.put("getMemberById", (Stubs.Answer) args -> findMember(Long.parseLong(String.valueOf(args[0]))));
+        guild = Stubs.deep(Guild.class, guildAnswers);
+        guildRef[0] = guild;
+    }
+
+    /**
+     * Erstellt ein Mitglied, dessen Sprachstatus über {@code inVoice} bestimmt wird.
+     */
+    private Member createMember(JDA jda, Guild[] guildRef, long memberId, String name, boolean bot,
+                                java.util.function.BooleanSupplier inVoice) {
+        User user = Stubs.deep(User.class, Map.of(
+                "getIdLong", memberId,
+                "getId", String.valueOf(memberId),
+                "getName", name,
+                "getEffectiveName", name,
+                "isBot", bot,
+                "getJDA", jda));
+
+        Member[] memberRef = new Member[1];
+        GuildVoiceState voiceState = Stubs.deep(GuildVoiceState.class, Map.of(
+                "inAudioChannel", (Stubs.Answer) args -> inVoice.getAsBoolean(),
+                "getChannel", (Stubs.Answer) args -> inVoice.getAsBoolean() ? channel : null,
+                "getMember", (Stubs.Answer) args -> memberRef[0],
+                "getGuild", (Stubs.Answer) args -> guildRef[0],
+                "getJDA", jda));
+
+        Map<String, Object> memberAnswers = new HashMap<>();
+        memberAnswers.put("getIdLong", memberId);
+        memberAnswers.put("getId", String.valueOf(memberId));
+        memberAnswers.put("getUser", user);
+        memberAnswers.put("getEffectiveName", name);
+        memberAnswers.put("getGuild", (Stubs.Answer) args -> guildRef[0]);
+        memberAnswers.put("getJDA", jda);
+        memberAnswers.put("getVoiceState", voiceState);
+        memberAnswers.put("getRoles", List.of());
+        // Alle Mitglieder sind Administratoren, damit DJ-Befehle nicht an der Berechtigung scheitern
+        memberAnswers.put("hasPermission", true);
+        memberRef[0] = Stubs.deep(Member.class, memberAnswers);
+        return memberRef[0];
+    }
+
+    private VoiceChannel channelAsVoice() {
+        return (VoiceChannel) channel;
+    }
+
+    private Member findMember(long memberId) {
+        for (Member member : members) {
+            if (member.getIdLong() == memberId) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lässt ein Mitglied den Sprachkanal betreten.
+     *
+     * @param index Der Index des Mitglieds
+     * @return Das Mitglied oder null, wenn es bereits im Kanal war
+     */
+    Member join(int index) {
+        Member member = members.get(index);
+        return inChannel.addIfAbsent(member) ? member : null;
+    }
+
+    /**
+     * Lässt ein Mitglied den Sprachkanal verlassen.
+     *
+     * @param index Der Index des Mitglieds
+     * @return Das Mitglied oder null, wenn es nicht im Kanal war
+     */
+    Member leave(int index) {
+        Member member = members.get(index);
+        return inChannel.remove(member) ? member : null;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    Guild getGuild() {
+        return guild;
+    }
+
+    AudioChannelUnion getChannel() {
+        return channel;
+    }
+
+    Member getMember(int index) {
+        return members.get(index);
+    }
+
+    int getMemberCount() {
+        return members.size();
+    }
+
+    /**
+     * Gibt den AudioSendHandler zurück, solange der Bot verbunden ist.
+     *
+     * @return Der AudioSendHandler oder null
+     */
+    AudioSendHandler getConnectedSendHandler() {
+        return connected ? sendHandler : null;
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+}
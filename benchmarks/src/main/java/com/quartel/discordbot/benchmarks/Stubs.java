@@ -0,0 +1,196 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.BaseAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Platzhalter für JDA- und LavaPlayer-Schnittstellen, damit Benchmarks und Lastsimulation ohne
+ * Discord-Verbindung laufen.
+ * <p>
+ * {@link #of(Class, Map)} erstellt einen Proxy, der für die angegebenen Methodennamen feste Werte (oder das
+ * Ergebnis einer {@link Answer}) liefert und für alle anderen Methoden den Standardwert des Rückgabetyps;
+ * {@link #deep(Class, Map, Class[])} liefert stattdessen weitere Platzhalter.
+ */
+final class Stubs {
+
+    /**
+     * Berechnet den Rückgabewert eines Aufrufs aus seinen Argumenten.
+     */
+    @FunctionalInterface
+    interface Answer {
+        Object answer(Object[] args);
+    }
+
+    private Stubs() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Erstellt einen Platzhalter für eine Schnittstelle.
+     *
+     * @param type    Die Schnittstelle
+     * @param answers Rückgabewerte oder {@link Answer}s nach Methodenname
+     * @return Der Platzhalter
+     */
+    static <T> T of(Class<T> type, Map<String, Object> answers) {
+        return create(type, answers, false);
+    }
+
+    /**
+     * Erstellt einen Platzhalter, der auch unbekannte Aufrufketten übersteht: Methoden, die den eigenen Typ
+     * zurückgeben (z. B. {@code setEphemeral}), liefern den Platzhalter selbst, andere Schnittstellen einen
+     * weiteren Platzhalter, {@code CompletableFuture} ein erfülltes Future und Sammlungen leere Sammlungen.
+     * So lassen sich JDA-Antworten wie {@code event.reply(...).setEphemeral(true).submit()} ohne Discord ausführen.
+     *
+     * @param type       Die Schnittstelle
+     * @param answers    Rückgabewerte oder {@link Answer}s nach Methodenname
+     * @param additional Weitere Schnittstellen, die der Platzhalter implementiert
+     * @return Der Platzhalter
+     */
+    static <T> T deep(Class<T> type, Map<String, Object> answers, Class<?>... additional) {
+        return create(type, answers, true, additional);
+    }
+
+    private static <T> T create(Class<T> type, Map<String, Object> answers, boolean deep, Class<?>... additional) {
+        Class<?>[] interfaces = new Class<?>[additional.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(additional, 0, interfaces, 1, additional.length);
+
+        // Platzhalter für Rückgabewerte werden pro Methode einmal erstellt
+        Map<Method, Object> nested = new ConcurrentHashMap<>();
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + "-Platzhalter";
+                default:
+                    break;
+            }
+
+            Object value = answers.get(method.getName());
+            if (value instanceof Answer answer) {
+                return answer.answer(args);
+            }
+            if (value != null) {
+                return value;
+            }
+
+            Class<?> returnType = method.getReturnType();
+            if (!deep || returnType.isPrimitive()) {
+                return defaultValue(returnType);
+            }
+            if (returnType.isInstance(proxy)) {
+                return proxy;
+            }
+            return nested.computeIfAbsent(method, m -> deepValue(returnType));
+        };
+        return type.cast(Proxy.newProxyInstance(Stubs.class.getClassLoader(), interfaces, handler));
+    }
+
+    /**
+     * Rückgabewert eines tiefen Platzhalters für einen nicht vorgegebenen Aufruf.
+     */
+    private static Object deepValue(Class<?> returnType) {
+        if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (returnType == List.class || returnType == Collection.class) {
+            return List.of();
+        }
+        if (returnType == Set.class) {
+            return Set.of();
+        }
+        if (returnType == Map.class) {
+            return Map.of();
+        }
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType.isInterface() && returnType.getName().startsWith("net.dv8tion.")) {
+            return create(returnType, Map.of(), true);
+        }
+        return null;
+    }
+
+    /**
+     * Erstellt einen Track mit der angegebenen Länge, der nie eigene Audiodaten liefert.
+     *
+     * @param index    Fortlaufende Nummer für Titel und Kennung
+     * @param duration Die Länge in Millisekunden
+     * @return Der Track
+     */
+    static IdleTrack track(int index, long duration) {
+        return new IdleTrack(new AudioTrackInfo("Benchmark-Track " + index, "Künstler " + (index % 50), duration,
+                "bench-" + index, false, "https://example.invalid/track/" + index));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return '\0';
+    }
+
+    /**
+     * Track, der nach dem Start bis zum Stoppen wartet, statt eine Quelle zu lesen. Damit bleibt er als
+     * aktueller Track im Player und alle weiteren Tracks landen in der Warteschlange.
+     */
+    static final class IdleTrack extends BaseAudioTrack {
+
+        IdleTrack(AudioTrackInfo trackInfo) {
+            super(trackInfo);
+        }
+
+        @Override
+        public void process(LocalAudioTrackExecutor executor) throws Exception {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected IdleTrack makeShallowClone() {
+            return new IdleTrack(trackInfo);
+        }
+    }
+}
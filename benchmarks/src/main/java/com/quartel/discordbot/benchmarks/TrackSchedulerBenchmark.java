@@ -0,0 +1,89 @@
+package com.quartel.discordbot.benchmarks;
+
+import com.quartel.discordbot.modules.music.player.TrackScheduler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warteschlangen-Operationen des {@link TrackScheduler}: Einreihen und Entnehmen bei gleichbleibender Länge,
+ * vollständige Kopie (wie früher für /queue) und Ausschnitt einer Seite.
+ * <p>
+ * Der Player ist ein Platzhalter, der immer "spielt", sodass jeder Track in der Warteschlange landet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackSchedulerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int queueSize;
+
+    private TrackScheduler scheduler;
+    private AudioTrack track;
+
+    @Setup
+    public void setUp() {
+        AudioTrack playing = Stubs.track(-1, 180_000);
+        AudioPlayer player = Stubs.of(AudioPlayer.class, Map.of(
+                "startTrack", false,
+                "getPlayingTrack", playing));
+
+        scheduler = new TrackScheduler(player, 1L);
+        for (int i = 0; i < queueSize; i++) {
+            scheduler.queue(Stubs.track(i, 180_000 + i));
+        }
+        track = Stubs.track(queueSize, 200_000);
+    }
+
+    /**
+     * Reiht einen Track ein und entnimmt den ersten wieder, wie bei /play gefolgt von einem Trackwechsel.
+     */
+    @Benchmark
+    public int queueAndDequeue() {
+        scheduler.queue(track);
+        scheduler.nextTrack(false);
+        return scheduler.getQueueSize();
+    }
+
+    /**
+     * Kopiert die gesamte Warteschlange.
+     */
+    @Benchmark
+    public List<AudioTrack> snapshot() {
+        return scheduler.getQueue();
+    }
+
+    /**
+     * Kopiert eine Seite aus der Mitte der Warteschlange.
+     */
+    @Benchmark
+    public List<AudioTrack> slice() {
+        return scheduler.getQueueSlice(queueSize / 2, 10);
+    }
+
+    /**
+     * Liest die laufend mitgeführte Gesamtdauer.
+     */
+    @Benchmark
+    public long queuedDuration() {
+        return scheduler.getQueuedDuration();
+    }
+}
@@ -0,0 +1,842 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import ch.qos.logback.classic.Level;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.quartel.discordbot.metrics.LatencyHistogram;
+import com.quartel.discordbot.trace.GatewayTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lokaler Ersatz für Discord, gegen den der vollständige Bot ohne Token und Netzwerk gestartet werden kann.
+ * <p>
+ * Der Ersatz stellt eine REST-API ({@link MockRest}), ein Gateway ({@link MockGateway}) und optional ein
+ * Sprach-Gateway mit UDP-Endpunkt ({@link MockVoice}) bereit, liefert {@code guilds} simulierte Server aus und
+ * zeichnet alles auf, was der Bot sendet. Sobald der Bot seine Befehle registriert hat, werden Slash-Befehle als
+ * INTERACTION_CREATE gesendet und die Zeit bis zur Interaktionsantwort gemessen. Am Ende werden Startablauf,
+ * REST-Aufrufe pro Route, Gateway-Nachrichten und Interaktionslatenzen ausgegeben.
+ * <p>
+ * Neben den Befehlen kann gewöhnlicher Serververkehr erzeugt werden, den ein Bot je nach Intents empfängt oder
+ * nicht: {@code messages=0} Nachrichten pro Sekunde (jeweils mit TYPING_START) und {@code member-updates=0}
+ * Mitgliederänderungen pro Sekunde. Wie viele Ereignisse und Bytes beim Bot ankamen, steht in der Ausgabe; mit
+ * {@code bot-metrics=http://127.0.0.1:9464/metrics} werden zusätzlich CPU-Zeit, empfangene Ereignisse und Heap
+ * des Bots während der Last aus seinen Messwerten gelesen.
+ * <p>
+ * Der Bot wird über {@code discord.rest_url} und {@code discord.gateway_url} umgeleitet (siehe WARTUNG.md).
+ * Optionen (mit Standardwert): {@code host=127.0.0.1}, {@code rest-port=8089}, {@code gateway-port=8090},
+ * {@code voice-port=8091}, {@code guilds=10}, {@code members=20}, {@code in-voice=0.2} (Anteil der Mitglieder
+ * im Sprachkanal), {@code interactions=20} (pro Sekunde, 0 = nur Start messen), {@code seconds=60},
+ * {@code commands=queue,nowplaying} (Optionen als {@code play:query=chill}, Unterbefehle mit Leerzeichen),
+ * {@code startup-timeout=120}, {@code record=mock-discord.jsonl} (leer = keine Aufzeichnung), {@code shards=1}
+ * (Anzahl, die der Ersatz dem Bot empfiehlt und auf die er die Server verteilt),
+ * {@code voice-keystore} und {@code voice-keystore-password}, {@code log=INFO}, {@code seed=42}.
+ * <p>
+ * Mit {@code trace=<datei>} wird statt simulierter Server und Befehle eine Gateway-Aufzeichnung des Bots
+ * (siehe {@link GatewayTrace}) wiedergegeben: Server und IDs stammen aus der Aufzeichnung, die späteren
+ * Ereignisse werden nach der Befehlsregistrierung mit ihren ursprünglichen Abständen gesendet, geteilt durch
+ * {@code speed=1} (0 = ohne Pausen).
+ */
+public final class MockDiscord {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockDiscord.class);
+
+    // Beginn der Discord-Zeitrechnung für Snowflakes
+    private static final long DISCORD_EPOCH = 1_420_070_400_000L;
+    private static final long DRIVER_INTERVAL_MILLIS = 10;
+
+    // Inhalte der simulierten Nachrichten; "!ping" beantwortet der Bot, wenn er Text-Befehle anbietet
+    private static final String[] CHAT_LINES = {
+            "Hallo zusammen!", "Wer ist heute Abend dabei?", "Gleich geht es los", "Hat jemand den Link?",
+            "Danke dir :)", "Ich bin kurz afk", "Das Lied ist gut", "!ping"
+    };
+
+    private final Map<String, String> options;
+    private final SplittableRandom random;
+    private final int shardCount;
+    private final AtomicLong ids = new AtomicLong((System.currentTimeMillis() - DISCORD_EPOCH) << 22);
+    // Server-IDs liegen je eine Millisekunde auseinander, einen Tag vor allen anderen IDs, damit sie sich wie bei
+    // Discord über die Shards verteilen
+    private final AtomicLong guildIds = new AtomicLong(
+            (System.currentTimeMillis() - DISCORD_EPOCH - TimeUnit.DAYS.toMillis(1)) << 22);
+
+    private long applicationId;
+    private JsonObject botUser;
+    private JsonObject application;
+    private final List<MockGuild> guilds = new ArrayList<>();
+
+    // Inhalt von GUILD_CREATE beim Verbinden, aus simulierten Servern oder einer Aufzeichnung
+    private final Map<Long, JsonObject> initialGuilds = new LinkedHashMap<>();
+    private long anyChannelId;
+
+    private TrafficLog log;
+    private MockGateway gateway;
+    private MockVoice voice;
+    private String gatewayUrl;
+
+    // Registrierte Befehle: global unter 0, sonst pro Server
+    private final Map<Long, JsonArray> commands = new ConcurrentHashMap<>();
+    private final CountDownLatch registered = new CountDownLatch(1);
+    private final AtomicBoolean voiceWarningShown = new AtomicBoolean();
+
+    // Startablauf in Millisekunden seit dem Start des Ersatzes, -1 = noch nicht erreicht
+    private final Map<String, AtomicLong> timeline = new LinkedHashMap<>();
+
+    // Interaktionen
+    private final Map<Long, PendingInteraction> pending = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentSkipListMap<>();
+    private final AtomicLong interactionsSent = new AtomicLong();
+    private final AtomicLong interactionsAnswered = new AtomicLong();
+
+    private record PendingInteraction(String command, long sentNanos) {
+    }
+
+    private record CommandSpec(String name, String subcommand, Map<String, String> options) {
+        String label() {
+            return subcommand != null ? name + " " + subcommand : name;
+        }
+    }
+
+    private MockDiscord(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(longOption("seed", 42));
+        this.shardCount = Math.max(1, intOption("shards", 1));
+
+        for (String step : List.of("Erster REST-Aufruf", "IDENTIFY empfangen", "READY gesendet",
+                "GUILD_CREATE gesendet", "Erste Befehlsregistrierung", "Befehle registriert")) {
+            timeline.put(step, new AtomicLong(-1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator <= 0) {
+                System.err.println("Unbekannte Option: " + arg + " (erwartet --name=wert)");
+                System.exit(2);
+            }
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+
+        new MockDiscord(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Level level = Level.toLevel(stringOption("log", "INFO"), Level.INFO);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(level);
+
+        String host = stringOption("host", "127.0.0.1");
+        String trace = stringOption("trace", "");
+        List<GatewayTrace.Entry> replay = List.of();
+        if (trace.isBlank()) {
+            createIdentity(nextId());
+            int members = intOption("members", 20);
+            double inVoice = doubleOption("in-voice", 0.2);
+            for (int i = 0; i < intOption("guilds", 10); i++) {
+                MockGuild guild = new MockGuild(this, i, members, inVoice, random);
+                guilds.add(guild);
+                initialGuilds.put(guild.getId(), guild.toGuildCreate(botUser));
+            }
+            anyChannelId = guilds.isEmpty() ? 0 : guilds.get(0).getTextChannelId();
+        } else {
+            replay = loadTrace(Path.of(trace));
+        }
+
+        String record = stringOption("record", "mock-discord.jsonl");
+        log = new TrafficLog(record.isBlank() ? null : Path.of(record));
+
+        gateway = new MockGateway(this, log);
+        WebSocketServer gatewayServer = new WebSocketServer(
+                new ServerSocket(intOption("gateway-port", 8090), 50, InetAddress.getByName(host)), "mock-gateway", gateway);
+        gatewayUrl = "ws://" + host + ":" + gatewayServer.getPort() + "/";
+
+        MockRest rest = new MockRest(this, log, host, intOption("rest-port", 8089));
+
+        String keystore = stringOption("voice-keystore", "");
+        if (!keystore.isBlank()) {
+            voice = new MockVoice(log, sslContext(keystore, stringOption("voice-keystore-password", "changeit")),
+                    host, intOption("voice-port", 8091));
+        }
+
+        System.out.printf("Discord-Ersatz mit %d Servern auf %d Shards bereit. Bot-Konfiguration:%n",
+                initialGuilds.size(), getShardCount());
+        System.out.printf("  discord.rest_url=http://%s:%d/api/v10/%n", host, rest.getPort());
+        System.out.printf("  discord.gateway_url=%s%n", gatewayUrl);
+        System.out.printf("  Sprachverbindungen: %s%n", voice != null
+                ? "wss://" + voice.getEndpoint() + " (Bot mit -Djavax.net.ssl.trustStore starten)"
+                : "deaktiviert (--voice-keystore fehlt)");
+        if (!record.isBlank()) {
+            System.out.printf("  Aufzeichnung: %s%n", Path.of(record).toAbsolutePath());
+        }
+
+        int timeout = intOption("startup-timeout", 120);
+        if (!registered.await(timeout, TimeUnit.SECONDS)) {
+            System.out.printf("Der Bot hat nach %d s keine Befehle registriert%n", timeout);
+        }
+
+        double perSecond = doubleOption("interactions", 20);
+        double messages = doubleOption("messages", 0);
+        double memberUpdates = doubleOption("member-updates", 0);
+        String botMetrics = stringOption("bot-metrics", "");
+        Map<String, Double> metricsBefore = botMetrics.isBlank() ? Map.of() : scrape(botMetrics);
+        long driveStart = System.nanoTime();
+        if (!trace.isBlank()) {
+            if (gateway.isConnected()) {
+                replay(replay, doubleOption("speed", 1));
+            }
+        } else if ((perSecond > 0 || messages > 0 || memberUpdates > 0) && gateway.isConnected()) {
+            drive(perSecond, messages, memberUpdates, intOption("seconds", 60),
+                    parseCommands(stringOption("commands", "queue,nowplaying")));
+        }
+
+        // Ausstehende Antworten und Folgeaufrufe abwarten
+        Thread.sleep(3_000);
+        report();
+        if (!botMetrics.isBlank()) {
+            reportBotMetrics(metricsBefore, scrape(botMetrics), System.nanoTime() - driveStart);
+        }
+
+        rest.stop();
+        gatewayServer.close();
+        if (voice != null) {
+            voice.close();
+        }
+        log.close();
+    }
+
+    /**
+     * Sendet Slash-Befehle, Nachrichten und Mitgliederänderungen mit jeweils fester Rate an den Bot.
+     */
+    private void drive(double perSecond, double messages, double memberUpdates, int seconds, List<CommandSpec> specs)
+            throws InterruptedException {
+        System.out.printf(Locale.ROOT, "Sende %.1f Interaktionen/s für %d s: %s%n", perSecond, seconds,
+                specs.stream().map(CommandSpec::label).toList());
+        if (messages > 0 || memberUpdates > 0) {
+            System.out.printf(Locale.ROOT, "Dazu %.1f Nachrichten/s und %.1f Mitgliederänderungen/s%n",
+                    messages, memberUpdates);
+        }
+
+        double tickShare = DRIVER_INTERVAL_MILLIS / 1000.0;
+        double budget = 0;
+        double messageBudget = 0;
+        double updateBudget = 0;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long nextTick = System.nanoTime();
+
+        while (System.nanoTime() < end) {
+            for (budget += perSecond * tickShare; budget >= 1; budget--) {
+                MockGuild guild = guilds.get(random.nextInt(guilds.size()));
+                sendInteraction(guild, random.nextInt(Math.max(1, guild.getMemberCount())),
+                        specs.get(random.nextInt(specs.size())));
+            }
+            for (messageBudget += messages * tickShare; messageBudget >= 1; messageBudget--) {
+                MockGuild guild = guilds.get(random.nextInt(guilds.size()));
+                if (guild.getMemberCount() > 0) {
+                    int member = random.nextInt(guild.getMemberCount());
+                    gateway.dispatch("TYPING_START", guild.typing(member));
+                    gateway.dispatch("MESSAGE_CREATE",
+                            guild.message(nextId(), member, CHAT_LINES[random.nextInt(CHAT_LINES.length)]));
+                }
+            }
+            for (updateBudget += memberUpdates * tickShare; updateBudget >= 1; updateBudget--) {
+                MockGuild guild = guilds.get(random.nextInt(guilds.size()));
+                if (guild.getMemberCount() > 0) {
+                    gateway.dispatch("GUILD_MEMBER_UPDATE",
+                            guild.memberUpdate(random.nextInt(guild.getMemberCount()), "nick" + random.nextInt(1000)));
+                }
+            }
+
+            nextTick += TimeUnit.MILLISECONDS.toNanos(DRIVER_INTERVAL_MILLIS);
+            long sleepNanos = nextTick - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+        }
+    }
+
+    /**
+     * Liest eine Aufzeichnung: Server aus GUILD_CREATE vor der READY-Markierung bilden den Anfangszustand, die IDs
+     * des Bots werden übernommen, damit Interaktionen und Mitgliedslisten zu ihm passen.
+     *
+     * @return Die Ereignisse nach der Markierung
+     */
+    private List<GatewayTrace.Entry> loadTrace(Path file) throws IOException {
+        List<GatewayTrace.Entry> initial = new ArrayList<>();
+        List<GatewayTrace.Entry> events = new ArrayList<>();
+        JsonObject marker = null;
+        try (GatewayTrace.Reader reader = new GatewayTrace.Reader(file)) {
+            for (GatewayTrace.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+                if (marker == null && GatewayTrace.READY_MARKER.equals(entry.type())) {
+                    marker = json(entry).getAsJsonObject();
+                } else if (marker == null) {
+                    initial.add(entry);
+                } else {
+                    events.add(entry);
+                }
+            }
+        }
+        if (marker == null) {
+            throw new IOException("Die Aufzeichnung " + file + " enthält keinen Verbindungsaufbau");
+        }
+
+        createIdentity(marker.get("application_id").getAsLong());
+        for (GatewayTrace.Entry entry : initial) {
+            if ("GUILD_CREATE".equals(entry.type())) {
+                JsonObject guild = json(entry).getAsJsonObject();
+                initialGuilds.put(guild.get("id").getAsLong(), guild);
+                if (anyChannelId == 0 && guild.has("channels") && !guild.getAsJsonArray("channels").isEmpty()) {
+                    anyChannelId = guild.getAsJsonArray("channels").get(0).getAsJsonObject().get("id").getAsLong();
+                }
+            }
+        }
+        if (!marker.get("self_id").getAsString().equals(String.valueOf(applicationId))) {
+            botUser.addProperty("id", marker.get("self_id").getAsString());
+        }
+
+        System.out.printf("Aufzeichnung %s: %d Server, %d Ereignisse über %.1f s%n", file.toAbsolutePath(),
+                initialGuilds.size(), events.size(),
+                events.isEmpty() ? 0.0 : (events.getLast().offsetMillis() - events.getFirst().offsetMillis()) / 1000.0);
+        return events;
+    }
+
+    /**
+     * Sendet aufgezeichnete Ereignisse mit ihren ursprünglichen Abständen, geteilt durch {@code speed}.
+     * Interaktionen werden wie simulierte gemessen.
+     */
+    private void replay(List<GatewayTrace.Entry> events, double speed) throws InterruptedException {
+        System.out.printf(Locale.ROOT, "Gebe %d Ereignisse wieder (%s)%n", events.size(),
+                speed > 0 ? speed + "-fache Geschwindigkeit" : "ohne Pausen");
+
+        Map<String, Long> replayed = new TreeMap<>();
+        long maxLagNanos = 0;
+        long start = System.nanoTime();
+        long firstOffset = events.isEmpty() ? 0 : events.getFirst().offsetMillis();
+
+        for (GatewayTrace.Entry entry : events) {
+            if (speed > 0) {
+                long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(entry.offsetMillis() - firstOffset) / speed);
+                long sleepNanos = due - System.nanoTime();
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } else {
+                    maxLagNanos = Math.max(maxLagNanos, -sleepNanos);
+                }
+            }
+
+            JsonObject data = json(entry).getAsJsonObject();
+            long interactionId = 0;
+            if ("INTERACTION_CREATE".equals(entry.type())) {
+                interactionId = data.get("id").getAsLong();
+                String name = data.has("data") && data.getAsJsonObject("data").has("name")
+                        ? data.getAsJsonObject("data").get("name").getAsString()
+                        : "typ " + data.get("type").getAsString();
+                pending.put(interactionId, new PendingInteraction(name, System.nanoTime()));
+            }
+
+            if (gateway.dispatch(entry.type(), data)) {
+                replayed.merge(entry.type(), 1L, Long::sum);
+                if (interactionId != 0) {
+                    interactionsSent.incrementAndGet();
+                }
+            } else if (interactionId != 0) {
+                pending.remove(interactionId);
+            }
+        }
+
+        System.out.printf("Wiedergegeben in %d ms, größte Verspätung %.1f ms: %s%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), maxLagNanos / 1_000_000.0, replayed);
+    }
+
+    private static JsonElement json(GatewayTrace.Entry entry) {
+        return JsonParser.parseString(new String(entry.payload(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Erstellt Benutzer und Anwendung des Bots.
+     */
+    private void createIdentity(long id) {
+        applicationId = id;
+        botUser = MockGuild.user(id, "adelheit", true);
+        botUser.addProperty("verified", true);
+        botUser.addProperty("mfa_enabled", false);
+
+        application = new JsonObject();
+        application.addProperty("id", String.valueOf(id));
+        application.addProperty("name", "Adelheit (Test)");
+        application.add("icon", JsonNull.INSTANCE);
+        application.addProperty("description", "");
+        application.addProperty("summary", "");
+        application.addProperty("bot_public", true);
+        application.addProperty("bot_require_code_grant", false);
+        application.addProperty("verify_key", "");
+        application.addProperty("flags", 0);
+        application.add("owner", MockGuild.user(nextId(), "besitzer", false));
+        application.add("team", JsonNull.INSTANCE);
+    }
+
+    private void sendInteraction(MockGuild guild, int memberIndex, CommandSpec spec) {
+        if (guild.getMemberCount() == 0) {
+            return;
+        }
+
+        long id = nextId();
+        JsonObject command = findCommand(guild.getId(), spec.name());
+
+        JsonArray options = options(spec.options(), command, spec.subcommand());
+        if (spec.subcommand() != null) {
+            JsonObject subcommand = new JsonObject();
+            subcommand.addProperty("name", spec.subcommand());
+            subcommand.addProperty("type", 1);
+            subcommand.add("options", options);
+            options = new JsonArray();
+            options.add(subcommand);
+        }
+
+        JsonObject data = new JsonObject();
+        data.addProperty("id", command != null ? command.get("id").getAsString() : String.valueOf(nextId()));
+        data.addProperty("name", spec.name());
+        data.addProperty("type", 1);
+        data.addProperty("guild_id", String.valueOf(guild.getId()));
+        data.add("options", options);
+
+        String permissions = memberIndex == 0 ? MockGuild.ALL_PERMISSIONS : MockGuild.EVERYONE_PERMISSIONS;
+        JsonObject member = guild.member(guild.getUserId(memberIndex));
+        member.addProperty("permissions", permissions);
+        JsonObject channel = guild.textChannel();
+        channel.addProperty("permissions", permissions);
+        JsonObject partialGuild = new JsonObject();
+        partialGuild.addProperty("id", String.valueOf(guild.getId()));
+        partialGuild.addProperty("locale", "de");
+        partialGuild.add("features", new JsonArray());
+        JsonObject owners = new JsonObject();
+        owners.addProperty("0", String.valueOf(guild.getId()));
+
+        JsonObject interaction = new JsonObject();
+        interaction.addProperty("id", String.valueOf(id));
+        interaction.addProperty("application_id", String.valueOf(applicationId));
+        interaction.addProperty("type", 2);
+        interaction.add("data", data);
+        interaction.addProperty("guild_id", String.valueOf(guild.getId()));
+        interaction.add("guild", partialGuild);
+        interaction.addProperty("channel_id", String.valueOf(guild.getTextChannelId()));
+        interaction.add("channel", channel);
+        interaction.add("member", member);
+        interaction.addProperty("token", "mock-" + HexFormat.of().toHexDigits(id) + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong()));
+        interaction.addProperty("version", 1);
+        interaction.addProperty("app_permissions", MockGuild.ALL_PERMISSIONS);
+        interaction.addProperty("locale", "de");
+        interaction.addProperty("guild_locale", "de");
+        interaction.add("entitlements", new JsonArray());
+        interaction.add("authorizing_integration_owners", owners);
+        interaction.addProperty("context", 0);
+
+        pending.put(id, new PendingInteraction(spec.label(), System.nanoTime()));
+        if (gateway.dispatch("INTERACTION_CREATE", interaction)) {
+            interactionsSent.incrementAndGet();
+        } else {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * Erstellt die Optionen eines Befehls; der Typ wird aus dem registrierten Befehl übernommen.
+     */
+    private static JsonArray options(Map<String, String> values, JsonObject command, String subcommand) {
+        JsonArray definitions = command != null ? definitions(command, subcommand) : new JsonArray();
+        JsonArray options = new JsonArray();
+        values.forEach((name, value) -> {
+            int type = 3;
+            for (JsonElement element : definitions) {
+                JsonObject definition = element.getAsJsonObject();
+                if (name.equals(definition.get("name").getAsString())) {
+                    type = definition.get("type").getAsInt();
+                }
+            }
+
+            JsonObject option = new JsonObject();
+            option.addProperty("name", name);
+            option.addProperty("type", type);
+            switch (type) {
+                case 4 -> option.addProperty("value", Long.parseLong(value));
+                case 5 -> option.addProperty("value", Boolean.parseBoolean(value));
+                case 10 -> option.addProperty("value", Double.parseDouble(value));
+                default -> option.addProperty("value", value);
+            }
+            options.add(option);
+        });
+        return options;
+    }
+
+    /**
+     * Gibt die Optionsdefinitionen eines registrierten Befehls oder eines seiner Unterbefehle zurück.
+     */
+    private static JsonArray definitions(JsonObject command, String subcommand) {
+        JsonArray definitions = command.has("options") ? command.getAsJsonArray("options") : new JsonArray();
+        if (subcommand == null) {
+            return definitions;
+        }
+        for (JsonElement element : definitions) {
+            JsonObject definition = element.getAsJsonObject();
+            if (subcommand.equals(definition.get("name").getAsString()) && definition.has("options")) {
+                return definition.getAsJsonArray("options");
+            }
+        }
+        return new JsonArray();
+    }
+
+    private JsonObject findCommand(long guildId, String name) {
+        for (JsonArray list : new JsonArray[]{commands.get(guildId), commands.get(0L)}) {
+            if (list == null) {
+                continue;
+            }
+            for (JsonElement element : list) {
+                if (name.equals(element.getAsJsonObject().get("name").getAsString())) {
+                    return element.getAsJsonObject();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Liest Befehle im Format {@code name}, {@code name:option=wert;option=wert} oder
+     * {@code name unterbefehl:option=wert}.
+     */
+    private static List<CommandSpec> parseCommands(String value) {
+        List<CommandSpec> specs = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            Map<String, String> options = new LinkedHashMap<>();
+            int colon = trimmed.indexOf(':');
+            if (colon >= 0) {
+                for (String option : trimmed.substring(colon + 1).split(";")) {
+                    int equals = option.indexOf('=');
+                    if (equals > 0) {
+                        options.put(option.substring(0, equals).trim(), option.substring(equals + 1).trim());
+                    }
+                }
+                trimmed = trimmed.substring(0, colon).trim();
+            }
+
+            String[] parts = trimmed.split("\\s+", 2);
+            specs.add(new CommandSpec(parts[0], parts.length > 1 ? parts[1] : null, options));
+        }
+        return specs;
+    }
+
+    // --- Rückrufe von REST und Gateway ---
+
+    void onRestRequest() {
+        mark("Erster REST-Aufruf");
+    }
+
+    void onIdentify() {
+        mark("IDENTIFY empfangen");
+    }
+
+    void onReadySent() {
+        mark("READY gesendet");
+    }
+
+    void onGuildsSent() {
+        mark("GUILD_CREATE gesendet");
+    }
+
+    /**
+     * Speichert registrierte Befehle; die Registrierung gilt als abgeschlossen, wenn global Befehle registriert
+     * wurden oder jeder Server eine nicht leere Befehlsliste erhalten hat.
+     */
+    void onCommandsRegistered(Long guildId, JsonArray registeredCommands) {
+        commands.put(guildId != null ? guildId : 0L, registeredCommands);
+        if (registeredCommands.isEmpty()) {
+            return;
+        }
+        mark("Erste Befehlsregistrierung");
+
+        boolean complete = guildId == null || initialGuilds.keySet().stream().allMatch(id -> {
+            JsonArray list = commands.get(id);
+            return list != null && !list.isEmpty();
+        });
+        if (complete) {
+            mark("Befehle registriert");
+            registered.countDown();
+        }
+    }
+
+    void onInteractionCallback(long interactionId) {
+        PendingInteraction interaction = pending.remove(interactionId);
+        if (interaction == null) {
+            return;
+        }
+        interactionsAnswered.incrementAndGet();
+        latencies.computeIfAbsent(interaction.command(), name -> new LatencyHistogram())
+                .recordNanos(System.nanoTime() - interaction.sentNanos());
+    }
+
+    /**
+     * Beantwortet eine Sprachstatus-Änderung des Bots und verweist beim Beitritt auf das Sprach-Gateway.
+     */
+    void onVoiceStateUpdate(JsonObject request) {
+        long guildId = request.get("guild_id").getAsLong();
+        if (!initialGuilds.containsKey(guildId)) {
+            return;
+        }
+
+        JsonElement channel = request.get("channel_id");
+        Long channelId = channel == null || channel.isJsonNull() ? null : channel.getAsLong();
+        JsonObject state = MockGuild.voiceState(guildId, botUser.get("id").getAsLong(), channelId,
+                gateway.getSessionId(guildId));
+        state.add("member", MockGuild.member(botUser));
+        gateway.dispatch("VOICE_STATE_UPDATE", state);
+
+        if (channelId == null) {
+            return;
+        }
+        if (voice == null) {
+            if (voiceWarningShown.compareAndSet(false, true)) {
+                LOGGER.warn("Der Bot möchte einem Sprachkanal beitreten, aber ohne --voice-keystore gibt es kein Sprach-Gateway");
+            }
+            return;
+        }
+
+        JsonObject server = new JsonObject();
+        server.addProperty("token", HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong()));
+        server.addProperty("guild_id", String.valueOf(guildId));
+        server.addProperty("endpoint", voice.getEndpoint());
+        gateway.dispatch("VOICE_SERVER_UPDATE", server);
+    }
+
+    // --- Zugriff für REST und Gateway ---
+
+    long nextId() {
+        return ids.incrementAndGet();
+    }
+
+    long nextGuildId() {
+        return guildIds.addAndGet(1L << 22);
+    }
+
+    int getShardCount() {
+        return shardCount;
+    }
+
+    long getApplicationId() {
+        return applicationId;
+    }
+
+    JsonObject getBotUser() {
+        return botUser;
+    }
+
+    JsonObject getApplication() {
+        return application;
+    }
+
+    String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    /**
+     * Gibt den Inhalt von GUILD_CREATE für alle Server zurück, die beim Verbinden gesendet werden.
+     */
+    Collection<JsonObject> getInitialGuilds() {
+        return initialGuilds.values();
+    }
+
+    JsonObject getInitialGuild(long guildId) {
+        return initialGuilds.get(guildId);
+    }
+
+    long getAnyChannelId() {
+        return anyChannelId;
+    }
+
+    JsonArray getCommands(Long guildId) {
+        JsonArray list = commands.get(guildId != null ? guildId : 0L);
+        return list != null ? list : new JsonArray();
+    }
+
+    // --- Ausgabe ---
+
+    private void mark(String step) {
+        timeline.get(step).compareAndSet(-1, log.millisSinceStart());
+    }
+
+    private void report() {
+        System.out.println();
+        System.out.println("=== Startablauf (ms seit Start des Ersatzes) ===");
+        long firstRest = timeline.get("Erster REST-Aufruf").get();
+        timeline.forEach((step, millis) -> {
+            long value = millis.get();
+            System.out.printf("%-28s %s%n", step, value < 0
+                    ? "nicht erreicht"
+                    : value + (firstRest >= 0 ? " (+" + (value - firstRest) + ")" : ""));
+        });
+
+        System.out.println();
+        long intents = gateway.getIntents();
+        System.out.printf("=== Gateway an den Bot (Intents %s, %d von %d Shards angemeldet) ===%n",
+                intents < 0 ? "unbekannt" : intents + " = 0x" + Long.toHexString(intents),
+                gateway.getConnectedShards(), shardCount);
+        System.out.printf("%-24s %10s %10s %14s%n", "", "gesendet", "KB", "gefiltert");
+        long totalSent = 0;
+        long totalBytes = 0;
+        long totalFiltered = 0;
+        for (Map.Entry<String, MockGateway.EventStats> entry : gateway.getEventStats().entrySet()) {
+            MockGateway.EventStats stats = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-24s %10d %10.1f %14d%n", entry.getKey(), stats.sent.sum(),
+                    stats.bytes.sum() / 1024.0, stats.filtered.sum());
+            totalSent += stats.sent.sum();
+            totalBytes += stats.bytes.sum();
+            totalFiltered += stats.filtered.sum();
+        }
+        System.out.printf(Locale.ROOT, "%-24s %10d %10.1f %14d%n", "Summe", totalSent, totalBytes / 1024.0,
+                totalFiltered);
+
+        System.out.println();
+        System.out.println("=== Nachrichten des Bots ===");
+        log.getCounts().forEach((key, count) -> System.out.printf("%8d  %s%n", count, key));
+
+        System.out.println();
+        System.out.println("=== Interaktionen (ms bis zur Antwort) ===");
+        System.out.printf("Gesendet: %d, beantwortet: %d, ohne Antwort: %d%n",
+                interactionsSent.get(), interactionsAnswered.get(), pending.size());
+        if (!latencies.isEmpty()) {
+            System.out.printf("%-24s %8s %8s %8s %8s %8s%n", "", "Anzahl", "p50", "p95", "p99", "max");
+            latencies.forEach((name, histogram) -> {
+                LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+                System.out.printf(Locale.ROOT, "%-24s %8d %8.2f %8.2f %8.2f %8.2f%n", "/" + name, snapshot.count(),
+                        snapshot.p50() / 1000.0, snapshot.p95() / 1000.0, snapshot.p99() / 1000.0,
+                        snapshot.max() / 1000.0);
+            });
+        }
+
+        if (voice != null) {
+            System.out.println();
+            System.out.println("=== Sprachverbindungen ===");
+            System.out.printf("Sitzungen: %d, sendende Streams: %d, RTP-Pakete: %d, %d KB%n",
+                    voice.getSessionCount(), voice.getSendingStreams(), voice.getPacketCount(),
+                    voice.getByteCount() / 1024);
+        }
+    }
+
+    /**
+     * Gibt CPU-Zeit, empfangene Ereignisse und Heap des Bots während der Last aus.
+     */
+    private static void reportBotMetrics(Map<String, Double> before, Map<String, Double> after, long elapsedNanos) {
+        System.out.println();
+        System.out.println("=== Bot (aus seinen Messwerten) ===");
+        if (before.isEmpty() || after.isEmpty()) {
+            System.out.println("Messwerte nicht erreichbar (metrics.http.enabled=true gesetzt?)");
+            return;
+        }
+        double seconds = elapsedNanos / 1e9;
+        double cpu = delta(before, after, "discordbot_process_cpu_seconds_total");
+        System.out.printf(Locale.ROOT, "CPU-Zeit während der Last: %.2f s (%.1f %% eines Kerns)%n",
+                cpu, 100 * cpu / seconds);
+        System.out.printf(Locale.ROOT, "Empfangene Gateway-Ereignisse: %.0f%n",
+                delta(before, after, "discordbot_gateway_events_total"));
+        System.out.printf(Locale.ROOT, "Heap nach letzter GC: %.1f MB, belegt: %.1f MB%n",
+                after.getOrDefault("discordbot_jvm_heap_live_bytes", Double.NaN) / (1024 * 1024),
+                after.getOrDefault("discordbot_jvm_heap_used_bytes", Double.NaN) / (1024 * 1024));
+    }
+
+    private static double delta(Map<String, Double> before, Map<String, Double> after, String name) {
+        return after.getOrDefault(name, Double.NaN) - before.getOrDefault(name, Double.NaN);
+    }
+
+    /**
+     * Liest die Werte ohne Labels aus dem Prometheus-Endpunkt des Bots.
+     *
+     * @return Name und Wert oder eine leere Map, wenn der Endpunkt nicht erreichbar ist
+     */
+    private static Map<String, Double> scrape(String url) {
+        Map<String, Double> values = new HashMap<>();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            for (String line : response.body().split("\n")) {
+                int space = line.indexOf(' ');
+                if (line.startsWith("#") || space <= 0 || line.indexOf('{') >= 0) {
+                    continue;
+                }
+                try {
+                    values.put(line.substring(0, space), Double.parseDouble(line.substring(space + 1).trim()));
+                } catch (NumberFormatException e) {
+                    // Nicht numerische Werte überspringen
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Messwerte des Bots unter {} nicht erreichbar: {}", url, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return values;
+    }
+
+    private static SSLContext sslContext(String keystore, String password) throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(new File(keystore), password.toCharArray());
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(store, password.toCharArray());
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+        return context;
+    }
+
+    private String stringOption(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return Integer.parseInt(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private long longOption(String name, long fallback) {
+        return Long.parseLong(stringOption(name, String.valueOf(fallback)));
+    }
+
+    private double doubleOption(String name, double fallback) {
+        return Double.parseDouble(stringOption(name, String.valueOf(fallback)));
+    }
+}
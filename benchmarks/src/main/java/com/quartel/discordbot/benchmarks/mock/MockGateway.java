@@ -0,0 +1,360 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Gateway des Discord-Ersatzes (Version 10, JSON, optional {@code zlib-stream}).
+ * <p>
+ * Beantwortet IDENTIFY mit READY und einem GUILD_CREATE pro simuliertem oder aufgezeichnetem Server, bestätigt
+ * Heartbeats, nimmt RESUME an und beantwortet Sprachstatus-Änderungen des Bots mit VOICE_STATE_UPDATE und
+ * VOICE_SERVER_UPDATE.
+ * Mit mehreren Shards gibt es eine Sitzung pro Shard aus dem {@code shard}-Feld von IDENTIFY; jede erhält nur die
+ * Server, die Discord ihr nach {@code (guild_id >> 22) % shards} zuordnet. Ereignisse wie INTERACTION_CREATE
+ * werden über {@link #dispatch(String, JsonObject)} an die Sitzung der Shard ihres Servers gesendet. Wie bei Discord erhält der Bot nur Ereignisse der Intents aus seinem IDENTIFY, ohne
+ * {@code MESSAGE_CONTENT} ohne Nachrichteninhalt; gesendete und herausgefilterte Ereignisse werden samt
+ * übertragener Bytes pro Typ gezählt.
+ */
+final class MockGateway implements WebSocketServer.Handler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockGateway.class);
+
+    private static final int HEARTBEAT_INTERVAL_MILLIS = 41_250;
+
+    private static final Map<Integer, String> OP_NAMES = Map.of(
+            1, "HEARTBEAT",
+            2, "IDENTIFY",
+            3, "PRESENCE_UPDATE",
+            4, "VOICE_STATE_UPDATE",
+            6, "RESUME",
+            8, "REQUEST_GUILD_MEMBERS");
+
+    // Intent-Bits der Ereignisse, die der Ersatz senden kann; nicht aufgeführte werden immer gesendet
+    private static final Map<String, Integer> EVENT_INTENTS = Map.of(
+            "GUILD_CREATE", 0,
+            "GUILD_MEMBER_UPDATE", 1,
+            "VOICE_STATE_UPDATE", 7,
+            "MESSAGE_CREATE", 9,
+            "MESSAGE_REACTION_ADD", 10,
+            "TYPING_START", 11);
+    private static final int MESSAGE_CONTENT_INTENT = 15;
+
+    private final MockDiscord discord;
+    private final TrafficLog log;
+    private final Map<String, EventStats> eventStats = new ConcurrentSkipListMap<>();
+    private final Map<WebSocketServer.Connection, Session> sessions = new ConcurrentHashMap<>();
+    // Angemeldete Sitzung pro Shard
+    private final Map<Integer, Session> shards = new ConcurrentHashMap<>();
+
+    MockGateway(MockDiscord discord, TrafficLog log) {
+        this.discord = discord;
+        this.log = log;
+    }
+
+    @Override
+    public void onOpen(WebSocketServer.Connection connection) {
+        boolean zlib = connection.getPath().contains("compress=zlib-stream");
+        Session session = new Session(connection, zlib);
+        sessions.put(connection, session);
+
+        JsonObject hello = new JsonObject();
+        hello.addProperty("heartbeat_interval", HEARTBEAT_INTERVAL_MILLIS);
+        session.send(payload(10, hello, null, null));
+        LOGGER.info("Gateway-Verbindung geöffnet ({})", connection.getPath());
+    }
+
+    @Override
+    public void onText(WebSocketServer.Connection connection, String text) {
+        Session session = sessions.get(connection);
+        JsonObject payload = JsonParser.parseString(text).getAsJsonObject();
+        int op = payload.get("op").getAsInt();
+        JsonElement data = payload.get("d");
+        log.record("gateway", "op " + op + " " + OP_NAMES.getOrDefault(op, "UNBEKANNT"), data);
+
+        switch (op) {
+            case 1 -> session.send(payload(11, null, null, null));
+            case 2 -> identify(session, data.getAsJsonObject());
+            case 6 -> resume(session, data.getAsJsonObject());
+            case 4 -> discord.onVoiceStateUpdate(data.getAsJsonObject());
+            case 8 -> requestMembers(session, data.getAsJsonObject());
+            default -> {
+                // Präsenz und unbekannte Opcodes werden nur aufgezeichnet
+            }
+        }
+    }
+
+    @Override
+    public void onClose(WebSocketServer.Connection connection, int code) {
+        Session session = sessions.remove(connection);
+        if (session != null) {
+            shards.remove(session.shardId, session);
+        }
+        LOGGER.info("Gateway-Verbindung geschlossen (Code {})", code);
+    }
+
+    /**
+     * Prüft, ob mindestens eine Shard angemeldet ist.
+     */
+    boolean isConnected() {
+        return !shards.isEmpty();
+    }
+
+    /**
+     * Gibt die Anzahl der angemeldeten Shards zurück.
+     */
+    int getConnectedShards() {
+        return shards.size();
+    }
+
+    /**
+     * Gibt die Sitzungs-ID der Shard eines Servers zurück.
+     */
+    String getSessionId(long guildId) {
+        Session session = shards.get(shardOf(guildId));
+        return session != null ? session.sessionId : null;
+    }
+
+    /**
+     * Sendet ein Ereignis an die Sitzung der Shard seines Servers (ohne {@code guild_id} an Shard 0), sofern der
+     * Bot den zugehörigen Intent angefordert hat.
+     *
+     * @return true, wenn die Shard angemeldet war, auch wenn das Ereignis herausgefiltert wurde
+     */
+    boolean dispatch(String type, JsonObject data) {
+        JsonElement guildId = data.get("guild_id");
+        Session session = shards.get(guildId != null && !guildId.isJsonNull() ? shardOf(guildId.getAsLong()) : 0);
+        if (session == null) {
+            return false;
+        }
+
+        Integer intent = EVENT_INTENTS.get(type);
+        if (intent != null && !session.hasIntent(intent)) {
+            stats(type).filtered.increment();
+            return true;
+        }
+        if ("MESSAGE_CREATE".equals(type) && !session.hasIntent(MESSAGE_CONTENT_INTENT)) {
+            // Discord liefert die Nachricht, aber ohne Inhalt, Einbettungen und Anhänge
+            data = data.deepCopy();
+            data.addProperty("content", "");
+            data.add("embeds", new JsonArray());
+            data.add("attachments", new JsonArray());
+            data.add("components", new JsonArray());
+        }
+        session.dispatch(type, data);
+        return true;
+    }
+
+    /**
+     * Gibt die Intents einer angemeldeten Sitzung zurück; alle Shards eines Bots melden dieselben.
+     *
+     * @return Die Intent-Bits oder -1 ohne Sitzung
+     */
+    long getIntents() {
+        return shards.values().stream().findAny().map(session -> session.intents).orElse(-1L);
+    }
+
+    /**
+     * Gibt die gesendeten und herausgefilterten Ereignisse pro Typ zurück, sortiert.
+     */
+    Map<String, EventStats> getEventStats() {
+        return eventStats;
+    }
+
+    /**
+     * Zähler eines Ereignistyps. Bytes sind die übertragenen, bei {@code zlib-stream} also komprimierten Bytes.
+     */
+    static final class EventStats {
+        final LongAdder sent = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder filtered = new LongAdder();
+    }
+
+    private EventStats stats(String type) {
+        return eventStats.computeIfAbsent(type, t -> new EventStats());
+    }
+
+    private int shardOf(long guildId) {
+        return (int) ((guildId >>> 22) % discord.getShardCount());
+    }
+
+    private void identify(Session session, JsonObject identify) {
+        session.intents = identify.has("intents") ? identify.get("intents").getAsLong() : -1;
+        session.sessionId = HexFormat.of().formatHex(randomBytes(16));
+        if (identify.has("shard")) {
+            JsonArray shard = identify.getAsJsonArray("shard");
+            session.shardId = shard.get(0).getAsInt();
+            if (shard.get(1).getAsInt() != discord.getShardCount()) {
+                LOGGER.warn("Bot meldet {} Shards, der Ersatz verteilt Server auf {}", shard.get(1).getAsInt(),
+                        discord.getShardCount());
+            }
+        }
+        shards.put(session.shardId, session);
+        LOGGER.info("Shard {} angemeldet", session.shardId);
+        discord.onIdentify();
+
+        List<JsonObject> shardGuilds = discord.getInitialGuilds().stream()
+                .filter(guild -> shardOf(guild.get("id").getAsLong()) == session.shardId)
+                .toList();
+
+        JsonObject ready = new JsonObject();
+        ready.addProperty("v", 10);
+        ready.add("user", discord.getBotUser());
+        ready.addProperty("session_id", session.sessionId);
+        ready.addProperty("resume_gateway_url", discord.getGatewayUrl());
+        JsonArray guilds = new JsonArray();
+        for (JsonObject guild : shardGuilds) {
+            JsonObject unavailable = new JsonObject();
+            unavailable.add("id", guild.get("id"));
+            unavailable.addProperty("unavailable", true);
+            guilds.add(unavailable);
+        }
+        ready.add("guilds", guilds);
+        ready.add("private_channels", new JsonArray());
+        ready.add("relationships", new JsonArray());
+        ready.add("presences", new JsonArray());
+        JsonArray shard = new JsonArray();
+        shard.add(session.shardId);
+        shard.add(discord.getShardCount());
+        ready.add("shard", shard);
+        ready.add("application", discord.getApplication());
+        session.dispatch("READY", ready);
+        discord.onReadySent();
+
+        for (JsonObject guild : shardGuilds) {
+            dispatchTo(session, "GUILD_CREATE", guild);
+        }
+        discord.onGuildsSent();
+    }
+
+    private void resume(Session session, JsonObject resume) {
+        String sessionId = resume.has("session_id") ? resume.get("session_id").getAsString() : null;
+        Session previous = shards.values().stream()
+                .filter(candidate -> candidate.sessionId.equals(sessionId))
+                .findAny()
+                .orElse(null);
+        session.sessionId = previous != null ? previous.sessionId : HexFormat.of().formatHex(randomBytes(16));
+        session.sequence = previous != null ? previous.sequence : 0;
+        session.intents = previous != null ? previous.intents : -1;
+        session.shardId = previous != null ? previous.shardId : 0;
+        shards.put(session.shardId, session);
+        session.dispatch("RESUMED", new JsonObject());
+    }
+
+    private void requestMembers(Session session, JsonObject request) {
+        long guildId = request.get("guild_id").getAsLong();
+        JsonObject guild = discord.getInitialGuild(guildId);
+        if (guild == null) {
+            return;
+        }
+
+        JsonObject chunk = new JsonObject();
+        chunk.addProperty("guild_id", String.valueOf(guildId));
+        chunk.add("members", guild.has("members") ? guild.get("members") : new JsonArray());
+        chunk.addProperty("chunk_index", 0);
+        chunk.addProperty("chunk_count", 1);
+        if (request.has("nonce")) {
+            chunk.add("nonce", request.get("nonce"));
+        }
+        session.dispatch("GUILD_MEMBERS_CHUNK", chunk);
+    }
+
+    private void dispatchTo(Session session, String type, JsonObject data) {
+        Integer intent = EVENT_INTENTS.get(type);
+        if (intent != null && !session.hasIntent(intent)) {
+            stats(type).filtered.increment();
+            return;
+        }
+        session.dispatch(type, data);
+    }
+
+    private static JsonObject payload(int op, JsonElement data, Integer sequence, String type) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("op", op);
+        payload.add("d", data != null ? data : JsonNull.INSTANCE);
+        if (sequence != null) {
+            payload.addProperty("s", sequence);
+        } else {
+            payload.add("s", JsonNull.INSTANCE);
+        }
+        if (type != null) {
+            payload.addProperty("t", type);
+        } else {
+            payload.add("t", JsonNull.INSTANCE);
+        }
+        return payload;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Eine Gateway-Sitzung mit Sequenznummer, Intents und optionalem zlib-Strom.
+     */
+    private final class Session {
+        private final WebSocketServer.Connection connection;
+        private final Deflater deflater;
+        private final byte[] buffer = new byte[8192];
+        private int sequence;
+        private String sessionId;
+        private int shardId;
+        private volatile long intents = -1;
+
+        private Session(WebSocketServer.Connection connection, boolean zlib) {
+            this.connection = connection;
+            this.deflater = zlib ? new Deflater() : null;
+        }
+
+        boolean hasIntent(int bit) {
+            return intents < 0 || (intents & (1L << bit)) != 0;
+        }
+
+        synchronized void dispatch(String type, JsonObject data) {
+            int bytes = send(payload(0, data, ++sequence, type));
+            EventStats stats = stats(type);
+            stats.sent.increment();
+            stats.bytes.add(bytes);
+        }
+
+        /**
+         * Sendet eine Nachricht.
+         *
+         * @return Die übertragenen Bytes
+         */
+        synchronized int send(JsonObject payload) {
+            String text = payload.toString();
+            if (deflater == null) {
+                connection.sendText(text);
+                return text.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            // zlib-stream: ein gemeinsamer Kompressionsstrom, jede Nachricht endet mit einem Sync-Flush
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 4 + 16);
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, written);
+            } while (written == buffer.length);
+            connection.sendBinary(out.toByteArray());
+            return out.size();
+        }
+    }
+}
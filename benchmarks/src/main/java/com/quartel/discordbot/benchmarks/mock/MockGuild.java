@@ -0,0 +1,331 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ein simulierter Server des Discord-Ersatzes mit @everyone-Rolle, einem Text- und einem Sprachkanal und
+ * Mitgliedern. Liefert die JSON-Objekte, die Discord in GUILD_CREATE und Interaktionen verschickt. Das erste
+ * Mitglied ist der Besitzer.
+ */
+final class MockGuild {
+    // Alle Berechtigungen, für Besitzer und den Bot selbst
+    static final String ALL_PERMISSIONS = "2199023255551";
+
+    // @everyone: Kanäle sehen, schreiben, Links einbetten, Verlauf lesen, verbinden, sprechen, Befehle verwenden
+    static final String EVERYONE_PERMISSIONS = String.valueOf(
+            (1L << 10) | (1L << 11) | (1L << 14) | (1L << 16) | (1L << 20) | (1L << 21) | (1L << 31));
+
+    private static final String JOINED_AT = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toString();
+
+    private final int index;
+    private final long id;
+    private final long textChannelId;
+    private final long voiceChannelId;
+    private final long[] userIds;
+    private final Set<Long> inVoice = ConcurrentHashMap.newKeySet();
+
+    MockGuild(MockDiscord discord, int index, int members, double inVoiceShare, SplittableRandom random) {
+        this.index = index;
+        this.id = discord.nextGuildId();
+        this.textChannelId = discord.nextId();
+        this.voiceChannelId = discord.nextId();
+        this.userIds = new long[members];
+        for (int i = 0; i < members; i++) {
+            userIds[i] = discord.nextId();
+            if (random.nextDouble() < inVoiceShare) {
+                inVoice.add(userIds[i]);
+            }
+        }
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getTextChannelId() {
+        return textChannelId;
+    }
+
+    long getVoiceChannelId() {
+        return voiceChannelId;
+    }
+
+    /**
+     * Gibt die Benutzer-ID des Mitglieds mit dem angegebenen Index zurück.
+     */
+    long getUserId(int member) {
+        return userIds[member];
+    }
+
+    int getMemberCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Erstellt den Inhalt von GUILD_CREATE mit Rolle, Kanälen, Mitgliedern und Sprachstatus.
+     *
+     * @param bot Der Benutzer des Bots, der als Mitglied enthalten ist
+     */
+    JsonObject toGuildCreate(JsonObject bot) {
+        JsonObject guild = new JsonObject();
+        guild.addProperty("id", String.valueOf(id));
+        guild.addProperty("name", "Testserver " + (index + 1));
+        guild.add("icon", JsonNull.INSTANCE);
+        guild.add("splash", JsonNull.INSTANCE);
+        guild.add("banner", JsonNull.INSTANCE);
+        guild.add("description", JsonNull.INSTANCE);
+        guild.add("vanity_url_code", JsonNull.INSTANCE);
+        guild.addProperty("owner_id", String.valueOf(userIds.length > 0 ? userIds[0] : bot.get("id").getAsLong()));
+        guild.add("afk_channel_id", JsonNull.INSTANCE);
+        guild.addProperty("afk_timeout", 300);
+        guild.add("system_channel_id", JsonNull.INSTANCE);
+        guild.add("rules_channel_id", JsonNull.INSTANCE);
+        guild.add("public_updates_channel_id", JsonNull.INSTANCE);
+        guild.add("safety_alerts_channel_id", JsonNull.INSTANCE);
+        guild.addProperty("verification_level", 0);
+        guild.addProperty("default_message_notifications", 1);
+        guild.addProperty("explicit_content_filter", 0);
+        guild.addProperty("mfa_level", 0);
+        guild.addProperty("nsfw_level", 0);
+        guild.addProperty("premium_tier", 0);
+        guild.addProperty("premium_subscription_count", 0);
+        guild.addProperty("premium_progress_bar_enabled", false);
+        guild.addProperty("preferred_locale", "de");
+        guild.addProperty("max_members", 500000);
+        guild.addProperty("member_count", userIds.length + 1);
+        guild.addProperty("large", false);
+        guild.addProperty("unavailable", false);
+        guild.addProperty("joined_at", JOINED_AT);
+        guild.add("application_id", JsonNull.INSTANCE);
+        guild.add("features", new JsonArray());
+        guild.add("emojis", new JsonArray());
+        guild.add("stickers", new JsonArray());
+        guild.add("threads", new JsonArray());
+        guild.add("presences", new JsonArray());
+        guild.add("stage_instances", new JsonArray());
+        guild.add("guild_scheduled_events", new JsonArray());
+
+        JsonArray roles = new JsonArray();
+        roles.add(everyoneRole());
+        guild.add("roles", roles);
+
+        JsonArray channels = new JsonArray();
+        channels.add(textChannel());
+        channels.add(voiceChannel());
+        guild.add("channels", channels);
+
+        JsonArray members = new JsonArray();
+        members.add(member(bot));
+        for (long userId : userIds) {
+            members.add(member(userId));
+        }
+        guild.add("members", members);
+
+        JsonArray voiceStates = new JsonArray();
+        for (long userId : inVoice) {
+            voiceStates.add(voiceState(userId, voiceChannelId, "session-" + userId, false));
+        }
+        guild.add("voice_states", voiceStates);
+        return guild;
+    }
+
+    /**
+     * Erstellt das Mitglied eines simulierten Benutzers.
+     */
+    JsonObject member(long userId) {
+        return member(user(userId));
+    }
+
+    /**
+     * Erstellt MESSAGE_CREATE für eine Nachricht eines Mitglieds im Textkanal.
+     */
+    JsonObject message(long messageId, int memberIndex, String content) {
+        long userId = userIds[memberIndex];
+        JsonObject member = member(userId);
+        member.remove("user");
+
+        JsonObject message = new JsonObject();
+        message.addProperty("id", String.valueOf(messageId));
+        message.addProperty("channel_id", String.valueOf(textChannelId));
+        message.addProperty("guild_id", String.valueOf(id));
+        message.add("author", user(userId));
+        message.add("member", member);
+        message.addProperty("content", content);
+        message.addProperty("timestamp", OffsetDateTime.now(ZoneOffset.UTC).toString());
+        message.add("edited_timestamp", JsonNull.INSTANCE);
+        message.addProperty("tts", false);
+        message.addProperty("mention_everyone", false);
+        message.add("mentions", new JsonArray());
+        message.add("mention_roles", new JsonArray());
+        message.add("attachments", new JsonArray());
+        message.add("embeds", new JsonArray());
+        message.add("components", new JsonArray());
+        message.addProperty("pinned", false);
+        message.addProperty("type", 0);
+        message.addProperty("flags", 0);
+        return message;
+    }
+
+    /**
+     * Erstellt TYPING_START für ein Mitglied im Textkanal.
+     */
+    JsonObject typing(int memberIndex) {
+        JsonObject typing = new JsonObject();
+        typing.addProperty("channel_id", String.valueOf(textChannelId));
+        typing.addProperty("guild_id", String.valueOf(id));
+        typing.addProperty("user_id", String.valueOf(userIds[memberIndex]));
+        typing.addProperty("timestamp", System.currentTimeMillis() / 1000);
+        typing.add("member", member(userIds[memberIndex]));
+        return typing;
+    }
+
+    /**
+     * Erstellt GUILD_MEMBER_UPDATE für ein Mitglied, z. B. nach einer Änderung des Spitznamens.
+     */
+    JsonObject memberUpdate(int memberIndex, String nick) {
+        JsonObject update = member(userIds[memberIndex]);
+        update.addProperty("guild_id", String.valueOf(id));
+        update.addProperty("nick", nick);
+        return update;
+    }
+
+    /**
+     * Prüft, ob ein Benutzer im Sprachkanal ist.
+     */
+    boolean isInVoice(long userId) {
+        return inVoice.contains(userId);
+    }
+
+    /**
+     * Erstellt den Sprachstatus eines Benutzers.
+     *
+     * @param channelId   Der Sprachkanal oder null beim Verlassen
+     * @param withGuildId true für VOICE_STATE_UPDATE, false innerhalb von GUILD_CREATE
+     */
+    JsonObject voiceState(long userId, Long channelId, String sessionId, boolean withGuildId) {
+        return voiceState(withGuildId ? id : null, userId, channelId, sessionId);
+    }
+
+    /**
+     * Erstellt den Sprachstatus eines Benutzers auf einem beliebigen Server.
+     *
+     * @param guildId Der Server für VOICE_STATE_UPDATE oder null innerhalb von GUILD_CREATE
+     */
+    static JsonObject voiceState(Long guildId, long userId, Long channelId, String sessionId) {
+        JsonObject state = new JsonObject();
+        if (guildId != null) {
+            state.addProperty("guild_id", String.valueOf(guildId));
+        }
+        if (channelId != null) {
+            state.addProperty("channel_id", String.valueOf(channelId));
+        } else {
+            state.add("channel_id", JsonNull.INSTANCE);
+        }
+        state.addProperty("user_id", String.valueOf(userId));
+        state.addProperty("session_id", sessionId);
+        state.addProperty("deaf", false);
+        state.addProperty("mute", false);
+        state.addProperty("self_deaf", false);
+        state.addProperty("self_mute", false);
+        state.addProperty("self_video", false);
+        state.addProperty("self_stream", false);
+        state.addProperty("suppress", false);
+        state.add("request_to_speak_timestamp", JsonNull.INSTANCE);
+        return state;
+    }
+
+    JsonObject textChannel() {
+        JsonObject channel = channel(textChannelId, 0, "allgemein", 0);
+        channel.add("topic", JsonNull.INSTANCE);
+        channel.addProperty("nsfw", false);
+        channel.addProperty("rate_limit_per_user", 0);
+        channel.add("last_message_id", JsonNull.INSTANCE);
+        return channel;
+    }
+
+    JsonObject voiceChannel() {
+        JsonObject channel = channel(voiceChannelId, 2, "Musik", 1);
+        channel.addProperty("bitrate", 64000);
+        channel.addProperty("user_limit", 0);
+        channel.add("rtc_region", JsonNull.INSTANCE);
+        channel.addProperty("video_quality_mode", 1);
+        channel.addProperty("nsfw", false);
+        channel.addProperty("rate_limit_per_user", 0);
+        channel.add("last_message_id", JsonNull.INSTANCE);
+        return channel;
+    }
+
+    private JsonObject channel(long channelId, int type, String name, int position) {
+        JsonObject channel = new JsonObject();
+        channel.addProperty("id", String.valueOf(channelId));
+        channel.addProperty("type", type);
+        channel.addProperty("guild_id", String.valueOf(id));
+        channel.addProperty("name", name);
+        channel.addProperty("position", position);
+        channel.add("parent_id", JsonNull.INSTANCE);
+        channel.addProperty("flags", 0);
+        channel.add("permission_overwrites", new JsonArray());
+        return channel;
+    }
+
+    private JsonObject everyoneRole() {
+        JsonObject role = new JsonObject();
+        role.addProperty("id", String.valueOf(id));
+        role.addProperty("name", "@everyone");
+        role.addProperty("color", 0);
+        role.addProperty("hoist", false);
+        role.addProperty("position", 0);
+        role.addProperty("permissions", EVERYONE_PERMISSIONS);
+        role.addProperty("managed", false);
+        role.addProperty("mentionable", false);
+        role.addProperty("flags", 0);
+        role.add("icon", JsonNull.INSTANCE);
+        role.add("unicode_emoji", JsonNull.INSTANCE);
+        return role;
+    }
+
+    static JsonObject member(JsonObject user) {
+        JsonObject member = new JsonObject();
+        member.add("user", user);
+        member.add("nick", JsonNull.INSTANCE);
+        member.add("avatar", JsonNull.INSTANCE);
+        member.add("roles", new JsonArray());
+        member.addProperty("joined_at", JOINED_AT);
+        member.add("premium_since", JsonNull.INSTANCE);
+        member.add("communication_disabled_until", JsonNull.INSTANCE);
+        member.addProperty("deaf", false);
+        member.addProperty("mute", false);
+        member.addProperty("pending", false);
+        member.addProperty("flags", 0);
+        return member;
+    }
+
+    /**
+     * Erstellt einen Benutzer im Format der Discord-API.
+     */
+    static JsonObject user(long userId, String name, boolean bot) {
+        JsonObject user = new JsonObject();
+        user.addProperty("id", String.valueOf(userId));
+        user.addProperty("username", name);
+        user.addProperty("global_name", name);
+        user.addProperty("discriminator", "0");
+        user.add("avatar", JsonNull.INSTANCE);
+        user.addProperty("bot", bot);
+        user.addProperty("system", false);
+        user.addProperty("public_flags", 0);
+        user.addProperty("flags", 0);
+        return user;
+    }
+
+    private JsonObject user(long userId) {
+        return user(userId, "benutzer" + userId % 100_000, false);
+    }
+}
@@ -0,0 +1,295 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * REST-API des Discord-Ersatzes unter {@code /api/v<n>/}.
+ * <p>
+ * Beantwortet die Aufrufe, die der Bot beim Start und bei Interaktionen benötigt: Anmeldung, Gateway,
+ * Befehlsregistrierung, Interaktionsantworten, Folgenachrichten und Nachrichten in Kanälen. Alle Aufrufe werden
+ * aufgezeichnet; unbekannte Routen werden mit 404 beantwortet und mit {@code ?} markiert gezählt.
+ */
+final class MockRest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockRest.class);
+
+    private static final Pattern API_PREFIX = Pattern.compile("^/api/v\\d+/");
+    private static final Pattern SNOWFLAKE = Pattern.compile("(?<=/)\\d{15,20}(?=/|$)");
+    private static final Pattern TOKEN = Pattern.compile("^(interactions/\\{id}|webhooks/\\{id})/[^/]+");
+
+    private static final Pattern GUILD_COMMANDS = Pattern.compile("^applications/\\d+/guilds/(\\d+)/commands$");
+    private static final Pattern GLOBAL_COMMANDS = Pattern.compile("^applications/\\d+/commands$");
+    private static final Pattern CALLBACK = Pattern.compile("^interactions/(\\d+)/[^/]+/callback$");
+    private static final Pattern FOLLOW_UP = Pattern.compile("^webhooks/\\d+/[^/]+$");
+    private static final Pattern WEBHOOK_MESSAGE = Pattern.compile("^webhooks/\\d+/[^/]+/messages/([^/]+)$");
+    private static final Pattern CHANNEL_MESSAGES = Pattern.compile("^channels/(\\d+)/messages$");
+    private static final Pattern CHANNEL_MESSAGE = Pattern.compile("^channels/(\\d+)/messages/(\\d+)$");
+
+    private final MockDiscord discord;
+    private final TrafficLog log;
+    private final HttpServer server;
+
+    MockRest(MockDiscord discord, TrafficLog log, String host, int port) throws IOException {
+        this.discord = discord;
+        this.log = log;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            discord.onRestRequest();
+            String method = exchange.getRequestMethod();
+            String path = API_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            JsonElement body = readBody(exchange);
+
+            Response response;
+            try {
+                response = route(method, path, body);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Fehler bei {} {}", method, path, e);
+                response = new Response(500, error("Interner Fehler des Discord-Ersatzes"));
+            }
+
+            String key = method + " " + template(path);
+            log.record("rest", response.status() == 404 ? "? " + key : key, body);
+            respond(exchange, path, response);
+        }
+    }
+
+    /**
+     * Beantwortet einen Aufruf anhand seiner Route.
+     */
+    private Response route(String method, String path, JsonElement body) {
+        Matcher matcher;
+
+        if (path.equals("users/@me") && method.equals("GET")) {
+            return ok(discord.getBotUser());
+        }
+        if ((path.equals("gateway") || path.equals("gateway/bot")) && method.equals("GET")) {
+            return ok(gateway());
+        }
+        if ((path.equals("applications/@me") || path.equals("oauth2/applications/@me")) && method.equals("GET")) {
+            return ok(discord.getApplication());
+        }
+
+        if ((matcher = GUILD_COMMANDS.matcher(path)).matches()) {
+            return commands(method, Long.parseLong(matcher.group(1)), body);
+        }
+        if (GLOBAL_COMMANDS.matcher(path).matches()) {
+            return commands(method, null, body);
+        }
+
+        if ((matcher = CALLBACK.matcher(path)).matches() && method.equals("POST")) {
+            discord.onInteractionCallback(Long.parseLong(matcher.group(1)));
+            return new Response(204, null);
+        }
+        if (FOLLOW_UP.matcher(path).matches() && method.equals("POST")) {
+            return ok(message(null, null, body));
+        }
+        if ((matcher = WEBHOOK_MESSAGE.matcher(path)).matches()) {
+            return method.equals("DELETE") ? new Response(204, null) : ok(message(null, matcher.group(1), body));
+        }
+        if ((matcher = CHANNEL_MESSAGES.matcher(path)).matches() && method.equals("POST")) {
+            return ok(message(matcher.group(1), null, body));
+        }
+        if ((matcher = CHANNEL_MESSAGE.matcher(path)).matches()) {
+            return method.equals("DELETE")
+                    ? new Response(204, null)
+                    : ok(message(matcher.group(1), matcher.group(2), body));
+        }
+        if (path.matches("^channels/\\d+/typing$")) {
+            return new Response(204, null);
+        }
+
+        return new Response(404, error("404: Not Found"));
+    }
+
+    /**
+     * Speichert und liefert registrierte Befehle; PUT gibt die Befehle mit vergebenen IDs zurück.
+     */
+    private Response commands(String method, Long guildId, JsonElement body) {
+        if (method.equals("GET")) {
+            return ok(discord.getCommands(guildId));
+        }
+        if (!method.equals("PUT") || body == null || !body.isJsonArray()) {
+            return new Response(400, error("Ungültige Befehlsliste"));
+        }
+
+        JsonArray registered = new JsonArray();
+        for (JsonElement element : body.getAsJsonArray()) {
+            JsonObject command = element.getAsJsonObject().deepCopy();
+            command.addProperty("id", String.valueOf(discord.nextId()));
+            command.addProperty("application_id", String.valueOf(discord.getApplicationId()));
+            command.addProperty("version", String.valueOf(discord.nextId()));
+            if (guildId != null) {
+                command.addProperty("guild_id", String.valueOf(guildId));
+            }
+            if (!command.has("type")) {
+                command.addProperty("type", 1);
+            }
+            if (!command.has("description")) {
+                command.addProperty("description", "");
+            }
+            if (!command.has("options")) {
+                command.add("options", new JsonArray());
+            }
+            if (!command.has("default_member_permissions")) {
+                command.add("default_member_permissions", JsonNull.INSTANCE);
+            }
+            if (!command.has("nsfw")) {
+                command.addProperty("nsfw", false);
+            }
+            registered.add(command);
+        }
+        discord.onCommandsRegistered(guildId, registered);
+        return ok(registered);
+    }
+
+    private JsonObject gateway() {
+        JsonObject gateway = new JsonObject();
+        gateway.addProperty("url", discord.getGatewayUrl());
+        gateway.addProperty("shards", discord.getShardCount());
+        JsonObject limit = new JsonObject();
+        limit.addProperty("total", 1000);
+        limit.addProperty("remaining", 1000);
+        limit.addProperty("reset_after", 0);
+        limit.addProperty("max_concurrency", 1);
+        gateway.add("session_start_limit", limit);
+        return gateway;
+    }
+
+    /**
+     * Erstellt eine Nachricht des Bots aus dem gesendeten Inhalt.
+     *
+     * @param channelId Der Kanal oder null für Nachrichten über einen Interaktions-Webhook
+     * @param messageId Die ID einer bearbeiteten Nachricht, {@code @original} oder null für eine neue
+     */
+    private JsonObject message(String channelId, String messageId, JsonElement body) {
+        JsonObject content = body != null && body.isJsonObject() ? body.getAsJsonObject() : new JsonObject();
+        String timestamp = OffsetDateTime.now(ZoneOffset.UTC).toString();
+
+        JsonObject message = new JsonObject();
+        message.addProperty("id", messageId != null && !messageId.startsWith("@")
+                ? messageId
+                : String.valueOf(discord.nextId()));
+        message.addProperty("channel_id", channelId != null ? channelId : String.valueOf(discord.getAnyChannelId()));
+        message.add("author", discord.getBotUser());
+        message.add("content", content.has("content") ? content.get("content") : new JsonPrimitive(""));
+        message.addProperty("timestamp", timestamp);
+        message.add("edited_timestamp", messageId != null ? new JsonPrimitive(timestamp) : JsonNull.INSTANCE);
+        message.addProperty("tts", false);
+        message.addProperty("mention_everyone", false);
+        message.add("mentions", new JsonArray());
+        message.add("mention_roles", new JsonArray());
+        message.add("attachments", new JsonArray());
+        message.add("embeds", content.has("embeds") ? content.get("embeds") : new JsonArray());
+        message.add("components", content.has("components") ? content.get("components") : new JsonArray());
+        message.addProperty("pinned", false);
+        message.addProperty("type", 0);
+        message.addProperty("flags", content.has("flags") ? content.get("flags").getAsInt() : 0);
+        if (channelId == null) {
+            message.addProperty("webhook_id", String.valueOf(discord.getApplicationId()));
+            message.addProperty("application_id", String.valueOf(discord.getApplicationId()));
+        }
+        return message;
+    }
+
+    /**
+     * Liest den Körper als JSON; bei {@code multipart/form-data} wird der Teil {@code payload_json} verwendet.
+     */
+    private static JsonElement readBody(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        if (raw.length == 0) {
+            return null;
+        }
+
+        String text = new String(raw, StandardCharsets.UTF_8);
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("multipart/form-data")) {
+            int part = text.indexOf("name=\"payload_json\"");
+            if (part < 0) {
+                return null;
+            }
+            int start = text.indexOf("\r\n\r\n", part) + 4;
+            int end = text.indexOf("\r\n--", start);
+            text = end > start ? text.substring(start, end) : text.substring(start);
+        }
+
+        try {
+            return JsonParser.parseString(text);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String path, Response response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", "50");
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", "49");
+        exchange.getResponseHeaders().set("X-RateLimit-Reset-After", "1");
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 1));
+        exchange.getResponseHeaders().set("X-RateLimit-Bucket", Integer.toHexString(template(path).hashCode()));
+
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] bytes = response.body().toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Ersetzt IDs und Token, damit Aufrufe verschiedener Server und Interaktionen zusammen gezählt werden.
+     */
+    static String template(String path) {
+        String withIds = SNOWFLAKE.matcher(path).replaceAll("{id}");
+        return TOKEN.matcher(withIds).replaceFirst("$1/{token}");
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("message", message);
+        error.addProperty("code", 0);
+        return error;
+    }
+
+    private static Response ok(JsonElement body) {
+        return new Response(200, body);
+    }
+
+    private record Response(int status, JsonElement body) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sprach-Gateway (Version 8) und UDP-Endpunkt des Discord-Ersatzes.
+ * <p>
+ * Führt den Handshake einer Sprachverbindung durch: HELLO, READY mit SSRC und UDP-Adresse, IP-Erkennung über
+ * UDP und SESSION_DESCRIPTION mit einem zufälligen Schlüssel. Anschließend gesendete RTP-Pakete werden nur
+ * pro SSRC gezählt, nicht entschlüsselt. JDA verbindet Sprach-Gateways immer über {@code wss://}; der Server
+ * benötigt daher einen Schlüsselspeicher, dessen Zertifikat der Bot vertraut.
+ */
+final class MockVoice implements WebSocketServer.Handler, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockVoice.class);
+
+    private static final int HEARTBEAT_INTERVAL_MILLIS = 13_750;
+    private static final int DISCOVERY_LENGTH = 74;
+
+    private static final Map<Integer, String> OP_NAMES = Map.of(
+            0, "IDENTIFY",
+            1, "SELECT_PROTOCOL",
+            3, "HEARTBEAT",
+            5, "SPEAKING",
+            7, "RESUME");
+
+    private final TrafficLog log;
+    private final String host;
+    private final WebSocketServer server;
+    private final DatagramSocket udp;
+    private final AtomicInteger nextSsrc = new AtomicInteger(1000);
+    private final Map<Integer, LongAdder> packetsBySsrc = new ConcurrentHashMap<>();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private volatile boolean closed;
+
+    MockVoice(TrafficLog log, SSLContext ssl, String host, int port) throws IOException {
+        this.log = log;
+        this.host = host;
+        this.server = new WebSocketServer(
+                ssl.getServerSocketFactory().createServerSocket(port, 50, InetAddress.getByName(host)), "mock-voice", this);
+        this.udp = new DatagramSocket(new InetSocketAddress(host, server.getPort()));
+
+        Thread receiver = new Thread(this::receiveLoop, "mock-voice-udp");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    /**
+     * Gibt den Endpunkt für VOICE_SERVER_UPDATE zurück; JDA ergänzt {@code wss://}.
+     */
+    String getEndpoint() {
+        return host + ":" + server.getPort();
+    }
+
+    int getSessionCount() {
+        return sessions.get();
+    }
+
+    long getPacketCount() {
+        return packetsBySsrc.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long getByteCount() {
+        return bytes.sum();
+    }
+
+    int getSendingStreams() {
+        return packetsBySsrc.size();
+    }
+
+    @Override
+    public void onOpen(WebSocketServer.Connection connection) {
+        JsonObject hello = new JsonObject();
+        hello.addProperty("heartbeat_interval", HEARTBEAT_INTERVAL_MILLIS);
+        hello.addProperty("v", 8);
+        connection.sendText(payload(8, hello).toString());
+    }
+
+    @Override
+    public void onText(WebSocketServer.Connection connection, String text) {
+        JsonObject payload = JsonParser.parseString(text).getAsJsonObject();
+        int op = payload.get("op").getAsInt();
+        JsonElement data = payload.get("d");
+        log.record("voice", "op " + op + " " + OP_NAMES.getOrDefault(op, "UNBEKANNT"), data);
+
+        switch (op) {
+            case 0 -> {
+                sessions.incrementAndGet();
+                JsonObject ready = new JsonObject();
+                ready.addProperty("ssrc", nextSsrc.getAndIncrement());
+                ready.addProperty("ip", host);
+                ready.addProperty("port", udp.getLocalPort());
+                JsonArray modes = new JsonArray();
+                modes.add("aead_aes256_gcm_rtpsize");
+                modes.add("aead_xchacha20_poly1305_rtpsize");
+                ready.add("modes", modes);
+                ready.addProperty("heartbeat_interval", HEARTBEAT_INTERVAL_MILLIS);
+                connection.sendText(payload(2, ready).toString());
+            }
+            case 1 -> {
+                JsonObject description = new JsonObject();
+                description.addProperty("mode", data.getAsJsonObject().getAsJsonObject("data").get("mode").getAsString());
+                JsonArray key = new JsonArray();
+                for (int i = 0; i < 32; i++) {
+                    key.add(ThreadLocalRandom.current().nextInt(256));
+                }
+                description.add("secret_key", key);
+                description.addProperty("audio_codec", "opus");
+                connection.sendText(payload(4, description).toString());
+            }
+            case 3 -> {
+                JsonObject ack = new JsonObject();
+                ack.add("t", data.isJsonObject() ? data.getAsJsonObject().get("t") : data);
+                connection.sendText(payload(6, ack).toString());
+            }
+            case 7 -> connection.sendText(payload(9, JsonNull.INSTANCE).toString());
+            default -> {
+                // SPEAKING und Unbekanntes werden nur aufgezeichnet
+            }
+        }
+    }
+
+    @Override
+    public void onClose(WebSocketServer.Connection connection, int code) {
+        LOGGER.debug("Sprach-Gateway-Verbindung geschlossen (Code {})", code);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        udp.close();
+    }
+
+    /**
+     * Beantwortet IP-Erkennungen und zählt RTP-Pakete pro SSRC.
+     */
+    private void receiveLoop() {
+        byte[] buffer = new byte[2048];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!closed) {
+            try {
+                packet.setLength(buffer.length);
+                udp.receive(packet);
+                int length = packet.getLength();
+
+                if (length == DISCOVERY_LENGTH && buffer[0] == 0 && buffer[1] == 1) {
+                    udp.send(discoveryResponse(buffer, packet));
+                } else if (length >= 12) {
+                    int ssrc = ((buffer[8] & 0xFF) << 24) | ((buffer[9] & 0xFF) << 16)
+                            | ((buffer[10] & 0xFF) << 8) | (buffer[11] & 0xFF);
+                    packetsBySsrc.computeIfAbsent(ssrc, s -> new LongAdder()).increment();
+                    bytes.add(length);
+                }
+            } catch (SocketException e) {
+                if (!closed) {
+                    LOGGER.warn("UDP-Empfang abgebrochen", e);
+                }
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("UDP-Paket konnte nicht verarbeitet werden", e);
+            }
+        }
+    }
+
+    /**
+     * Antwort auf eine IP-Erkennung: Typ 2, Länge 70, SSRC, Adresse (64 Bytes, nullterminiert) und Port des
+     * Absenders.
+     */
+    private static DatagramPacket discoveryResponse(byte[] request, DatagramPacket packet) {
+        byte[] response = new byte[DISCOVERY_LENGTH];
+        response[1] = 2;
+        response[3] = 70;
+        System.arraycopy(request, 4, response, 4, 4);
+        byte[] address = packet.getAddress().getHostAddress().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(address, 0, response, 8, Math.min(address.length, 63));
+        response[72] = (byte) (packet.getPort() >> 8);
+        response[73] = (byte) packet.getPort();
+        return new DatagramPacket(response, response.length, packet.getSocketAddress());
+    }
+
+    private static JsonObject payload(int op, JsonElement data) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("op", op);
+        payload.add("d", data);
+        return payload;
+    }
+}
@@ -0,0 +1,104 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zeichnet alles auf, was der Bot an den Discord-Ersatz sendet: REST-Aufrufe, Gateway- und
+ * Sprach-Gateway-Nachrichten. Jede Nachricht wird als JSON-Zeile in die Aufzeichnungsdatei geschrieben und
+ * nach Kanal und Route bzw. Opcode gezählt. Token werden vor dem Schreiben ersetzt.
+ */
+final class TrafficLog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrafficLog.class);
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, LongAdder> counts = new ConcurrentSkipListMap<>();
+    private final BufferedWriter writer;
+
+    /**
+     * @param file Die Aufzeichnungsdatei oder null, um nur zu zählen
+     */
+    TrafficLog(Path file) throws IOException {
+        this.writer = file != null ? Files.newBufferedWriter(file, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Zeichnet eine Nachricht des Bots auf.
+     *
+     * @param channel Der Kanal: {@code rest}, {@code gateway} oder {@code voice}
+     * @param key     Route oder Opcode, nach dem gezählt wird
+     * @param body    Der Inhalt der Nachricht oder null
+     */
+    void record(String channel, String key, JsonElement body) {
+        counts.computeIfAbsent(channel + " " + key, k -> new LongAdder()).increment();
+        if (writer == null) {
+            return;
+        }
+
+        JsonObject line = new JsonObject();
+        line.addProperty("t", millisSinceStart());
+        line.addProperty("channel", channel);
+        line.addProperty("key", key);
+        if (body != null) {
+            line.add("body", redact(body));
+        }
+        synchronized (writer) {
+            try {
+                writer.write(line.toString());
+                writer.newLine();
+            } catch (IOException e) {
+                LOGGER.warn("Aufzeichnung konnte nicht geschrieben werden: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl aller aufgezeichneten Nachrichten pro Kanal und Route bzw. Opcode zurück, sortiert.
+     */
+    Map<String, Long> getCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((key, count) -> result.put(key, count.sum()));
+        return result;
+    }
+
+    /**
+     * Gibt die Millisekunden seit dem Start des Discord-Ersatzes zurück.
+     */
+    long millisSinceStart() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            synchronized (writer) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Ersetzt Token in IDENTIFY- und Sprach-Nachrichten, damit die Aufzeichnung weitergegeben werden kann.
+     */
+    private static JsonElement redact(JsonElement body) {
+        if (body.isJsonObject() && body.getAsJsonObject().has("token")) {
+            JsonObject copy = body.getAsJsonObject().deepCopy();
+            copy.addProperty("token", "***");
+            return copy;
+        }
+        return body;
+    }
+}
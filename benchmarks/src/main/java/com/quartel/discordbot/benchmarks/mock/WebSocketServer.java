@@ -0,0 +1,315 @@
+package com.quartel.discordbot.benchmarks.mock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimaler WebSocket-Server nach RFC 6455 für den Discord-Ersatz: Handshake, Text- und Binärnachrichten,
+ * fragmentierte Nachrichten, Ping und Close. Erweiterungen werden nicht angeboten. Jede Verbindung läuft auf
+ * einem virtuellen Thread; mit einem {@code SSLServerSocket} spricht der Server {@code wss://}.
+ */
+final class WebSocketServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketServer.class);
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_MESSAGE_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Empfängt die Ereignisse der Verbindungen.
+     */
+    interface Handler {
+        void onOpen(Connection connection);
+
+        void onText(Connection connection, String text);
+
+        void onClose(Connection connection, int code);
+    }
+
+    private final ServerSocket serverSocket;
+    private final String name;
+    private final Handler handler;
+    private volatile boolean closed;
+
+    WebSocketServer(ServerSocket serverSocket, String name, Handler handler) {
+        this.serverSocket = serverSocket;
+        this.name = name;
+        this.handler = handler;
+
+        Thread acceptor = new Thread(this::acceptLoop, name + "-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().name(name + "-connection").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    LOGGER.warn("{}: Verbindung konnte nicht angenommen werden", name, e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Connection connection = null;
+        int closeCode = 1006;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            String requestLine = readLine(in);
+            if (requestLine == null) {
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+                int separator = line.indexOf(':');
+                if (separator > 0) {
+                    headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                            line.substring(separator + 1).trim());
+                }
+            }
+
+            String key = headers.get("sec-websocket-key");
+            String[] request = requestLine.split(" ");
+            if (key == null || request.length < 2) {
+                out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                return;
+            }
+
+            out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            connection = new Connection(socket, out, request[1]);
+            handler.onOpen(connection);
+            closeCode = readFrames(connection, in);
+        } catch (SocketException e) {
+            LOGGER.debug("{}: Verbindung getrennt: {}", name, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("{}: Fehler in der Verbindung", name, e);
+        } finally {
+            if (connection != null) {
+                connection.markClosed();
+                handler.onClose(connection, closeCode);
+            }
+        }
+    }
+
+    /**
+     * Liest Frames, bis die Verbindung geschlossen wird.
+     *
+     * @return Der Close-Code der Gegenseite oder 1006 bei Abbruch
+     */
+    private int readFrames(Connection connection, InputStream in) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        int messageOpcode = 0;
+
+        while (true) {
+            int first = in.read();
+            int second = in.read();
+            if (first < 0 || second < 0) {
+                return 1006;
+            }
+
+            boolean fin = (first & 0x80) != 0;
+            int opcode = first & 0x0F;
+            long length = second & 0x7F;
+            if (length == 126) {
+                length = readUnsigned(in, 2);
+            } else if (length == 127) {
+                length = readUnsigned(in, 8);
+            }
+            if (length + message.size() > MAX_MESSAGE_BYTES) {
+                connection.close(1009);
+                return 1009;
+            }
+
+            byte[] mask = (second & 0x80) != 0 ? in.readNBytes(4) : null;
+            byte[] payload = in.readNBytes((int) length);
+            if (payload.length < length) {
+                return 1006;
+            }
+            if (mask != null) {
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+            }
+
+            switch (opcode) {
+                case 0x8 -> {
+                    int code = payload.length >= 2 ? ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF) : 1005;
+                    connection.close(code);
+                    return code;
+                }
+                case 0x9 -> connection.send(0xA, payload);
+                case 0xA -> {
+                    // Pong, nichts zu tun
+                }
+                default -> {
+                    if (opcode != 0) {
+                        messageOpcode = opcode;
+                    }
+                    message.write(payload);
+                    if (fin) {
+                        if (messageOpcode == 0x1) {
+                            handler.onText(connection, message.toString(StandardCharsets.UTF_8));
+                        }
+                        message.reset();
+                    }
+                }
+            }
+        }
+    }
+
+    private static long readUnsigned(InputStream in, int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Unerwartetes Ende des Frames");
+            }
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b = in.read(); b >= 0; b = in.read()) {
+            if (b == '\n') {
+                int end = line.length();
+                return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Eine geöffnete WebSocket-Verbindung. Senden ist threadsicher.
+     */
+    static final class Connection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final String path;
+        private volatile boolean open = true;
+
+        private Connection(Socket socket, OutputStream out, String path) {
+            this.socket = socket;
+            this.out = out;
+            this.path = path;
+        }
+
+        /**
+         * Gibt Pfad und Query der Anfrage zurück, z. B. {@code /?v=10&encoding=json}.
+         */
+        String getPath() {
+            return path;
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        void sendText(String text) {
+            send(0x1, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void sendBinary(byte[] data) {
+            send(0x2, data);
+        }
+
+        /**
+         * Sendet einen Close-Frame und schließt die Verbindung.
+         */
+        void close(int code) {
+            if (!open) {
+                return;
+            }
+            send(0x8, new byte[]{(byte) (code >> 8), (byte) code});
+            open = false;
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Verbindung ist bereits geschlossen
+            }
+        }
+
+        private synchronized void send(int opcode, byte[] payload) {
+            if (!open) {
+                return;
+            }
+            try {
+                out.write(0x80 | opcode);
+                if (payload.length < 126) {
+                    out.write(payload.length);
+                } else if (payload.length <= 0xFFFF) {
+                    out.write(126);
+                    out.write(payload.length >> 8);
+                    out.write(payload.length);
+                } else {
+                    out.write(127);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        out.write((int) ((long) payload.length >> shift));
+                    }
+                }
+                out.write(payload);
+                out.flush();
+            } catch (IOException e) {
+                LOGGER.debug("Senden fehlgeschlagen, Verbindung wird geschlossen: {}", e.getMessage());
+                markClosed();
+            }
+        }
+
+        private void markClosed() {
+            open = false;
+        }
+    }
+}
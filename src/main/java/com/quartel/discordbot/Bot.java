@@ -1,28 +1,48 @@
 package com.quartel.discordbot;
 
 import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.GuildSettingsStore;
 import com.quartel.discordbot.core.CommandManager;
+import com.quartel.discordbot.core.GatewayProfile;
 import com.quartel.discordbot.core.listeners.GuildJoinListener;
+import com.quartel.discordbot.core.listeners.PermissionCacheListener;
 import com.quartel.discordbot.core.listeners.SlashCommandListener;
+import com.quartel.discordbot.core.permissions.PermissionManager;
+import com.quartel.discordbot.metrics.CoreMetrics;
+import com.quartel.discordbot.metrics.MetricsHttpServer;
+import com.quartel.discordbot.metrics.ShardHealth;
+import com.quartel.discordbot.metrics.StartupTimer;
+import com.quartel.discordbot.metrics.jfr.FlightRecording;
 import com.quartel.discordbot.modules.Module;
 import com.quartel.discordbot.modules.music.MusicModule;
+import com.quartel.discordbot.trace.FrameRecorder;
+import com.quartel.discordbot.trace.GatewayRecorder;
 import com.quartel.discordbot.util.CommandCleaner;
+import com.quartel.discordbot.util.LogLevels;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.ChunkingFilter;
-import net.dv8tion.jda.api.utils.MemberCachePolicy;
-import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ConcurrentSessionController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Die Hauptklasse des Discord-Bots.
@@ -31,11 +51,18 @@ public class Bot extends ListenerAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(Bot.class);
     private static Bot instance;
 
-    private JDA jda;
+    private ShardManager shardManager;
     private CommandManager commandManager;
+    private MetricsHttpServer metricsHttpServer;
+    private GatewayRecorder gatewayRecorder;
+    private GatewayProfile gatewayProfile = GatewayProfile.FULL;
     private final Map<String, Module> modules = new HashMap<>();
     private boolean running = false;
 
+    // Virtuelle Threads für das Laden im Hintergrund und die parallele Aktivierung der Module
+    private static final ExecutorService STARTUP_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bot-start-", 0).factory());
+
     // Flag zum Aktivieren des Bereinigungsmodus beim Start
     // Dies sollte auf true gesetzt werden, wenn doppelte Befehle auftreten,
     // und dann wieder auf false, nachdem der Bot einmal gestartet wurde
@@ -70,6 +97,11 @@ public class Bot extends ListenerAdapter {
         }
 
         LOGGER.info("Starte Bot...");
+        StartupTimer timer = StartupTimer.getInstance();
+        timer.start();
+
+        // Logging-Level aus der Konfiguration übernehmen und bei Änderungen nachziehen
+        LogLevels.install();
 
         try {
             // Konfiguration laden
@@ -79,32 +111,50 @@ public class Bot extends ListenerAdapter {
                 return;
             }
 
-            // JDA konfigurieren und erstellen
-            JDABuilder builder = JDABuilder.createDefault(token)
-                    // Aktiviere notwendige Intents
-                    .enableIntents(
-                            GatewayIntent.GUILD_MEMBERS,
-                            GatewayIntent.GUILD_MESSAGES,
-                            GatewayIntent.GUILD_VOICE_STATES,
-                            GatewayIntent.MESSAGE_CONTENT
-                    )
-                    // Cache-Einstellungen
-                    .setMemberCachePolicy(MemberCachePolicy.VOICE)
-                    .setChunkingFilter(ChunkingFilter.NONE)
-                    .enableCache(CacheFlag.VOICE_STATE)
+            // JFR-Aufzeichnung früh starten, damit auch der Start des Bots enthalten ist
+            FlightRecording.getInstance().startIfEnabled();
+
+            // ShardManager konfigurieren und erstellen; Intents und Cache-Einstellungen kommen aus dem Gateway-Profil
+            gatewayProfile = GatewayProfile.fromConfig();
+            LOGGER.info("Gateway-Profil: {}", gatewayProfile.name().toLowerCase());
+            DefaultShardManagerBuilder builder = gatewayProfile.createBuilder(token)
                     // Bot-Status
                     .setStatus(OnlineStatus.ONLINE)
                     .setActivity(Activity.playing(Config.getActivity()));
 
-            // Bot erstellen und auf Bereitschaft warten
-            jda = builder.build().awaitReady();
-            LOGGER.info("JDA erfolgreich initialisiert");
+            // Shard-Anzahl und -Bereich dieses Prozesses
+            configureShards(builder);
+
+            // Für Tests optional auf einen lokalen Discord-Ersatz umleiten
+            configureEndpoints(builder);
+
+            // Optional Gateway-Ereignisse für die Wiedergabe aufzeichnen, inklusive Anfangszustand
+            gatewayRecorder = GatewayRecorder.createIfEnabled();
+            if (gatewayRecorder != null) {
+                builder.setRawEventsEnabled(true).addEventListeners(gatewayRecorder);
+            }
+
+            // Verbindung aufbauen; währenddessen Module und Servereinstellungen im Hintergrund laden
+            long gatewayStart = System.nanoTime();
+            ShardManager connecting = builder.build();
+            CompletableFuture<Void> modulesLoaded = CompletableFuture.runAsync(this::registerModules, STARTUP_EXECUTOR);
+            CompletableFuture<Void> settingsLoaded = CompletableFuture.runAsync(() -> {
+                long settingsStart = System.nanoTime();
+                GuildSettingsStore.getInstance();
+                timer.record("servereinstellungen", settingsStart);
+            }, STARTUP_EXECUTOR);
+
+            awaitShards(connecting);
+            shardManager = connecting;
+            timer.record("gateway", gatewayStart);
+            LOGGER.info("{} von {} Shards verbunden", shardManager.getShardsRunning(), shardManager.getShardsTotal());
+            CompletableFuture.allOf(modulesLoaded, settingsLoaded).join();
 
             if (CLEAN_COMMANDS_ON_START) {
                 // Führe zuerst eine vollständige Bereinigung aller Befehle durch
                 LOGGER.info("Bereinigungsmodus aktiv: Lösche alle bestehenden Befehle vor der Neuregistrierung...");
 
-                CommandCleaner.cleanAllCommands(jda, () -> {
+                CommandCleaner.cleanAllCommands(shardManager).whenComplete((result, error) -> {
                     // Dieser Code wird ausgeführt, nachdem alle Befehle gelöscht wurden
                     LOGGER.info("Befehlsbereinigung abgeschlossen, führe normale Startsequenz fort...");
                     completeStartup();
@@ -119,28 +169,148 @@ public class Bot extends ListenerAdapter {
         }
     }
 
+    /**
+     * Übernimmt {@code bot.shards.total} und {@code bot.shards.range}. Ohne feste Gesamtzahl fragt JDA Discord nach
+     * der empfohlenen Anzahl; ohne Bereich verbindet dieser Prozess alle Shards.
+     *
+     * @param builder Der zu konfigurierende Builder
+     * @throws IllegalArgumentException bei ungültigen Werten, damit sich nicht zwei Prozesse dieselben Shards teilen
+     */
+    private static void configureShards(DefaultShardManagerBuilder builder) {
+        String total = Config.getProperty("bot.shards.total", "auto").trim();
+        String range = Config.getProperty("bot.shards.range", "").trim();
+
+        int shardsTotal = -1;
+        if (!total.isEmpty() && !"auto".equalsIgnoreCase(total)) {
+            try {
+                shardsTotal = Integer.parseInt(total);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültige Shard-Anzahl in bot.shards.total: " + total, e);
+            }
+            builder.setShardsTotal(shardsTotal);
+        }
+
+        if (range.isEmpty()) {
+            LOGGER.info("Shards: {}", shardsTotal < 0 ? "automatisch" : "alle " + shardsTotal);
+            return;
+        }
+        if (shardsTotal < 0) {
+            throw new IllegalArgumentException("bot.shards.range erfordert eine feste Anzahl in bot.shards.total");
+        }
+        String[] bounds = range.split("-", 2);
+        try {
+            int min = Integer.parseInt(bounds[0].trim());
+            int max = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : min;
+            builder.setShards(min, max);
+            LOGGER.info("Shards: {} bis {} von {}", min, max, shardsTotal);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Shard-Bereich in bot.shards.range: " + range, e);
+        }
+    }
+
+    /**
+     * Wartet, bis alle Shards dieses Prozesses verbunden sind. Der ShardManager startet die Shards nacheinander im
+     * Abstand, den Discord für neue Sitzungen vorgibt; noch nicht gestartete Shards stehen in seiner Warteschlange.
+     *
+     * @param shardManager Der startende ShardManager
+     * @throws InterruptedException wenn der Start unterbrochen wird
+     */
+    private static void awaitShards(ShardManager shardManager) throws InterruptedException {
+        while (true) {
+            for (JDA shard : shardManager.getShards()) {
+                shard.awaitReady();
+            }
+            if (shardManager.getShardsQueued() == 0
+                    && shardManager.getShards().stream().allMatch(shard -> shard.getStatus() == JDA.Status.CONNECTED)) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    /**
+     * Leitet REST-API und Gateway um, wenn {@code discord.rest_url} bzw. {@code discord.gateway_url} gesetzt sind.
+     * Nur für Tests gegen einen lokalen Discord-Ersatz gedacht; die Sprachverbindung folgt dem Endpunkt, den das
+     * Gateway meldet.
+     *
+     * @param builder Der zu konfigurierende Builder
+     */
+    private static void configureEndpoints(DefaultShardManagerBuilder builder) {
+        String restUrl = Config.getProperty("discord.rest_url", "").trim();
+        if (!restUrl.isEmpty()) {
+            builder.setRestConfig(new RestConfig().setBaseUrl(restUrl.endsWith("/") ? restUrl : restUrl + "/"));
+            LOGGER.warn("REST-API umgeleitet auf {}", restUrl);
+        }
+
+        String gatewayUrl = Config.getProperty("discord.gateway_url", "").trim();
+        if (!gatewayUrl.isEmpty()) {
+            builder.setSessionController(new ConcurrentSessionController() {
+                @Override
+                public String getGateway() {
+                    return gatewayUrl;
+                }
+
+                @Override
+                public ShardedGateway getShardedGateway(JDA api) {
+                    // Der ShardManager liest die Adresse zusammen mit der empfohlenen Shard-Anzahl
+                    ShardedGateway gateway = super.getShardedGateway(api);
+                    return new ShardedGateway(gatewayUrl, gateway.getShardTotal(), gateway.getConcurrency());
+                }
+            });
+            LOGGER.warn("Gateway umgeleitet auf {}", gatewayUrl);
+        }
+    }
+
     /**
      * Führt die eigentliche Startsequenz des Bots aus.
      * Wird nach der optionalen Befehlsbereinigung aufgerufen.
      */
     private void completeStartup() {
+        StartupTimer timer = StartupTimer.getInstance();
         try {
+            long commandsStart = System.nanoTime();
+
             // GuildJoinListener für die Registrierung von Commands bei neuen Servern hinzufügen
-            jda.addEventListener(new GuildJoinListener());
+            shardManager.addEventListener(new GuildJoinListener());
 
-            // Command-Manager erstellen
-            commandManager = new CommandManager(jda);
-            commandManager.registerDefaultListeners();
+            // Zwischengespeicherte Berechtigungen bei Rollenänderungen verwerfen; ohne Mitglieder-Ereignisse
+            // werden die Rollen-Merkmale bei jeder Prüfung aus der Interaktion ermittelt
+            shardManager.addEventListener(new PermissionCacheListener());
+            PermissionManager.getInstance().setMemberCacheEnabled(gatewayProfile.receivesMemberUpdates());
 
-            // SlashCommandListener hinzufügen
-            jda.addEventListener(new SlashCommandListener(this));
+            // Command-Manager erstellen; Text-Befehle nur, wenn das Profil Nachrichten empfängt
+            commandManager = new CommandManager(shardManager);
+            if (gatewayProfile.hasMessageCommands()) {
+                commandManager.registerDefaultListeners();
+            }
+            commandManager.registerDefaultCommands();
+            timer.record("befehle", commandsStart);
 
-            // Module registrieren und laden
-            registerModules();
+            // Module wurden während des Verbindungsaufbaus geladen und werden jetzt parallel aktiviert
+            long modulesStart = System.nanoTime();
             loadEnabledModules();
+            timer.record("module.aktivieren", modulesStart);
+
+            // SlashCommandListener erst hinzufügen, wenn alle Module aktiv sind; vorher eingehende
+            // Modul-Befehle würden sonst als nicht verfügbar abgewiesen
+            shardManager.addEventListener(new SlashCommandListener(this));
+
+            // Befehle einmalig abgleichen; unveränderte Server verursachen keine REST-Aufrufe.
+            // Die Befehle sind bei Discord bereits bekannt, daher wird auf den Abgleich nicht gewartet.
+            long syncStart = System.nanoTime();
+            commandManager.syncCommands().whenComplete((result, error) -> timer.record("befehlsabgleich", syncStart));
+
+            // Messwerte registrieren und optional für Prometheus bereitstellen
+            CoreMetrics.register(shardManager, commandManager);
+            ShardHealth.getInstance().start(shardManager);
+            if (MetricsHttpServer.isEnabled()) {
+                metricsHttpServer = new MetricsHttpServer();
+                metricsHttpServer.start();
+            }
 
             running = true;
-            LOGGER.info("Bot erfolgreich gestartet!");
+            timer.ready();
+            LOGGER.info("Bot erfolgreich gestartet in {} ms", timer.getElapsedMillis());
         } catch (Exception e) {
             LOGGER.error("Fehler beim Abschließen des Bot-Starts", e);
         }
@@ -161,17 +331,41 @@ public class Bot extends ListenerAdapter {
             // Module deaktivieren
             disableAllModules();
 
+            if (metricsHttpServer != null) {
+                metricsHttpServer.stop();
+                metricsHttpServer = null;
+            }
+
+            // Laufende JFR-Aufzeichnung sichern
+            try {
+                FlightRecording.getInstance().stop();
+            } catch (IOException e) {
+                LOGGER.warn("JFR-Aufzeichnung konnte beim Beenden nicht gesichert werden", e);
+            }
+
             // Listener entfernen
             if (commandManager != null) {
                 commandManager.removeAllListeners();
+                commandManager.shutdown();
             }
 
-            // JDA herunterfahren
-            if (jda != null) {
-                jda.shutdown();
-                jda = null;
+            // Alle Shards herunterfahren
+            ShardHealth.getInstance().stop();
+            if (shardManager != null) {
+                shardManager.shutdown();
+                shardManager = null;
             }
 
+            if (gatewayRecorder != null) {
+                gatewayRecorder.close();
+                gatewayRecorder = null;
+            }
+            FrameRecorder.getInstance().close();
+
+            // Ausstehende Konfigurationsänderungen und Servereinstellungen speichern
+            Config.flush();
+            GuildSettingsStore.getInstance().shutdown();
+
             running = false;
             LOGGER.info("Bot erfolgreich gestoppt");
 
@@ -181,14 +375,17 @@ public class Bot extends ListenerAdapter {
     }
 
     /**
-     * Registriert alle verfügbaren Module.
+     * Registriert und lädt alle verfügbaren Module. Läuft im Hintergrund, während das Gateway verbindet.
      */
     private void registerModules() {
+        long loadStart = System.nanoTime();
+
         // Musik-Modul registrieren
         registerModule(new MusicModule());
 
         // Hier könnten weitere Module registriert werden
 
+        StartupTimer.getInstance().record("module.laden", loadStart);
         LOGGER.info("{} Module registriert", modules.size());
     }
 
@@ -197,14 +394,15 @@ public class Bot extends ListenerAdapter {
      *
      * @param module Das zu registrierende Modul
      */
-    public void registerModule(Module module) {
+    public synchronized void registerModule(Module module) {
         modules.put(module.getName().toLowerCase(), module);
         module.load();
         LOGGER.info("Modul {} registriert", module.getName());
     }
 
     /**
-     * Lädt alle in der Konfiguration aktivierten Module.
+     * Aktiviert alle in der Konfiguration aktivierten Module. Module ohne Abhängigkeit untereinander werden
+     * parallel aktiviert, die übrigen, sobald ihre Abhängigkeiten aktiv sind.
      */
     private void loadEnabledModules() {
         String[] enabledModules = Config.getEnabledModules();
@@ -214,9 +412,77 @@ public class Bot extends ListenerAdapter {
             return;
         }
 
+        Set<String> names = new LinkedHashSet<>();
         for (String moduleName : enabledModules) {
-            enableModule(moduleName.trim().toLowerCase());
+            if (!moduleName.isBlank()) {
+                names.add(moduleName.trim().toLowerCase());
+            }
         }
+
+        Map<String, CompletableFuture<Boolean>> activations = new ConcurrentHashMap<>();
+        for (String name : names) {
+            scheduleActivation(name, names, activations, new HashSet<>());
+        }
+        CompletableFuture.allOf(activations.values().toArray(new CompletableFuture<?>[0])).join();
+
+        long active = activations.values().stream().filter(CompletableFuture::join).count();
+        LOGGER.info("{} von {} Modulen aktiviert", active, names.size());
+    }
+
+    /**
+     * Plant die Aktivierung eines Moduls nach der seiner Abhängigkeiten.
+     *
+     * @param name        Der Name des Moduls
+     * @param enabled     Die Namen aller zu aktivierenden Module
+     * @param activations Bereits geplante Aktivierungen nach Modulname
+     * @param path        Die Module auf dem aktuellen Abhängigkeitspfad, zum Erkennen von Zyklen
+     * @return Ein Future, das mit true abgeschlossen wird, wenn das Modul aktiviert wurde
+     */
+    private CompletableFuture<Boolean> scheduleActivation(String name, Set<String> enabled,
+                                                          Map<String, CompletableFuture<Boolean>> activations,
+                                                          Set<String> path) {
+        CompletableFuture<Boolean> scheduled = activations.get(name);
+        if (scheduled != null) {
+            return scheduled;
+        }
+        if (!path.add(name)) {
+            LOGGER.error("Zyklische Abhängigkeit zwischen den Modulen {}", path);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        List<CompletableFuture<Boolean>> dependencies = new ArrayList<>();
+        Module module = modules.get(name);
+        if (module != null) {
+            for (String dependency : module.getDependencies()) {
+                String dependencyName = dependency.toLowerCase();
+                if (enabled.contains(dependencyName)) {
+                    dependencies.add(scheduleActivation(dependencyName, enabled, activations, path));
+                } else {
+                    LOGGER.error("Modul {} benötigt das Modul {}, das nicht aktiviert ist", name, dependencyName);
+                    dependencies.add(CompletableFuture.completedFuture(false));
+                }
+            }
+        }
+        path.remove(name);
+
+        CompletableFuture<Boolean> activation = CompletableFuture
+                .allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenApplyAsync(ignored -> {
+                    if (!dependencies.stream().allMatch(CompletableFuture::join)) {
+                        LOGGER.error("Modul {} wird nicht aktiviert, da eine Abhängigkeit fehlt", name);
+                        return false;
+                    }
+                    long moduleStart = System.nanoTime();
+                    boolean success = enableModule(name);
+                    StartupTimer.getInstance().record("modul." + name, moduleStart);
+                    return success;
+                }, STARTUP_EXECUTOR)
+                .exceptionally(e -> {
+                    LOGGER.error("Fehler beim Aktivieren des Moduls {}", name, e);
+                    return false;
+                });
+        activations.put(name, activation);
+        return activation;
     }
 
     /**
@@ -238,7 +504,24 @@ public class Bot extends ListenerAdapter {
             return true;
         }
 
-        module.enable(jda);
+        for (String dependency : module.getDependencies()) {
+            Module required = modules.get(dependency.toLowerCase());
+            if (required == null || !required.isEnabled()) {
+                LOGGER.warn("Modul {} benötigt das Modul {}, das nicht aktiviert ist", moduleName, dependency);
+                return false;
+            }
+        }
+
+        module.enable(shardManager);
+        if (!module.isEnabled()) {
+            return false;
+        }
+
+        // Slash-Befehle des Moduls für die Ausführung registrieren
+        commandManager.registerSlashCommands(module.getSlashCommands());
+        if (running) {
+            commandManager.syncCommands();
+        }
         LOGGER.info("Modul {} aktiviert", moduleName);
         return true;
     }
@@ -262,7 +545,11 @@ public class Bot extends ListenerAdapter {
             return true;
         }
 
-        module.disable(jda);
+        commandManager.unregisterSlashCommands(module.getSlashCommands());
+        module.disable(shardManager);
+        if (running) {
+            commandManager.syncCommands();
+        }
         LOGGER.info("Modul {} deaktiviert", moduleName);
         return true;
     }
@@ -273,19 +560,20 @@ public class Bot extends ListenerAdapter {
     private void disableAllModules() {
         for (Module module : modules.values()) {
             if (module.isEnabled()) {
-                module.disable(jda);
+                commandManager.unregisterSlashCommands(module.getSlashCommands());
+                module.disable(shardManager);
                 LOGGER.info("Modul {} deaktiviert", module.getName());
             }
         }
     }
 
     /**
-     * Gibt die JDA-Instanz zurück.
+     * Gibt den ShardManager zurück, über den alle Shards und Server erreichbar sind.
      *
-     * @return Die JDA-Instanz
+     * @return Der ShardManager
      */
-    public JDA getJda() {
-        return jda;
+    public ShardManager getShardManager() {
+        return shardManager;
     }
 
     /**
@@ -6,27 +6,64 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Diese Klasse verwaltet die Konfiguration des Bots.
  * Sie lädt die Einstellungen aus der config.properties-Datei, die an verschiedenen Orten gesucht wird.
+ * <p>
+ * Der geladene Stand wird als unveränderlicher {@link ConfigSnapshot} veröffentlicht, der bei
+ * Änderungen der Datei automatisch neu erstellt und atomar ausgetauscht wird. Schreibzugriffe über
+ * {@link #updateProperty(String, String)} werden gesammelt und im Hintergrund über eine temporäre
+ * Datei mit anschließendem atomaren Umbenennen gespeichert.
  */
 public class Config {
     private static final Logger LOGGER = LoggerFactory.getLogger(Config.class);
     private static final String CONFIG_FILE = "config.properties";
     private static final String CONFIG_EXAMPLE_FILE = "config.properties.example";
+    private static final Path EMBEDDED_RESOURCE = Paths.get("EMBEDDED_RESOURCE");
+
+    // Intervall, in dem die Konfigurationsdatei auf Änderungen geprüft wird
+    private static final long WATCH_INTERVAL_SECONDS = 2;
+
+    // Verzögerung, mit der gesammelte Schreibzugriffe gespeichert werden
+    private static final long WRITE_DELAY_MILLIS = 500;
+
+    // Arbeitskopie der Eigenschaften, nur unter der Klassen-Sperre verändern
     private static final Properties properties = new Properties();
     private static boolean isLoaded = false;
     private static Path loadedConfigPath = null;
 
+    // Aktuell veröffentlichter Konfigurationsstand
+    private static volatile ConfigSnapshot snapshot;
+
+    // Hintergrund-Thread für Dateiüberwachung und verzögerte Schreibzugriffe
+    private static final ScheduledExecutorService ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "config-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static boolean watcherStarted = false;
+    private static boolean writeScheduled = false;
+    private static volatile FileTime lastKnownModified = null;
+
+    // Werden nach jeder Änderung der Konfiguration mit dem neuen Stand aufgerufen
+    private static final List<Consumer<ConfigSnapshot>> changeListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Lädt die Konfigurationsdatei beim ersten Zugriff.
      * Versucht mehrere Orte, bis eine gültige Konfiguration gefunden wird.
@@ -98,7 +135,7 @@ public class Config {
                     if (token != null && !token.trim().isEmpty() && !token.equals("YOUR_TOKEN_HERE") &&
                             !token.equals("BITTE_HIER_DEIN_BOT_TOKEN_EINFÜGEN")) {
                         LOGGER.info("Konfiguration aus eingebetteter Ressource geladen");
-                        loadedConfigPath = Paths.get("EMBEDDED_RESOURCE");
+                        loadedConfigPath = EMBEDDED_RESOURCE;
                         isLoaded = true;
 
                         // Speichere die Konfiguration für spätere Bearbeitungen
@@ -125,6 +162,132 @@ public class Config {
                 LOGGER.info(" - {}", path.toAbsolutePath());
             }
         }
+
+        // Geparsten Stand veröffentlichen und Dateiüberwachung starten
+        snapshot = ConfigSnapshot.from(properties);
+        rememberModificationTime();
+        startWatcher();
+    }
+
+    /**
+     * Startet die regelmäßige Prüfung der geladenen Konfigurationsdatei auf Änderungen.
+     * Wird nur einmal gestartet und nur, wenn die Konfiguration aus einer Datei stammt.
+     */
+    private static void startWatcher() {
+        if (watcherStarted || !isFileBacked()) {
+            return;
+        }
+
+        watcherStarted = true;
+        ioExecutor.scheduleWithFixedDelay(Config::checkForChanges,
+                WATCH_INTERVAL_SECONDS, WATCH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        LOGGER.debug("Überwache Konfigurationsdatei {} auf Änderungen", loadedConfigPath);
+    }
+
+    /**
+     * Lädt die Konfigurationsdatei neu, wenn sich ihr Änderungszeitpunkt geändert hat.
+     * Solange noch Schreibzugriffe ausstehen, wird die Prüfung übersprungen, damit diese nicht verloren gehen.
+     */
+    private static void checkForChanges() {
+        try {
+            Path path;
+            synchronized (Config.class) {
+                path = loadedConfigPath;
+                if (path == null || writeScheduled) {
+                    return;
+                }
+            }
+
+            if (!Files.exists(path)) {
+                return;
+            }
+
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(lastKnownModified)) {
+                return;
+            }
+
+            Properties reloaded = new Properties();
+            try (InputStream input = Files.newInputStream(path)) {
+                reloaded.load(input);
+            }
+
+            synchronized (Config.class) {
+                if (writeScheduled) {
+                    return;
+                }
+
+                // Einen gültigen Token nicht durch eine versehentlich geleerte Datei verlieren
+                String token = reloaded.getProperty("bot.token");
+                if (token == null || token.trim().isEmpty()) {
+                    reloaded.setProperty("bot.token", properties.getProperty("bot.token", ""));
+                }
+
+                properties.clear();
+                properties.putAll(reloaded);
+                snapshot = ConfigSnapshot.from(properties);
+                lastKnownModified = modified;
+            }
+
+            LOGGER.info("Änderung an {} erkannt, Konfiguration neu geladen", path);
+            notifyChangeListeners();
+        } catch (IOException e) {
+            LOGGER.warn("Fehler beim Prüfen der Konfigurationsdatei auf Änderungen: {}", e.getMessage());
+        } catch (Exception e) {
+            LOGGER.error("Unerwarteter Fehler bei der Überwachung der Konfiguration", e);
+        }
+    }
+
+    /**
+     * Merkt sich den Änderungszeitpunkt der geladenen Datei, damit eigene Schreibzugriffe
+     * nicht als externe Änderung erkannt werden.
+     */
+    private static void rememberModificationTime() {
+        if (!isFileBacked()) {
+            return;
+        }
+
+        try {
+            lastKnownModified = Files.getLastModifiedTime(loadedConfigPath);
+        } catch (IOException e) {
+            lastKnownModified = null;
+        }
+    }
+
+    /**
+     * Prüft, ob die Konfiguration aus einer Datei im Dateisystem geladen wurde.
+     *
+     * @return true, wenn eine Datei geladen wurde
+     */
+    private static boolean isFileBacked() {
+        return loadedConfigPath != null && !loadedConfigPath.equals(EMBEDDED_RESOURCE);
+    }
+
+    /**
+     * Speichert die Eigenschaften über eine temporäre Datei, die anschließend atomar umbenannt wird.
+     * Dadurch sieht die Dateiüberwachung nie eine halb geschriebene Datei.
+     *
+     * @param target  Die Zieldatei
+     * @param content Die zu speichernden Eigenschaften
+     * @param comment Der Kommentar im Dateikopf
+     * @throws IOException Wenn das Schreiben fehlschlägt
+     */
+    private static void writeAtomically(Path target, Properties content, String comment) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+
+        Path tempFile = directory.resolve(target.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(tempFile)) {
+            content.store(output, comment);
+        }
+
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     /**
@@ -135,7 +298,7 @@ public class Config {
      * Bestehende Werte werden nicht überschrieben.
      */
     public static void applyMissingProperties() {
-        if (loadedConfigPath == null || loadedConfigPath.equals(Paths.get("EMBEDDED_RESOURCE"))) {
+        if (!isFileBacked()) {
             return; // Keine Migration nötig, wenn keine Datei geladen wurde
         }
 
@@ -159,8 +322,12 @@ public class Config {
 
         // Speichere die aktualisierte Konfiguration, wenn Änderungen vorgenommen wurden
         if (addedOptions > 0) {
-            try (OutputStream output = Files.newOutputStream(loadedConfigPath)) {
-                properties.store(output, "Konfiguration für Adelheit Discord Bot - Automatisch migriert");
+            try {
+                synchronized (Config.class) {
+                    writeAtomically(loadedConfigPath, properties, "Konfiguration für Adelheit Discord Bot - Automatisch migriert");
+                    snapshot = ConfigSnapshot.from(properties);
+                    rememberModificationTime();
+                }
                 LOGGER.info("{} neue Konfigurationsoptionen hinzugefügt und in {} gespeichert",
                         addedOptions, loadedConfigPath);
             } catch (IOException e) {
@@ -176,7 +343,7 @@ public class Config {
      * Fehlende Eigenschaften werden nur protokolliert, aber nicht automatisch hinzugefügt.
      */
     private static void checkMissingProperties() {
-        if (loadedConfigPath == null || loadedConfigPath.equals(Paths.get("EMBEDDED_RESOURCE"))) {
+        if (!isFileBacked()) {
             return; // Keine Überprüfung möglich, wenn keine Datei geladen wurde
         }
 
@@ -267,6 +434,22 @@ public class Config {
         return false;
     }
 
+    /**
+     * Gibt den aktuellen, bereits geparsten Konfigurationsstand zurück.
+     * Der Aufruf kostet nach dem ersten Laden nur noch einen Feldzugriff und ist
+     * daher auch für häufig ausgeführte Codepfade geeignet.
+     *
+     * @return Der aktuelle Konfigurations-Snapshot
+     */
+    public static ConfigSnapshot get() {
+        ConfigSnapshot current = snapshot;
+        if (current == null) {
+            loadConfig();
+            current = snapshot;
+        }
+        return current;
+    }
+
     /**
      * Gibt den Wert für den angegebenen Schlüssel zurück.
      * Wenn der Schlüssel nicht in der Konfiguration gefunden wird, wird der registrierte
@@ -276,8 +459,7 @@ public class Config {
      * @return Der Wert für den Schlüssel, der registrierte Standardwert oder null
      */
     public static String getProperty(String key) {
-        loadConfig();
-        String value = properties.getProperty(key);
+        String value = get().raw(key);
 
         if (value == null) {
             // Wenn der Wert nicht in der Konfiguration gefunden wurde,
@@ -303,33 +485,51 @@ public class Config {
 
     /**
      * Aktualisiert eine Eigenschaft und speichert sie in der Konfigurationsdatei.
+     * Der neue Wert ist sofort über {@link #get()} sichtbar. Das Speichern erfolgt verzögert
+     * im Hintergrund, sodass mehrere kurz aufeinanderfolgende Änderungen in einem einzigen
+     * Schreibvorgang zusammengefasst werden.
      *
      * @param key Der Schlüssel der Eigenschaft
      * @param value Der neue Wert der Eigenschaft
-     * @return true, wenn die Aktualisierung erfolgreich war
+     * @return true, wenn die Aktualisierung übernommen wurde
      */
     public static boolean updateProperty(String key, String value) {
         loadConfig();
-        properties.setProperty(key, value);
 
-        // Wenn keine Konfigurationsdatei geladen wurde, speichere in config/config.properties
-        Path savePath = (loadedConfigPath != null && !loadedConfigPath.equals(Paths.get("EMBEDDED_RESOURCE")))
-                ? loadedConfigPath
-                : Paths.get("config", CONFIG_FILE);
+        synchronized (Config.class) {
+            properties.setProperty(key, value);
+            snapshot = ConfigSnapshot.from(properties);
 
-        // Stelle sicher, dass das Verzeichnis existiert
-        if (!Files.exists(savePath.getParent())) {
-            try {
-                Files.createDirectories(savePath.getParent());
-            } catch (IOException e) {
-                LOGGER.error("Fehler beim Erstellen des Konfigurationsverzeichnisses", e);
-                return false;
+            if (!writeScheduled) {
+                writeScheduled = true;
+                ioExecutor.schedule(Config::flush, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
             }
         }
 
+        LOGGER.debug("Konfigurationsoption {} aktualisiert, Speichern eingeplant", key);
+        notifyChangeListeners();
+        return true;
+    }
+
+    /**
+     * Speichert ausstehende Änderungen sofort in die Konfigurationsdatei.
+     * Wird vom Hintergrund-Thread und beim Herunterfahren des Bots aufgerufen.
+     *
+     * @return true, wenn keine Änderungen ausstanden oder das Speichern erfolgreich war
+     */
+    public static synchronized boolean flush() {
+        if (!writeScheduled) {
+            return true;
+        }
+        writeScheduled = false;
+
+        // Wenn keine Konfigurationsdatei geladen wurde, speichere in config/config.properties
+        Path savePath = isFileBacked() ? loadedConfigPath : Paths.get("config", CONFIG_FILE);
+
         try {
-            try (OutputStream output = Files.newOutputStream(savePath)) {
-                properties.store(output, "Konfiguration für Adelheit Discord Bot");
+            writeAtomically(savePath, properties, "Konfiguration für Adelheit Discord Bot");
+            if (savePath.equals(loadedConfigPath)) {
+                rememberModificationTime();
             }
             LOGGER.info("Konfiguration aktualisiert und in {} gespeichert", savePath);
             return true;
@@ -343,9 +543,37 @@ public class Config {
      * Lädt die Konfiguration neu.
      */
     public static void reloadConfig() {
-        isLoaded = false;
+        synchronized (Config.class) {
+            isLoaded = false;
+        }
         loadConfig();
         LOGGER.info("Konfiguration neu geladen");
+        notifyChangeListeners();
+    }
+
+    /**
+     * Registriert einen Listener, der nach jeder Änderung der Konfiguration aufgerufen wird
+     * (Dateiänderung, {@link #updateProperty(String, String)} oder {@link #reloadConfig()}).
+     * Listener laufen auf dem Thread, der die Änderung ausgelöst hat, und sollten daher schnell sein.
+     *
+     * @param listener Erhält den neuen Konfigurations-Snapshot
+     */
+    public static void addChangeListener(Consumer<ConfigSnapshot> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Benachrichtigt alle Listener über den aktuellen Konfigurationsstand.
+     */
+    private static void notifyChangeListeners() {
+        ConfigSnapshot current = snapshot;
+        for (Consumer<ConfigSnapshot> listener : changeListeners) {
+            try {
+                listener.accept(current);
+            } catch (Exception e) {
+                LOGGER.error("Fehler in einem Listener für Konfigurationsänderungen", e);
+            }
+        }
     }
 
     /**
@@ -375,7 +603,7 @@ public class Config {
      * @return Das Bot-Präfix aus der Konfiguration oder "!" als Standardwert
      */
     public static String getPrefix() {
-        return getProperty("bot.prefix", "!");
+        return get().prefix();
     }
 
     /**
@@ -384,7 +612,7 @@ public class Config {
      * @return Der Aktivitätstext aus der Konfiguration oder "mit Discord" als Standardwert
      */
     public static String getActivity() {
-        return getProperty("bot.activity", "mit Discord");
+        return get().activity();
     }
 
     /**
@@ -393,11 +621,7 @@ public class Config {
      * @return Ein Array mit den Namen der aktivierten Module
      */
     public static String[] getEnabledModules() {
-        String modules = getProperty("modules.enabled", "");
-        if (modules.isEmpty()) {
-            return new String[0];
-        }
-        return modules.split(",");
+        return get().enabledModules().toArray(new String[0]);
     }
 
     /**
@@ -407,9 +631,8 @@ public class Config {
      * @return true, wenn das Modul aktiviert ist, sonst false
      */
     public static boolean isModuleEnabled(String moduleName) {
-        String[] modules = getEnabledModules();
-        for (String module : modules) {
-            if (module.trim().equalsIgnoreCase(moduleName)) {
+        for (String module : get().enabledModules()) {
+            if (module.equalsIgnoreCase(moduleName)) {
                 return true;
             }
         }
@@ -422,7 +645,7 @@ public class Config {
      * @return Die maximale Warteschlangengröße
      */
     public static int getMaxQueueSize() {
-        return Integer.parseInt(getProperty("music.max_queue_size", "100"));
+        return get().maxQueueSize();
     }
 
     /**
@@ -431,7 +654,7 @@ public class Config {
      * @return Der Name der Standard-Playlist
      */
     public static String getDefaultPlaylist() {
-        return getProperty("music.default_playlist", "chill");
+        return get().defaultPlaylist();
     }
 
     /**
@@ -440,7 +663,7 @@ public class Config {
      * @return Der Timeout in Sekunden
      */
     public static int getAutoLeaveTimeout() {
-        return Integer.parseInt(getProperty("music.auto_leave_timeout", "300"));
+        return get().autoLeaveTimeout();
     }
 
     /**
@@ -449,8 +672,7 @@ public class Config {
      * @return Ein Array mit erlaubten Musikformaten
      */
     public static String[] getAllowedMusicFormats() {
-        String formats = getProperty("music.allowed_formats", "mp3,wav,flac");
-        return formats.split(",");
+        return get().allowedMusicFormats().toArray(new String[0]);
     }
 
     /**
@@ -459,7 +681,7 @@ public class Config {
      * @return Die maximale Lautstärke
      */
     public static int getMaxVolume() {
-        return Integer.parseInt(getProperty("music.max_volume", "200"));
+        return get().maxVolume();
     }
 
     /**
@@ -468,7 +690,7 @@ public class Config {
      * @return Das Logging-Level
      */
     public static String getLoggingLevel() {
-        return getProperty("logging.level", "INFO");
+        return get().loggingLevel();
     }
 
     /**
@@ -486,7 +708,7 @@ public class Config {
      * @return Der Timeout in Sekunden
      */
     public static int getWaitingRoomTimeout() {
-        return Integer.parseInt(getProperty("warteraum.auto_leave_timeout", "60"));
+        return get().waitingRoomTimeout();
     }
 
     /**
@@ -495,7 +717,7 @@ public class Config {
      * @return Der Name der Standard-Playlist
      */
     public static String getWaitingRoomDefaultPlaylist() {
-        return getProperty("warteraum.default_playlist", "chill");
+        return get().waitingRoomDefaultPlaylist();
     }
 
     /**
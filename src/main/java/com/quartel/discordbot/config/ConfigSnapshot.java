@@ -0,0 +1,166 @@
+package com.quartel.discordbot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Unveränderlicher, bereits geparster Stand der Konfiguration.
+ * Ein Snapshot wird beim Laden bzw. Neuladen der config.properties einmalig erstellt und
+ * danach atomar in {@link Config} ausgetauscht. Lesezugriffe auf typisierte Werte kosten
+ * dadurch nur noch einen Feldzugriff, statt bei jedem Aufruf Strings zu parsen.
+ *
+ * @param values                     Alle Rohwerte der Konfiguration (ohne Standardwerte)
+ * @param prefix                     Das Präfix für Text-Befehle
+ * @param activity                   Der Aktivitätstext des Bots
+ * @param enabledModules             Die Namen der aktivierten Module (getrimmt, ohne leere Einträge)
+ * @param defaultVolume              Die Standard-Lautstärke neuer Player
+ * @param musicTimeout               Der Inaktivitäts-Timeout eines Players in Sekunden
+ * @param maxQueueSize               Die maximale Warteschlangengröße
+ * @param autoLeaveTimeout           Der Auto-Leave-Timeout in Sekunden
+ * @param allowedMusicFormats        Die erlaubten Musikformate
+ * @param maxVolume                  Die maximale Lautstärke
+ * @param defaultPlaylist            Die Standard-Playlist
+ * @param loggingLevel               Das Logging-Level
+ * @param waitingRoomChannelId       Die Channel-ID des Warteraums oder 0, wenn nicht konfiguriert
+ * @param waitingRoomTimeout         Der Warteraum-Timeout in Sekunden
+ * @param waitingRoomDefaultPlaylist Die Standard-Playlist für den Warteraum
+ */
+public record ConfigSnapshot(
+        Map<String, String> values,
+        String prefix,
+        String activity,
+        List<String> enabledModules,
+        int defaultVolume,
+        int musicTimeout,
+        int maxQueueSize,
+        int autoLeaveTimeout,
+        List<String> allowedMusicFormats,
+        int maxVolume,
+        String defaultPlaylist,
+        String loggingLevel,
+        long waitingRoomChannelId,
+        int waitingRoomTimeout,
+        String waitingRoomDefaultPlaylist
+) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    /**
+     * Erstellt einen Snapshot aus den geladenen Eigenschaften.
+     * Ungültige Zahlenwerte werden protokolliert und durch den Standardwert ersetzt.
+     *
+     * @param properties Die geladenen Eigenschaften
+     * @return Der validierte Snapshot
+     */
+    static ConfigSnapshot from(Properties properties) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+
+        return new ConfigSnapshot(
+                Map.copyOf(values),
+                string(values, "bot.prefix", "!"),
+                string(values, "bot.activity", "mit Discord"),
+                list(values, "modules.enabled", ""),
+                integer(values, "music.volume.default", 50),
+                integer(values, "music.timeout", 60),
+                integer(values, "music.max_queue_size", 100),
+                integer(values, "music.auto_leave_timeout", 300),
+                list(values, "music.allowed_formats", "mp3,wav,flac"),
+                integer(values, "music.max_volume", 200),
+                string(values, "music.default_playlist", "chill"),
+                string(values, "logging.level", "INFO"),
+                channelId(values, "warteraum.channel_id"),
+                integer(values, "warteraum.auto_leave_timeout", 60),
+                string(values, "warteraum.default_playlist", "chill")
+        );
+    }
+
+    /**
+     * Gibt den Rohwert für einen Schlüssel zurück, ohne Standardwerte zu berücksichtigen.
+     *
+     * @param key Der Schlüssel der Eigenschaft
+     * @return Der Wert oder null
+     */
+    public String raw(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Prüft, ob ein Warteraum-Channel konfiguriert ist.
+     *
+     * @return true, wenn eine gültige Channel-ID hinterlegt ist
+     */
+    public boolean hasWaitingRoomChannel() {
+        return waitingRoomChannelId != 0L;
+    }
+
+    /**
+     * Liest einen String-Wert, Reihenfolge: Konfiguration, registrierter Standardwert, Fallback.
+     */
+    private static String string(Map<String, String> values, String key, String fallback) {
+        String value = values.get(key);
+        if (value == null) {
+            value = DefaultConfigManager.getDefault(key);
+        }
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * Liest einen Integer-Wert und fällt bei ungültigen Werten auf den Standardwert zurück.
+     */
+    private static int integer(Map<String, String> values, String key, int fallback) {
+        String value = values.get(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ungültiger Wert für {} in config.properties: \"{}\", verwende Standardwert", key, value);
+            }
+        }
+
+        String defaultValue = DefaultConfigManager.getDefault(key);
+        if (defaultValue != null) {
+            try {
+                return Integer.parseInt(defaultValue);
+            } catch (NumberFormatException ignored) {
+                // Fällt auf den Fallback zurück
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Liest eine kommagetrennte Liste. Leere Einträge werden verworfen.
+     */
+    private static List<String> list(Map<String, String> values, String key, String fallback) {
+        String value = string(values, key, fallback);
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Liest eine Channel-ID. Platzhalter und ungültige Werte ergeben 0.
+     */
+    private static long channelId(Map<String, String> values, String key) {
+        String value = string(values, key, "");
+        if (value.isEmpty() || "YOUR_CHANNEL_ID_HERE".equals(value)) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültige Channel-ID für {} in config.properties: \"{}\"", key, value);
+            return 0L;
+        }
+    }
+}
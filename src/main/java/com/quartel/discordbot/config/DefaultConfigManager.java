@@ -23,6 +23,15 @@ public class DefaultConfigManager {
         registerDefault("bot.token", "");
         registerDefault("bot.prefix", "!");
         registerDefault("bot.activity", "Musik");
+        registerDefault("bot.gateway_profile", "full");
+        registerDefault("bot.shards.total", "auto");
+        registerDefault("bot.shards.range", "");
+        registerDefault("bot.owner_ids", "");
+        registerDefault("bot.ops_guild_id", "");
+
+        // Umleitung auf einen lokalen Discord-Ersatz für Tests (leer = Discord)
+        registerDefault("discord.rest_url", "");
+        registerDefault("discord.gateway_url", "");
 
         // Modul-Konfiguration
         registerDefault("modules.enabled", "music");
@@ -38,6 +47,8 @@ public class DefaultConfigManager {
 
         // Logging
         registerDefault("logging.level", "INFO");
+        // Höchstzahl häufiger Meldungen pro Sekunde und Teilsystem (logging.sample.<teilsystem> überschreibt)
+        registerDefault("logging.sample_per_second", "20");
 
         // Berechtigungen für Musikbefehle
         registerDefault("music.permissions.play", "EVERYONE");
@@ -54,6 +65,56 @@ public class DefaultConfigManager {
         registerDefault("warteraum.auto_leave_timeout", "60");
         registerDefault("warteraum.default_playlist", "chill");
 
+        // Ausführung von Slash-Befehlen (pro Befehl überschreibbar, z.B. commands.play.max_concurrent)
+        registerDefault("commands.max_concurrent", "8");
+        registerDefault("commands.timeout_seconds", "15");
+        registerDefault("interactions.auto_defer_millis", "1500");
+        registerDefault("commands.registration", "guild");
+        registerDefault("commands.registration_parallelism", "4");
+
+        // Flutschutz (<anzahl>/<sekunden>)
+        registerDefault("ratelimit.enabled", "true");
+        registerDefault("ratelimit.user", "10/20");
+        registerDefault("ratelimit.guild", "60/20");
+        registerDefault("ratelimit.autocomplete", "20/10");
+        registerDefault("ratelimit.command.play", "5/30");
+
+        // Ausgehende REST-Aufrufe
+        registerDefault("rest.max_in_flight", "8");
+        registerDefault("rest.background_max_in_flight", "2");
+
+        // Live-Anzeige der aktuellen Wiedergabe
+        registerDefault("music.nowplaying.edits_per_second", "5");
+        registerDefault("music.nowplaying.min_interval_seconds", "10");
+
+        // Audio-Node für Dekodierung und Opus-Kodierung außerhalb der Bot-JVM
+        registerDefault("audio.node", "off");
+        registerDefault("audio.node.buffer_frames", "25");
+
+        // Prometheus-Metriken über einen eingebetteten HTTP-Server
+        registerDefault("metrics.http.enabled", "false");
+        registerDefault("metrics.http.bind", "127.0.0.1");
+        registerDefault("metrics.http.port", "9464");
+
+        // JFR-Aufzeichnung (auch über /jfr steuerbar)
+        registerDefault("jfr.enabled", "false");
+        registerDefault("jfr.settings", "default");
+        registerDefault("jfr.max_age_minutes", "30");
+        registerDefault("jfr.max_size_mb", "100");
+        registerDefault("jfr.directory", "logs/jfr");
+        registerDefault("jfr.frame_sample_interval", "50");
+
+        // Aufzeichnung von Gateway-Ereignissen für die Wiedergabe im Discord-Ersatz
+        registerDefault("trace.enabled", "false");
+        registerDefault("trace.directory", "logs/traces");
+        registerDefault("trace.events", "GUILD_CREATE,GUILD_DELETE,VOICE_STATE_UPDATE,INTERACTION_CREATE");
+        registerDefault("trace.max_events", "1000000");
+        registerDefault("trace.frames.enabled", "false");
+        registerDefault("trace.frames.max_seconds", "600");
+
+        // Servereinstellungen (Berechtigungen, Warteraum, Lautstärke und Playlist pro Server)
+        registerDefault("guild_settings.file", "data/guild_settings.log");
+
         // Hier neue Konfigurationsoptionen hinzufügen:
         // BEISPIEL: registerDefault("feature.new.option", "default value");
     }
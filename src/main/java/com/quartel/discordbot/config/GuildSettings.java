@@ -0,0 +1,179 @@
+package com.quartel.discordbot.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unveränderliche Einstellungen eines einzelnen Servers.
+ * Die Schlüssel entsprechen den Schlüsseln der config.properties, sodass jeder Wert
+ * als servergebundene Überschreibung der globalen Konfiguration verstanden werden kann.
+ * Ist ein Wert für den Server nicht gesetzt, wird auf die globale Konfiguration zurückgegriffen.
+ */
+public final class GuildSettings {
+
+    /**
+     * Schlüssel für den Warteraum-Channel des Servers.
+     */
+    public static final String WAITING_ROOM_CHANNEL = "warteraum.channel_id";
+
+    /**
+     * Schlüssel für die zuletzt im Warteraum verwendete Playlist.
+     */
+    public static final String WAITING_ROOM_PLAYLIST = "warteraum.default_playlist";
+
+    /**
+     * Schlüssel, der speichert, ob der Warteraum-Modus aktiviert ist.
+     */
+    public static final String WAITING_ROOM_ACTIVE = "warteraum.active";
+
+    /**
+     * Schlüssel für die Standard-Lautstärke neuer Player.
+     */
+    public static final String DEFAULT_VOLUME = "music.volume.default";
+
+    /**
+     * Schlüssel für die Standard-Playlist des Servers.
+     */
+    public static final String DEFAULT_PLAYLIST = "music.default_playlist";
+
+    /**
+     * Präfix der Schlüssel für Befehlsberechtigungen, gefolgt vom Befehlsnamen.
+     */
+    public static final String PERMISSION_PREFIX = "music.permissions.";
+
+    /**
+     * Schlüssel für den Hash der zuletzt registrierten Slash-Befehle.
+     */
+    public static final String COMMANDS_HASH = "commands.hash";
+
+    /**
+     * Einstellungen eines Servers, für den noch nichts gespeichert wurde.
+     */
+    static final GuildSettings EMPTY = new GuildSettings(Map.of());
+
+    private final Map<String, String> values;
+
+    GuildSettings(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Gibt eine Kopie dieser Einstellungen mit einem geänderten Wert zurück.
+     *
+     * @param key   Der Schlüssel
+     * @param value Der neue Wert oder null, um den Wert zu entfernen
+     * @return Die neuen Einstellungen
+     */
+    GuildSettings with(String key, String value) {
+        Map<String, String> copy = new HashMap<>(values);
+        if (value == null) {
+            copy.remove(key);
+        } else {
+            copy.put(key, value);
+        }
+        return new GuildSettings(Map.copyOf(copy));
+    }
+
+    /**
+     * Gibt alle für den Server gespeicherten Werte zurück.
+     *
+     * @return Eine unveränderliche Map der Werte
+     */
+    public Map<String, String> values() {
+        return values;
+    }
+
+    /**
+     * Gibt den für den Server gespeicherten Wert zurück, ohne auf die globale Konfiguration zurückzugreifen.
+     *
+     * @param key Der Schlüssel
+     * @return Der Wert oder null
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Gibt den Wert für den Server oder ersatzweise den Wert der globalen Konfiguration zurück.
+     *
+     * @param key Der Schlüssel
+     * @return Der Wert oder null, wenn weder Server noch Konfiguration einen Wert kennen
+     */
+    public String getOrGlobal(String key) {
+        String value = values.get(key);
+        return value != null ? value : Config.getProperty(key);
+    }
+
+    /**
+     * Gibt die Channel-ID des Warteraums zurück.
+     *
+     * @return Die Channel-ID oder 0, wenn kein Warteraum konfiguriert ist
+     */
+    public long getWaitingRoomChannelId() {
+        String value = values.get(WAITING_ROOM_CHANNEL);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ignored) {
+                // Fällt auf die globale Konfiguration zurück
+            }
+        }
+        return Config.get().waitingRoomChannelId();
+    }
+
+    /**
+     * Gibt zurück, ob der Warteraum-Modus für den Server aktiviert ist.
+     *
+     * @return true, wenn der Warteraum-Modus aktiviert wurde
+     */
+    public boolean isWaitingRoomActive() {
+        return Boolean.parseBoolean(values.get(WAITING_ROOM_ACTIVE));
+    }
+
+    /**
+     * Gibt die Playlist für den Warteraum zurück.
+     *
+     * @return Der Name der Playlist
+     */
+    public String getWaitingRoomPlaylist() {
+        String value = values.get(WAITING_ROOM_PLAYLIST);
+        return value != null ? value : Config.get().waitingRoomDefaultPlaylist();
+    }
+
+    /**
+     * Gibt die Standard-Lautstärke für neue Player zurück.
+     *
+     * @return Die Standard-Lautstärke
+     */
+    public int getDefaultVolume() {
+        String value = values.get(DEFAULT_VOLUME);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException ignored) {
+                // Fällt auf die globale Konfiguration zurück
+            }
+        }
+        return Config.get().defaultVolume();
+    }
+
+    /**
+     * Gibt die Standard-Playlist des Servers zurück.
+     *
+     * @return Der Name der Playlist
+     */
+    public String getDefaultPlaylist() {
+        String value = values.get(DEFAULT_PLAYLIST);
+        return value != null ? value : Config.get().defaultPlaylist();
+    }
+
+    /**
+     * Gibt die konfigurierte Berechtigungsstufe eines Befehls als Text zurück.
+     *
+     * @param commandName Der Name des Befehls (klein geschrieben)
+     * @return Die Berechtigungsstufe oder null, wenn nichts konfiguriert ist
+     */
+    public String getPermission(String commandName) {
+        return getOrGlobal(PERMISSION_PREFIX + commandName);
+    }
+}
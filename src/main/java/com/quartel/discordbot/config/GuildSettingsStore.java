@@ -0,0 +1,350 @@
+package com.quartel.discordbot.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eingebetteter, persistenter Speicher für servergebundene Einstellungen.
+ * <p>
+ * Alle Einstellungen liegen vollständig im Speicher ({@link ConcurrentHashMap} pro Server), Lesezugriffe
+ * kommen daher ohne Dateizugriff aus. Jede Änderung wird als JSON-Zeile an eine Logdatei angehängt.
+ * Ein eigener Schreib-Thread fasst alle gleichzeitig anstehenden Änderungen zusammen und synchronisiert
+ * sie mit einem einzigen {@code fsync} auf die Platte. Wächst das Log deutlich über die Zahl der
+ * tatsächlich gesetzten Werte hinaus, wird es in eine temporäre Datei verdichtet und atomar ersetzt.
+ */
+public class GuildSettingsStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GuildSettingsStore.class);
+    private static GuildSettingsStore instance;
+
+    // Verdichtung erst ab dieser Anzahl von Log-Einträgen
+    private static final int MIN_RECORDS_FOR_COMPACTION = 1000;
+    // Verdichten, wenn das Log mehr als doppelt so viele Einträge wie gesetzte Werte enthält
+    private static final int COMPACTION_RATIO = 2;
+
+    private final Gson gson = new Gson();
+    private final Path logPath;
+    private final Map<Long, GuildSettings> cache = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingWrite> writeQueue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+
+    // Markiert in der Warteschlange das Ende der Schreib-Schleife
+    private static final PendingWrite SHUTDOWN = new PendingWrite(null, null);
+
+    // Anzahl aller gesetzten Werte über alle Server, wird bei jeder Änderung nachgeführt
+    private final AtomicInteger liveValues = new AtomicInteger();
+
+    private FileChannel channel;
+    private int logRecords = 0;
+    private volatile boolean running = true;
+
+    /**
+     * Ein Eintrag der Logdatei. Ein Wert von null entfernt den Schlüssel.
+     */
+    private record LogRecord(long g, String k, String v) {
+    }
+
+    /**
+     * Eine Änderung, die noch auf das Schreiben in die Logdatei wartet.
+     */
+    private record PendingWrite(LogRecord record, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * Privater Konstruktor für Singleton-Muster.
+     */
+    private GuildSettingsStore() {
+        this.logPath = Paths.get(Config.getProperty("guild_settings.file", "data/guild_settings.log"));
+        load();
+
+        this.writerThread = new Thread(this::writeLoop, "guild-settings-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Gibt die einzige Instanz des Speichers zurück oder erstellt sie, falls sie nicht existiert.
+     *
+     * @return Die GuildSettingsStore-Instanz
+     */
+    public static synchronized GuildSettingsStore getInstance() {
+        if (instance == null) {
+            instance = new GuildSettingsStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Gibt die Einstellungen eines Servers zurück.
+     *
+     * @param guildId Die ID des Servers
+     * @return Die Einstellungen; nie null
+     */
+    public GuildSettings get(long guildId) {
+        return cache.getOrDefault(guildId, GuildSettings.EMPTY);
+    }
+
+    /**
+     * Setzt einen Wert für einen Server. Die Änderung ist sofort lesbar; das zurückgegebene
+     * Future wird abgeschlossen, sobald sie dauerhaft auf der Platte liegt.
+     *
+     * @param guildId Die ID des Servers
+     * @param key     Der Schlüssel
+     * @param value   Der neue Wert oder null, um den Wert zu entfernen
+     * @return Ein Future, das nach dem Synchronisieren auf die Platte abgeschlossen wird
+     */
+    public CompletableFuture<Void> set(long guildId, String key, String value) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        if (!running) {
+            durable.completeExceptionally(new IllegalStateException("GuildSettingsStore wurde bereits geschlossen"));
+            return durable;
+        }
+
+        LogRecord record = new LogRecord(guildId, key, value);
+        // Cache und Log-Reihenfolge müssen übereinstimmen, sonst gewinnt nach einem Neustart ein anderer Wert
+        synchronized (writeQueue) {
+            apply(record);
+            writeQueue.add(new PendingWrite(record, durable));
+        }
+        return durable;
+    }
+
+    /**
+     * Entfernt einen Wert für einen Server, sodass wieder die globale Konfiguration gilt.
+     *
+     * @param guildId Die ID des Servers
+     * @param key     Der Schlüssel
+     * @return Ein Future, das nach dem Synchronisieren auf die Platte abgeschlossen wird
+     */
+    public CompletableFuture<Void> remove(long guildId, String key) {
+        return set(guildId, key, null);
+    }
+
+    /**
+     * Gibt die Anzahl der Server zurück, für die Einstellungen gespeichert sind.
+     *
+     * @return Die Anzahl der Server
+     */
+    public int getGuildCount() {
+        return cache.size();
+    }
+
+    /**
+     * Schreibt alle ausstehenden Änderungen und schließt die Logdatei.
+     */
+    public void shutdown() {
+        running = false;
+        // Kein interrupt(): ein unterbrochener FileChannel würde geschlossen
+        writeQueue.add(SHUTDOWN);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("GuildSettingsStore geschlossen");
+    }
+
+    /**
+     * Liest die Logdatei vollständig ein und baut den Cache auf.
+     * Eine unvollständige letzte Zeile (z.B. nach einem Absturz während des Schreibens) wird verworfen.
+     */
+    private void load() {
+        try {
+            Path parent = logPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            if (Files.exists(logPath)) {
+                int skipped = 0;
+                try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            LogRecord record = gson.fromJson(line, LogRecord.class);
+                            if (record == null || record.k() == null) {
+                                skipped++;
+                                continue;
+                            }
+                            apply(record);
+                            logRecords++;
+                        } catch (JsonParseException e) {
+                            skipped++;
+                        }
+                    }
+                }
+
+                if (skipped > 0) {
+                    LOGGER.warn("{} beschädigte Einträge in {} übersprungen", skipped, logPath);
+                }
+            }
+
+            LOGGER.info("Servereinstellungen geladen: {} Server, {} Log-Einträge", cache.size(), logRecords);
+
+            if (needsCompaction()) {
+                compact();
+            } else {
+                openChannel();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Fehler beim Laden der Servereinstellungen aus {}", logPath, e);
+        }
+    }
+
+    /**
+     * Wendet einen Log-Eintrag auf den Cache an.
+     */
+    private void apply(LogRecord record) {
+        cache.compute(record.g(), (id, current) -> {
+            GuildSettings previous = current != null ? current : GuildSettings.EMPTY;
+            GuildSettings updated = previous.with(record.k(), record.v());
+            liveValues.addAndGet(updated.values().size() - previous.values().size());
+            return updated.values().isEmpty() ? null : updated;
+        });
+    }
+
+    /**
+     * Schreib-Schleife: sammelt alle anstehenden Änderungen und schreibt sie als Gruppe.
+     */
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(writeQueue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            writeQueue.drainTo(batch);
+
+            stop = batch.remove(SHUTDOWN);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            batch.clear();
+        }
+
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Fehler beim Schließen der Servereinstellungen", e);
+        }
+    }
+
+    /**
+     * Hängt eine Gruppe von Änderungen an das Log an und synchronisiert sie mit einem einzigen fsync.
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        StringBuilder lines = new StringBuilder();
+        for (PendingWrite write : batch) {
+            lines.append(gson.toJson(write.record())).append('\n');
+        }
+
+        try {
+            if (channel == null) {
+                openChannel();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            logRecords += batch.size();
+
+            for (PendingWrite write : batch) {
+                write.durable().complete(null);
+            }
+
+            if (needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Fehler beim Schreiben der Servereinstellungen", e);
+            for (PendingWrite write : batch) {
+                write.durable().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob das Log verdichtet werden sollte.
+     */
+    private boolean needsCompaction() {
+        return logRecords >= MIN_RECORDS_FOR_COMPACTION && logRecords > liveValues.get() * COMPACTION_RATIO;
+    }
+
+    /**
+     * Schreibt den aktuellen Stand des Caches in eine temporäre Datei und ersetzt das Log atomar.
+     * Wird nur vom Schreib-Thread (bzw. beim Laden vor dessen Start) aufgerufen.
+     */
+    private void compact() throws IOException {
+        Path tempPath = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+        int written = 0;
+
+        try (FileChannel tempChannel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(tempChannel, StandardCharsets.UTF_8);
+            for (Map.Entry<Long, GuildSettings> guild : cache.entrySet()) {
+                for (Map.Entry<String, String> value : guild.getValue().values().entrySet()) {
+                    writer.write(gson.toJson(new LogRecord(guild.getKey(), value.getKey(), value.getValue())));
+                    writer.write('\n');
+                    written++;
+                }
+            }
+            writer.flush();
+            tempChannel.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+
+        try {
+            Files.move(tempPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, logPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        LOGGER.info("Servereinstellungen verdichtet: {} Log-Einträge auf {} reduziert", logRecords, written);
+        logRecords = written;
+        openChannel();
+    }
+
+    /**
+     * Öffnet die Logdatei zum Anhängen.
+     */
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(logPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,242 @@
+package com.quartel.discordbot.core;
+
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.quartel.discordbot.metrics.jfr.CommandEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Führt Slash-Befehle abseits des JDA-Event-Threads auf virtuellen Threads aus.
+ * Jeder Befehl erhält ein eigenes Schott (Bulkhead) mit begrenzter Parallelität und einem Timeout,
+ * sodass langsame Befehle (z.B. /play mit Dateizugriffen) schnelle Befehle nicht blockieren.
+ * <p>
+ * Konfiguration: {@code commands.max_concurrent} und {@code commands.timeout_seconds} als Standard,
+ * überschreibbar pro Befehl über {@code commands.<name>.max_concurrent} bzw. {@code commands.<name>.timeout_seconds}.
+ * Die Dauer jeder Ausführung (inklusive Wartezeit auf den virtuellen Thread) wird im {@link MetricsRegistry} erfasst.
+ */
+public class CommandExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandExecutor.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("command-", 0).factory());
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "command-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Laufzeitwerte eines Schotts.
+     *
+     * @param command       Der Name des Befehls
+     * @param maxConcurrent Die maximale Anzahl gleichzeitiger Ausführungen
+     * @param active        Die Anzahl aktuell laufender Ausführungen
+     * @param rejected      Die Anzahl abgewiesener Aufrufe, weil das Schott voll war
+     * @param timedOut      Die Anzahl der Ausführungen, die den Timeout überschritten haben
+     */
+    public record BulkheadStats(String command, int maxConcurrent, int active, long rejected, long timedOut) {
+    }
+
+    /**
+     * Begrenzung der Parallelität und Laufzeit eines einzelnen Befehls.
+     */
+    private static final class Bulkhead {
+        private final int maxConcurrent;
+        private final long timeoutMillis;
+        private final Semaphore permits;
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+
+        private Bulkhead(int maxConcurrent, long timeoutMillis) {
+            this.maxConcurrent = maxConcurrent;
+            this.timeoutMillis = timeoutMillis;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+    }
+
+    /**
+     * Legt das Schott für einen Befehl anhand der aktuellen Konfiguration an.
+     *
+     * @param commandName Der Name des Befehls
+     */
+    public void register(String commandName) {
+        bulkheads.put(commandName, createBulkhead(commandName));
+    }
+
+    /**
+     * Entfernt das Schott eines Befehls.
+     *
+     * @param commandName Der Name des Befehls
+     */
+    public void unregister(String commandName) {
+        bulkheads.remove(commandName);
+    }
+
+    /**
+     * Startet die Ausführung eines Befehls und kehrt sofort zurück.
+     * Ist das Schott des Befehls ausgelastet, wird der Aufruf mit einer Hinweismeldung abgewiesen.
+     *
+     * @param command Der auszuführende Befehl
+     * @param event   Das auslösende Event
+     */
+    public void execute(SlashCommand command, SlashCommandInteractionEvent event) {
+        long startNanos = System.nanoTime();
+        CommandEvent commandEvent = new CommandEvent();
+        commandEvent.begin();
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(command.getName(), this::createBulkhead);
+
+        if (!bulkhead.permits.tryAcquire()) {
+            bulkhead.rejected.incrementAndGet();
+            LOGGER.warn("Befehl {} abgewiesen: bereits {} Ausführungen aktiv", command.getName(), bulkhead.maxConcurrent);
+            InteractionReplies.replyEphemeral(event,
+                    "⏳ Dieser Befehl wird gerade sehr häufig verwendet. Bitte versuche es gleich noch einmal.");
+            return;
+        }
+
+        // Watchdog stellt die Interaktion zurück, falls der Handler zu lange für die Antwort braucht
+        InteractionReplies.watch(event);
+
+        try {
+            executor.execute(() -> run(command, event, bulkhead, startNanos, commandEvent));
+        } catch (RejectedExecutionException e) {
+            bulkhead.permits.release();
+            LOGGER.warn("Befehl {} nicht ausgeführt: Executor wurde beendet", command.getName());
+        }
+    }
+
+    /**
+     * Führt den Befehl auf dem aktuellen virtuellen Thread aus und überwacht den Timeout.
+     */
+    private void run(SlashCommand command, SlashCommandInteractionEvent event, Bulkhead bulkhead, long startNanos,
+                     CommandEvent commandEvent) {
+        long queueNanos = System.nanoTime() - startNanos;
+        boolean success = false;
+        Thread worker = Thread.currentThread();
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(
+                () -> onTimeout(command, event, bulkhead, worker), bulkhead.timeoutMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            command.execute(event);
+            success = true;
+        } catch (Exception e) {
+            LOGGER.error("Fehler beim Ausführen des Befehls {}", command.getName(), e);
+            InteractionReplies.replyEphemeral(event, "❌ Beim Ausführen des Befehls ist ein Fehler aufgetreten.");
+        } finally {
+            timeout.cancel(false);
+            bulkhead.permits.release();
+            MetricsRegistry.getInstance().recordSince(MetricsRegistry.Kind.COMMAND, command.getName(), startNanos);
+            commit(commandEvent, event, queueNanos, success);
+        }
+    }
+
+    /**
+     * Schließt das JFR-Ereignis eines Befehls ab, sofern gerade aufgezeichnet wird.
+     */
+    private static void commit(CommandEvent commandEvent, SlashCommandInteractionEvent event, long queueNanos,
+                               boolean success) {
+        commandEvent.end();
+        if (commandEvent.shouldCommit()) {
+            commandEvent.command = event.getName();
+            commandEvent.guildId = event.getGuild() != null ? event.getGuild().getIdLong() : 0;
+            commandEvent.userId = event.getUser().getIdLong();
+            commandEvent.queueTime = queueNanos;
+            commandEvent.success = success;
+            commandEvent.commit();
+        }
+    }
+
+    /**
+     * Wird aufgerufen, wenn ein Befehl seinen Timeout überschreitet.
+     * Der virtuelle Thread wird unterbrochen; der Platz im Schott wird erst frei, wenn der Befehl tatsächlich endet.
+     * Der Hinweis an den Benutzer geht nur an Interaktionen, die noch keine Antwort erhalten haben.
+     */
+    private void onTimeout(SlashCommand command, SlashCommandInteractionEvent event, Bulkhead bulkhead, Thread worker) {
+        bulkhead.timedOut.incrementAndGet();
+        LOGGER.warn("Befehl {} hat den Timeout von {}ms überschritten und wird unterbrochen",
+                command.getName(), bulkhead.timeoutMillis);
+        worker.interrupt();
+
+        if (!InteractionReplies.replyEphemeralIfUnanswered(event, "⏱️ Der Befehl hat zu lange gedauert und wurde abgebrochen.")) {
+            LOGGER.debug("Befehl {} hatte bereits geantwortet, kein Timeout-Hinweis", command.getName());
+        }
+    }
+
+    /**
+     * Gibt die Laufzeitwerte aller Schotts zurück.
+     *
+     * @return Eine Liste der Laufzeitwerte
+     */
+    public List<BulkheadStats> getStats() {
+        List<BulkheadStats> stats = new ArrayList<>();
+        bulkheads.forEach((name, bulkhead) -> stats.add(new BulkheadStats(
+                name,
+                bulkhead.maxConcurrent,
+                bulkhead.maxConcurrent - bulkhead.permits.availablePermits(),
+                bulkhead.rejected.get(),
+                bulkhead.timedOut.get())));
+        return stats;
+    }
+
+    /**
+     * Wartet kurz auf laufende Befehle und beendet den Executor.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        timeoutScheduler.shutdownNow();
+        LOGGER.info("CommandExecutor beendet");
+    }
+
+    /**
+     * Erstellt ein Schott mit den konfigurierten Grenzwerten für einen Befehl.
+     */
+    private Bulkhead createBulkhead(String commandName) {
+        int maxConcurrent = readInt("commands." + commandName + ".max_concurrent",
+                readInt("commands.max_concurrent", 8));
+        int timeoutSeconds = readInt("commands." + commandName + ".timeout_seconds",
+                readInt("commands.timeout_seconds", 15));
+
+        LOGGER.debug("Schott für Befehl {}: max. {} parallel, Timeout {}s", commandName, maxConcurrent, timeoutSeconds);
+        return new Bulkhead(Math.max(1, maxConcurrent), TimeUnit.SECONDS.toMillis(Math.max(1, timeoutSeconds)));
+    }
+
+    /**
+     * Liest einen Integer-Wert aus der Konfiguration.
+     */
+    private static int readInt(String key, int fallback) {
+        String value = Config.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültiger Wert für {}: \"{}\", verwende {}", key, value, fallback);
+            return fallback;
+        }
+    }
+}
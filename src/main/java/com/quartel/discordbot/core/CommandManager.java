@@ -1,14 +1,22 @@
 package com.quartel.discordbot.core;
 
+import com.quartel.discordbot.core.commands.JfrCommand;
+import com.quartel.discordbot.core.commands.StatsCommand;
 import com.quartel.discordbot.core.listeners.MessageListener;
-import net.dv8tion.jda.api.JDA;
+import com.quartel.discordbot.util.RestBatch;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Diese Klasse verwaltet die Registrierung und Ausführung von Befehlen.
@@ -16,17 +24,22 @@ import java.util.List;
 public class CommandManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(CommandManager.class);
 
-    private final JDA jda;
+    private final ShardManager shardManager;
     private final List<ListenerAdapter> commandListeners = new ArrayList<>();
     private final List<CommandData> globalCommands = new ArrayList<>();
+    private final Map<String, SlashCommand> slashCommands = new ConcurrentHashMap<>();
+    private final CommandExecutor commandExecutor = new CommandExecutor();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final CommandRegistrar commandRegistrar;
 
     /**
      * Erstellt einen neuen CommandManager.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
-    public CommandManager(JDA jda) {
-        this.jda = jda;
+    public CommandManager(ShardManager shardManager) {
+        this.shardManager = shardManager;
+        this.commandRegistrar = new CommandRegistrar(shardManager);
         LOGGER.info("CommandManager initialisiert");
     }
 
@@ -41,24 +54,31 @@ public class CommandManager {
     }
 
     /**
-     * Fügt einen Listener hinzu und registriert ihn bei JDA.
+     * Registriert die Slash-Befehle, die unabhängig von Modulen immer verfügbar sind.
+     */
+    public void registerDefaultCommands() {
+        registerSlashCommands(List.of(new StatsCommand(this), new JfrCommand()));
+    }
+
+    /**
+     * Fügt einen Listener hinzu und registriert ihn bei allen Shards.
      *
      * @param listener Der hinzuzufügende ListenerAdapter
      */
     public void addListener(ListenerAdapter listener) {
         commandListeners.add(listener);
-        jda.addEventListener(listener);
+        shardManager.addEventListener(listener);
         LOGGER.debug("Listener {} registriert", listener.getClass().getSimpleName());
     }
 
     /**
-     * Entfernt einen Listener und deregistriert ihn bei JDA.
+     * Entfernt einen Listener und deregistriert ihn bei allen Shards.
      *
      * @param listener Der zu entfernende ListenerAdapter
      */
     public void removeListener(ListenerAdapter listener) {
         commandListeners.remove(listener);
-        jda.removeEventListener(listener);
+        shardManager.removeEventListener(listener);
         LOGGER.debug("Listener {} entfernt", listener.getClass().getSimpleName());
     }
 
@@ -67,12 +87,141 @@ public class CommandManager {
      */
     public void removeAllListeners() {
         for (ListenerAdapter listener : commandListeners) {
-            jda.removeEventListener(listener);
+            shardManager.removeEventListener(listener);
         }
         commandListeners.clear();
         LOGGER.info("Alle Listener entfernt");
     }
 
+    /**
+     * Registriert Slash-Befehle für die Ausführung über {@link #dispatch(SlashCommandInteractionEvent)}.
+     *
+     * @param commands Die zu registrierenden Befehle
+     */
+    public void registerSlashCommands(List<SlashCommand> commands) {
+        for (SlashCommand command : commands) {
+            SlashCommand previous = slashCommands.put(command.getName(), command);
+            if (previous != null && previous != command) {
+                LOGGER.warn("Slash-Command {} wurde durch {} ersetzt", command.getName(), command.getClass().getSimpleName());
+            }
+            commandExecutor.register(command.getName());
+        }
+        LOGGER.info("{} Slash-Commands registriert", commands.size());
+    }
+
+    /**
+     * Entfernt Slash-Befehle aus der Ausführung.
+     *
+     * @param commands Die zu entfernenden Befehle
+     */
+    public void unregisterSlashCommands(List<SlashCommand> commands) {
+        for (SlashCommand command : commands) {
+            slashCommands.remove(command.getName(), command);
+            commandExecutor.unregister(command.getName());
+        }
+        LOGGER.info("{} Slash-Commands entfernt", commands.size());
+    }
+
+    /**
+     * Gibt den registrierten Slash-Befehl mit dem angegebenen Namen zurück.
+     *
+     * @param name Der Name des Befehls
+     * @return Der Befehl oder null, wenn kein Befehl registriert ist
+     */
+    public SlashCommand getSlashCommand(String name) {
+        return slashCommands.get(name);
+    }
+
+    /**
+     * Gibt alle registrierten Slash-Befehle zurück.
+     *
+     * @return Eine Liste der Befehle
+     */
+    public List<SlashCommand> getSlashCommands() {
+        return new ArrayList<>(slashCommands.values());
+    }
+
+    /**
+     * Leitet ein Slash-Command-Event an den registrierten Befehl weiter.
+     * Der Befehl läuft auf einem virtuellen Thread; diese Methode blockiert den Event-Thread nicht.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     * @return true, wenn ein passender Befehl registriert ist
+     */
+    public boolean dispatch(SlashCommandInteractionEvent event) {
+        SlashCommand command = slashCommands.get(event.getName());
+        if (command == null) {
+            return false;
+        }
+
+        // Betriebsbefehle auch dann abweisen, wenn sie noch aus einer älteren Registrierung sichtbar sind
+        if (command.isOperatorCommand() && !Operators.isAllowed(event)) {
+            LOGGER.warn("Betriebsbefehl {} von {} abgewiesen", event.getName(), event.getUser().getName());
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl ist den Betreibern des Bots vorbehalten.");
+            return true;
+        }
+
+        // Flutschutz vor der Ausführung: abgewiesene Aufrufe kosten nur eine kurze, private Antwort
+        long waitMillis = rateLimiter.tryAcquireCommand(
+                event.getGuild() != null ? event.getGuild().getIdLong() : 0, event.getUser().getIdLong(), event.getName());
+        if (waitMillis > 0) {
+            LOGGER.debug("Slash-Command {} von {} gedrosselt ({}ms)", event.getName(), event.getUser().getName(), waitMillis);
+            InteractionReplies.replyEphemeral(event, "🐢 Zu viele Anfragen. Bitte versuche es in "
+                    + Math.max(1, (waitMillis + 999) / 1000) + " Sekunden erneut.");
+            return true;
+        }
+
+        commandExecutor.execute(command, event);
+        return true;
+    }
+
+    /**
+     * Gleicht die bei Discord registrierten Befehle mit den aktuell registrierten Slash-Befehlen ab.
+     * Nur Bereiche, deren Befehle sich geändert haben, werden aktualisiert.
+     *
+     * @return Ein Future mit dem Ergebnis des Abgleichs
+     */
+    public CompletableFuture<RestBatch.Result> syncCommands() {
+        return commandRegistrar.sync(getSlashCommands());
+    }
+
+    /**
+     * Registriert die aktuellen Slash-Befehle für einen einzelnen Server.
+     *
+     * @param guild Der Server
+     * @param force true, um auch bei unverändertem Hash neu zu registrieren
+     * @return Ein Future, das nach der Registrierung abgeschlossen wird
+     */
+    public CompletableFuture<?> syncGuild(Guild guild, boolean force) {
+        return commandRegistrar.syncGuild(guild, getSlashCommands(), force);
+    }
+
+    /**
+     * Gibt den CommandExecutor zurück.
+     *
+     * @return Der CommandExecutor
+     */
+    public CommandExecutor getCommandExecutor() {
+        return commandExecutor;
+    }
+
+    /**
+     * Gibt den RateLimiter zurück.
+     *
+     * @return Der RateLimiter
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Beendet die Ausführung von Slash-Befehlen.
+     */
+    public void shutdown() {
+        commandExecutor.shutdown();
+        rateLimiter.shutdown();
+    }
+
     /**
      * Fügt einen globalen Slash-Command hinzu.
      *
@@ -102,7 +251,8 @@ public class CommandManager {
             return;
         }
 
-        jda.updateCommands().addCommands(globalCommands).queue(
+        // Globale Befehle gelten für die ganze Anwendung und werden über eine beliebige Shard registriert
+        Shards.anyShard(shardManager).updateCommands().addCommands(globalCommands).queue(
                 success -> LOGGER.info("{} globale Commands erfolgreich registriert", globalCommands.size()),
                 error -> LOGGER.error("Fehler beim Registrieren globaler Commands: {}", error.getMessage())
         );
@@ -112,7 +262,7 @@ public class CommandManager {
      * Löscht alle globalen Commands.
      */
     public void deleteGlobalCommands() {
-        jda.updateCommands().queue(
+        Shards.anyShard(shardManager).updateCommands().queue(
                 success -> LOGGER.info("Alle globalen Commands gelöscht"),
                 error -> LOGGER.error("Fehler beim Löschen globaler Commands: {}", error.getMessage())
         );
@@ -121,11 +271,11 @@ public class CommandManager {
     }
 
     /**
-     * Gibt die JDA-Instanz zurück.
+     * Gibt den ShardManager zurück.
      *
-     * @return Die JDA-Instanz
+     * @return Der ShardManager
      */
-    public JDA getJda() {
-        return jda;
+    public ShardManager getShardManager() {
+        return shardManager;
     }
 }
\ No newline at end of file
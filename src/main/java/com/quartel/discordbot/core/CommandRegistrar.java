@@ -0,0 +1,311 @@
+package com.quartel.discordbot.core;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.util.RestBatch;
+import com.quartel.discordbot.util.RestScheduler;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Registriert Slash-Befehle bei Discord nur dort, wo sie sich tatsächlich geändert haben.
+ * <p>
+ * Die Befehlsdefinitionen werden einmal in kanonisches JSON übersetzt und per SHA-256 gehasht. Pro Bereich
+ * (global oder ein Server) wird der zuletzt erfolgreich registrierte Hash im {@link GuildSettingsStore}
+ * gespeichert; stimmt er überein, entfällt der REST-Aufruf. Geänderte Bereiche werden mit einem einzigen
+ * Überschreib-Aufruf aktualisiert, mit begrenzter Parallelität ({@code commands.registration_parallelism})
+ * und als Hintergrundarbeit im {@link RestScheduler}.
+ * <p>
+ * {@code commands.registration=guild} (Standard) registriert pro Server, {@code global} einmal global.
+ * Betriebsbefehle ({@link SlashCommand#isOperatorCommand()}) werden in beiden Fällen nur im Betriebs-Server
+ * ({@code bot.ops_guild_id}) registriert, im globalen Modus dort als einzige Befehle des Servers.
+ */
+public class CommandRegistrar {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandRegistrar.class);
+
+    /**
+     * Bereich für global registrierte Befehle im GuildSettingsStore.
+     */
+    public static final long GLOBAL_SCOPE = 0L;
+
+    private final ShardManager shardManager;
+
+    /**
+     * Erstellt einen neuen CommandRegistrar.
+     *
+     * @param shardManager Der ShardManager mit allen Shards des Bots
+     */
+    public CommandRegistrar(ShardManager shardManager) {
+        this.shardManager = shardManager;
+    }
+
+    /**
+     * Gleicht die registrierten Befehle in allen Bereichen mit den aktuellen Definitionen ab.
+     *
+     * @param commands Die aktuell aktiven Slash-Befehle
+     * @return Ein Future mit dem Ergebnis aller notwendigen Aktualisierungen
+     */
+    public CompletableFuture<RestBatch.Result> sync(List<SlashCommand> commands) {
+        Definitions definitions = new Definitions(commands);
+        if (definitions.opsGuildId == 0 && !definitions.operator.isEmpty()) {
+            LOGGER.info("Kein Betriebs-Server (bot.ops_guild_id) konfiguriert, {} Betriebsbefehle werden nicht registriert",
+                    definitions.operator.size());
+        }
+        GuildSettingsStore store = GuildSettingsStore.getInstance();
+        List<Supplier<CompletableFuture<?>>> tasks = new ArrayList<>();
+        int skipped = 0;
+
+        if (isGlobalMode()) {
+            List<CommandData> global = definitions.forScope(GLOBAL_SCOPE);
+            String hash = definitions.hashForScope(GLOBAL_SCOPE);
+            if (!hash.equals(storedHash(GLOBAL_SCOPE))) {
+                tasks.add(() -> background(() -> Shards.anyShard(shardManager).updateCommands().addCommands(global))
+                        .thenRun(() -> store.set(GLOBAL_SCOPE, GuildSettings.COMMANDS_HASH, hash)));
+            } else {
+                skipped++;
+            }
+        } else if (storedHash(GLOBAL_SCOPE) != null) {
+            // Früher global registrierte Befehle entfernen
+            tasks.add(() -> background(() -> Shards.anyShard(shardManager).updateCommands())
+                    .thenRun(() -> store.remove(GLOBAL_SCOPE, GuildSettings.COMMANDS_HASH)));
+        }
+
+        for (Guild guild : shardManager.getGuilds()) {
+            List<CommandData> guildDefinitions = definitions.forScope(guild.getIdLong());
+            if (guildDefinitions == null) {
+                // Im globalen Modus früher pro Server registrierte Befehle entfernen, sonst erscheinen sie doppelt
+                if (storedHash(guild.getIdLong()) != null) {
+                    tasks.add(() -> background(guild::updateCommands)
+                            .thenRun(() -> store.remove(guild.getIdLong(), GuildSettings.COMMANDS_HASH)));
+                }
+                continue;
+            }
+
+            String hash = definitions.hashForScope(guild.getIdLong());
+            if (hash.equals(storedHash(guild.getIdLong()))) {
+                skipped++;
+                continue;
+            }
+            tasks.add(() -> updateGuild(guild, guildDefinitions, hash));
+        }
+
+        LOGGER.info("Befehlsabgleich ({}): {} Bereiche aktuell, {} Aktualisierungen notwendig",
+                isGlobalMode() ? "global" : "pro Server", skipped, tasks.size());
+
+        return RestBatch.run(tasks, getParallelism()).whenComplete((result, error) -> {
+            if (result != null) {
+                LOGGER.info("Befehlsabgleich abgeschlossen: {} erfolgreich, {} fehlgeschlagen",
+                        result.succeeded(), result.failed());
+            }
+        });
+    }
+
+    /**
+     * Registriert die Befehle für einen einzelnen Server, z.B. nach dem Beitritt.
+     * Im globalen Modus ist nur im Betriebs-Server etwas zu tun.
+     *
+     * @param guild    Der Server
+     * @param commands Die aktuell aktiven Slash-Befehle
+     * @param force    true, um den gespeicherten Hash zu ignorieren
+     * @return Ein Future, das nach der Registrierung abgeschlossen wird
+     */
+    public CompletableFuture<?> syncGuild(Guild guild, List<SlashCommand> commands, boolean force) {
+        Definitions definitions = new Definitions(commands);
+        List<CommandData> guildDefinitions = definitions.forScope(guild.getIdLong());
+        if (guildDefinitions == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String hash = definitions.hashForScope(guild.getIdLong());
+        if (!force && hash.equals(storedHash(guild.getIdLong()))) {
+            LOGGER.debug("Befehle für Guild {} sind aktuell", guild.getName());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return updateGuild(guild, guildDefinitions, hash);
+    }
+
+    /**
+     * Vergisst den gespeicherten Hash eines Bereichs, z.B. wenn der Bot einen Server verlässt.
+     *
+     * @param scope Die Server-ID oder {@link #GLOBAL_SCOPE}
+     */
+    public static void forget(long scope) {
+        GuildSettingsStore store = GuildSettingsStore.getInstance();
+        if (store.get(scope).get(GuildSettings.COMMANDS_HASH) != null) {
+            store.remove(scope, GuildSettings.COMMANDS_HASH);
+        }
+    }
+
+    /**
+     * Überschreibt alle Befehle eines Servers mit einem einzigen Aufruf und speichert den Hash.
+     */
+    private CompletableFuture<?> updateGuild(Guild guild, List<CommandData> definitions, String hash) {
+        return background(() -> guild.updateCommands().addCommands(definitions))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        LOGGER.error("Fehler beim Registrieren der Befehle für Guild {}: {}",
+                                guild.getName(), error.getMessage());
+                    } else {
+                        GuildSettingsStore.getInstance().set(guild.getIdLong(), GuildSettings.COMMANDS_HASH, hash);
+                        LOGGER.debug("Befehle für Guild {} aktualisiert", guild.getName());
+                    }
+                });
+    }
+
+    /**
+     * Reiht einen Registrierungsaufruf als Hintergrundarbeit im {@link RestScheduler} ein.
+     */
+    private static <T> CompletableFuture<T> background(Supplier<? extends RestAction<T>> action) {
+        return RestScheduler.getInstance().submit(RestScheduler.Priority.BACKGROUND, action);
+    }
+
+    /**
+     * Erstellt die Befehlsdefinitionen in stabiler Reihenfolge.
+     */
+    private static List<CommandData> buildDefinitions(List<SlashCommand> commands) {
+        return commands.stream()
+                .sorted(Comparator.comparing(SlashCommand::getName))
+                .map(SlashCommand::getCommandData)
+                .toList();
+    }
+
+    /**
+     * Die Befehlsdefinitionen eines Abgleichs, getrennt nach normalen Befehlen und Betriebsbefehlen.
+     * Definitionen und Hashes werden nur einmal pro Abgleich berechnet, nicht pro Server.
+     */
+    private static final class Definitions {
+        private final long opsGuildId = Operators.getOpsGuildId();
+        private final List<CommandData> regular;
+        private final List<CommandData> operator;
+        private final List<CommandData> all;
+        private final String regularHash;
+        private final String operatorHash;
+        private final String allHash;
+
+        Definitions(List<SlashCommand> commands) {
+            regular = buildDefinitions(commands.stream().filter(command -> !command.isOperatorCommand()).toList());
+            operator = buildDefinitions(commands.stream().filter(SlashCommand::isOperatorCommand).toList());
+            all = buildDefinitions(commands);
+            regularHash = hash(regular);
+            operatorHash = hash(operator);
+            allHash = hash(all);
+        }
+
+        /**
+         * Gibt die Definitionen eines Bereichs zurück, oder null, wenn dort keine Befehle registriert werden.
+         */
+        List<CommandData> forScope(long scope) {
+            if (scope == GLOBAL_SCOPE) {
+                return regular;
+            }
+            boolean opsGuild = scope == opsGuildId;
+            if (isGlobalMode()) {
+                return opsGuild ? operator : null;
+            }
+            return opsGuild ? all : regular;
+        }
+
+        /**
+         * Gibt den Hash zu {@link #forScope(long)} zurück.
+         */
+        String hashForScope(long scope) {
+            if (scope == GLOBAL_SCOPE) {
+                return regularHash;
+            }
+            boolean opsGuild = scope == opsGuildId;
+            if (isGlobalMode()) {
+                return opsGuild ? operatorHash : null;
+            }
+            return opsGuild ? allHash : regularHash;
+        }
+    }
+
+    /**
+     * Berechnet den SHA-256-Hash der kanonischen JSON-Darstellung aller Definitionen.
+     */
+    private static String hash(List<CommandData> definitions) {
+        JsonArray array = new JsonArray();
+        for (CommandData data : definitions) {
+            array.add(canonicalize(JsonParser.parseString(data.toData().toString())));
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(array.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Sortiert alle Objektschlüssel rekursiv, damit gleiche Definitionen immer gleich serialisiert werden.
+     */
+    private static JsonElement canonicalize(JsonElement element) {
+        if (element.isJsonObject()) {
+            Map<String, JsonElement> sorted = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                sorted.put(entry.getKey(), canonicalize(entry.getValue()));
+            }
+            JsonObject object = new JsonObject();
+            sorted.forEach(object::add);
+            return object;
+        }
+
+        if (element.isJsonArray()) {
+            JsonArray array = new JsonArray();
+            for (JsonElement child : element.getAsJsonArray()) {
+                array.add(canonicalize(child));
+            }
+            return array;
+        }
+
+        return element;
+    }
+
+    /**
+     * Gibt den gespeicherten Hash eines Bereichs zurück.
+     */
+    private static String storedHash(long scope) {
+        return GuildSettingsStore.getInstance().get(scope).get(GuildSettings.COMMANDS_HASH);
+    }
+
+    /**
+     * Prüft, ob Befehle global statt pro Server registriert werden sollen.
+     */
+    private static boolean isGlobalMode() {
+        return "global".equalsIgnoreCase(Config.getProperty("commands.registration", "guild").trim());
+    }
+
+    /**
+     * Liest die maximale Anzahl gleichzeitiger Registrierungsaufrufe.
+     */
+    private static int getParallelism() {
+        try {
+            return Integer.parseInt(Config.getProperty("commands.registration_parallelism", "4").trim());
+        } catch (NumberFormatException e) {
+            return 4;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.quartel.discordbot.core;
+
+import com.quartel.discordbot.config.Config;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * Legt fest, welche Gateway-Ereignisse der Bot abonniert und was JDA davon zwischenspeichert.
+ * Ausgewählt über {@code bot.gateway_profile}, ausgewertet beim Start.
+ * <ul>
+ *   <li>{@link #FULL}: JDA-Standard-Intents plus Mitglieder, Nachrichten und Nachrichteninhalt; die Text-Befehle
+ *   (z. B. {@code !ping}) sind verfügbar. Der Bot empfängt und verarbeitet jede Nachricht auf jedem Server.</li>
+ *   <li>{@link #LEAN}: nur Server und Sprachstatus. Slash-Befehle, Musik und Warteraum funktionieren vollständig,
+ *   da Interaktionen das ausführende Mitglied samt Rollen mitbringen und Sprachkanäle über den Sprachstatus
+ *   zwischengespeichert werden. Text-Befehle und Rollen-Events einzelner Mitglieder entfallen.</li>
+ * </ul>
+ */
+public enum GatewayProfile {
+    FULL {
+        @Override
+        public DefaultShardManagerBuilder createBuilder(String token) {
+            return DefaultShardManagerBuilder.createDefault(token)
+                    .enableIntents(
+                            GatewayIntent.GUILD_MEMBERS,
+                            GatewayIntent.GUILD_MESSAGES,
+                            GatewayIntent.GUILD_VOICE_STATES,
+                            GatewayIntent.MESSAGE_CONTENT
+                    )
+                    .setMemberCachePolicy(MemberCachePolicy.VOICE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .enableCache(CacheFlag.VOICE_STATE);
+        }
+    },
+    LEAN {
+        @Override
+        public DefaultShardManagerBuilder createBuilder(String token) {
+            // createLight deaktiviert alle Cache-Flags und das Chunking; Server-Ereignisse (Kanäle, Rollen)
+            // abonniert JDA immer. Zwischengespeichert werden nur Mitglieder in Sprachkanälen und ihr Sprachstatus,
+            // die Musik (automatisches Verlassen) und Warteraum benötigen.
+            return DefaultShardManagerBuilder.createLight(token, GatewayIntent.GUILD_VOICE_STATES)
+                    .setMemberCachePolicy(MemberCachePolicy.VOICE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .enableCache(CacheFlag.VOICE_STATE);
+        }
+    };
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GatewayProfile.class);
+
+    /**
+     * Erstellt einen Builder für den ShardManager mit den Intents und Cache-Einstellungen dieses Profils.
+     * Sie gelten für jede Shard.
+     *
+     * @param token Der Bot-Token
+     * @return Der vorkonfigurierte Builder
+     */
+    public abstract DefaultShardManagerBuilder createBuilder(String token);
+
+    /**
+     * Prüft, ob der Bot in diesem Profil Nachrichten empfängt und Text-Befehle anbietet.
+     *
+     * @return true, wenn Nachrichten und Nachrichteninhalt abonniert sind
+     */
+    public boolean hasMessageCommands() {
+        return this == FULL;
+    }
+
+    /**
+     * Prüft, ob der Bot Rollenänderungen einzelner Mitglieder als Ereignis erhält.
+     *
+     * @return true, wenn Mitglieder-Ereignisse abonniert sind
+     */
+    public boolean receivesMemberUpdates() {
+        return this == FULL;
+    }
+
+    /**
+     * Liest das Profil aus {@code bot.gateway_profile}.
+     *
+     * @return Das konfigurierte Profil oder {@link #FULL} bei unbekanntem Wert
+     */
+    public static GatewayProfile fromConfig() {
+        String value = Config.getProperty("bot.gateway_profile", "full").trim();
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unbekanntes Gateway-Profil \"{}\" in bot.gateway_profile, verwende full", value);
+            return FULL;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.quartel.discordbot.core;
+
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.util.RestScheduler;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.interactions.components.LayoutComponent;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Einheitliche Antworten auf Interaktionen mit automatischer Zurückstellung (Defer).
+ * <p>
+ * Discord verlangt eine Bestätigung innerhalb von drei Sekunden. Der Dispatcher meldet jede Interaktion
+ * über {@link #watch(IReplyCallback)} an; ist sie nach {@code interactions.auto_defer_millis} noch nicht
+ * beantwortet, wird sie automatisch zurückgestellt. Antworten über diese Klasse landen danach ohne Zutun
+ * des Handlers beim Hook der Interaktion statt in einem zweiten, fehlschlagenden {@code reply}.
+ * <p>
+ * Wer zuerst antwortet (Handler oder Watchdog), wird über einen Compare-and-Set auf dem Zustand entschieden.
+ * Alle Aufrufe laufen in der höchsten Klasse des {@link RestScheduler} und warten nie auf Hintergrundarbeit.
+ */
+public final class InteractionReplies {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InteractionReplies.class);
+
+    // Ab dieser Antwortzeit gilt eine rechtzeitige Bestätigung als knapp
+    private static final long NEAR_MISS_MILLIS = 1000;
+
+    // So lange ist das Token einer Interaktion gültig und eine zurückgestellte Interaktion bleibt überwacht
+    private static final long TOKEN_TTL_MINUTES = 15;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "interaction-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Zustände der überwachten Interaktionen, bis der Watchdog sie abschließt
+    private static final Map<Long, AtomicReference<State>> STATES = new ConcurrentHashMap<>();
+
+    private static final AtomicLong autoDeferred = new AtomicLong();
+    private static final AtomicLong redirectedReplies = new AtomicLong();
+    private static final AtomicLong nearMisses = new AtomicLong();
+
+    /**
+     * Bestätigungszustand einer Interaktion.
+     */
+    private enum State {
+        PENDING,   // Noch keine Bestätigung gesendet
+        REPLIED,   // Der Handler hat direkt geantwortet
+        DEFERRED,  // Zurückgestellt, weitere Antworten gehen an den Hook
+        ANSWERED   // Zurückgestellt und bereits über den Hook beantwortet
+    }
+
+    private InteractionReplies() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Meldet eine Interaktion beim Watchdog an.
+     * Wird vom Dispatcher vor der Ausführung des Handlers aufgerufen.
+     *
+     * @param event Die Interaktion
+     */
+    public static void watch(IReplyCallback event) {
+        AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+        STATES.put(event.getIdLong(), state);
+
+        long threshold = getAutoDeferMillis();
+        long delay = Math.max(0, threshold - getAgeMillis(event));
+        SCHEDULER.schedule(() -> onThreshold(event, state), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sendet eine sichtbare Antwort.
+     *
+     * @param event   Die Interaktion
+     * @param content Der Inhalt der Nachricht
+     */
+    public static void reply(IReplyCallback event, String content) {
+        if (acquireReply(event)) {
+            send(event, () -> event.reply(content));
+        } else {
+            send(event, () -> event.getHook().sendMessage(content));
+        }
+    }
+
+    /**
+     * Sendet eine nur für den Benutzer sichtbare Antwort.
+     * Wurde die Interaktion bereits öffentlich zurückgestellt, ist die erste Folgenachricht ebenfalls öffentlich.
+     *
+     * @param event   Die Interaktion
+     * @param content Der Inhalt der Nachricht
+     */
+    public static void replyEphemeral(IReplyCallback event, String content) {
+        if (acquireReply(event)) {
+            send(event, () -> event.reply(content).setEphemeral(true));
+        } else {
+            send(event, () -> event.getHook().sendMessage(content).setEphemeral(true));
+        }
+    }
+
+    /**
+     * Sendet eine nur für den Benutzer sichtbare Antwort, sofern die Interaktion noch keine Antwort erhalten hat,
+     * also noch unbestätigt oder nur zurückgestellt ist. Andernfalls wird nichts gesendet.
+     *
+     * @param event   Die Interaktion
+     * @param content Der Inhalt der Nachricht
+     * @return true, wenn die Antwort gesendet wurde
+     */
+    public static boolean replyEphemeralIfUnanswered(IReplyCallback event, String content) {
+        AtomicReference<State> state = STATES.get(event.getIdLong());
+        if (state == null) {
+            // Nicht (mehr) überwacht: nur eine unbestätigte Interaktion ist sicher unbeantwortet
+            if (event.isAcknowledged()) {
+                return false;
+            }
+            send(event, () -> event.reply(content).setEphemeral(true));
+            return true;
+        }
+
+        if (state.compareAndSet(State.PENDING, State.REPLIED)) {
+            recordLatency(event);
+            send(event, () -> event.reply(content).setEphemeral(true));
+            return true;
+        }
+        if (markAnswered(event, state)) {
+            send(event, () -> event.getHook().sendMessage(content).setEphemeral(true));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sendet eine Antwort mit einem Embed.
+     *
+     * @param event Die Interaktion
+     * @param embed Das Embed
+     */
+    public static void replyEmbeds(IReplyCallback event, MessageEmbed embed) {
+        if (acquireReply(event)) {
+            send(event, () -> event.replyEmbeds(embed));
+        } else {
+            send(event, () -> event.getHook().sendMessageEmbeds(embed));
+        }
+    }
+
+    /**
+     * Sendet eine Antwort mit einem Embed und Komponenten, z.B. Schaltflächen.
+     *
+     * @param event      Die Interaktion
+     * @param embed      Das Embed
+     * @param components Die Komponenten der Nachricht
+     */
+    public static void replyEmbeds(IReplyCallback event, MessageEmbed embed, List<? extends LayoutComponent> components) {
+        if (acquireReply(event)) {
+            send(event, () -> event.replyEmbeds(embed).setComponents(components));
+        } else {
+            send(event, () -> event.getHook().sendMessageEmbeds(embed).setComponents(components));
+        }
+    }
+
+    /**
+     * Sendet eine Folgenachricht über den Hook einer bereits bestätigten Interaktion.
+     * Folgenachrichten laufen in der Klasse {@link RestScheduler.Priority#FOLLOW_UP} und damit hinter
+     * Bestätigungen, aber vor Hintergrundarbeit.
+     *
+     * @param event   Die bereits bestätigte Interaktion
+     * @param content Der Inhalt der Nachricht
+     */
+    public static void followUp(IReplyCallback event, String content) {
+        AtomicReference<State> state = STATES.get(event.getIdLong());
+        if (state != null) {
+            markAnswered(event, state);
+        }
+        RestScheduler.getInstance()
+                .submit(RestScheduler.Priority.FOLLOW_UP, () -> event.getHook().sendMessage(content))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logFailure(event, error);
+                    }
+                });
+    }
+
+    /**
+     * Stellt die Interaktion zurück, falls das noch nicht geschehen ist.
+     * Folgenachrichten werden anschließend über {@code event.getHook()} gesendet.
+     *
+     * @param event Die Interaktion
+     */
+    public static void defer(IReplyCallback event) {
+        AtomicReference<State> state = STATES.get(event.getIdLong());
+        if (state != null) {
+            if (state.compareAndSet(State.PENDING, State.DEFERRED)) {
+                recordLatency(event);
+                send(event, event::deferReply);
+            }
+            return;
+        }
+
+        if (!event.isAcknowledged()) {
+            send(event, event::deferReply);
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der vom Watchdog automatisch zurückgestellten Interaktionen zurück.
+     *
+     * @return Die Anzahl der automatischen Zurückstellungen
+     */
+    public static long getAutoDeferredCount() {
+        return autoDeferred.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Antworten zurück, die nach einer automatischen Zurückstellung an den Hook umgeleitet wurden.
+     *
+     * @return Die Anzahl der umgeleiteten Antworten
+     */
+    public static long getRedirectedReplyCount() {
+        return redirectedReplies.get();
+    }
+
+    /**
+     * Gibt die Anzahl rechtzeitiger, aber knapper Bestätigungen (über einer Sekunde) zurück.
+     *
+     * @return Die Anzahl der knappen Bestätigungen
+     */
+    public static long getNearMissCount() {
+        return nearMisses.get();
+    }
+
+    /**
+     * Entscheidet, ob direkt geantwortet werden darf.
+     *
+     * @return true für {@code reply}, false für eine Folgenachricht über den Hook
+     */
+    private static boolean acquireReply(IReplyCallback event) {
+        AtomicReference<State> state = STATES.get(event.getIdLong());
+        if (state == null) {
+            // Nicht (mehr) überwacht: der Watchdog ist bereits abgeschlossen
+            return !event.isAcknowledged();
+        }
+
+        if (state.compareAndSet(State.PENDING, State.REPLIED)) {
+            recordLatency(event);
+            return true;
+        }
+
+        if (markAnswered(event, state)) {
+            redirectedReplies.incrementAndGet();
+        }
+        return false;
+    }
+
+    /**
+     * Vermerkt die erste Antwort über den Hook einer zurückgestellten Interaktion und beendet ihre Überwachung.
+     *
+     * @return true, wenn die Interaktion bis eben zurückgestellt und unbeantwortet war
+     */
+    private static boolean markAnswered(IReplyCallback event, AtomicReference<State> state) {
+        if (state.compareAndSet(State.DEFERRED, State.ANSWERED)) {
+            STATES.remove(event.getIdLong(), state);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Wird nach Ablauf der Schwelle aufgerufen und stellt die Interaktion zurück, wenn noch nicht geantwortet wurde.
+     */
+    private static void onThreshold(IReplyCallback event, AtomicReference<State> state) {
+        try {
+            if (state.compareAndSet(State.PENDING, State.DEFERRED)) {
+                autoDeferred.incrementAndGet();
+                LOGGER.warn("Interaktion {} nach {}ms noch unbeantwortet, stelle automatisch zurück",
+                        event.getIdLong(), getAgeMillis(event));
+                send(event, event::deferReply);
+            }
+        } finally {
+            if (state.get() == State.DEFERRED) {
+                // Bis zur ersten Antwort über den Hook überwacht lassen, damit ein Timeout die fehlende Antwort erkennt
+                SCHEDULER.schedule(() -> STATES.remove(event.getIdLong(), state), TOKEN_TTL_MINUTES, TimeUnit.MINUTES);
+            } else {
+                // Ab jetzt ist der Zustand endgültig und über isAcknowledged() ablesbar
+                STATES.remove(event.getIdLong(), state);
+            }
+        }
+    }
+
+    /**
+     * Zählt Bestätigungen, die nur knapp innerhalb des Zeitfensters lagen.
+     */
+    private static void recordLatency(IReplyCallback event) {
+        long age = getAgeMillis(event);
+        if (age >= NEAR_MISS_MILLIS) {
+            nearMisses.incrementAndGet();
+            LOGGER.debug("Knappe Bestätigung der Interaktion {} nach {}ms", event.getIdLong(), age);
+        }
+    }
+
+    /**
+     * Gibt das Alter der Interaktion seit ihrer Erstellung bei Discord zurück.
+     */
+    private static long getAgeMillis(IReplyCallback event) {
+        return System.currentTimeMillis() - event.getTimeCreated().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Liest die Schwelle für die automatische Zurückstellung aus der Konfiguration.
+     */
+    private static long getAutoDeferMillis() {
+        try {
+            return Long.parseLong(Config.getProperty("interactions.auto_defer_millis", "1500").trim());
+        } catch (NumberFormatException e) {
+            return 1500;
+        }
+    }
+
+    /**
+     * Sendet einen Aufruf in der Prioritätsklasse für Interaktionen.
+     */
+    private static <T> void send(IReplyCallback event, Supplier<? extends RestAction<T>> action) {
+        RestScheduler.getInstance().submit(RestScheduler.Priority.INTERACTION, action)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logFailure(event, error);
+                    }
+                });
+    }
+
+    /**
+     * Protokolliert eine fehlgeschlagene Antwort.
+     */
+    private static void logFailure(IReplyCallback event, Throwable error) {
+        LOGGER.warn("Antwort auf Interaktion {} fehlgeschlagen: {}", event.getIdLong(), error.getMessage());
+    }
+}
@@ -0,0 +1,83 @@
+package com.quartel.discordbot.core;
+
+import com.quartel.discordbot.config.Config;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+
+/**
+ * Bestimmt, wer Betriebsbefehle wie {@code /stats} und {@code /jfr} verwenden darf.
+ * <p>
+ * Betriebsbefehle werden nur im Betriebs-Server ({@code bot.ops_guild_id}) registriert. Ausführen dürfen sie die
+ * Betreiber aus {@code bot.owner_ids} und, solange dort niemand eingetragen ist, die Administratoren des
+ * Betriebs-Servers. Administratoren anderer Server haben keinen Zugriff.
+ */
+public final class Operators {
+
+    private Operators() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Gibt die ID des Betriebs-Servers zurück.
+     *
+     * @return Die Server-ID oder 0, wenn kein Betriebs-Server konfiguriert ist
+     */
+    public static long getOpsGuildId() {
+        String value = Config.getProperty("bot.ops_guild_id", "").trim();
+        if (value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Prüft, ob ein Server der Betriebs-Server ist.
+     *
+     * @param guildId Die Server-ID
+     * @return true, wenn Betriebsbefehle in diesem Server registriert werden
+     */
+    public static boolean isOpsGuild(long guildId) {
+        return guildId != 0 && guildId == getOpsGuildId();
+    }
+
+    /**
+     * Prüft, ob ein Benutzer als Betreiber in {@code bot.owner_ids} eingetragen ist.
+     *
+     * @param userId Die Benutzer-ID
+     * @return true, wenn der Benutzer Betreiber ist
+     */
+    public static boolean isOwner(long userId) {
+        for (String id : Config.getProperty("bot.owner_ids", "").split(",")) {
+            if (!id.isBlank() && id.trim().equals(Long.toString(userId))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prüft, ob der Aufrufer einer Interaktion Betriebsbefehle verwenden darf.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     * @return true, wenn der Aufrufer Betreiber ist oder ohne eingetragene Betreiber den Betriebs-Server verwaltet
+     */
+    public static boolean isAllowed(SlashCommandInteractionEvent event) {
+        if (isOwner(event.getUser().getIdLong())) {
+            return true;
+        }
+        if (!Config.getProperty("bot.owner_ids", "").isBlank()) {
+            return false;
+        }
+
+        Guild guild = event.getGuild();
+        Member member = event.getMember();
+        return guild != null && isOpsGuild(guild.getIdLong())
+                && member != null && member.hasPermission(Permission.ADMINISTRATOR);
+    }
+}
@@ -0,0 +1,336 @@
+package com.quartel.discordbot.core;
+
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import com.quartel.discordbot.config.DefaultConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Begrenzt, wie oft Benutzer und Server Befehle auslösen dürfen (Token-Bucket).
+ * <p>
+ * Jeder Eimer besteht aus einem einzigen {@link AtomicLong} und wird per Compare-and-Set aktualisiert
+ * (Generic Cell Rate Algorithm: gespeichert wird der Zeitpunkt, zu dem der Eimer wieder voll ist).
+ * Volle Eimer verhalten sich wie nicht vorhandene und werden regelmäßig entfernt.
+ * <p>
+ * Grenzen im Format {@code <anzahl>/<sekunden>}:
+ * {@code ratelimit.user} (pro Benutzer), {@code ratelimit.guild} (pro Server),
+ * {@code ratelimit.command.<name>} (pro Benutzer und Befehl, optional) und
+ * {@code ratelimit.autocomplete} (Autovervollständigung pro Benutzer). {@code ratelimit.enabled=false}
+ * schaltet die Begrenzung ab.
+ */
+public class RateLimiter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String COMMAND_PREFIX = "ratelimit.command.";
+
+    /**
+     * Bereich eines Eimers.
+     */
+    public enum Scope {
+        USER,
+        GUILD,
+        COMMAND,
+        AUTOCOMPLETE
+    }
+
+    /**
+     * Laufzeitwerte eines Bereichs.
+     *
+     * @param scope    Der Bereich
+     * @param buckets  Die Anzahl aktuell gespeicherter Eimer
+     * @param allowed  Die Anzahl erlaubter Aufrufe
+     * @param rejected Die Anzahl abgewiesener Aufrufe
+     */
+    public record ScopeStats(Scope scope, int buckets, long allowed, long rejected) {
+    }
+
+    /**
+     * Eine Grenze: {@code capacity} Aufrufe pro {@code periodNanos}, als Burst sofort verfügbar.
+     */
+    private record Limit(int capacity, long periodNanos) {
+        private long intervalNanos() {
+            return periodNanos / capacity;
+        }
+    }
+
+    /**
+     * Die aus einem Konfigurations-Snapshot gelesenen Grenzen.
+     */
+    private record Limits(ConfigSnapshot source, boolean enabled, Limit user, Limit guild, Limit autocomplete,
+                          Map<String, Limit> commands) {
+    }
+
+    private final Map<Scope, Map<Object, AtomicLong>> buckets = new EnumMap<>(Scope.class);
+    private final Map<Scope, AtomicLong> allowed = new EnumMap<>(Scope.class);
+    private final Map<Scope, AtomicLong> rejected = new EnumMap<>(Scope.class);
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ratelimit-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Limits limits;
+
+    /**
+     * Erstellt einen neuen RateLimiter und startet das Entfernen ungenutzter Eimer.
+     */
+    public RateLimiter() {
+        for (Scope scope : Scope.values()) {
+            buckets.put(scope, new ConcurrentHashMap<>());
+            allowed.put(scope, new AtomicLong());
+            rejected.put(scope, new AtomicLong());
+        }
+        evictor.scheduleAtFixedRate(this::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Prüft die Grenzen für einen Befehlsaufruf und verbraucht bei Erfolg je ein Token.
+     * <p>
+     * Zuerst werden alle Eimer nur gelesen; Tokens werden erst genommen, wenn keiner voll ist. Ein bereits
+     * gedrosselter Benutzer verbraucht so nichts vom Kontingent seines Servers. Der Server-Eimer wird zuletzt
+     * belastet; scheitert ein Eimer erst dabei (gleichzeitiger Aufruf), werden die bereits genommenen Tokens
+     * zurückgegeben.
+     *
+     * @param guildId     Die Server-ID oder 0 außerhalb eines Servers
+     * @param userId      Die Benutzer-ID
+     * @param commandName Der Name des Befehls
+     * @return 0, wenn der Aufruf erlaubt ist, sonst die Wartezeit in Millisekunden
+     */
+    public long tryAcquireCommand(long guildId, long userId, String commandName) {
+        Limits current = currentLimits();
+        if (!current.enabled()) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        Limit commandLimit = current.commands().get(commandName);
+        CommandKey commandKey = commandLimit != null ? new CommandKey(userId, commandName) : null;
+        Limit guildLimit = guildId != 0 ? current.guild() : null;
+
+        long wait = peek(Scope.USER, userId, current.user(), now);
+        if (wait == 0) {
+            wait = peek(Scope.COMMAND, commandKey, commandLimit, now);
+        }
+        if (wait == 0) {
+            wait = peek(Scope.GUILD, guildId, guildLimit, now);
+        }
+        if (wait > 0) {
+            return TimeUnit.NANOSECONDS.toMillis(wait);
+        }
+
+        wait = tryAcquire(Scope.USER, userId, current.user(), now);
+        if (wait > 0) {
+            return TimeUnit.NANOSECONDS.toMillis(wait);
+        }
+        wait = tryAcquire(Scope.COMMAND, commandKey, commandLimit, now);
+        if (wait > 0) {
+            release(Scope.USER, userId, current.user());
+            return TimeUnit.NANOSECONDS.toMillis(wait);
+        }
+        wait = tryAcquire(Scope.GUILD, guildId, guildLimit, now);
+        if (wait > 0) {
+            release(Scope.USER, userId, current.user());
+            release(Scope.COMMAND, commandKey, commandLimit);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(wait);
+    }
+
+    /**
+     * Prüft die Grenze für eine Autovervollständigung.
+     *
+     * @param userId Die Benutzer-ID
+     * @return true, wenn die Anfrage bearbeitet werden darf
+     */
+    public boolean tryAcquireAutocomplete(long userId) {
+        Limits current = currentLimits();
+        return !current.enabled() || tryAcquire(Scope.AUTOCOMPLETE, userId, current.autocomplete(), System.nanoTime()) == 0;
+    }
+
+    /**
+     * Gibt die Laufzeitwerte aller Bereiche zurück.
+     *
+     * @return Eine Liste der Laufzeitwerte
+     */
+    public List<ScopeStats> getStats() {
+        List<ScopeStats> stats = new ArrayList<>();
+        for (Scope scope : Scope.values()) {
+            stats.add(new ScopeStats(scope, buckets.get(scope).size(), allowed.get(scope).get(), rejected.get(scope).get()));
+        }
+        return stats;
+    }
+
+    /**
+     * Beendet das Entfernen ungenutzter Eimer.
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    /**
+     * Schlüssel eines Eimers pro Benutzer und Befehl.
+     */
+    private record CommandKey(long userId, String commandName) {
+    }
+
+    /**
+     * Verbraucht ein Token aus einem Eimer, ohne zu sperren.
+     *
+     * @return 0 bei Erfolg, sonst die Wartezeit in Nanosekunden
+     */
+    private long tryAcquire(Scope scope, Object key, Limit limit, long now) {
+        if (limit == null) {
+            return 0;
+        }
+
+        AtomicLong bucket = buckets.get(scope).computeIfAbsent(key, k -> new AtomicLong(now));
+        long interval = limit.intervalNanos();
+        long tolerance = limit.periodNanos() - interval;
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long debt = start - now;
+            if (debt > tolerance) {
+                rejected.get(scope).incrementAndGet();
+                return debt - tolerance;
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                allowed.get(scope).incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Prüft einen Eimer, ohne ein Token zu verbrauchen; eine Abweisung wird gezählt.
+     *
+     * @return 0, wenn ein Token verfügbar ist, sonst die Wartezeit in Nanosekunden
+     */
+    private long peek(Scope scope, Object key, Limit limit, long now) {
+        if (limit == null) {
+            return 0;
+        }
+        AtomicLong bucket = buckets.get(scope).get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long debt = Math.max(bucket.get(), now) - now;
+        long tolerance = limit.periodNanos() - limit.intervalNanos();
+        if (debt > tolerance) {
+            rejected.get(scope).incrementAndGet();
+            return debt - tolerance;
+        }
+        return 0;
+    }
+
+    /**
+     * Gibt ein zuvor verbrauchtes Token zurück.
+     */
+    private void release(Scope scope, Object key, Limit limit) {
+        if (limit == null) {
+            return;
+        }
+        AtomicLong bucket = buckets.get(scope).get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-limit.intervalNanos());
+            allowed.get(scope).decrementAndGet();
+        }
+    }
+
+    /**
+     * Entfernt Eimer, die wieder voll sind; sie verhalten sich wie nicht vorhandene.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map<Object, AtomicLong> scopeBuckets : buckets.values()) {
+            int before = scopeBuckets.size();
+            scopeBuckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            removed += before - scopeBuckets.size();
+        }
+        if (removed > 0) {
+            LOGGER.debug("{} ungenutzte Rate-Limit-Eimer entfernt", removed);
+        }
+    }
+
+    /**
+     * Gibt die Grenzen zum aktuellen Konfigurations-Snapshot zurück und liest sie nur nach Änderungen neu.
+     */
+    private Limits currentLimits() {
+        ConfigSnapshot config = Config.get();
+        Limits current = limits;
+        if (current == null || current.source() != config) {
+            current = parseLimits(config);
+            limits = current;
+        }
+        return current;
+    }
+
+    /**
+     * Liest alle Grenzen aus einem Konfigurations-Snapshot.
+     */
+    private static Limits parseLimits(ConfigSnapshot config) {
+        // Standardwerte zuerst, damit die Konfiguration sie überschreibt
+        Map<String, String> commandValues = new HashMap<>();
+        DefaultConfigManager.getAllDefaults().forEach((key, value) -> {
+            if (key.startsWith(COMMAND_PREFIX)) {
+                commandValues.put(key, value);
+            }
+        });
+        config.values().forEach((key, value) -> {
+            if (key.startsWith(COMMAND_PREFIX)) {
+                commandValues.put(key, value);
+            }
+        });
+
+        Map<String, Limit> commands = new HashMap<>();
+        commandValues.forEach((key, value) -> {
+            Limit limit = parseLimit(key, value);
+            if (limit != null) {
+                commands.put(key.substring(COMMAND_PREFIX.length()), limit);
+            }
+        });
+
+        return new Limits(
+                config,
+                !"false".equalsIgnoreCase(Config.getProperty("ratelimit.enabled", "true").trim()),
+                parseLimit("ratelimit.user", Config.getProperty("ratelimit.user")),
+                parseLimit("ratelimit.guild", Config.getProperty("ratelimit.guild")),
+                parseLimit("ratelimit.autocomplete", Config.getProperty("ratelimit.autocomplete")),
+                Map.copyOf(commands));
+    }
+
+    /**
+     * Liest eine Grenze im Format {@code <anzahl>/<sekunden>}; leere Werte bedeuten keine Grenze.
+     */
+    private static Limit parseLimit(String key, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        String[] parts = value.trim().split("/");
+        try {
+            int capacity = Integer.parseInt(parts[0].trim());
+            long seconds = parts.length > 1 ? Long.parseLong(parts[1].trim()) : 1;
+            if (capacity > 0 && seconds > 0) {
+                return new Limit(capacity, TimeUnit.SECONDS.toNanos(seconds));
+            }
+        } catch (NumberFormatException e) {
+            // Unten protokolliert
+        }
+
+        LOGGER.warn("Ungültige Rate-Limit-Angabe für {}: \"{}\" (erwartet <anzahl>/<sekunden>), keine Grenze", key, value);
+        return null;
+    }
+}
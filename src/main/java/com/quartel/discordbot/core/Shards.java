@@ -0,0 +1,68 @@
+package com.quartel.discordbot.core;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.util.Comparator;
+
+/**
+ * Hilfsmethoden, um Server über ihre Shard aufzulösen.
+ * <p>
+ * Discord ordnet jeden Server anhand seiner ID genau einer Shard zu. Statt den Server in allen Shards zu suchen,
+ * wie es {@link ShardManager#getGuildById(long)} tut, wird direkt im Cache der zuständigen Shard nachgesehen.
+ */
+public final class Shards {
+
+    private Shards() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Berechnet die Shard eines Servers nach der Formel von Discord.
+     *
+     * @param guildId     Die Server-ID
+     * @param shardsTotal Die Gesamtzahl der Shards
+     * @return Die Shard-ID
+     */
+    public static int shardId(long guildId, int shardsTotal) {
+        return (int) ((guildId >>> 22) % shardsTotal);
+    }
+
+    /**
+     * Gibt die Shard zurück, die für einen Server zuständig ist.
+     *
+     * @param shardManager Der ShardManager
+     * @param guildId      Die Server-ID
+     * @return Die Shard oder null, wenn sie nicht von diesem Prozess verbunden wird
+     */
+    public static JDA shardFor(ShardManager shardManager, long guildId) {
+        return shardManager.getShardById(shardId(guildId, Math.max(1, shardManager.getShardsTotal())));
+    }
+
+    /**
+     * Löst einen Server über seine Shard auf.
+     *
+     * @param shardManager Der ShardManager
+     * @param guildId      Die Server-ID
+     * @return Der Server oder null, wenn er nicht im Cache seiner Shard ist
+     */
+    public static Guild getGuild(ShardManager shardManager, long guildId) {
+        JDA shard = shardFor(shardManager, guildId);
+        return shard != null ? shard.getGuildById(guildId) : null;
+    }
+
+    /**
+     * Gibt eine beliebige gestartete Shard zurück, z. B. für globale Befehle, die nicht an einen Server gebunden
+     * sind.
+     *
+     * @param shardManager Der ShardManager
+     * @return Die Shard mit der kleinsten ID
+     * @throws IllegalStateException wenn noch keine Shard gestartet ist
+     */
+    public static JDA anyShard(ShardManager shardManager) {
+        return shardManager.getShards().stream()
+                .min(Comparator.comparingInt(shard -> shard.getShardInfo().getShardId()))
+                .orElseThrow(() -> new IllegalStateException("Keine Shard gestartet"));
+    }
+}
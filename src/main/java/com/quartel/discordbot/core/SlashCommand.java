@@ -43,4 +43,14 @@ public interface SlashCommand {
      * @return Die Kategorie des Befehls
      */
     String getCategory();
+
+    /**
+     * Gibt an, ob es sich um einen Betriebsbefehl handelt. Betriebsbefehle werden nur im Betriebs-Server
+     * registriert und nur für Betreiber ausgeführt (siehe {@link Operators}).
+     *
+     * @return true für Betriebsbefehle, standardmäßig false
+     */
+    default boolean isOperatorCommand() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.quartel.discordbot.core.commands;
+
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.core.Operators;
+import com.quartel.discordbot.metrics.jfr.FlightRecording;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Steuert die JFR-Aufzeichnung des Bots zur Laufzeit: starten, beenden, sichern und Status anzeigen.
+ * Die Dateien landen auf dem Server des Bots in {@code jfr.directory}; Antworten nennen nur den Dateinamen,
+ * der vollständige Pfad steht im Log. Nur für Betreiber (siehe {@link Operators}).
+ */
+public class JfrCommand extends BaseSlashCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JfrCommand.class);
+
+    /**
+     * Erstellt den /jfr Befehl.
+     */
+    public JfrCommand() {
+        super("jfr", "Steuert die Flight-Recorder-Aufzeichnung des Bots", "Verwaltung");
+    }
+
+    @Override
+    public boolean isOperatorCommand() {
+        return true;
+    }
+
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash(getName(), getDescription())
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR))
+                .addSubcommands(
+                        new SubcommandData("start", "Startet die Aufzeichnung"),
+                        new SubcommandData("stop", "Sichert und beendet die Aufzeichnung"),
+                        new SubcommandData("dump", "Sichert die laufende Aufzeichnung in eine Datei"),
+                        new SubcommandData("status", "Zeigt an, ob gerade aufgezeichnet wird"));
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        String subcommand = event.getSubcommandName();
+        if (subcommand == null) {
+            InteractionReplies.replyEphemeral(event, "Bitte gib einen gültigen Unterbefehl an.");
+            return;
+        }
+
+        FlightRecording recording = FlightRecording.getInstance();
+        switch (subcommand) {
+            case "start" -> InteractionReplies.replyEphemeral(event, recording.start()
+                    ? "⏺️ JFR-Aufzeichnung gestartet."
+                    : "Die Aufzeichnung läuft bereits oder konnte nicht gestartet werden.");
+            case "stop" -> {
+                try {
+                    Path file = recording.stop();
+                    InteractionReplies.replyEphemeral(event, file != null
+                            ? "⏹️ Aufzeichnung beendet und gesichert: `" + file.getFileName() + "`"
+                            : "Es läuft keine Aufzeichnung.");
+                } catch (IOException e) {
+                    LOGGER.error("JFR-Aufzeichnung konnte nicht gesichert werden", e);
+                    InteractionReplies.replyEphemeral(event, "❌ Aufzeichnung beendet, aber nicht gesichert. Details stehen im Log.");
+                }
+            }
+            case "dump" -> {
+                if (!recording.isRunning()) {
+                    InteractionReplies.replyEphemeral(event, "Es läuft keine Aufzeichnung.");
+                    return;
+                }
+                try {
+                    Path file = recording.dump();
+                    InteractionReplies.replyEphemeral(event, "💾 Aufzeichnung gesichert: `" + file.getFileName() + "`");
+                } catch (IOException | IllegalStateException e) {
+                    LOGGER.error("JFR-Aufzeichnung konnte nicht gesichert werden", e);
+                    InteractionReplies.replyEphemeral(event, "❌ Aufzeichnung konnte nicht gesichert werden. Details stehen im Log.");
+                }
+            }
+            case "status" -> {
+                if (!recording.isRunning()) {
+                    InteractionReplies.replyEphemeral(event, "Es läuft keine Aufzeichnung.");
+                    return;
+                }
+                Duration duration = recording.getDuration();
+                InteractionReplies.replyEphemeral(event, String.format(
+                        "⏺️ Aufzeichnung läuft seit %dh %02dm, %d MB aufgezeichnet.",
+                        duration.toHours(), duration.toMinutesPart(), recording.getSize() / (1024 * 1024)));
+            }
+            default -> InteractionReplies.replyEphemeral(event, "Unbekannter Unterbefehl.");
+        }
+    }
+}
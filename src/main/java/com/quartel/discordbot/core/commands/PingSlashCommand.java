@@ -1,6 +1,7 @@
 package com.quartel.discordbot.core.commands;
 
 import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
 /**
@@ -19,7 +20,7 @@ public class PingSlashCommand extends BaseSlashCommand {
     @Override
     public void execute(SlashCommandInteractionEvent event) {
         // Bestätige den Befehl und zeige "Messe Ping..." an
-        event.deferReply().queue();
+        InteractionReplies.defer(event);
 
         // Hole den Gateway-Ping
         long gatewayPing = event.getJDA().getGatewayPing();
@@ -28,8 +29,7 @@ public class PingSlashCommand extends BaseSlashCommand {
         long apiPing = System.currentTimeMillis() - event.getTimeCreated().toInstant().toEpochMilli();
 
         // Sende die Antwort
-        event.getHook().sendMessage(
-                String.format("**Pong!** 🏓\nGateway Ping: %dms\nAPI Ping: %dms", gatewayPing, apiPing)
-        ).queue();
+        InteractionReplies.reply(event,
+                String.format("**Pong!** 🏓\nGateway Ping: %dms\nAPI Ping: %dms", gatewayPing, apiPing));
     }
 }
\ No newline at end of file
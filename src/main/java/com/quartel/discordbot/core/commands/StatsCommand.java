@@ -0,0 +1,236 @@
+package com.quartel.discordbot.core.commands;
+
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.CommandExecutor;
+import com.quartel.discordbot.core.CommandManager;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.core.Operators;
+import com.quartel.discordbot.core.RateLimiter;
+import com.quartel.discordbot.metrics.LatencyHistogram;
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.quartel.discordbot.metrics.ShardHealth;
+import com.quartel.discordbot.util.RestScheduler;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zeigt den Betreibern die Laufzeitwerte des Bots an: Latenzverteilungen (p50/p95/p99) pro Befehl,
+ * Autovervollständigung und Track-Laden, die Messwerte der Module sowie Interaktions-, REST-, Shard- und JVM-Werte.
+ * Die Werte betreffen alle Server des Bots, daher nur für Betreiber (siehe {@link Operators}).
+ */
+public class StatsCommand extends BaseSlashCommand {
+
+    // Discord begrenzt Beschreibung und Feldinhalte eines Embeds
+    private static final int DESCRIPTION_LIMIT = 4096;
+    private static final int FIELD_LIMIT = 1024;
+
+    // Messwerte mit diesen Präfixen haben eigene Felder und fehlen daher unter "Messwerte"
+    private static final List<String> OWN_FIELD_PREFIXES = List.of("rest.", "ratelimit.", "commands.", "jvm.", "shards.");
+
+    private final CommandManager commandManager;
+
+    /**
+     * Erstellt den /stats Befehl.
+     *
+     * @param commandManager Der CommandManager, dessen Ausführungswerte angezeigt werden
+     */
+    public StatsCommand(CommandManager commandManager) {
+        super("stats", "Zeigt Latenzen und Laufzeitwerte des Bots an", "Verwaltung");
+        this.commandManager = commandManager;
+    }
+
+    @Override
+    public boolean isOperatorCommand() {
+        return true;
+    }
+
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash(getName(), getDescription())
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR));
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        InteractionReplies.replyEmbeds(event, createStatsEmbed());
+    }
+
+    /**
+     * Erstellt das Embed mit allen Laufzeitwerten.
+     */
+    private MessageEmbed createStatsEmbed() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+        return new EmbedBuilder()
+                .setTitle("📊 Bot-Statistik")
+                .setDescription(limit("**Befehle**\n" + formatHistograms(metrics.getHistograms(MetricsRegistry.Kind.COMMAND)),
+                        DESCRIPTION_LIMIT))
+                .addField("Autovervollständigung",
+                        limit(formatHistograms(metrics.getHistograms(MetricsRegistry.Kind.AUTOCOMPLETE)), FIELD_LIMIT), false)
+                .addField("Track-Laden",
+                        limit(formatHistograms(metrics.getHistograms(MetricsRegistry.Kind.TRACK_LOAD)), FIELD_LIMIT), false)
+                .addField("Messwerte", limit(formatGauges(metrics.getGauges()), FIELD_LIMIT), false)
+                .addField("Interaktionen", limit(formatInteractions(), FIELD_LIMIT), true)
+                .addField("REST", limit(formatRest(), FIELD_LIMIT), true)
+                .addField("JVM", limit(formatJvm(), FIELD_LIMIT), true)
+                .addField("Shards", limit(formatShards(), FIELD_LIMIT), false)
+                .setColor(Color.BLUE)
+                .setFooter("Latenzen seit dem Start, Werte in Millisekunden")
+                .build();
+    }
+
+    /**
+     * Formatiert Histogramme als Tabelle mit Anzahl und Perzentilen.
+     */
+    private static String formatHistograms(Map<String, LatencyHistogram> histograms) {
+        if (histograms.isEmpty()) {
+            return "Noch keine Messungen.";
+        }
+
+        StringBuilder table = new StringBuilder("```\n");
+        table.append(String.format("%-14s %7s %8s %8s %8s%n", "Name", "Anzahl", "p50", "p95", "p99"));
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            table.append(String.format("%-14.14s %7d %8s %8s %8s%n",
+                    name, snapshot.count(),
+                    formatMillis(snapshot.p50()), formatMillis(snapshot.p95()), formatMillis(snapshot.p99())));
+        });
+        return table.append("```").toString();
+    }
+
+    /**
+     * Formatiert die Momentanwerte ohne Zähler und ohne Werte mit eigenem Feld; Quoten werden in Prozent angezeigt.
+     */
+    private static String formatGauges(Map<String, MetricsRegistry.Gauge> gauges) {
+        if (gauges.isEmpty()) {
+            return "Keine Messwerte registriert.";
+        }
+
+        StringBuilder text = new StringBuilder();
+        gauges.values().stream()
+                .filter(gauge -> !gauge.counter())
+                .filter(gauge -> OWN_FIELD_PREFIXES.stream().noneMatch(gauge.name()::startsWith))
+                .forEach(gauge -> {
+                    double value = gauge.value();
+                    text.append(gauge.description());
+                    if (gauge.labelValue() != null) {
+                        text.append(" (").append(gauge.labelValue()).append(')');
+                    }
+                    text.append(": **")
+                            .append(gauge.name().endsWith("_ratio")
+                                    ? String.format("%.1f%%", value * 100)
+                                    : String.format("%.0f", value))
+                            .append("**\n");
+                });
+        return text.toString();
+    }
+
+    /**
+     * Formatiert die Werte von Watchdog, Flutschutz und Schotts.
+     */
+    private String formatInteractions() {
+        long throttled = 0;
+        for (RateLimiter.ScopeStats stats : commandManager.getRateLimiter().getStats()) {
+            throttled += stats.rejected();
+        }
+
+        long rejected = 0;
+        long timedOut = 0;
+        for (CommandExecutor.BulkheadStats stats : commandManager.getCommandExecutor().getStats()) {
+            rejected += stats.rejected();
+            timedOut += stats.timedOut();
+        }
+
+        return "Automatisch zurückgestellt: " + InteractionReplies.getAutoDeferredCount() + "\n"
+                + "Knapp rechtzeitig: " + InteractionReplies.getNearMissCount() + "\n"
+                + "Umgeleitete Antworten: " + InteractionReplies.getRedirectedReplyCount() + "\n"
+                + "Gedrosselt: " + throttled + "\n"
+                + "Schott voll: " + rejected + "\n"
+                + "Timeouts: " + timedOut;
+    }
+
+    /**
+     * Formatiert die Warteschlangen des RestSchedulers.
+     */
+    private static String formatRest() {
+        StringBuilder text = new StringBuilder();
+        for (RestScheduler.ClassStats stats : RestScheduler.getInstance().getStats()) {
+            text.append(stats.priority()).append(": ")
+                    .append(stats.queued()).append(" wartend, ")
+                    .append(stats.inFlight()).append(" aktiv, Ø ")
+                    .append(String.format("%.1f", stats.averageWaitMillis())).append("ms\n");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formatiert Status, Ping, Server und Ereignisrate jeder Shard dieses Prozesses.
+     */
+    private static String formatShards() {
+        List<ShardHealth.ShardStats> shards = ShardHealth.getInstance().getStats();
+        if (shards.isEmpty()) {
+            return "Keine Shards überwacht.";
+        }
+
+        StringBuilder table = new StringBuilder("```\n");
+        table.append(String.format("%-5s %-12s %6s %7s %8s%n", "Shard", "Status", "Ping", "Server", "Ereig./s"));
+        for (ShardHealth.ShardStats shard : shards) {
+            table.append(String.format("%-5d %-12.12s %6s %7d %8.1f%n",
+                    shard.shardId(), shard.status(), shard.pingMillis() < 0 ? "-" : String.valueOf(shard.pingMillis()),
+                    shard.guilds(), shard.eventsPerSecond()));
+        }
+        return table.append("```").toString();
+    }
+
+    /**
+     * Formatiert Speicher, Threads und Laufzeit der JVM.
+     */
+    private static String formatJvm() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        Duration uptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+
+        return "Heap: " + toMegabytes(heap.getUsed()) + " / " + toMegabytes(heap.getCommitted())
+                + " MB (max. " + toMegabytes(heap.getMax()) + " MB)\n"
+                + "Nicht-Heap: " + toMegabytes(nonHeap.getUsed()) + " MB\n"
+                + "Threads: " + ManagementFactory.getThreadMXBean().getThreadCount() + "\n"
+                + String.format("Laufzeit: %dd %02dh %02dm", uptime.toDays(), uptime.toHoursPart(), uptime.toMinutesPart());
+    }
+
+    /**
+     * Formatiert Mikrosekunden als Millisekunden; kleine Werte mit einer Nachkommastelle.
+     */
+    private static String formatMillis(long micros) {
+        return micros < 10_000
+                ? String.format("%.1f", micros / 1000.0)
+                : String.valueOf(micros / 1000);
+    }
+
+    private static long toMegabytes(long bytes) {
+        return bytes < 0 ? -1 : bytes / (1024 * 1024);
+    }
+
+    /**
+     * Kürzt einen Text auf die von Discord erlaubte Länge.
+     */
+    private static String limit(String text, int maxLength) {
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        boolean codeBlock = text.startsWith("```") || text.contains("\n```");
+        String suffix = codeBlock ? "…\n```" : "…";
+        return text.substring(0, maxLength - suffix.length()) + suffix;
+    }
+}
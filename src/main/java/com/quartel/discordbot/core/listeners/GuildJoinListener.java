@@ -1,18 +1,16 @@
 package com.quartel.discordbot.core.listeners;
 
-import com.quartel.discordbot.modules.music.commands.*;
+import com.quartel.discordbot.Bot;
+import com.quartel.discordbot.core.CommandRegistrar;
 import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Listener für Ereignisse, wenn der Bot einem neuen Server beitritt.
+ * Listener für Ereignisse, wenn der Bot einem Server beitritt oder ihn verlässt.
  * Registriert automatisch die Slash-Commands auf dem neuen Server.
  */
 public class GuildJoinListener extends ListenerAdapter {
@@ -22,31 +20,15 @@ public class GuildJoinListener extends ListenerAdapter {
     public void onGuildJoin(@NotNull GuildJoinEvent event) {
         LOGGER.info("Bot ist Server beigetreten: {}", event.getGuild().getName());
 
-        // Zuerst bestehende Befehle löschen, um Duplikate zu vermeiden
-        event.getGuild().updateCommands().queue(
-                success -> {
-                    LOGGER.info("Bestehende Befehle für neuen Server {} gelöscht", event.getGuild().getName());
+        // Ein einziger Überschreib-Aufruf ersetzt eventuell noch vorhandene alte Befehle
+        Bot.getInstance().getCommandManager().syncGuild(event.getGuild(), true);
+    }
 
-                    // Erstelle Liste der zu registrierenden Befehle
-                    List<CommandData> commands = new ArrayList<>();
-                    commands.add(PlayCommand.getCommandData());
-                    commands.add(SkipCommand.getCommandData());
-                    commands.add(StopCommand.getCommandData());
-                    commands.add(QueueCommand.getCommandData());
-                    commands.add(NowPlayingCommand.getCommandData());
-                    commands.add(VolumeCommand.getCommandData());
-                    commands.add(PauseResumeCommand.getPauseCommandData());
-                    commands.add(PauseResumeCommand.getResumeCommandData());
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        LOGGER.info("Bot hat Server verlassen: {}", event.getGuild().getName());
 
-                    // Jetzt neue Befehle registrieren
-                    event.getGuild().updateCommands().addCommands(commands).queue(
-                            registerSuccess -> LOGGER.info("Musik-Befehle erfolgreich für neuen Server {} registriert", event.getGuild().getName()),
-                            registerError -> LOGGER.error("Fehler beim Registrieren der Musik-Befehle für neuen Server {}: {}",
-                                    event.getGuild().getName(), registerError.getMessage())
-                    );
-                },
-                error -> LOGGER.error("Fehler beim Löschen bestehender Befehle für neuen Server {}: {}",
-                        event.getGuild().getName(), error.getMessage())
-        );
+        // Discord entfernt die Befehle selbst; der gespeicherte Hash wäre beim erneuten Beitritt veraltet
+        CommandRegistrar.forget(event.getGuild().getIdLong());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.quartel.discordbot.core.listeners;
+
+import com.quartel.discordbot.core.permissions.PermissionManager;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberUpdateEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hält die zwischengespeicherten Berechtigungen des {@link PermissionManager} aktuell.
+ * Rollenänderungen eines Mitglieds verwerfen nur dessen Eintrag; Änderungen an den Rollen selbst
+ * verwerfen die kompilierte Richtlinie des ganzen Servers.
+ */
+public class PermissionCacheListener extends ListenerAdapter {
+
+    @Override
+    public void onGuildMemberRoleAdd(@NotNull GuildMemberRoleAddEvent event) {
+        PermissionManager.getInstance().invalidateMember(event.getGuild().getIdLong(), event.getMember().getIdLong());
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(@NotNull GuildMemberRoleRemoveEvent event) {
+        PermissionManager.getInstance().invalidateMember(event.getGuild().getIdLong(), event.getMember().getIdLong());
+    }
+
+    @Override
+    public void onGuildMemberUpdate(@NotNull GuildMemberUpdateEvent event) {
+        // Wird auch für nicht zwischengespeicherte Mitglieder ausgelöst, die keine Rollen-Events erhalten
+        PermissionManager.getInstance().invalidateMember(event.getGuild().getIdLong(), event.getMember().getIdLong());
+    }
+
+    @Override
+    public void onGuildMemberRemove(@NotNull GuildMemberRemoveEvent event) {
+        PermissionManager.getInstance().invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    @Override
+    public void onRoleCreate(@NotNull RoleCreateEvent event) {
+        PermissionManager.getInstance().invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onRoleDelete(@NotNull RoleDeleteEvent event) {
+        PermissionManager.getInstance().invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onRoleUpdateName(@NotNull RoleUpdateNameEvent event) {
+        PermissionManager.getInstance().invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onRoleUpdatePermissions(@NotNull RoleUpdatePermissionsEvent event) {
+        PermissionManager.getInstance().invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        PermissionManager.getInstance().invalidateGuild(event.getGuild().getIdLong());
+    }
+}
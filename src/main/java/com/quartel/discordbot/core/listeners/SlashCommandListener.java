@@ -3,7 +3,12 @@ package com.quartel.discordbot.core.listeners;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.quartel.discordbot.Bot;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.quartel.discordbot.metrics.StartupTimer;
 import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
+import com.quartel.discordbot.util.LogSampler;
+import com.quartel.discordbot.util.RestScheduler;
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -22,6 +27,9 @@ import java.util.List;
 public class SlashCommandListener extends ListenerAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(SlashCommandListener.class);
 
+    // Begrenzt die Debug-Meldung pro eingehendem Befehl bei hoher Last
+    private static final LogSampler LOG_SAMPLER = new LogSampler(LOGGER, "commands");
+
     private final Bot bot;
 
     /**
@@ -42,10 +50,16 @@ public class SlashCommandListener extends ListenerAdapter {
     @Override
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
         String commandName = event.getName();
-        LOGGER.debug("Slash-Command erhalten: {} von {}", commandName, event.getUser().getName());
+        StartupTimer.getInstance().commandReceived();
+        if (LOGGER.isDebugEnabled() && LOG_SAMPLER.allow()) {
+            LOGGER.debug("Slash-Command erhalten: {} von {}", commandName, event.getUser().getName());
+        }
 
-        // Commands direkt an ihre Handler in den Modulen delegieren
-        // Die Module registrieren ihre eigenen Listener für ihre Commands
+        // Befehl über die Registry des CommandManagers auf einem virtuellen Thread ausführen
+        if (!bot.getCommandManager().dispatch(event)) {
+            LOGGER.warn("Kein Handler für Slash-Command {} registriert", commandName);
+            InteractionReplies.replyEphemeral(event, "❌ Dieser Befehl ist derzeit nicht verfügbar.");
+        }
     }
 
     /**
@@ -55,10 +69,19 @@ public class SlashCommandListener extends ListenerAdapter {
      */
     @Override
     public void onCommandAutoCompleteInteraction(@NotNull CommandAutoCompleteInteractionEvent event) {
+        // Gedrosselte Anfragen erhalten keine Vorschläge, statt die Musikbibliothek erneut zu lesen
+        if (!bot.getCommandManager().getRateLimiter().tryAcquireAutocomplete(event.getUser().getIdLong())) {
+            RestScheduler.getInstance().submit(RestScheduler.Priority.INTERACTION,
+                    () -> event.getInteraction().replyChoices());
+            return;
+        }
+
         // Spezielle Auto-Completion-Logik für verschiedene Commands
+        long startNanos = System.nanoTime();
         if (event.getName().equals("play")) {
             handlePlayCommandAutoComplete(event);
         }
+        MetricsRegistry.getInstance().recordSince(MetricsRegistry.Kind.AUTOCOMPLETE, event.getName(), startNanos);
     }
 
     /**
@@ -67,17 +90,30 @@ public class SlashCommandListener extends ListenerAdapter {
      * @param event Das CommandAutoCompleteInteractionEvent
      */
     private void handlePlayCommandAutoComplete(@NotNull CommandAutoCompleteInteractionEvent event) {
-        MusicLibraryManager musicLibraryManager = new MusicLibraryManager();
-        JsonObject config = musicLibraryManager.loadMusicLibraryConfig();
+        JsonObject config = MusicLibraryManager.getInstance().loadMusicLibraryConfig();
 
         if (config == null || !config.has("playlists")) {
-            event.getInteraction().replyChoices().queue();
+            RestScheduler.getInstance().submit(RestScheduler.Priority.INTERACTION,
+                    () -> event.getInteraction().replyChoices());
             return;
         }
 
-        String focusedOption = event.getFocusedOption().getName();
-        String userInput = event.getFocusedOption().getValue().toLowerCase();
+        List<Command.Choice> choices = findPlaylistChoices(config,
+                event.getFocusedOption().getName(), event.getFocusedOption().getValue());
+        RestScheduler.getInstance().submit(RestScheduler.Priority.INTERACTION,
+                () -> event.getInteraction().replyChoices(choices));
+    }
 
+    /**
+     * Sucht die Playlists, deren Name die Eingabe enthält, als Vorschläge für die Auto-Completion.
+     *
+     * @param config        Die Konfiguration der Musikbibliothek mit dem Array {@code playlists}
+     * @param focusedOption Der Name der Option, für die Vorschläge angefordert werden
+     * @param input         Die bisherige Eingabe des Benutzers
+     * @return Höchstens 25 Vorschläge (Discord-Limit)
+     */
+    public static List<Command.Choice> findPlaylistChoices(JsonObject config, String focusedOption, String input) {
+        String userInput = input.toLowerCase();
         JsonArray playlists = config.getAsJsonArray("playlists");
         List<Command.Choice> choices = new ArrayList<>();
 
@@ -98,7 +134,6 @@ public class SlashCommandListener extends ListenerAdapter {
             // Begrenzen auf 25 Vorschläge (Discord-Limit)
             if (choices.size() >= 25) break;
         }
-
-        event.getInteraction().replyChoices(choices).queue();
+        return choices;
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.quartel.discordbot.core.permissions;
+
+/**
+ * Zwischenspeicher für die Rollen-Merkmale der Mitglieder eines Servers.
+ * <p>
+ * Eine Hashtabelle mit offener Adressierung über zwei {@code long}-Arrays, damit Abfragen und Einträge weder
+ * die Mitglieds-ID noch den Wert boxen. Jeder Eintrag trägt seinen Ablaufzeitpunkt; abgelaufene Einträge werden
+ * beim Zugriff entfernt und spätestens dann verworfen, wenn die Tabelle voll ist, statt sie zu vergrößern.
+ * Neue Arrays werden nur dabei angelegt.
+ */
+final class MemberFlagCache {
+    private static final int INITIAL_CAPACITY = 64;
+    // Discord-IDs sind nie 0, daher markiert 0 einen freien Platz
+    private static final long EMPTY = 0;
+
+    private final int flagBits;
+    private final long flagMask;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    // (Ablaufzeitpunkt << flagBits) | Merkmale
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Erstellt einen leeren Zwischenspeicher.
+     *
+     * @param flagBits Die Anzahl der Bits, die die Merkmale belegen
+     */
+    MemberFlagCache(int flagBits) {
+        this.flagBits = flagBits;
+        this.flagMask = (1L << flagBits) - 1;
+    }
+
+    /**
+     * Gibt die Merkmale eines Mitglieds zurück und entfernt einen abgelaufenen Eintrag.
+     *
+     * @param memberId Die ID des Mitglieds
+     * @param now      Der aktuelle Zeitpunkt in Millisekunden
+     * @return Die Merkmale, oder -1, wenn nichts (mehr) gültig gespeichert ist
+     */
+    synchronized long get(long memberId, long now) {
+        int slot = find(memberId);
+        if (slot < 0) {
+            return -1;
+        }
+        long packed = values[slot];
+        if ((packed >>> flagBits) < now) {
+            removeSlot(slot);
+            return -1;
+        }
+        return packed & flagMask;
+    }
+
+    /**
+     * Speichert die Merkmale eines Mitglieds bis zum angegebenen Zeitpunkt.
+     *
+     * @param memberId  Die ID des Mitglieds
+     * @param flags     Die Merkmale
+     * @param expiresAt Der Ablaufzeitpunkt in Millisekunden
+     * @param now       Der aktuelle Zeitpunkt in Millisekunden
+     */
+    synchronized void put(long memberId, long flags, long expiresAt, long now) {
+        long packed = (expiresAt << flagBits) | flags;
+        int slot = find(memberId);
+        if (slot >= 0) {
+            values[slot] = packed;
+            return;
+        }
+        // Höchstens zu drei Vierteln füllen, sonst werden die Suchketten zu lang
+        if ((size + 1) * 4 > keys.length * 3) {
+            rebuild(now);
+        }
+        insert(memberId, packed);
+    }
+
+    /**
+     * Entfernt die Merkmale eines Mitglieds.
+     *
+     * @param memberId Die ID des Mitglieds
+     */
+    synchronized void remove(long memberId) {
+        int slot = find(memberId);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    private int find(long memberId) {
+        int mask = keys.length - 1;
+        for (int slot = hash(memberId) & mask; ; slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == memberId) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(long memberId, long packed) {
+        int mask = keys.length - 1;
+        int slot = hash(memberId) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = memberId;
+        values[slot] = packed;
+        size++;
+    }
+
+    /**
+     * Entfernt einen Eintrag und rückt nachfolgende Einträge derselben Suchkette auf, damit keine Lücke entsteht.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // Nur aufrücken, wenn der Stammplatz des Eintrags nicht zwischen Lücke und aktuellem Platz liegt
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+    }
+
+    /**
+     * Legt die Tabelle neu an, übernimmt nur die gültigen Einträge und vergrößert sie nur, wenn diese
+     * mehr als die Hälfte der bisherigen Kapazität belegen.
+     */
+    private void rebuild(long now) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && (oldValues[i] >>> flagBits) >= now) {
+                live++;
+            }
+        }
+
+        int capacity = INITIAL_CAPACITY;
+        while ((live + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && (oldValues[i] >>> flagBits) >= now) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        // Die unteren Bits von Discord-IDs sind Zähler und Worker-ID; erst durchmischen
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
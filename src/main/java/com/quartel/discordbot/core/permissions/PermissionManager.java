@@ -1,18 +1,31 @@
 package com.quartel.discordbot.core.permissions;
 
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Verwaltet Berechtigungen für Bot-Befehle auf Discord-Servern.
  * Ermöglicht die Konfiguration von Berechtigungen basierend auf Rollen.
+ * Die Berechtigungsstufen werden pro Server im {@link GuildSettingsStore} gespeichert;
+ * ohne Eintrag gelten die Standardwerte aus {@code music.permissions.*}.
+ * <p>
+ * Die Regeln werden pro Server einmalig zu einer {@link PermissionPolicy} kompiliert. Die Rollen-Merkmale
+ * eines Mitglieds (DJ, Administrator) werden zwischengespeichert und bei Rollenänderungen über
+ * {@link #invalidateMember(long, long)} bzw. {@link #invalidateGuild(long)} verworfen; als Absicherung gegen
+ * verpasste Events laufen sie nach {@link #MEMBER_CACHE_TTL_MILLIS} ab. Ohne Mitglieder-Events (Gateway-Profil
+ * {@code lean}) wird nichts zwischengespeichert, siehe {@link #setMemberCacheEnabled(boolean)}.
  */
 public class PermissionManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PermissionManager.class);
@@ -25,12 +38,18 @@ public class PermissionManager {
         SERVER_OWNER   // Nur Serverbesitzer
     }
 
-    // Konfigurierbare Berechtigungen pro Server
-    private final Map<Long, Map<String, PermissionLevel>> serverPermissions = new HashMap<>();
+    // Gültigkeit gespeicherter Mitglieds-Merkmale, falls ein Rollen-Event verpasst wurde
+    private static final long MEMBER_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
 
     // Singleton-Instanz
     private static PermissionManager instance;
 
+    // Kompilierte Richtlinien pro Server
+    private final Map<Long, PermissionPolicy> policies = new ConcurrentHashMap<>();
+
+    // Rollen-Merkmale zwischenspeichern; nur sinnvoll, wenn Rollenänderungen als Event ankommen
+    private volatile boolean memberCacheEnabled = true;
+
     // Privater Konstruktor für Singleton
     private PermissionManager() {}
 
@@ -48,6 +67,8 @@ public class PermissionManager {
 
     /**
      * Prüft, ob ein Mitglied eine bestimmte Berechtigung hat.
+     * Die erforderliche Stufe ergibt sich aus der Konfiguration des Befehls; der Parameter
+     * {@code requiredPermLevel} bleibt aus Kompatibilitätsgründen erhalten.
      *
      * @param member            Das Mitglied, dessen Berechtigung geprüft wird
      * @param requiredPermLevel Die erforderliche Berechtigungsstufe
@@ -61,81 +82,118 @@ public class PermissionManager {
         }
 
         Guild guild = member.getGuild();
-        long guildId = guild.getIdLong();
 
         // Serverbesitzer hat immer alle Berechtigungen
-        if (guild.getOwnerId().equals(member.getId())) {
-            LOGGER.debug("Serverbesitzer hat Zugriff");
+        if (guild.getOwnerIdLong() == member.getIdLong()) {
             return true;
         }
 
-        // Hole die spezifische Berechtigungsstufe für diesen Befehl
-        PermissionLevel configuredLevel = getCommandPermissionLevel(guildId, commandName);
-
-        LOGGER.debug("Konfigurierte Berechtigungsstufe für {}: {}", commandName, configuredLevel);
-
-        switch (configuredLevel) {
-            case EVERYONE:
-                LOGGER.debug("Befehl {} für alle freigegeben", commandName);
-                return true;
-            case DJ_ROLE:
-                boolean hasDJRole = hasDJRole(member);
-                LOGGER.debug("DJ-Rolle Prüfung für {} bei Befehl {}: {}",
-                        member.getUser().getName(), commandName, hasDJRole);
-                return hasDJRole;
-            case ADMIN_ROLE:
-                boolean isAdmin = member.hasPermission(net.dv8tion.jda.api.Permission.ADMINISTRATOR);
-                LOGGER.debug("Admin-Prüfung für {} bei Befehl {}: {}",
-                        member.getUser().getName(), commandName, isAdmin);
-                return isAdmin;
-            case SERVER_OWNER:
-                LOGGER.debug("Nur Serverbesitzer hat Zugriff auf {}", commandName);
-                return guild.getOwnerId().equals(member.getId());
-            default:
-                LOGGER.warn("Unbekannte Berechtigungsstufe für {}", commandName);
-                return false;
+        PermissionPolicy policy = getPolicy(guild);
+        return switch (policy.getLevel(commandName)) {
+            case EVERYONE -> true;
+            case DJ_ROLE -> (getMemberFlags(policy, member) & PermissionPolicy.FLAG_DJ) != 0;
+            case ADMIN_ROLE -> (getMemberFlags(policy, member) & PermissionPolicy.FLAG_ADMIN) != 0;
+            case SERVER_OWNER -> false;
+        };
+    }
+
+    /**
+     * Legt fest, ob die Rollen-Merkmale von Mitgliedern zwischengespeichert werden. Ohne Mitglieder-Events würden
+     * gespeicherte Merkmale bis zu {@link #MEMBER_CACHE_TTL_MILLIS} veralten; die Rollen einer Interaktion sind
+     * dagegen immer aktuell.
+     *
+     * @param enabled true, wenn Rollenänderungen als Event ankommen
+     */
+    public void setMemberCacheEnabled(boolean enabled) {
+        memberCacheEnabled = enabled;
+        if (!enabled) {
+            policies.clear();
+        }
+    }
+
+    /**
+     * Gibt die Rollen-Merkmale eines Mitglieds zurück und ermittelt sie nur, wenn sie nicht gespeichert sind.
+     */
+    private long getMemberFlags(PermissionPolicy policy, Member member) {
+        long now = System.currentTimeMillis();
+        long flags = memberCacheEnabled ? policy.getMemberFlags(member.getIdLong(), now) : -1;
+        if (flags >= 0) {
+            return flags;
+        }
+
+        flags = 0;
+        for (Role role : member.getRoles()) {
+            if (policy.isDjRole(role.getIdLong())) {
+                flags |= PermissionPolicy.FLAG_DJ;
+                break;
+            }
+        }
+        if (member.hasPermission(Permission.ADMINISTRATOR)) {
+            flags |= PermissionPolicy.FLAG_ADMIN;
+        }
+
+        if (memberCacheEnabled) {
+            policy.putMemberFlags(member.getIdLong(), flags, now, now + MEMBER_CACHE_TTL_MILLIS);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Berechtigungsmerkmale für {} ermittelt: DJ={}, Admin={}", member.getUser().getName(),
+                    (flags & PermissionPolicy.FLAG_DJ) != 0, (flags & PermissionPolicy.FLAG_ADMIN) != 0);
+        }
+        return flags;
+    }
+
+    /**
+     * Gibt die kompilierte Richtlinie eines Servers zurück und kompiliert sie neu,
+     * wenn sich Konfiguration oder Servereinstellungen seitdem geändert haben.
+     */
+    private PermissionPolicy getPolicy(Guild guild) {
+        long guildId = guild.getIdLong();
+        ConfigSnapshot config = Config.get();
+        GuildSettings settings = GuildSettingsStore.getInstance().get(guildId);
+
+        PermissionPolicy policy = policies.get(guildId);
+        if (policy != null && policy.isCurrent(config, settings)) {
+            return policy;
+        }
+
+        return policies.compute(guildId, (id, existing) -> existing != null && existing.isCurrent(config, settings)
+                ? existing
+                : PermissionPolicy.compile(guild, config, settings));
+    }
+
+    /**
+     * Verwirft die gespeicherten Merkmale eines Mitglieds, z.B. nach einer Rollenänderung.
+     *
+     * @param guildId  Die Server-ID
+     * @param memberId Die ID des Mitglieds
+     */
+    public void invalidateMember(long guildId, long memberId) {
+        PermissionPolicy policy = policies.get(guildId);
+        if (policy != null) {
+            policy.invalidateMember(memberId);
         }
     }
 
     /**
-     * Prüft, ob ein Mitglied eine DJ-Rolle hat.
+     * Verwirft die kompilierte Richtlinie eines Servers, z.B. wenn Rollen erstellt, umbenannt oder gelöscht wurden.
      *
-     * @param member Das zu prüfende Mitglied
-     * @return true, wenn das Mitglied eine DJ-Rolle hat
+     * @param guildId Die Server-ID
      */
-    private boolean hasDJRole(Member member) {
-        // Definiere DJ-Rolle Muster
-        Pattern djRolePattern = Pattern.compile(".*(?:dj|music|musik|audio).*", Pattern.CASE_INSENSITIVE);
-
-        // Debugging: Zeige alle Rollen des Mitglieds
-        LOGGER.debug("Rollen von {}: {}",
-                member.getUser().getName(),
-                member.getRoles().stream()
-                        .map(Role::getName)
-                        .toList()
-        );
-
-        return member.getRoles().stream()
-                .anyMatch(role -> {
-                    String roleName = role.getName().toLowerCase();
-                    boolean matches = djRolePattern.matcher(roleName).matches();
-                    if (matches) {
-                        LOGGER.debug("DJ-Rolle gefunden: {}", role.getName());
-                    }
-                    return matches;
-                });
+    public void invalidateGuild(long guildId) {
+        policies.remove(guildId);
     }
 
     /**
      * Setzt die Berechtigungsstufe für einen bestimmten Befehl auf einem Server.
+     * Die Richtlinie des Servers wird bei der nächsten Prüfung automatisch neu kompiliert.
      *
      * @param guildId      Die Server-ID
      * @param commandName  Der Name des Befehls
      * @param level        Die Berechtigungsstufe
      */
     public void setCommandPermissionLevel(long guildId, String commandName, PermissionLevel level) {
-        serverPermissions.computeIfAbsent(guildId, k -> new HashMap<>())
-                .put(commandName.toLowerCase(), level);
+        GuildSettingsStore.getInstance().set(guildId,
+                GuildSettings.PERMISSION_PREFIX + commandName.toLowerCase(), level.name());
 
         LOGGER.info("Berechtigungsstufe für Befehl {} auf Server {} auf {} gesetzt",
                 commandName, guildId, level);
@@ -143,13 +201,13 @@ public class PermissionManager {
 
     /**
      * Ruft die Berechtigungsstufe für einen Befehl auf einem Server ab.
+     * Reihenfolge: Servereinstellung, Standardwert aus der Konfiguration, EVERYONE.
      *
-     * @param guildId     Die Server-ID
+     * @param guild       Der Server
      * @param commandName Der Name des Befehls
      * @return Die Berechtigungsstufe, oder EVERYONE als Standard
      */
-    public PermissionLevel getCommandPermissionLevel(long guildId, String commandName) {
-        return serverPermissions.getOrDefault(guildId, new HashMap<>())
-                .getOrDefault(commandName.toLowerCase(), PermissionLevel.EVERYONE);
+    public PermissionLevel getCommandPermissionLevel(Guild guild, String commandName) {
+        return getPolicy(guild).getLevel(commandName.toLowerCase());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.quartel.discordbot.core.permissions;
+
+import com.quartel.discordbot.config.ConfigSnapshot;
+import com.quartel.discordbot.config.DefaultConfigManager;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.core.permissions.PermissionManager.PermissionLevel;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Einmalig kompilierte Berechtigungsregeln eines Servers.
+ * <p>
+ * Enthält die Berechtigungsstufe jedes Befehls (Konfiguration {@code music.permissions.*}, überschrieben durch
+ * die Servereinstellungen) und die IDs aller DJ-Rollen. Zusätzlich werden die Rollen-Merkmale der Mitglieder
+ * in einem {@link MemberFlagCache} zwischengespeichert, sodass eine Prüfung aus einem Map-Zugriff für die
+ * Befehlsstufe und einer Suche über primitive IDs besteht, ohne dabei Objekte anzulegen.
+ * Eine Richtlinie ist an den Konfigurations-Snapshot und die Servereinstellungen gebunden, aus denen sie
+ * erstellt wurde; ändert sich eines davon, wird sie neu kompiliert.
+ */
+final class PermissionPolicy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PermissionPolicy.class);
+
+    // Rollen, deren Name auf eines dieser Wörter passt, gelten als DJ-Rolle
+    private static final Pattern DJ_ROLE_PATTERN = Pattern.compile(".*(?:dj|music|musik|audio).*", Pattern.CASE_INSENSITIVE);
+
+    // Merkmale eines Mitglieds, als Bits im zwischengespeicherten Wert
+    static final long FLAG_DJ = 1;
+    static final long FLAG_ADMIN = 1 << 1;
+    private static final int FLAG_BITS = 2;
+
+    private final ConfigSnapshot config;
+    private final GuildSettings settings;
+    private final Map<String, PermissionLevel> commandLevels;
+    private final long[] djRoleIds;
+
+    // Mitglieds-ID -> Merkmale mit Ablaufzeitpunkt
+    private final MemberFlagCache memberFlags = new MemberFlagCache(FLAG_BITS);
+
+    private PermissionPolicy(ConfigSnapshot config, GuildSettings settings,
+                             Map<String, PermissionLevel> commandLevels, long[] djRoleIds) {
+        this.config = config;
+        this.settings = settings;
+        this.commandLevels = commandLevels;
+        this.djRoleIds = djRoleIds;
+    }
+
+    /**
+     * Kompiliert die Richtlinie eines Servers.
+     *
+     * @param guild    Der Server
+     * @param config   Der aktuelle Konfigurations-Snapshot
+     * @param settings Die aktuellen Servereinstellungen
+     * @return Die kompilierte Richtlinie
+     */
+    static PermissionPolicy compile(Guild guild, ConfigSnapshot config, GuildSettings settings) {
+        Map<String, String> rawLevels = new HashMap<>();
+        collectLevels(DefaultConfigManager.getAllDefaults(), rawLevels);
+        collectLevels(config.values(), rawLevels);
+        collectLevels(settings.values(), rawLevels);
+
+        Map<String, PermissionLevel> commandLevels = new HashMap<>();
+        rawLevels.forEach((command, level) -> commandLevels.put(command, parseLevel(command, level)));
+
+        long[] djRoleIds = guild.getRoles().stream()
+                .filter(role -> DJ_ROLE_PATTERN.matcher(role.getName()).matches())
+                .mapToLong(Role::getIdLong)
+                .sorted()
+                .toArray();
+
+        LOGGER.debug("Berechtigungen für Guild {} kompiliert: {} Befehlsstufen, {} DJ-Rollen",
+                guild.getName(), commandLevels.size(), djRoleIds.length);
+        return new PermissionPolicy(config, settings, Map.copyOf(commandLevels), djRoleIds);
+    }
+
+    /**
+     * Prüft, ob die Richtlinie noch zu Konfiguration und Servereinstellungen passt.
+     *
+     * @param currentConfig   Der aktuelle Konfigurations-Snapshot
+     * @param currentSettings Die aktuellen Servereinstellungen
+     * @return true, wenn die Richtlinie weiterverwendet werden kann
+     */
+    boolean isCurrent(ConfigSnapshot currentConfig, GuildSettings currentSettings) {
+        return config == currentConfig && settings == currentSettings;
+    }
+
+    /**
+     * Gibt die Berechtigungsstufe eines Befehls zurück.
+     *
+     * @param commandName Der Name des Befehls (klein geschrieben)
+     * @return Die Stufe, oder EVERYONE, wenn keine konfiguriert ist
+     */
+    PermissionLevel getLevel(String commandName) {
+        PermissionLevel level = commandLevels.get(commandName);
+        return level != null ? level : PermissionLevel.EVERYONE;
+    }
+
+    /**
+     * Prüft, ob eine Rolle eine DJ-Rolle ist.
+     *
+     * @param roleId Die ID der Rolle
+     * @return true für eine DJ-Rolle
+     */
+    boolean isDjRole(long roleId) {
+        return Arrays.binarySearch(djRoleIds, roleId) >= 0;
+    }
+
+    /**
+     * Gibt die zwischengespeicherten Merkmale eines Mitglieds zurück.
+     *
+     * @param memberId Die ID des Mitglieds
+     * @param now      Der aktuelle Zeitpunkt in Millisekunden
+     * @return Die Merkmale, oder -1, wenn nichts (mehr) gültig gespeichert ist
+     */
+    long getMemberFlags(long memberId, long now) {
+        return memberFlags.get(memberId, now);
+    }
+
+    /**
+     * Speichert die Merkmale eines Mitglieds bis zum angegebenen Zeitpunkt.
+     *
+     * @param memberId  Die ID des Mitglieds
+     * @param flags     Die Merkmale
+     * @param now       Der aktuelle Zeitpunkt in Millisekunden
+     * @param expiresAt Der Ablaufzeitpunkt in Millisekunden
+     */
+    void putMemberFlags(long memberId, long flags, long now, long expiresAt) {
+        memberFlags.put(memberId, flags, expiresAt, now);
+    }
+
+    /**
+     * Verwirft die gespeicherten Merkmale eines Mitglieds.
+     *
+     * @param memberId Die ID des Mitglieds
+     */
+    void invalidateMember(long memberId) {
+        memberFlags.remove(memberId);
+    }
+
+    /**
+     * Übernimmt alle Schlüssel {@code music.permissions.<befehl>} aus einer Quelle.
+     */
+    private static void collectLevels(Map<String, String> source, Map<String, String> target) {
+        source.forEach((key, value) -> {
+            if (key.startsWith(GuildSettings.PERMISSION_PREFIX) && value != null) {
+                target.put(key.substring(GuildSettings.PERMISSION_PREFIX.length()).toLowerCase(), value);
+            }
+        });
+    }
+
+    /**
+     * Übersetzt einen konfigurierten Wert in eine Berechtigungsstufe.
+     */
+    private static PermissionLevel parseLevel(String commandName, String level) {
+        try {
+            return PermissionLevel.valueOf(level.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ungültige Berechtigungsstufe \"{}\" für Befehl {}, verwende EVERYONE", level, commandName);
+            return PermissionLevel.EVERYONE;
+        }
+    }
+}
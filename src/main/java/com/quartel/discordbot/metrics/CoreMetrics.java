@@ -0,0 +1,150 @@
+package com.quartel.discordbot.metrics;
+
+import com.quartel.discordbot.core.CommandExecutor;
+import com.quartel.discordbot.core.CommandManager;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.core.RateLimiter;
+import com.quartel.discordbot.util.LogSampler;
+import com.quartel.discordbot.util.RestScheduler;
+import net.dv8tion.jda.api.managers.AudioManager;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registriert die modulunabhängigen Messwerte des Bots im {@link MetricsRegistry}:
+ * Start, Gateway, Sprachverbindungen, REST-Warteschlangen, Interaktionen, Flutschutz, Schotts und JVM.
+ * Alle Werte werden erst beim Auslesen aus den jeweiligen Komponenten gelesen; Gateway-Werte über alle Shards
+ * zusammengefasst, die Werte einzelner Shards registriert {@link ShardHealth}.
+ */
+public final class CoreMetrics {
+
+    private CoreMetrics() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Registriert alle modulunabhängigen Messwerte.
+     *
+     * @param shardManager   Der ShardManager mit allen Shards des Bots
+     * @param commandManager Der CommandManager
+     */
+    public static void register(ShardManager shardManager, CommandManager commandManager) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+        // Start
+        metrics.registerGauge("startup.ready_ms", "Millisekunden bis zur Annahme von Befehlen",
+                () -> StartupTimer.getInstance().getReadyMillis());
+        metrics.registerGauge("startup.first_command_ms", "Millisekunden bis zum ersten Befehl",
+                () -> StartupTimer.getInstance().getFirstCommandMillis());
+
+        // Gateway und Sprachverbindungen
+        metrics.registerGauge("gateway.ping_ms", "Durchschnittlicher Gateway-Ping in Millisekunden",
+                shardManager::getAverageGatewayPing);
+        metrics.registerCounter("gateway.events", "Empfangene Gateway-Ereignisse",
+                () -> ShardHealth.getInstance().getTotalEvents());
+        metrics.registerGauge("guilds", "Server", () -> shardManager.getGuildCache().size());
+        metrics.registerGauge("voice.connections", "Verbundene Sprachkanäle", () -> shardManager.getShardCache().stream()
+                .flatMap(shard -> shard.getAudioManagers().stream())
+                .filter(AudioManager::isConnected)
+                .count());
+
+        // REST-Warteschlangen pro Prioritätsklasse
+        for (RestScheduler.Priority priority : RestScheduler.Priority.values()) {
+            String label = priority.name().toLowerCase();
+            metrics.registerGauge("rest.queued", "priority", label, "Wartende REST-Aufrufe",
+                    () -> restStats(priority, RestScheduler.ClassStats::queued));
+            metrics.registerGauge("rest.in_flight", "priority", label, "Laufende REST-Aufrufe",
+                    () -> restStats(priority, RestScheduler.ClassStats::inFlight));
+            metrics.registerCounter("rest.failed", "priority", label, "Fehlgeschlagene REST-Aufrufe",
+                    () -> restStats(priority, RestScheduler.ClassStats::failed));
+            metrics.registerCounter("rest.coalesced", "priority", label, "Zusammengefasste REST-Aufrufe",
+                    () -> restStats(priority, RestScheduler.ClassStats::coalesced));
+        }
+
+        // Interaktionen
+        metrics.registerCounter("interactions.auto_deferred", "Automatisch zurückgestellte Interaktionen",
+                InteractionReplies::getAutoDeferredCount);
+        metrics.registerCounter("interactions.near_miss", "Knapp rechtzeitig beantwortete Interaktionen",
+                InteractionReplies::getNearMissCount);
+        metrics.registerCounter("interactions.redirected", "An den Hook umgeleitete Antworten",
+                InteractionReplies::getRedirectedReplyCount);
+
+        // Flutschutz und Schotts
+        for (RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+            String label = scope.name().toLowerCase();
+            metrics.registerCounter("ratelimit.rejected", "scope", label, "Gedrosselte Aufrufe",
+                    () -> rateLimitStats(commandManager, scope, RateLimiter.ScopeStats::rejected));
+            metrics.registerGauge("ratelimit.buckets", "scope", label, "Gespeicherte Rate-Limit-Eimer",
+                    () -> rateLimitStats(commandManager, scope, RateLimiter.ScopeStats::buckets));
+        }
+        metrics.registerCounter("commands.rejected", "Wegen vollem Schott abgewiesene Befehle",
+                () -> bulkheadStats(commandManager, CommandExecutor.BulkheadStats::rejected));
+        metrics.registerCounter("commands.timed_out", "Befehle mit überschrittenem Timeout",
+                () -> bulkheadStats(commandManager, CommandExecutor.BulkheadStats::timedOut));
+        metrics.registerGauge("commands.active", "Laufende Befehle",
+                () -> bulkheadStats(commandManager, CommandExecutor.BulkheadStats::active));
+
+        // JVM
+        metrics.registerGauge("jvm.heap_used_bytes", "Belegter Heap in Bytes",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        metrics.registerGauge("jvm.threads", "Threads der JVM",
+                () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        metrics.registerGauge("jvm.heap_live_bytes", "Belegter Heap nach der letzten Garbage Collection in Bytes",
+                CoreMetrics::heapAfterLastGc);
+        metrics.registerCounter("process.cpu_seconds", "CPU-Zeit des Prozesses in Sekunden",
+                () -> ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                        ? os.getProcessCpuTime() / 1e9
+                        : Double.NaN);
+
+        // Logging
+        metrics.registerCounter("logging.suppressed", "Durch Sampling unterdrückte Logmeldungen",
+                LogSampler::getTotalSuppressed);
+    }
+
+    /**
+     * Summiert die Belegung der Heap-Bereiche nach ihrer letzten Garbage Collection; unabhängig davon, wie viel
+     * Müll sich seitdem angesammelt hat.
+     */
+    private static long heapAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long restStats(RestScheduler.Priority priority, ToLongFunction<RestScheduler.ClassStats> value) {
+        for (RestScheduler.ClassStats stats : RestScheduler.getInstance().getStats()) {
+            if (stats.priority() == priority) {
+                return value.applyAsLong(stats);
+            }
+        }
+        return 0;
+    }
+
+    private static long rateLimitStats(CommandManager commandManager, RateLimiter.Scope scope,
+                                       ToLongFunction<RateLimiter.ScopeStats> value) {
+        for (RateLimiter.ScopeStats stats : commandManager.getRateLimiter().getStats()) {
+            if (stats.scope() == scope) {
+                return value.applyAsLong(stats);
+            }
+        }
+        return 0;
+    }
+
+    private static long bulkheadStats(CommandManager commandManager, ToLongFunction<CommandExecutor.BulkheadStats> value) {
+        long sum = 0;
+        for (CommandExecutor.BulkheadStats stats : commandManager.getCommandExecutor().getStats()) {
+            sum += value.applyAsLong(stats);
+        }
+        return sum;
+    }
+}
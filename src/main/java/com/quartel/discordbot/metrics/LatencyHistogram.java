@@ -0,0 +1,163 @@
+package com.quartel.discordbot.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramm für Latenzen nach dem Vorbild von HdrHistogram.
+ * <p>
+ * Werte werden in Mikrosekunden in logarithmisch-lineare Eimer einsortiert: jede Zweierpotenz ist in
+ * {@value #SUB_BUCKETS} gleich breite Eimer unterteilt, die relative Abweichung eines Perzentils beträgt
+ * damit höchstens etwa 6%. Das Aufzeichnen ist sperrfrei (ein atomares Inkrement pro Eimer) und belegt
+ * keinen zusätzlichen Speicher; Auswertungen lesen die Zähler ohne die Aufzeichnung anzuhalten.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Größter unterschiedener Exponent: 2^40 Mikrosekunden (etwa 12 Tage), größere Werte landen im letzten Eimer
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Ausgewertete Werte eines Histogramms; alle Zeiten in Mikrosekunden.
+     *
+     * @param count Die Anzahl der Messungen
+     * @param mean  Der Mittelwert
+     * @param p50   Der Median
+     * @param p95   Das 95. Perzentil
+     * @param p99   Das 99. Perzentil
+     * @param max   Der größte gemessene Wert
+     */
+    public record Snapshot(long count, long mean, long p50, long p95, long p99, long max) {
+    }
+
+    /**
+     * Zeichnet eine Dauer auf.
+     *
+     * @param nanos Die Dauer in Nanosekunden
+     */
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    /**
+     * Zeichnet eine Dauer auf.
+     *
+     * @param micros Die Dauer in Mikrosekunden
+     */
+    public void record(long micros) {
+        counts.incrementAndGet(indexOf(micros));
+        sumMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Eimer zurück.
+     *
+     * @return Die Anzahl der Eimer
+     */
+    public static int getBucketCount() {
+        return BUCKET_COUNT;
+    }
+
+    /**
+     * Gibt den größten Wert zurück, der noch in einen Eimer fällt.
+     *
+     * @param index Der Index des Eimers
+     * @return Die obere Grenze des Eimers in Mikrosekunden
+     */
+    public static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Gibt die Anzahl der Messungen in einem Eimer zurück.
+     *
+     * @param index Der Index des Eimers
+     * @return Die Anzahl der Messungen
+     */
+    public long getBucketCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Gibt die Summe aller gemessenen Werte zurück.
+     *
+     * @return Die Summe in Mikrosekunden
+     */
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    /**
+     * Wertet das Histogramm aus.
+     *
+     * @return Die ausgewerteten Werte
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        if (count == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0);
+        }
+
+        long max = maxMicros.get();
+        return new Snapshot(
+                count,
+                sumMicros.sum() / count,
+                Math.min(max, percentile(copy, count, 0.50)),
+                Math.min(max, percentile(copy, count, 0.95)),
+                Math.min(max, percentile(copy, count, 0.99)),
+                max);
+    }
+
+    /**
+     * Sucht den Eimer, in den das gewünschte Perzentil fällt.
+     */
+    private static long percentile(long[] copy, long count, double quantile) {
+        long target = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int i = 0; i < copy.length; i++) {
+            seen += copy[i];
+            if (seen >= target) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return getBucketUpperBound(copy.length - 1);
+    }
+
+    /**
+     * Berechnet den Eimer eines Wertes: Exponent der höchsten Stelle und die folgenden vier Bits.
+     */
+    private static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+}
@@ -0,0 +1,129 @@
+package com.quartel.discordbot.metrics;
+
+import com.quartel.discordbot.config.Config;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Eingebetteter HTTP-Server, der unter {@code /metrics} alle Messwerte im Prometheus-Textformat ausliefert.
+ * <p>
+ * Die Werte werden erst beim Abruf durch Prometheus gelesen; außerhalb eines Abrufs verursacht der Server
+ * keine Arbeit. Konfiguration: {@code metrics.http.enabled}, {@code metrics.http.bind} und
+ * {@code metrics.http.port}. Standardmäßig ist der Server nur lokal erreichbar.
+ */
+public class MetricsHttpServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Prüft, ob der Server laut Konfiguration gestartet werden soll.
+     *
+     * @return true, wenn {@code metrics.http.enabled} gesetzt ist
+     */
+    public static boolean isEnabled() {
+        return "true".equalsIgnoreCase(Config.getProperty("metrics.http.enabled", "false").trim());
+    }
+
+    /**
+     * Startet den Server mit Adresse und Port aus der Konfiguration.
+     *
+     * @return true, wenn der Server läuft
+     */
+    public synchronized boolean start() {
+        if (server != null) {
+            return true;
+        }
+
+        String bind = Config.getProperty("metrics.http.bind", "127.0.0.1").trim();
+        int port;
+        try {
+            port = Integer.parseInt(Config.getProperty("metrics.http.port", "9464").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.error("Ungültiger Port für metrics.http.port: \"{}\"", Config.getProperty("metrics.http.port"));
+            return false;
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        } catch (IOException e) {
+            LOGGER.error("Metrik-Server konnte nicht auf {}:{} gestartet werden", bind, port, e);
+            return false;
+        }
+
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+
+        LOGGER.info("Metrik-Server läuft auf http://{}:{}/metrics", bind, port);
+        return true;
+    }
+
+    /**
+     * Beendet den Server.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        LOGGER.info("Metrik-Server beendet");
+    }
+
+    /**
+     * Beantwortet einen Abruf von {@code /metrics}.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body;
+            try {
+                StringBuilder out = new StringBuilder(16 * 1024);
+                PrometheusFormat.write(MetricsRegistry.getInstance(), out);
+                body = out.toString().getBytes(StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                LOGGER.error("Fehler beim Erfassen der Metriken", e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        }
+    }
+}
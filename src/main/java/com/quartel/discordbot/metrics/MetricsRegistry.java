@@ -0,0 +1,187 @@
+package com.quartel.discordbot.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Zentrale Sammelstelle für Laufzeitmessungen des Bots.
+ * <p>
+ * Enthält pro Art und Name ein {@link LatencyHistogram} (z.B. Befehl {@code play}) sowie Messwerte und Zähler,
+ * die Bot und Module beim Start registrieren und die erst beim Auslesen berechnet werden. Messwerte, die sich
+ * nur in einer Dimension unterscheiden (z.B. pro Shard), werden unter demselben Namen mit einem Label registriert.
+ */
+public final class MetricsRegistry {
+    private static MetricsRegistry instance;
+
+    /**
+     * Art einer Zeitmessung.
+     */
+    public enum Kind {
+        /** Ausführung eines Slash-Befehls, vom Eingang bis zum Ende des Handlers. */
+        COMMAND,
+        /** Beantwortung einer Autovervollständigung. */
+        AUTOCOMPLETE,
+        /** Laden einer Audioquelle bis zum Ergebnis von LavaPlayer. */
+        TRACK_LOAD
+    }
+
+    /**
+     * Ein zur Laufzeit berechneter Messwert.
+     *
+     * @param name        Der Name des Messwerts
+     * @param label       Der Name des Labels oder null für einen Messwert ohne Label
+     * @param labelValue  Der Wert des Labels oder null
+     * @param description Die Beschreibung, für alle Werte eines Namens gleich
+     * @param counter     true für einen Zähler, der nur wächst; false für einen Momentanwert
+     * @param supplier    Liefert den aktuellen Wert
+     */
+    public record Gauge(String name, String label, String labelValue, String description, boolean counter,
+                        DoubleSupplier supplier) {
+        /**
+         * Berechnet den aktuellen Wert.
+         *
+         * @return Der aktuelle Wert
+         */
+        public double value() {
+            return supplier.getAsDouble();
+        }
+    }
+
+    private final Map<Kind, Map<String, LatencyHistogram>> histograms = new EnumMap<>(Kind.class);
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+        for (Kind kind : Kind.values()) {
+            histograms.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die MetricsRegistry-Instanz
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Zeichnet eine Dauer auf.
+     *
+     * @param kind  Die Art der Messung
+     * @param name  Der Name, z.B. der Befehl
+     * @param nanos Die Dauer in Nanosekunden
+     */
+    public void record(Kind kind, String name, long nanos) {
+        histograms.get(kind).computeIfAbsent(name, key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Zeichnet die seit einem mit {@link System#nanoTime()} gemessenen Startzeitpunkt vergangene Zeit auf.
+     *
+     * @param kind       Die Art der Messung
+     * @param name       Der Name, z.B. der Befehl
+     * @param startNanos Der Startzeitpunkt
+     */
+    public void recordSince(Kind kind, String name, long startNanos) {
+        record(kind, name, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gibt alle Histogramme einer Art nach Namen sortiert zurück.
+     *
+     * @param kind Die Art der Messung
+     * @return Die Histogramme nach Namen
+     */
+    public Map<String, LatencyHistogram> getHistograms(Kind kind) {
+        return new TreeMap<>(histograms.get(kind));
+    }
+
+    /**
+     * Registriert einen Messwert oder ersetzt einen gleichnamigen.
+     *
+     * @param name        Der Name des Messwerts
+     * @param description Die Beschreibung
+     * @param supplier    Liefert den aktuellen Wert
+     */
+    public void registerGauge(String name, String description, DoubleSupplier supplier) {
+        gauges.put(name, new Gauge(name, null, null, description, false, supplier));
+    }
+
+    /**
+     * Registriert einen Messwert mit Label oder ersetzt einen mit gleichem Namen und Labelwert.
+     *
+     * @param name        Der Name des Messwerts
+     * @param label       Der Name des Labels, z.B. {@code shard}
+     * @param labelValue  Der Wert des Labels
+     * @param description Die Beschreibung, für alle Werte eines Namens gleich
+     * @param supplier    Liefert den aktuellen Wert
+     */
+    public void registerGauge(String name, String label, String labelValue, String description,
+                              DoubleSupplier supplier) {
+        gauges.put(key(name, labelValue), new Gauge(name, label, labelValue, description, false, supplier));
+    }
+
+    /**
+     * Registriert einen Zähler, der nur wächst, oder ersetzt einen gleichnamigen Messwert.
+     *
+     * @param name        Der Name des Zählers
+     * @param description Die Beschreibung
+     * @param supplier    Liefert den aktuellen Zählerstand
+     */
+    public void registerCounter(String name, String description, DoubleSupplier supplier) {
+        gauges.put(name, new Gauge(name, null, null, description, true, supplier));
+    }
+
+    /**
+     * Registriert einen Zähler mit Label oder ersetzt einen Messwert mit gleichem Namen und Labelwert.
+     *
+     * @param name        Der Name des Zählers
+     * @param label       Der Name des Labels, z.B. {@code shard}
+     * @param labelValue  Der Wert des Labels
+     * @param description Die Beschreibung, für alle Werte eines Namens gleich
+     * @param supplier    Liefert den aktuellen Zählerstand
+     */
+    public void registerCounter(String name, String label, String labelValue, String description,
+                                DoubleSupplier supplier) {
+        gauges.put(key(name, labelValue), new Gauge(name, label, labelValue, description, true, supplier));
+    }
+
+    /**
+     * Entfernt einen Messwert oder Zähler.
+     *
+     * @param name Der Name des Messwerts
+     */
+    public void unregisterGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Entfernt einen Messwert oder Zähler mit Label.
+     *
+     * @param name       Der Name des Messwerts
+     * @param labelValue Der Wert des Labels
+     */
+    public void unregisterGauge(String name, String labelValue) {
+        gauges.remove(key(name, labelValue));
+    }
+
+    /**
+     * Gibt alle registrierten Messwerte sortiert zurück; Werte mit gleichem Namen folgen direkt aufeinander.
+     *
+     * @return Die Messwerte nach Name und Labelwert
+     */
+    public Map<String, Gauge> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    private static String key(String name, String labelValue) {
+        return name + '{' + labelValue + '}';
+    }
+}
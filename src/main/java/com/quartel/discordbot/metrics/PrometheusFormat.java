@@ -0,0 +1,129 @@
+package com.quartel.discordbot.metrics;
+
+import java.util.Map;
+
+/**
+ * Schreibt den Inhalt des {@link MetricsRegistry} im Prometheus-Textformat (Version 0.0.4).
+ * <p>
+ * Messwerte werden als {@code gauge}, Zähler als {@code counter} mit Endung {@code _total} ausgegeben;
+ * Messwerte mit gleichem Namen und verschiedenen Labelwerten bilden eine Familie mit einem gemeinsamen Kopf.
+ * Die Latenzhistogramme werden auf feste Grenzen in Sekunden verdichtet; ein Wert zählt zur ersten Grenze,
+ * die sein ganzer Histogramm-Eimer unterschreitet.
+ */
+final class PrometheusFormat {
+
+    private static final String PREFIX = "discordbot_";
+
+    // Grenzen der exportierten Histogramm-Eimer in Sekunden
+    private static final double[] BOUNDARIES_SECONDS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    private PrometheusFormat() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Schreibt alle Messwerte, Zähler und Histogramme.
+     *
+     * @param registry Die Quelle der Messwerte
+     * @param out      Das Ziel
+     */
+    static void write(MetricsRegistry registry, StringBuilder out) {
+        String family = null;
+        for (MetricsRegistry.Gauge gauge : registry.getGauges().values()) {
+            String name = PREFIX + sanitize(gauge.name()) + (gauge.counter() ? "_total" : "");
+            if (!name.equals(family)) {
+                writeHeader(out, name, gauge.description(), gauge.counter() ? "counter" : "gauge");
+                family = name;
+            }
+            out.append(name);
+            if (gauge.label() != null) {
+                out.append('{').append(gauge.label()).append("=\"").append(escapeLabel(gauge.labelValue())).append("\"}");
+            }
+            out.append(' ');
+            writeValue(out, gauge.value());
+            out.append('\n');
+        }
+
+        writeHistograms(out, registry.getHistograms(MetricsRegistry.Kind.COMMAND),
+                "command_duration_seconds", "command", "Dauer der Slash-Befehle");
+        writeHistograms(out, registry.getHistograms(MetricsRegistry.Kind.AUTOCOMPLETE),
+                "autocomplete_duration_seconds", "command", "Dauer der Autovervollständigung");
+        writeHistograms(out, registry.getHistograms(MetricsRegistry.Kind.TRACK_LOAD),
+                "track_load_duration_seconds", "outcome", "Ladedauer der Audioquellen nach Ergebnis");
+    }
+
+    /**
+     * Schreibt eine Histogramm-Familie mit einer Zeitreihe pro Name.
+     */
+    private static void writeHistograms(StringBuilder out, Map<String, LatencyHistogram> histograms,
+                                        String metric, String label, String help) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+
+        String name = PREFIX + metric;
+        writeHeader(out, name, help, "histogram");
+        histograms.forEach((value, histogram) -> {
+            String labelPair = label + "=\"" + escapeLabel(value) + "\"";
+
+            // Eimer einmal durchlaufen und kumuliert an den Grenzen ausgeben
+            int bucketCount = LatencyHistogram.getBucketCount();
+            int bucket = 0;
+            long cumulative = 0;
+            for (double boundary : BOUNDARIES_SECONDS) {
+                long boundaryMicros = (long) (boundary * 1_000_000);
+                while (bucket < bucketCount && LatencyHistogram.getBucketUpperBound(bucket) <= boundaryMicros) {
+                    cumulative += histogram.getBucketCount(bucket++);
+                }
+                out.append(name).append("_bucket{").append(labelPair).append(",le=\"").append(boundary).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            while (bucket < bucketCount) {
+                cumulative += histogram.getBucketCount(bucket++);
+            }
+
+            out.append(name).append("_bucket{").append(labelPair).append(",le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum{").append(labelPair).append("} ");
+            writeValue(out, histogram.getSumMicros() / 1_000_000.0);
+            out.append('\n');
+            out.append(name).append("_count{").append(labelPair).append("} ").append(cumulative).append('\n');
+        });
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeValue(StringBuilder out, double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Ersetzt alle Zeichen, die in Prometheus-Namen nicht erlaubt sind.
+     */
+    private static String sanitize(String name) {
+        StringBuilder result = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            result.append(Character.isLetterOrDigit(c) && c < 128 ? c : '_');
+        }
+        return result.toString();
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
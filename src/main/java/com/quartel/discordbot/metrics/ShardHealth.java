@@ -0,0 +1,239 @@
+package com.quartel.discordbot.metrics;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.StatusChangeEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
+import net.dv8tion.jda.api.events.session.SessionResumeEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Überwacht die Shards des Bots: Verbindungsstatus, Ping, Server und Ereignisrate pro Shard.
+ * <p>
+ * Statuswechsel werden sofort geloggt; Ereigniszahlen werden alle {@value #SAMPLE_SECONDS} Sekunden aus dem
+ * Zähler jeder Shard gelesen, der bei einer neuen Sitzung wieder bei null beginnt, und zu einer fortlaufenden
+ * Summe und einer Rate verrechnet. Die Werte stehen als Messwerte {@code shards.*} mit dem Label {@code shard}
+ * für Prometheus und in {@code /stats} bereit.
+ */
+public final class ShardHealth extends ListenerAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardHealth.class);
+    private static final int SAMPLE_SECONDS = 10;
+    private static final String[] GAUGES = {"connected", "ping_ms", "guilds", "events_per_second", "events", "reconnects"};
+
+    private static ShardHealth instance;
+
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, ShardState> shards = new ConcurrentSkipListMap<>();
+    private volatile ShardManager shardManager;
+    private ScheduledFuture<?> sampling;
+
+    /**
+     * Der Zustand einer Shard zum Zeitpunkt der letzten Stichprobe.
+     *
+     * @param shardId         Die Shard-ID
+     * @param status          Der Verbindungsstatus
+     * @param pingMillis      Der Gateway-Ping in Millisekunden oder -1 ohne Verbindung
+     * @param guilds          Die Server im Cache der Shard
+     * @param events          Die seit dem Start empfangenen Gateway-Ereignisse
+     * @param eventsPerSecond Die Ereignisrate seit der vorletzten Stichprobe
+     * @param reconnects      Die fortgesetzten oder neu aufgebauten Sitzungen
+     */
+    public record ShardStats(int shardId, JDA.Status status, long pingMillis, long guilds, long events,
+                             double eventsPerSecond, long reconnects) {
+    }
+
+    /**
+     * Zähler einer Shard zwischen zwei Stichproben.
+     */
+    private static final class ShardState {
+        private final AtomicLong reconnects = new AtomicLong();
+        private long lastResponseTotal;
+        private long lastSampleNanos = System.nanoTime();
+        private volatile long events;
+        private volatile double eventsPerSecond;
+    }
+
+    private ShardHealth() {
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die ShardHealth-Instanz
+     */
+    public static synchronized ShardHealth getInstance() {
+        if (instance == null) {
+            instance = new ShardHealth();
+        }
+        return instance;
+    }
+
+    /**
+     * Beginnt die Überwachung aller gestarteten Shards und registriert ihre Messwerte.
+     *
+     * @param shardManager Der ShardManager des Bots
+     */
+    public synchronized void start(ShardManager shardManager) {
+        stop();
+        this.shardManager = shardManager;
+        shardManager.addEventListener(this);
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        for (JDA shard : shardManager.getShards()) {
+            int id = shard.getShardInfo().getShardId();
+            String label = String.valueOf(id);
+            ShardState state = new ShardState();
+            state.lastResponseTotal = shard.getResponseTotal();
+            shards.put(id, state);
+
+            metrics.registerGauge("shards.connected", "shard", label, "Shard verbunden",
+                    () -> status(id) == JDA.Status.CONNECTED ? 1 : 0);
+            metrics.registerGauge("shards.ping_ms", "shard", label, "Gateway-Ping der Shard in Millisekunden",
+                    () -> shard(id) != null ? shard(id).getGatewayPing() : -1);
+            metrics.registerGauge("shards.guilds", "shard", label, "Server der Shard",
+                    () -> shard(id) != null ? shard(id).getGuildCache().size() : 0);
+            metrics.registerGauge("shards.events_per_second", "shard", label, "Gateway-Ereignisse pro Sekunde der Shard",
+                    () -> state.eventsPerSecond);
+            metrics.registerCounter("shards.events", "shard", label, "Gateway-Ereignisse der Shard",
+                    () -> state.events);
+            metrics.registerCounter("shards.reconnects", "shard", label, "Wiederverbindungen der Shard",
+                    state.reconnects::get);
+        }
+
+        sampling = sampler.scheduleAtFixedRate(this::sample, SAMPLE_SECONDS, SAMPLE_SECONDS, TimeUnit.SECONDS);
+        LOGGER.info("Überwache {} Shards", shards.size());
+    }
+
+    /**
+     * Beendet die Überwachung und entfernt die Messwerte.
+     */
+    public synchronized void stop() {
+        if (sampling != null) {
+            sampling.cancel(false);
+            sampling = null;
+        }
+        if (shardManager != null) {
+            shardManager.removeEventListener(this);
+            shardManager = null;
+        }
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        for (int id : shards.keySet()) {
+            for (String gauge : GAUGES) {
+                metrics.unregisterGauge("shards." + gauge, String.valueOf(id));
+            }
+        }
+        shards.clear();
+    }
+
+    /**
+     * Gibt den Zustand aller überwachten Shards nach Shard-ID sortiert zurück.
+     *
+     * @return Die Werte pro Shard
+     */
+    public List<ShardStats> getStats() {
+        List<ShardStats> stats = new ArrayList<>(shards.size());
+        shards.forEach((id, state) -> {
+            JDA shard = shard(id);
+            stats.add(new ShardStats(id, status(id),
+                    shard != null && shard.getStatus() == JDA.Status.CONNECTED ? shard.getGatewayPing() : -1,
+                    shard != null ? shard.getGuildCache().size() : 0,
+                    state.events, state.eventsPerSecond, state.reconnects.get()));
+        });
+        return stats;
+    }
+
+    /**
+     * Gibt die Summe der Gateway-Ereignisse aller überwachten Shards zurück. Anders als
+     * {@link JDA#getResponseTotal()} beginnt sie nach einer neuen Sitzung nicht wieder bei null.
+     *
+     * @return Die seit dem Start empfangenen Gateway-Ereignisse, Stand der letzten Stichprobe
+     */
+    public long getTotalEvents() {
+        long total = 0;
+        for (ShardState state : shards.values()) {
+            total += state.events;
+        }
+        return total;
+    }
+
+    @Override
+    public void onStatusChange(StatusChangeEvent event) {
+        int id = event.getJDA().getShardInfo().getShardId();
+        if (event.getNewStatus() == JDA.Status.CONNECTED) {
+            LOGGER.info("Shard {} verbunden (vorher {})", id, event.getOldStatus());
+        } else if (event.getOldStatus() == JDA.Status.CONNECTED) {
+            LOGGER.warn("Shard {} getrennt: {}", id, event.getNewStatus());
+        } else {
+            LOGGER.debug("Shard {}: {} -> {}", id, event.getOldStatus(), event.getNewStatus());
+        }
+    }
+
+    @Override
+    public void onSessionResume(SessionResumeEvent event) {
+        countReconnect(event.getJDA());
+    }
+
+    @Override
+    public void onSessionRecreate(SessionRecreateEvent event) {
+        countReconnect(event.getJDA());
+    }
+
+    private void countReconnect(JDA shard) {
+        ShardState state = shards.get(shard.getShardInfo().getShardId());
+        if (state != null) {
+            state.reconnects.incrementAndGet();
+        }
+    }
+
+    /**
+     * Liest die Ereigniszähler aller Shards und berechnet die Raten seit der letzten Stichprobe.
+     */
+    private void sample() {
+        try {
+            long now = System.nanoTime();
+            shards.forEach((id, state) -> {
+                JDA shard = shard(id);
+                if (shard == null) {
+                    return;
+                }
+                long total = shard.getResponseTotal();
+                // Nach einer neuen Sitzung beginnt der Zähler wieder bei null
+                long delta = total >= state.lastResponseTotal ? total - state.lastResponseTotal : total;
+                double seconds = (now - state.lastSampleNanos) / 1e9;
+                state.events += delta;
+                state.eventsPerSecond = seconds > 0 ? delta / seconds : 0;
+                state.lastResponseTotal = total;
+                state.lastSampleNanos = now;
+            });
+        } catch (Exception e) {
+            LOGGER.error("Fehler beim Auslesen der Shards", e);
+        }
+    }
+
+    private JDA shard(int id) {
+        ShardManager manager = shardManager;
+        return manager != null ? manager.getShardById(id) : null;
+    }
+
+    private JDA.Status status(int id) {
+        JDA shard = shard(id);
+        return shard != null ? shard.getStatus() : JDA.Status.SHUTDOWN;
+    }
+}
@@ -0,0 +1,142 @@
+package com.quartel.discordbot.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Misst die Phasen des Bot-Starts und die Zeit bis zum ersten Befehl.
+ * <p>
+ * Phasen dürfen sich überschneiden (Module laden, während das Gateway verbindet; Module parallel aktivieren) und
+ * werden deshalb mit Beginn und Dauer relativ zum Start erfasst. Sobald der Bot Befehle annimmt, wird eine
+ * Übersicht geloggt; der erste eingegangene Befehl wird einmal gemeldet. Beide Zeiten stehen auch in
+ * {@code /stats} und für Prometheus bereit.
+ */
+public final class StartupTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimer.class);
+    private static StartupTimer instance;
+
+    private volatile long startNanos = System.nanoTime();
+    private volatile long readyNanos = -1;
+    private final AtomicLong firstCommandNanos = new AtomicLong(-1);
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+
+    /**
+     * Eine abgeschlossene Startphase.
+     *
+     * @param name          Der Name, z. B. {@code gateway} oder {@code modul.music}
+     * @param offsetNanos   Beginn relativ zum Start
+     * @param durationNanos Dauer
+     */
+    public record Phase(String name, long offsetNanos, long durationNanos) {
+    }
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die StartupTimer-Instanz
+     */
+    public static synchronized StartupTimer getInstance() {
+        if (instance == null) {
+            instance = new StartupTimer();
+        }
+        return instance;
+    }
+
+    /**
+     * Beginnt eine neue Messung; bisherige Phasen werden verworfen.
+     */
+    public void start() {
+        phases.clear();
+        readyNanos = -1;
+        firstCommandNanos.set(-1);
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Erfasst eine Phase, die zum angegebenen Zeitpunkt begonnen hat und jetzt endet.
+     *
+     * @param name            Der Name der Phase
+     * @param phaseStartNanos Der Beginn laut {@link System#nanoTime()}
+     */
+    public void record(String name, long phaseStartNanos) {
+        Phase phase = new Phase(name, phaseStartNanos - startNanos, System.nanoTime() - phaseStartNanos);
+        phases.add(phase);
+        if (readyNanos >= 0) {
+            // Phasen nach der Übersicht, z. B. der Befehlsabgleich, einzeln melden
+            LOGGER.info("Startphase {}: {} ms (ab {} ms)", name,
+                    millis(phase.durationNanos()), millis(phase.offsetNanos()));
+        }
+    }
+
+    /**
+     * Markiert den Zeitpunkt, ab dem der Bot Befehle annimmt, und loggt die bisherigen Phasen.
+     */
+    public void ready() {
+        readyNanos = System.nanoTime() - startNanos;
+        LOGGER.info("Bereit für Befehle nach {} ms", millis(readyNanos));
+        phases.stream()
+                .sorted(Comparator.comparingLong(Phase::offsetNanos))
+                .forEach(phase -> LOGGER.info("Startphase {}: {} ms (ab {} ms)", phase.name(),
+                        millis(phase.durationNanos()), millis(phase.offsetNanos())));
+    }
+
+    /**
+     * Meldet einen eingegangenen Befehl; nur der erste nach dem Start wird erfasst.
+     */
+    public void commandReceived() {
+        if (firstCommandNanos.get() < 0 && firstCommandNanos.compareAndSet(-1, System.nanoTime() - startNanos)) {
+            LOGGER.info("Erster Befehl {} ms nach dem Start", millis(firstCommandNanos.get()));
+        }
+    }
+
+    /**
+     * Gibt die Zeit bis zur Annahme von Befehlen zurück.
+     *
+     * @return Die Zeit in Millisekunden oder -1, solange der Bot startet
+     */
+    public long getReadyMillis() {
+        long ready = readyNanos;
+        return ready < 0 ? -1 : millis(ready);
+    }
+
+    /**
+     * Gibt die Zeit bis zum ersten eingegangenen Befehl zurück.
+     *
+     * @return Die Zeit in Millisekunden oder -1, wenn noch kein Befehl eingegangen ist
+     */
+    public long getFirstCommandMillis() {
+        long first = firstCommandNanos.get();
+        return first < 0 ? -1 : millis(first);
+    }
+
+    /**
+     * Gibt die Zeit seit dem Start zurück.
+     *
+     * @return Die Zeit in Millisekunden
+     */
+    public long getElapsedMillis() {
+        return millis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gibt die erfassten Phasen in der Reihenfolge ihres Abschlusses zurück.
+     *
+     * @return Die Phasen
+     */
+    public List<Phase> getPhases() {
+        return List.copyOf(phases);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
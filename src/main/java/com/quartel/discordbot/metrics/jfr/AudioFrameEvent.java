@@ -0,0 +1,28 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Ereignis für einen stichprobenartig erfassten Abruf eines Audio-Frames.
+ * Erfasst wird nur jeder {@code jfr.frame_sample_interval}-te Abruf pro Server.
+ */
+@Name("com.quartel.discordbot.AudioFrame")
+@Label("Audio-Frame (Stichprobe)")
+@Category({"Discord-Bot", "Audio"})
+@Description("Dauer eines Frame-Abrufs beim AudioPlayer und ob ein Frame bereit war")
+@StackTrace(false)
+public final class AudioFrameEvent extends jdk.jfr.Event {
+
+    @Label("Server-ID")
+    public long guildId;
+
+    @Label("Frame geliefert")
+    public boolean provided;
+
+    @Label("Wiedergabe aktiv")
+    public boolean playing;
+}
@@ -0,0 +1,34 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR-Ereignis für einen Slash-Befehl: beginnt beim Eingang im Dispatcher und endet mit dem Handler.
+ */
+@Name("com.quartel.discordbot.Command")
+@Label("Slash-Befehl")
+@Category({"Discord-Bot", "Befehle"})
+@Description("Ausführung eines Slash-Befehls vom Eingang bis zum Ende des Handlers")
+public final class CommandEvent extends jdk.jfr.Event {
+
+    @Label("Befehl")
+    public String command;
+
+    @Label("Server-ID")
+    public long guildId;
+
+    @Label("Benutzer-ID")
+    public long userId;
+
+    @Label("Wartezeit")
+    @Description("Zeit bis zum Start auf dem virtuellen Thread")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueTime;
+
+    @Label("Erfolgreich")
+    public boolean success;
+}
@@ -0,0 +1,181 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import com.quartel.discordbot.config.Config;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Steuert die JFR-Aufzeichnung des Bots.
+ * <p>
+ * Die Aufzeichnung verwendet eine JFR-Einstellung ({@code jfr.settings}, Standard {@code default}) und aktiviert
+ * zusätzlich alle Ereignisse des Bots, sodass Befehle, Ladevorgänge und Trackwechsel neben GC- und Thread-Daten
+ * erscheinen. Sie läuft als Ringpuffer ({@code jfr.max_age_minutes}, {@code jfr.max_size_mb}) und wird bei Bedarf
+ * nach {@code jfr.directory} geschrieben. Ohne laufende Aufzeichnung kosten die Ereignisse nur eine Abfrage.
+ */
+public final class FlightRecording {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecording.class);
+    private static FlightRecording instance;
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Alle Ereignisse des Bots; werden für die Aufzeichnung ohne Schwellwert aktiviert
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            CommandEvent.class,
+            TrackLoadEvent.class,
+            TrackTransitionEvent.class,
+            WaitingRoomStateEvent.class,
+            AudioFrameEvent.class);
+
+    private Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die FlightRecording-Instanz
+     */
+    public static synchronized FlightRecording getInstance() {
+        if (instance == null) {
+            instance = new FlightRecording();
+        }
+        return instance;
+    }
+
+    /**
+     * Startet die Aufzeichnung, wenn {@code jfr.enabled} gesetzt ist.
+     */
+    public void startIfEnabled() {
+        if ("true".equalsIgnoreCase(Config.getProperty("jfr.enabled", "false").trim())) {
+            start();
+        }
+    }
+
+    /**
+     * Startet die Aufzeichnung.
+     *
+     * @return true, wenn die Aufzeichnung gestartet wurde; false, wenn sie bereits lief oder nicht starten konnte
+     */
+    public synchronized boolean start() {
+        if (isRunning()) {
+            return false;
+        }
+
+        String settings = Config.getProperty("jfr.settings", "default").trim();
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName("discordbot");
+            newRecording.setToDisk(true);
+            newRecording.setMaxAge(Duration.ofMinutes(readLong("jfr.max_age_minutes", 30)));
+            newRecording.setMaxSize(readLong("jfr.max_size_mb", 100) * 1024 * 1024);
+            for (Class<? extends Event> event : EVENTS) {
+                newRecording.enable(event).withoutThreshold();
+            }
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException | RuntimeException e) {
+            LOGGER.error("JFR-Aufzeichnung mit Einstellung \"{}\" konnte nicht gestartet werden", settings, e);
+            return false;
+        }
+
+        LOGGER.info("JFR-Aufzeichnung gestartet (Einstellung {})", settings);
+        return true;
+    }
+
+    /**
+     * Schreibt den aktuellen Inhalt der laufenden Aufzeichnung in eine Datei.
+     *
+     * @return Der Pfad der geschriebenen Datei
+     * @throws IOException           Wenn die Datei nicht geschrieben werden kann
+     * @throws IllegalStateException Wenn keine Aufzeichnung läuft
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("Keine JFR-Aufzeichnung aktiv");
+        }
+
+        Path directory = Path.of(Config.getProperty("jfr.directory", "logs/jfr").trim());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("discordbot-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        recording.dump(file);
+        LOGGER.info("JFR-Aufzeichnung nach {} geschrieben", file.toAbsolutePath());
+        return file;
+    }
+
+    /**
+     * Schreibt die laufende Aufzeichnung in eine Datei und beendet sie.
+     *
+     * @return Der Pfad der geschriebenen Datei oder null, wenn keine Aufzeichnung lief
+     * @throws IOException Wenn die Datei nicht geschrieben werden kann; die Aufzeichnung wird trotzdem beendet
+     */
+    public synchronized Path stop() throws IOException {
+        if (!isRunning()) {
+            return null;
+        }
+
+        try {
+            return dump();
+        } finally {
+            recording.close();
+            recording = null;
+            LOGGER.info("JFR-Aufzeichnung beendet");
+        }
+    }
+
+    /**
+     * Prüft, ob eine Aufzeichnung läuft.
+     *
+     * @return true, wenn eine Aufzeichnung läuft
+     */
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Gibt die bisher aufgezeichnete Datenmenge zurück.
+     *
+     * @return Die Größe in Bytes oder 0, wenn keine Aufzeichnung läuft
+     */
+    public synchronized long getSize() {
+        return recording != null ? recording.getSize() : 0;
+    }
+
+    /**
+     * Gibt die Laufzeit der aktuellen Aufzeichnung zurück.
+     *
+     * @return Die Laufzeit der Aufzeichnung oder {@link Duration#ZERO}
+     */
+    public synchronized Duration getDuration() {
+        if (recording == null || recording.getStartTime() == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(recording.getStartTime(), Instant.now());
+    }
+
+    /**
+     * Liest einen positiven Long-Wert aus der Konfiguration.
+     */
+    private static long readLong(String key, long fallback) {
+        try {
+            return Math.max(1, Long.parseLong(Config.getProperty(key, String.valueOf(fallback)).trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültiger Wert für {}: \"{}\", verwende {}", key, Config.getProperty(key), fallback);
+            return fallback;
+        }
+    }
+}
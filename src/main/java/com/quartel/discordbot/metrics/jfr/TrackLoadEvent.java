@@ -0,0 +1,32 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-Ereignis für das Laden einer Audioquelle durch LavaPlayer.
+ */
+@Name("com.quartel.discordbot.TrackLoad")
+@Label("Track laden")
+@Category({"Discord-Bot", "Musik"})
+@Description("Laden einer Audioquelle vom Aufruf bis zum Ergebnis")
+public final class TrackLoadEvent extends jdk.jfr.Event {
+
+    @Label("Server-ID")
+    public long guildId;
+
+    @Label("Quelle")
+    @Description("Host der URL oder \"datei\" für lokale Dateien")
+    public String source;
+
+    @Label("Kennung")
+    public String identifier;
+
+    @Label("Ergebnis")
+    public String result;
+
+    @Label("Tracks")
+    public int tracks;
+}
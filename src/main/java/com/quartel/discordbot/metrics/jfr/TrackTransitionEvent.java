@@ -0,0 +1,31 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Ereignis für einen Zustandswechsel im TrackScheduler (Start, Ende, Fehler, Hänger).
+ */
+@Name("com.quartel.discordbot.TrackTransition")
+@Label("Trackwechsel")
+@Category({"Discord-Bot", "Musik"})
+@StackTrace(false)
+public final class TrackTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Server-ID")
+    public long guildId;
+
+    @Label("Übergang")
+    public String transition;
+
+    @Label("Titel")
+    public String title;
+
+    @Label("Endgrund")
+    public String endReason;
+
+    @Label("Warteschlange")
+    public int queueSize;
+}
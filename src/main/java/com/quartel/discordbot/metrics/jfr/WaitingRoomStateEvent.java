@@ -0,0 +1,23 @@
+package com.quartel.discordbot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-Ereignis für einen Zustandswechsel des Warteraums eines Servers.
+ */
+@Name("com.quartel.discordbot.WaitingRoomState")
+@Label("Warteraum-Zustand")
+@Category({"Discord-Bot", "Musik"})
+public final class WaitingRoomStateEvent extends jdk.jfr.Event {
+
+    @Label("Server-ID")
+    public long guildId;
+
+    @Label("Vorher")
+    public String previousState;
+
+    @Label("Nachher")
+    public String newState;
+}
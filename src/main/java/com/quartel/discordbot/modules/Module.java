@@ -1,9 +1,12 @@
 package com.quartel.discordbot.modules;
 
-import net.dv8tion.jda.api.JDA;
+import com.quartel.discordbot.core.SlashCommand;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Abstrakte Basisklasse für alle Bot-Module.
  * Module bieten spezifische Funktionalitäten und können aktiviert/deaktiviert werden.
@@ -13,7 +16,8 @@ public abstract class Module {
 
     private final String name;
     private final String description;
-    private boolean enabled = false;
+    // Wird beim Start von den Aktivierungs-Threads gesetzt
+    private volatile boolean enabled = false;
 
     /**
      * Erstellt ein neues Modul mit dem angegebenen Namen und der Beschreibung.
@@ -56,12 +60,12 @@ public abstract class Module {
     /**
      * Aktiviert das Modul, wenn es nicht bereits aktiviert ist.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
-    public void enable(JDA jda) {
+    public void enable(ShardManager shardManager) {
         if (!enabled) {
             try {
-                onEnable(jda);
+                onEnable(shardManager);
                 enabled = true;
                 LOGGER.info("Modul {} aktiviert", name);
             } catch (Exception e) {
@@ -75,12 +79,12 @@ public abstract class Module {
     /**
      * Deaktiviert das Modul, wenn es aktiviert ist.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
-    public void disable(JDA jda) {
+    public void disable(ShardManager shardManager) {
         if (enabled) {
             try {
-                onDisable(jda);
+                onDisable(shardManager);
                 enabled = false;
                 LOGGER.info("Modul {} deaktiviert", name);
             } catch (Exception e) {
@@ -103,6 +107,26 @@ public abstract class Module {
         }
     }
 
+    /**
+     * Gibt die Namen der Module zurück, die vor diesem Modul aktiviert sein müssen.
+     * Module ohne Abhängigkeit untereinander werden beim Start parallel aktiviert.
+     *
+     * @return Die Namen der benötigten Module
+     */
+    public List<String> getDependencies() {
+        return List.of();
+    }
+
+    /**
+     * Gibt die Slash-Befehle des Moduls zurück.
+     * Sie werden beim Aktivieren des Moduls im CommandManager registriert und beim Deaktivieren entfernt.
+     *
+     * @return Die Slash-Befehle des Moduls
+     */
+    public List<SlashCommand> getSlashCommands() {
+        return List.of();
+    }
+
     /**
      * Wird aufgerufen, wenn das Modul geladen wird.
      * Diese Methode sollte von Unterklassen überschrieben werden, um Initialisierungslogik zu implementieren.
@@ -115,15 +139,15 @@ public abstract class Module {
      * Wird aufgerufen, wenn das Modul aktiviert wird.
      * Diese Methode muss von Unterklassen überschrieben werden.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
-    public abstract void onEnable(JDA jda);
+    public abstract void onEnable(ShardManager shardManager);
 
     /**
      * Wird aufgerufen, wenn das Modul deaktiviert wird.
      * Diese Methode muss von Unterklassen überschrieben werden.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
-    public abstract void onDisable(JDA jda);
+    public abstract void onDisable(ShardManager shardManager);
 }
\ No newline at end of file
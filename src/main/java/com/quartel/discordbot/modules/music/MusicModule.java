@@ -1,29 +1,61 @@
 package com.quartel.discordbot.modules.music;
 
+import com.quartel.discordbot.Bot;
+import com.quartel.discordbot.core.CommandManager;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.core.SlashCommand;
+import com.quartel.discordbot.metrics.MetricsRegistry;
 import com.quartel.discordbot.modules.Module;
 import com.quartel.discordbot.modules.music.commands.*;
+import com.quartel.discordbot.modules.music.player.AudioPlayerSendHandler;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
+import com.quartel.discordbot.modules.music.util.MusicUtil;
+import com.quartel.discordbot.modules.music.util.NowPlayingPanelUpdater;
+import com.quartel.discordbot.modules.music.util.QueueRenderCache;
 import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import com.quartel.discordbot.util.RestScheduler;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.session.ShutdownEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Diese Klasse implementiert das Musik-Modul, das alle Musik-bezogenen Befehle und Funktionen verwaltet.
  */
 public class MusicModule extends Module {
     private static final Logger LOGGER = LoggerFactory.getLogger(MusicModule.class);
+
+    // Namen der Messwerte, die das Modul im MetricsRegistry registriert
+    private static final List<String> GAUGES = List.of(
+            "music.managers",
+            "music.players_active",
+            "music.queue_tracks",
+            "music.queue_longest",
+            "music.queue_cache_hit_ratio",
+            "music.nowplaying_panels",
+            "music.nowplaying_skip_ratio",
+            "music.waitingroom_monitoring",
+            "music.waitingroom_connected",
+            "music.frames_provided",
+            "music.frames_missed",
+            "music.queue_cache_hits",
+            "music.queue_cache_misses",
+            "music.nowplaying_edits",
+            "music.nowplaying_skipped");
+
     private final MusicCommandListener commandListener;
+    private final List<SlashCommand> slashCommands;
 
     /**
      * Initialisiert das Musik-Modul.
@@ -31,9 +63,30 @@ public class MusicModule extends Module {
     public MusicModule() {
         super("music", "Musik-Modul für Discord-Bot");
         this.commandListener = new MusicCommandListener();
+        this.slashCommands = List.of(
+                new PlayCommand(),
+                new SkipCommand(),
+                new StopCommand(),
+                new QueueCommand(),
+                new NowPlayingCommand(),
+                new VolumeCommand(),
+                new PauseCommand(),
+                new ResumeCommand(),
+                new WarteraumCommand()
+        );
         LOGGER.info("Musik-Modul initialisiert");
     }
 
+    /**
+     * Gibt die Slash-Befehle des Musik-Moduls zurück.
+     *
+     * @return Die Slash-Befehle
+     */
+    @Override
+    public List<SlashCommand> getSlashCommands() {
+        return slashCommands;
+    }
+
     /**
      * Wird aufgerufen, wenn das Modul geladen wird.
      */
@@ -41,84 +94,50 @@ public class MusicModule extends Module {
     public void onLoad() {
         LOGGER.info("Lade Musik-Modul...");
 
-        // Stelle sicher, dass der PlayerManager initialisiert ist
+        // Läuft während des Verbindungsaufbaus im Hintergrund: Quellen registrieren und Bibliothek vorbereiten,
+        // damit der erste /play-Befehl nicht darauf wartet
         PlayerManager.getInstance();
+        MusicLibraryManager.getInstance();
     }
 
     /**
      * Wird aufgerufen, wenn das Modul aktiviert wird.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
     @Override
-    public void onEnable(JDA jda) {
+    public void onEnable(ShardManager shardManager) {
         LOGGER.info("Aktiviere Musik-Modul...");
 
-        // Setze die JDA-Instanz im PlayerManager
-        PlayerManager.getInstance().setJDA(jda);
+        // Server werden im PlayerManager über ihre Shard aufgelöst
+        PlayerManager.getInstance().setShardManager(shardManager);
 
         // WaitingRoomManager initialisieren
-        WaitingRoomManager.getInstance().setJDA(jda);
-
-        // Registriere den Event-Listener
-        jda.addEventListener(commandListener);
-
-        try {
-            // WICHTIG: Zuerst ALLE globalen Commands explizit löschen, um doppelte Einträge zu vermeiden
-            LOGGER.info("Lösche alle globalen Befehle, um Duplikate zu vermeiden...");
-            jda.updateCommands().queue(
-                    success -> {
-                        LOGGER.info("Globale Befehle erfolgreich gelöscht");
-
-                        // Liste der Musik-Befehle erstellen
-                        List<CommandData> commands = new ArrayList<>();
-                        commands.add(PlayCommand.getCommandData());
-                        commands.add(SkipCommand.getCommandData());
-                        commands.add(StopCommand.getCommandData());
-                        commands.add(QueueCommand.getCommandData());
-                        commands.add(NowPlayingCommand.getCommandData());
-                        commands.add(VolumeCommand.getCommandData());
-                        commands.add(PauseResumeCommand.getPauseCommandData());
-                        commands.add(PauseResumeCommand.getResumeCommandData());
-                        commands.add(WarteraumCommand.getCommandData());
-
-                        // Nach dem Löschen globaler Befehle NUR guild-spezifische Befehle registrieren
-                        for (Guild guild : jda.getGuilds()) {
-                            // Zuerst alle bestehenden Guild-Befehle löschen
-                            guild.updateCommands().queue(
-                                    guildCleanSuccess -> {
-                                        LOGGER.info("Bestehende Befehle für Guild {} gelöscht", guild.getName());
-
-                                        // Dann neue Befehle hinzufügen
-                                        guild.updateCommands().addCommands(commands).queue(
-                                                guildSuccess -> LOGGER.info("Musik-Befehle erfolgreich für Guild {} registriert", guild.getName()),
-                                                guildError -> LOGGER.error("Fehler beim Registrieren der Musik-Befehle für Guild {}: {}",
-                                                        guild.getName(), guildError.getMessage())
-                                        );
-                                    },
-                                    guildCleanError -> LOGGER.error("Fehler beim Löschen von Befehlen für Guild {}: {}",
-                                            guild.getName(), guildCleanError.getMessage())
-                            );
-                        }
-                    },
-                    error -> LOGGER.error("Fehler beim Löschen globaler Befehle: {}", error.getMessage())
-            );
-        } catch (Exception e) {
-            LOGGER.error("Fehler bei der Befehlsregistrierung: {}", e.getMessage(), e);
-        }
+        WaitingRoomManager.getInstance().setShardManager(shardManager);
+
+        // Registriere den Event-Listener bei allen Shards
+        shardManager.addEventListener(commandListener);
+
+        registerGauges();
+
+        // Die Slash-Befehle werden über getSlashCommands() vom CommandManager registriert und abgeglichen
     }
 
     /**
      * Wird aufgerufen, wenn das Modul deaktiviert wird.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager mit allen Shards des Bots
      */
     @Override
-    public void onDisable(JDA jda) {
+    public void onDisable(ShardManager shardManager) {
         LOGGER.info("Deaktiviere Musik-Modul...");
 
         // Entferne den Event-Listener
-        jda.removeEventListener(commandListener);
+        shardManager.removeEventListener(commandListener);
+
+        for (String gauge : GAUGES) {
+            MetricsRegistry.getInstance().unregisterGauge(gauge);
+        }
 
         // Bereinige Ressourcen
         PlayerManager.getInstance().shutdown();
@@ -128,58 +147,126 @@ public class MusicModule extends Module {
     }
 
     /**
-     * Event-Listener für Musik-bezogene Slash-Commands.
+     * Registriert die Messwerte des Musik-Moduls für {@code /stats}.
+     */
+    private static void registerGauges() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.registerGauge("music.managers", "Musik-Manager",
+                () -> PlayerManager.getInstance().getMusicManagers().size());
+        metrics.registerGauge("music.players_active", "Server mit laufender Wiedergabe", () -> PlayerManager.getInstance()
+                .getMusicManagers().stream()
+                .filter(manager -> manager.getAudioPlayer().getPlayingTrack() != null)
+                .count());
+        metrics.registerGauge("music.queue_tracks", "Tracks in allen Warteschlangen", () -> PlayerManager.getInstance()
+                .getMusicManagers().stream()
+                .mapToLong(manager -> manager.getTrackScheduler().getQueueSize())
+                .sum());
+        metrics.registerGauge("music.queue_longest", "Längste Warteschlange", () -> PlayerManager.getInstance()
+                .getMusicManagers().stream()
+                .mapToLong(manager -> manager.getTrackScheduler().getQueueSize())
+                .max()
+                .orElse(0));
+        metrics.registerGauge("music.queue_cache_hit_ratio", "Trefferquote des Warteschlangen-Zwischenspeichers", () -> {
+            QueueRenderCache cache = QueueRenderCache.getInstance();
+            long total = cache.getHitCount() + cache.getMissCount();
+            return total == 0 ? 0 : (double) cache.getHitCount() / total;
+        });
+        metrics.registerGauge("music.nowplaying_panels", "Aktive Live-Anzeigen",
+                () -> NowPlayingPanelUpdater.getInstance().getPanelCount());
+        metrics.registerGauge("music.nowplaying_skip_ratio", "Anteil ausgelassener Bearbeitungen der Live-Anzeigen", () -> {
+            NowPlayingPanelUpdater updater = NowPlayingPanelUpdater.getInstance();
+            long total = updater.getEditCount() + updater.getSkippedCount();
+            return total == 0 ? 0 : (double) updater.getSkippedCount() / total;
+        });
+        metrics.registerGauge("music.waitingroom_monitoring", "Warteräume ohne Zuhörer",
+                () -> WaitingRoomManager.getInstance().countWaitingRooms(WaitingRoomManager.WaitingRoomState.MONITORING));
+        metrics.registerGauge("music.waitingroom_connected", "Verbundene Warteräume",
+                () -> WaitingRoomManager.getInstance().countWaitingRooms(WaitingRoomManager.WaitingRoomState.CONNECTED));
+        metrics.registerCounter("music.frames_provided", "Gelieferte Audio-Frames",
+                AudioPlayerSendHandler::getFramesProvided);
+        metrics.registerCounter("music.frames_missed", "Fehlende Audio-Frames während der Wiedergabe",
+                AudioPlayerSendHandler::getFramesMissed);
+        metrics.registerCounter("music.queue_cache_hits", "Treffer des Warteschlangen-Zwischenspeichers",
+                () -> QueueRenderCache.getInstance().getHitCount());
+        metrics.registerCounter("music.queue_cache_misses", "Fehlzugriffe des Warteschlangen-Zwischenspeichers",
+                () -> QueueRenderCache.getInstance().getMissCount());
+        metrics.registerCounter("music.nowplaying_edits", "Bearbeitungen der Live-Anzeigen",
+                () -> NowPlayingPanelUpdater.getInstance().getEditCount());
+        metrics.registerCounter("music.nowplaying_skipped", "Ausgelassene Bearbeitungen der Live-Anzeigen",
+                () -> NowPlayingPanelUpdater.getInstance().getSkippedCount());
+    }
+
+    /**
+     * Event-Listener für Lebenszyklus-Ereignisse des Musik-Moduls.
+     * Die Slash-Commands selbst werden über den CommandManager ausgeführt.
      */
     private static class MusicCommandListener extends ListenerAdapter {
         /**
-         * Wird aufgerufen, wenn ein Slash-Command ausgeführt wird.
+         * Wird aufgerufen, wenn eine Shard heruntergefahren wird.
          *
-         * @param event Das SlashCommandInteractionEvent
+         * @param event Das ShutdownEvent
          */
         @Override
-        public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
-            String commandName = event.getName();
-
-            switch (commandName) {
-                case "play":
-                    PlayCommand.handle(event);
-                    break;
-                case "skip":
-                    SkipCommand.handle(event);
-                    break;
-                case "stop":
-                    StopCommand.handle(event);
-                    break;
-                case "queue":
-                    QueueCommand.handle(event);
-                    break;
-                case "nowplaying":
-                    NowPlayingCommand.handle(event);
-                    break;
-                case "volume":
-                    VolumeCommand.handle(event);
-                    break;
-                case "pause":
-                    PauseResumeCommand.handlePause(event);
-                    break;
-                case "resume":
-                    PauseResumeCommand.handleResume(event);
-                    break;
-                case "warteraum":
-                    WarteraumCommand.handle(event);
-                    break;
+        public void onShutdown(@NotNull ShutdownEvent event) {
+            // Einzelne Shards werden auch beim Neustart heruntergefahren; nur aufräumen, wenn keine Shard mehr läuft
+            ShardManager shardManager = event.getJDA().getShardManager();
+            if (shardManager == null || shardManager.getShardCache().stream()
+                    .allMatch(shard -> shard.getStatus() == JDA.Status.SHUTDOWN)) {
+                PlayerManager.getInstance().shutdown();
             }
         }
 
         /**
-         * Wird aufgerufen, wenn JDA heruntergefahren wird.
+         * Wird aufgerufen, wenn der Bot einen Server verlässt.
+         * Beendet die Live-Anzeige und gibt den Musik-Manager des Servers frei.
          *
-         * @param event Das ShutdownEvent
+         * @param event Das GuildLeaveEvent
          */
         @Override
-        public void onShutdown(@NotNull ShutdownEvent event) {
-            // Bereinige Ressourcen beim Herunterfahren
-            PlayerManager.getInstance().shutdown();
+        public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+            long guildId = event.getGuild().getIdLong();
+            NowPlayingPanelUpdater.getInstance().close(guildId);
+            PlayerManager.getInstance().removeMusicManager(guildId);
+        }
+
+        /**
+         * Wird aufgerufen, wenn eine Schaltfläche geklickt wird.
+         * Blättert in der Warteschlangen-Anzeige; die Seiten kommen aus dem QueueRenderCache.
+         * Jeder Klick zählt im Flutschutz wie ein Aufruf von {@code /queue}.
+         *
+         * @param event Das ButtonInteractionEvent
+         */
+        @Override
+        public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
+            String componentId = event.getComponentId();
+            if (!componentId.startsWith(MusicUtil.QUEUE_PAGE_BUTTON_PREFIX) || event.getGuild() == null) {
+                return;
+            }
+
+            int page;
+            try {
+                page = Integer.parseInt(componentId.substring(MusicUtil.QUEUE_PAGE_BUTTON_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ungültige Schaltflächen-ID: {}", componentId);
+                return;
+            }
+
+            Guild guild = event.getGuild();
+            CommandManager commandManager = Bot.getInstance().getCommandManager();
+            long waitMillis = commandManager != null
+                    ? commandManager.getRateLimiter().tryAcquireCommand(guild.getIdLong(), event.getUser().getIdLong(), "queue")
+                    : 0;
+            if (waitMillis > 0) {
+                LOGGER.debug("Blättern in der Warteschlange von {} gedrosselt ({}ms)", event.getUser().getName(), waitMillis);
+                InteractionReplies.replyEphemeral(event, "🐢 Zu viele Anfragen. Bitte versuche es in "
+                        + Math.max(1, (waitMillis + 999) / 1000) + " Sekunden erneut.");
+                return;
+            }
+
+            MessageEmbed embed = MusicUtil.createQueueEmbed(guild, page);
+            List<ActionRow> pager = MusicUtil.createQueuePager(guild, page);
+            RestScheduler.getInstance().submit(RestScheduler.Priority.INTERACTION,
+                    () -> event.editMessageEmbeds(embed).setComponents(pager));
         }
     }
 }
\ No newline at end of file
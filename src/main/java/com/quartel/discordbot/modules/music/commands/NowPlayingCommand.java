@@ -1,10 +1,16 @@
 package com.quartel.discordbot.modules.music.commands;
 
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
+import com.quartel.discordbot.modules.music.util.NowPlayingPanelUpdater;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import org.slf4j.Logger;
@@ -13,16 +19,26 @@ import org.slf4j.LoggerFactory;
 /**
  * Diese Klasse implementiert den /nowplaying Command, der Informationen zum aktuellen Track anzeigt.
  */
-public class NowPlayingCommand {
+public class NowPlayingCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(NowPlayingCommand.class);
 
+    /**
+     * Erstellt den /nowplaying Befehl.
+     */
+    public NowPlayingCommand() {
+        super("nowplaying", "Zeigt Informationen zum aktuell spielenden Lied an", "Musik");
+    }
+
     /**
      * Definiert die Slash-Command-Daten für den /nowplaying Befehl.
      *
      * @return Die CommandData für den /nowplaying Befehl
      */
-    public static CommandData getCommandData() {
-        return Commands.slash("nowplaying", "Zeigt Informationen zum aktuell spielenden Lied an");
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash(getName(), getDescription())
+                .addOption(OptionType.BOOLEAN, "live",
+                        "Fortlaufend aktualisierte Anzeige in diesem Kanal starten (true) oder beenden (false)", false);
     }
 
     /**
@@ -30,12 +46,20 @@ public class NowPlayingCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("NowPlayingCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
+            return;
+        }
+
+        // Live-Anzeige starten oder beenden
+        OptionMapping liveOption = event.getOption("live");
+        if (liveOption != null) {
+            handleLivePanel(event, guild, liveOption.getAsBoolean());
             return;
         }
 
@@ -43,7 +67,7 @@ public class NowPlayingCommand {
 
         // Prüfe, ob etwas abgespielt wird
         if (musicManager.getAudioPlayer().getPlayingTrack() == null) {
-            event.reply("Es wird derzeit nichts abgespielt.").queue();
+            InteractionReplies.reply(event, "Es wird derzeit nichts abgespielt.");
             return;
         }
 
@@ -51,6 +75,35 @@ public class NowPlayingCommand {
         musicManager.updateActivity();
 
         // Erstelle und sende das NowPlaying-Embed
-        event.replyEmbeds(MusicUtil.createNowPlayingEmbed(guild)).queue();
+        InteractionReplies.replyEmbeds(event, MusicUtil.createNowPlayingEmbed(guild));
+    }
+
+    /**
+     * Startet oder beendet die Live-Anzeige des Servers.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     * @param guild Der Server
+     * @param live  true zum Starten, false zum Beenden
+     */
+    private static void handleLivePanel(SlashCommandInteractionEvent event, Guild guild, boolean live) {
+        NowPlayingPanelUpdater updater = NowPlayingPanelUpdater.getInstance();
+
+        if (!live) {
+            if (updater.close(guild.getIdLong())) {
+                InteractionReplies.replyEphemeral(event, "⏹️ Die Live-Anzeige wurde beendet.");
+            } else {
+                InteractionReplies.replyEphemeral(event, "Es ist keine Live-Anzeige aktiv.");
+            }
+            return;
+        }
+
+        if (!(event.getChannel() instanceof GuildMessageChannel channel)) {
+            InteractionReplies.replyEphemeral(event, "❌ In diesem Kanal kann keine Live-Anzeige angezeigt werden.");
+            return;
+        }
+
+        InteractionReplies.replyEphemeral(event, "📌 Die Live-Anzeige wird in diesem Kanal angezeigt"
+                + (updater.hasPanel(guild.getIdLong()) ? " und ersetzt die bisherige." : "."));
+        updater.open(guild, channel);
     }
-}
\ No newline at end of file
+}
@@ -2,11 +2,17 @@ package com.quartel.discordbot.modules.music.commands;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
 import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
@@ -22,17 +28,26 @@ import java.util.List;
 
 /**
  * Diese Klasse implementiert den /play Command, der Musik abspielt oder zur Warteschlange hinzufügt.
+ * Ohne Angaben wird die Standard-Playlist des Servers abgespielt; mit {@code playlist:… default:true}
+ * legen Administratoren sie fest.
  */
-public class PlayCommand {
+public class PlayCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(PlayCommand.class);
-    private static final MusicLibraryManager musicLibraryManager = new MusicLibraryManager();
+
+    /**
+     * Erstellt den /play Befehl.
+     */
+    public PlayCommand() {
+        super("play", "Spielt Musik ab oder zeigt Playlist-Informationen", "Musik");
+    }
 
     /**
      * Definiert die Slash-Command-Daten für den /play Befehl.
      *
      * @return Die CommandData für den /play Befehl
      */
-    public static CommandData getCommandData() {
+    @Override
+    public CommandData getCommandData() {
         // Option für Soundcloud/YouTube
         OptionData songOption = new OptionData(OptionType.STRING, "song", "URL zu einem Song (Soundcloud, Bandcamp, Twitch, Vimeo)", false);
 
@@ -44,8 +59,12 @@ public class PlayCommand {
         OptionData playlistPreviewOption = new OptionData(OptionType.STRING, "preview", "Zeige Details einer Playlist", false)
                 .setAutoComplete(true);
 
-        return Commands.slash("play", "Spielt Musik ab oder zeigt Playlist-Informationen")
-                .addOptions(songOption, playlistOption, playlistPreviewOption);
+        // Option zum Speichern der Playlist als Standard des Servers
+        OptionData defaultOption = new OptionData(OptionType.BOOLEAN, "default",
+                "Playlist als Standard dieses Servers speichern (nur Administratoren)", false);
+
+        return Commands.slash(getName(), getDescription())
+                .addOptions(songOption, playlistOption, playlistPreviewOption, defaultOption);
     }
 
     /**
@@ -53,19 +72,20 @@ public class PlayCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("PlayCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
         // Prüfe, ob der Warteraum-Modus aktiv ist
         if (WaitingRoomManager.getInstance().isWaitingRoomActive(guild.getIdLong())) {
-            event.reply("❌ Der `/play` Befehl ist während des Warteraum-Modus deaktiviert. " +
-                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Der `/play` Befehl ist während des Warteraum-Modus deaktiviert. " +
+                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.");
             return;
         }
 
@@ -75,12 +95,30 @@ public class PlayCommand {
             return;
         }
 
-        // Listet Playlists, wenn kein Lied/Playlist angegeben
-        if (event.getOption("song") == null && event.getOption("playlist") == null) {
-            listAvailablePlaylists(event);
+        // Standard-Playlist festlegen, ohne abzuspielen
+        if (event.getOption("default") != null && event.getOption("default").getAsBoolean()) {
+            saveDefaultPlaylist(event, guild);
             return;
         }
 
+        // Ohne Lied/Playlist die Standard-Playlist des Servers abspielen, sonst die Playlists auflisten
+        String playlistName = null;
+        List<String> playlistFiles = List.of();
+        if (event.getOption("playlist") != null) {
+            playlistName = event.getOption("playlist").getAsString();
+            playlistFiles = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName);
+        } else if (event.getOption("song") == null) {
+            String defaultPlaylist = GuildSettingsStore.getInstance().get(guild.getIdLong()).getDefaultPlaylist();
+            if (defaultPlaylist != null && !defaultPlaylist.isBlank()) {
+                playlistFiles = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(defaultPlaylist);
+            }
+            if (playlistFiles.isEmpty()) {
+                listAvailablePlaylists(event, guild);
+                return;
+            }
+            playlistName = defaultPlaylist;
+        }
+
         // Prüfe, ob der Benutzer in einem Sprachkanal ist und der Bot verbinden kann
         if (!MusicUtil.isInSameVoiceChannel(event)) {
             return;
@@ -91,25 +129,15 @@ public class PlayCommand {
             return;
         }
 
-        // Überprüfe, ob eine lokale Playlist angegeben wurde
-        if (event.getOption("playlist") != null) {
-            String playlistName = event.getOption("playlist").getAsString();
-            List<String> playlistFiles = musicLibraryManager.findAudioFilesInPlaylist(playlistName);
-
+        // Überprüfe, ob eine lokale Playlist abgespielt werden soll
+        if (playlistName != null) {
             if (playlistFiles.isEmpty()) {
-                event.reply("❌ Keine Audiodateien in der Playlist '" + playlistName + "' gefunden.").setEphemeral(true).queue();
+                InteractionReplies.replyEphemeral(event, "❌ Keine Audiodateien in der Playlist '" + playlistName + "' gefunden.");
                 return;
             }
 
-            // Deferred Reply senden, da das Laden mehrerer Dateien länger dauern kann
-            event.deferReply().queue();
-
-            // Alle Dateien der Playlist zur Warteschlange hinzufügen
-            playlistFiles.forEach(file -> {
-                PlayerManager.getInstance().loadAndPlay(event, file);
-            });
-
-            event.getHook().sendMessage("🎵 Playlist '" + playlistName + "' wird abgespielt.").queue();
+            // Alle Dateien der Playlist als eine Ladeoperation mit gemeinsamer Fortschrittsanzeige einreihen
+            PlayerManager.getInstance().loadAndPlay(event, playlistFiles, playlistName);
             return;
         }
 
@@ -119,7 +147,7 @@ public class PlayCommand {
 
         // Prüfen, ob es eine URL ist, da direkte Suche nicht mehr unterstützt wird
         if (!isUrl(song)) {
-            event.reply("❌ Bitte gib eine direkte URL ein. Die Suchfunktion wird momentan nicht unterstützt.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Bitte gib eine direkte URL ein. Die Suchfunktion wird momentan nicht unterstützt.");
             return;
         }
 
@@ -134,10 +162,10 @@ public class PlayCommand {
      */
     private static void showPlaylistPreview(SlashCommandInteractionEvent event) {
         String playlistName = event.getOption("preview").getAsString();
-        List<String> files = musicLibraryManager.findAudioFilesInPlaylist(playlistName);
+        List<String> files = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName);
 
         if (files.isEmpty()) {
-            event.reply("❌ Keine Informationen zur Playlist '" + playlistName + "' gefunden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Keine Informationen zur Playlist '" + playlistName + "' gefunden.");
             return;
         }
 
@@ -146,7 +174,7 @@ public class PlayCommand {
                 .setColor(Color.BLUE);
 
         // Playlist-Beschreibung aus Konfiguration holen
-        JsonObject config = musicLibraryManager.loadMusicLibraryConfig();
+        JsonObject config = MusicLibraryManager.getInstance().loadMusicLibraryConfig();
         if (config != null) {
             JsonArray playlists = config.getAsJsonArray("playlists");
             for (int i = 0; i < playlists.size(); i++) {
@@ -173,19 +201,51 @@ public class PlayCommand {
                 .addField("Anzahl der Tracks", String.valueOf(files.size()), true)
                 .addField("Unterstützte Formate", "MP3, WAV, FLAC", true);
 
-        event.replyEmbeds(embedBuilder.build()).queue();
+        InteractionReplies.replyEmbeds(event, embedBuilder.build());
+    }
+
+    /**
+     * Speichert die angegebene Playlist als Standard-Playlist des Servers.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     * @param guild Der Server
+     */
+    private static void saveDefaultPlaylist(SlashCommandInteractionEvent event, Guild guild) {
+        Member member = event.getMember();
+        if (member == null || !member.hasPermission(Permission.ADMINISTRATOR)) {
+            InteractionReplies.replyEphemeral(event, "Du benötigst Administrator-Berechtigungen, um die Standard-Playlist zu ändern.");
+            return;
+        }
+
+        if (event.getOption("playlist") == null) {
+            InteractionReplies.replyEphemeral(event, "❌ Bitte gib mit `playlist:` an, welche Playlist der Standard werden soll.");
+            return;
+        }
+
+        String playlistName = event.getOption("playlist").getAsString();
+        if (MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName).isEmpty()) {
+            InteractionReplies.replyEphemeral(event, "❌ Keine Audiodateien in der Playlist '" + playlistName + "' gefunden.");
+            return;
+        }
+
+        GuildSettingsStore.getInstance().set(guild.getIdLong(), GuildSettings.DEFAULT_PLAYLIST, playlistName);
+        LOGGER.info("Standard-Playlist für Server {} auf '{}' gesetzt", guild.getName(), playlistName);
+
+        InteractionReplies.replyEphemeral(event, "💾 Standard-Playlist für diesen Server auf **" + playlistName + "** gesetzt. " +
+                "`/play` ohne Angaben spielt sie ab.");
     }
 
     /**
-     * Listet verfügbare Playlists auf.
+     * Listet verfügbare Playlists auf und markiert die Standard-Playlist des Servers.
      *
      * @param event Das SlashCommandInteractionEvent
+     * @param guild Der Server, dessen Standard-Playlist markiert wird
      */
-    private static void listAvailablePlaylists(SlashCommandInteractionEvent event) {
-        JsonObject config = musicLibraryManager.loadMusicLibraryConfig();
+    private static void listAvailablePlaylists(SlashCommandInteractionEvent event, Guild guild) {
+        JsonObject config = MusicLibraryManager.getInstance().loadMusicLibraryConfig();
 
         if (config == null || !config.has("playlists")) {
-            event.reply("❌ Keine Playlists gefunden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Keine Playlists gefunden.");
             return;
         }
 
@@ -193,18 +253,21 @@ public class PlayCommand {
                 .setTitle("Verfügbare Playlists")
                 .setColor(Color.GREEN)
                 .setDescription("Nutze `/play playlist:PLAYLIST_NAME`, um eine Playlist abzuspielen.\n" +
-                        "Für Vorschau nutze `/play preview:PLAYLIST_NAME`");
+                        "Für Vorschau nutze `/play preview:PLAYLIST_NAME`\n" +
+                        "Mit `/play playlist:PLAYLIST_NAME default:true` wird sie zur Standard-Playlist, " +
+                        "die `/play` ohne Angaben abspielt.");
 
+        String defaultPlaylist = GuildSettingsStore.getInstance().get(guild.getIdLong()).getDefaultPlaylist();
         JsonArray playlists = config.getAsJsonArray("playlists");
         for (int i = 0; i < playlists.size(); i++) {
             JsonObject playlist = playlists.get(i).getAsJsonObject();
             String name = playlist.get("name").getAsString();
             String description = playlist.get("description").getAsString();
 
-            embedBuilder.addField(name, description, false);
+            embedBuilder.addField(name.equalsIgnoreCase(defaultPlaylist) ? name + " ⭐ Standard" : name, description, false);
         }
 
-        event.replyEmbeds(embedBuilder.build()).queue();
+        InteractionReplies.replyEmbeds(event, embedBuilder.build());
     }
 
     /**
@@ -1,28 +1,26 @@
 package com.quartel.discordbot.modules.music.commands;
 
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Diese Klasse implementiert den /queue Command, der die aktuelle Warteschlange anzeigt.
  */
-public class QueueCommand {
+public class QueueCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(QueueCommand.class);
 
     /**
-     * Definiert die Slash-Command-Daten für den /queue Befehl.
-     *
-     * @return Die CommandData für den /queue Befehl
+     * Erstellt den /queue Befehl.
      */
-    public static CommandData getCommandData() {
-        return Commands.slash("queue", "Zeigt die aktuelle Musik-Warteschlange an");
+    public QueueCommand() {
+        super("queue", "Zeigt die aktuelle Musik-Warteschlange an", "Musik");
     }
 
     /**
@@ -30,12 +28,13 @@ public class QueueCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("QueueCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
@@ -43,12 +42,12 @@ public class QueueCommand {
 
         // Prüfe, ob die Warteschlange leer ist
         if (musicManager.getAudioPlayer().getPlayingTrack() == null &&
-                musicManager.getTrackScheduler().getQueue().isEmpty()) {
-            event.reply("Die Warteschlange ist leer.").queue();
+                musicManager.getTrackScheduler().getQueueSize() == 0) {
+            InteractionReplies.reply(event, "Die Warteschlange ist leer.");
             return;
         }
 
-        // Erstelle und sende das Warteschlangen-Embed
-        event.replyEmbeds(MusicUtil.createQueueEmbed(guild)).queue();
+        // Erstelle und sende die erste Seite der Warteschlange mit Schaltflächen zum Blättern
+        InteractionReplies.replyEmbeds(event, MusicUtil.createQueueEmbed(guild, 0), MusicUtil.createQueuePager(guild, 0));
     }
 }
\ No newline at end of file
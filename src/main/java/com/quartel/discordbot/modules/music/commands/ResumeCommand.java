@@ -0,0 +1,76 @@
+package com.quartel.discordbot.modules.music.commands;
+
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.modules.music.player.GuildMusicManager;
+import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.modules.music.util.MusicUtil;
+import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diese Klasse implementiert den /resume Command, der die pausierte Musikwiedergabe fortsetzt.
+ */
+public class ResumeCommand extends BaseSlashCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumeCommand.class);
+
+    /**
+     * Erstellt den /resume Befehl.
+     */
+    public ResumeCommand() {
+        super("resume", "Setzt die pausierte Musikwiedergabe fort", "Musik");
+    }
+
+    /**
+     * Behandelt den /resume Slash-Command.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     */
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        LOGGER.debug("ResumeCommand ausgeführt von: {}", event.getUser().getName());
+
+        Guild guild = event.getGuild();
+        if (guild == null) {
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
+            return;
+        }
+
+        // Prüfe, ob der Warteraum-Modus aktiv ist
+        if (WaitingRoomManager.getInstance().isWaitingRoomActive(guild.getIdLong())) {
+            InteractionReplies.replyEphemeral(event, "❌ Der `/resume` Befehl ist während des Warteraum-Modus deaktiviert. " +
+                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.");
+            return;
+        }
+
+        // Prüfe, ob der Benutzer im gleichen Sprachkanal ist
+        if (!MusicUtil.isInSameVoiceChannel(event)) {
+            return;
+        }
+
+        GuildMusicManager musicManager = PlayerManager.getInstance().getMusicManager(guild);
+
+        // Prüfe, ob etwas abgespielt wird
+        if (musicManager.getAudioPlayer().getPlayingTrack() == null) {
+            InteractionReplies.replyEphemeral(event, "Es wird derzeit nichts abgespielt.");
+            return;
+        }
+
+        // Prüfe, ob tatsächlich pausiert
+        if (!musicManager.getAudioPlayer().isPaused()) {
+            InteractionReplies.replyEphemeral(event, "Die Wiedergabe ist bereits aktiv.");
+            return;
+        }
+
+        // Setze die Wiedergabe fort
+        musicManager.getAudioPlayer().setPaused(false);
+
+        // Aktualisiere die Aktivitätszeit
+        musicManager.updateActivity();
+
+        InteractionReplies.reply(event, "▶️ Wiedergabe fortgesetzt.");
+    }
+}
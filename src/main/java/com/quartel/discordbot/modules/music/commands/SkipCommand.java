@@ -1,5 +1,7 @@
 package com.quartel.discordbot.modules.music.commands;
 
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
@@ -7,24 +9,20 @@ import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Diese Klasse implementiert den /skip Command, der das aktuelle Lied überspringt.
  */
-public class SkipCommand {
+public class SkipCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(SkipCommand.class);
 
     /**
-     * Definiert die Slash-Command-Daten für den /skip Befehl.
-     *
-     * @return Die CommandData für den /skip Befehl
+     * Erstellt den /skip Befehl.
      */
-    public static CommandData getCommandData() {
-        return Commands.slash("skip", "Überspringt das aktuelle Lied");
+    public SkipCommand() {
+        super("skip", "Überspringt das aktuelle Lied", "Musik");
     }
 
     /**
@@ -32,19 +30,20 @@ public class SkipCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("SkipCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
         // Prüfe, ob der Warteraum-Modus aktiv ist
         if (WaitingRoomManager.getInstance().isWaitingRoomActive(guild.getIdLong())) {
-            event.reply("❌ Der `/skip` Befehl ist während des Warteraum-Modus deaktiviert. " +
-                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Der `/skip` Befehl ist während des Warteraum-Modus deaktiviert. " +
+                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.");
             return;
         }
 
@@ -57,7 +56,7 @@ public class SkipCommand {
         AudioTrack currentTrack = musicManager.getAudioPlayer().getPlayingTrack();
 
         if (currentTrack == null) {
-            event.reply("Es wird derzeit nichts abgespielt.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Es wird derzeit nichts abgespielt.");
             return;
         }
 
@@ -72,10 +71,10 @@ public class SkipCommand {
 
         if (newTrack != null) {
             // Es gibt einen nächsten Track
-            event.reply("⏭️ **" + skippedTrackTitle + "** übersprungen.\n🎵 Spiele jetzt: **" + newTrack.getInfo().title + "**").queue();
+            InteractionReplies.reply(event, "⏭️ **" + skippedTrackTitle + "** übersprungen.\n🎵 Spiele jetzt: **" + newTrack.getInfo().title + "**");
         } else {
             // Es gibt keinen nächsten Track
-            event.reply("⏭️ **" + skippedTrackTitle + "** übersprungen. Die Warteschlange ist jetzt leer.").queue();
+            InteractionReplies.reply(event, "⏭️ **" + skippedTrackTitle + "** übersprungen. Die Warteschlange ist jetzt leer.");
         }
     }
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package com.quartel.discordbot.modules.music.commands;
 
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
 import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.managers.AudioManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,16 +16,14 @@ import org.slf4j.LoggerFactory;
  * Diese Klasse implementiert den /stop Command, der die Musikwiedergabe stoppt
  * und die Warteschlange leert.
  */
-public class StopCommand {
+public class StopCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(StopCommand.class);
 
     /**
-     * Definiert die Slash-Command-Daten für den /stop Befehl.
-     *
-     * @return Die CommandData für den /stop Befehl
+     * Erstellt den /stop Befehl.
      */
-    public static CommandData getCommandData() {
-        return Commands.slash("stop", "Stoppt die Musikwiedergabe und leert die Warteschlange");
+    public StopCommand() {
+        super("stop", "Stoppt die Musikwiedergabe und leert die Warteschlange", "Musik");
     }
 
     /**
@@ -33,19 +31,20 @@ public class StopCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("StopCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
         // Prüfe, ob der Warteraum-Modus aktiv ist
         if (WaitingRoomManager.getInstance().isWaitingRoomActive(guild.getIdLong())) {
-            event.reply("❌ Der `/stop` Befehl ist während des Warteraum-Modus deaktiviert. " +
-                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Der `/stop` Befehl ist während des Warteraum-Modus deaktiviert. " +
+                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.");
             return;
         }
 
@@ -58,7 +57,7 @@ public class StopCommand {
 
         if (musicManager.getAudioPlayer().getPlayingTrack() == null &&
                 musicManager.getTrackScheduler().getQueue().isEmpty()) {
-            event.reply("Es wird derzeit nichts abgespielt.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Es wird derzeit nichts abgespielt.");
             return;
         }
 
@@ -72,6 +71,6 @@ public class StopCommand {
             LOGGER.info("Audioverbindung für Server {} getrennt", guild.getName());
         }
 
-        event.reply("⏹️ Wiedergabe gestoppt und Warteschlange geleert.").queue();
+        InteractionReplies.reply(event, "⏹️ Wiedergabe gestoppt und Warteschlange geleert.");
     }
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package com.quartel.discordbot.modules.music.commands;
 
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
 import com.quartel.discordbot.modules.music.util.MusicUtil;
 import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
@@ -15,21 +21,32 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Diese Klasse implementiert den /volume Command, der die Lautstärke der Musikwiedergabe ändert.
+ * Mit {@code default:true} speichern Administratoren die Lautstärke als Standard des Servers.
  */
-public class VolumeCommand {
+public class VolumeCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(VolumeCommand.class);
 
+    /**
+     * Erstellt den /volume Befehl.
+     */
+    public VolumeCommand() {
+        super("volume", "Ändert die Lautstärke der Musikwiedergabe", "Musik");
+    }
+
     /**
      * Definiert die Slash-Command-Daten für den /volume Befehl.
      *
      * @return Die CommandData für den /volume Befehl
      */
-    public static CommandData getCommandData() {
-        return Commands.slash("volume", "Ändert die Lautstärke der Musikwiedergabe")
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash(getName(), getDescription())
                 .addOptions(
                         new OptionData(OptionType.INTEGER, "level", "Lautstärke (0-100)", true)
                                 .setMinValue(0)
-                                .setMaxValue(100)
+                                .setMaxValue(100),
+                        new OptionData(OptionType.BOOLEAN, "default",
+                                "Als Standard-Lautstärke dieses Servers speichern (nur Administratoren)", false)
                 );
     }
 
@@ -38,19 +55,26 @@ public class VolumeCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("VolumeCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
+            return;
+        }
+
+        int newVolume = event.getOption("level").getAsInt();
+        if (event.getOption("default") != null && event.getOption("default").getAsBoolean()) {
+            saveDefaultVolume(event, guild, newVolume);
             return;
         }
 
         // Prüfe, ob der Warteraum-Modus aktiv ist
         if (WaitingRoomManager.getInstance().isWaitingRoomActive(guild.getIdLong())) {
-            event.reply("❌ Der `/volume` Befehl ist während des Warteraum-Modus deaktiviert. " +
-                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Der `/volume` Befehl ist während des Warteraum-Modus deaktiviert. " +
+                    "Verwende `/warteraum deaktivieren`, um den Warteraum-Modus zu beenden.");
             return;
         }
 
@@ -63,7 +87,6 @@ public class VolumeCommand {
         int oldVolume = musicManager.getVolume();
 
         // Setze die neue Lautstärke
-        int newVolume = event.getOption("level").getAsInt();
         musicManager.setVolume(newVolume);
 
         // Aktualisiere die Aktivitätszeit
@@ -85,6 +108,30 @@ public class VolumeCommand {
         String message = String.format("%s Lautstärke geändert: **%d%%** → **%d%%**",
                 volumeIcon, oldVolume, newVolume);
 
-        event.reply(message).queue();
+        InteractionReplies.reply(event, message);
+    }
+
+    /**
+     * Speichert die Standard-Lautstärke des Servers und übernimmt sie für einen bereits laufenden Player.
+     *
+     * @param event  Das SlashCommandInteractionEvent
+     * @param guild  Der Server
+     * @param volume Die neue Standard-Lautstärke
+     */
+    private static void saveDefaultVolume(SlashCommandInteractionEvent event, Guild guild, int volume) {
+        Member member = event.getMember();
+        if (member == null || !member.hasPermission(Permission.ADMINISTRATOR)) {
+            InteractionReplies.replyEphemeral(event, "Du benötigst Administrator-Berechtigungen, um die Standard-Lautstärke zu ändern.");
+            return;
+        }
+
+        GuildSettingsStore.getInstance().set(guild.getIdLong(), GuildSettings.DEFAULT_VOLUME, String.valueOf(volume));
+        GuildMusicManager musicManager = PlayerManager.getInstance().getExistingMusicManager(guild.getIdLong());
+        if (musicManager != null) {
+            musicManager.setVolume(volume);
+        }
+        LOGGER.info("Standard-Lautstärke für Server {} auf {} gesetzt", guild.getName(), volume);
+
+        InteractionReplies.replyEphemeral(event, String.format("💾 Standard-Lautstärke für diesen Server auf **%d%%** gesetzt.", volume));
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,15 @@
 package com.quartel.discordbot.modules.music.commands;
 
 import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.core.BaseSlashCommand;
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.util.MusicLibraryManager;
 import com.quartel.discordbot.modules.music.util.WaitingRoomManager;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
@@ -22,21 +26,33 @@ import java.util.List;
  * Diese Klasse implementiert den /warteraum Command, der den automatischen Warteraum-Modus
  * des Bots aktiviert und deaktiviert.
  */
-public class WarteraumCommand {
+public class WarteraumCommand extends BaseSlashCommand {
     private static final Logger LOGGER = LoggerFactory.getLogger(WarteraumCommand.class);
-    private static final MusicLibraryManager musicLibraryManager = new MusicLibraryManager();
+
+    /**
+     * Erstellt den /warteraum Befehl.
+     */
+    public WarteraumCommand() {
+        super("warteraum", "Verwaltet den automatischen Warteraum-Modus", "Musik");
+    }
 
     /**
      * Definiert die Slash-Command-Daten für den /warteraum Befehl.
      *
      * @return Die CommandData für den /warteraum Befehl
      */
-    public static CommandData getCommandData() {
-        // Option für die Playlist
+    @Override
+    public CommandData getCommandData() {
+        // Option für die Playlist (ohne Angabe wird die gespeicherte Playlist des Servers verwendet)
         OptionData playlistOption = new OptionData(OptionType.STRING, "playlist",
-                "Name der abzuspielenden Playlist", true)
+                "Name der abzuspielenden Playlist", false)
                 .setAutoComplete(true);
 
+        // Option für den Warteraum-Channel
+        OptionData channelOption = new OptionData(OptionType.CHANNEL, "channel",
+                "Sprachkanal, der als Warteraum verwendet werden soll", true)
+                .setChannelTypes(ChannelType.VOICE);
+
         // Subcommands erstellen
         SubcommandData activateCmd = new SubcommandData("aktivieren",
                 "Aktiviert den Warteraum-Modus mit einer bestimmten Playlist")
@@ -48,9 +64,13 @@ public class WarteraumCommand {
         SubcommandData statusCmd = new SubcommandData("status",
                 "Zeigt den aktuellen Status des Warteraum-Modus an");
 
+        SubcommandData channelCmd = new SubcommandData("kanal",
+                "Legt den Sprachkanal für den Warteraum auf diesem Server fest")
+                .addOptions(channelOption);
+
         // Hauptbefehl mit Subcommands erstellen
-        return Commands.slash("warteraum", "Verwaltet den automatischen Warteraum-Modus")
-                .addSubcommands(activateCmd, deactivateCmd, statusCmd);
+        return Commands.slash(getName(), getDescription())
+                .addSubcommands(activateCmd, deactivateCmd, statusCmd, channelCmd);
     }
 
     /**
@@ -58,36 +78,36 @@ public class WarteraumCommand {
      *
      * @param event Das SlashCommandInteractionEvent
      */
-    public static void handle(SlashCommandInteractionEvent event) {
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
         LOGGER.debug("WarteraumCommand ausgeführt von: {}", event.getUser().getName());
 
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
         // Prüfe Berechtigungen
         Member member = event.getMember();
         if (member == null || !member.hasPermission(Permission.ADMINISTRATOR)) {
-            event.reply("Du benötigst Administrator-Berechtigungen, um diesen Befehl zu verwenden.")
-                    .setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Du benötigst Administrator-Berechtigungen, um diesen Befehl zu verwenden.");
             return;
         }
 
         // Hole den Subcommand
         String subcommand = event.getSubcommandName();
         if (subcommand == null) {
-            event.reply("Bitte gib einen gültigen Unterbefehl an.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Bitte gib einen gültigen Unterbefehl an.");
             return;
         }
 
         WaitingRoomManager waitingRoomManager = WaitingRoomManager.getInstance();
 
         // Prüfe, ob der Warteraum konfiguriert ist
-        if (!waitingRoomManager.isWaitingRoomConfigured(guild) && !subcommand.equals("status")) {
-            event.reply("Der Warteraum ist nicht konfiguriert. Bitte konfiguriere zuerst den Channel in der config.properties.")
-                    .setEphemeral(true).queue();
+        if (!waitingRoomManager.isWaitingRoomConfigured(guild)
+                && !subcommand.equals("status") && !subcommand.equals("kanal")) {
+            InteractionReplies.replyEphemeral(event, "Der Warteraum ist nicht konfiguriert. Bitte lege zuerst mit `/warteraum kanal` einen Channel fest.");
             return;
         }
 
@@ -101,8 +121,11 @@ public class WarteraumCommand {
             case "status":
                 handleStatus(event, guild, waitingRoomManager);
                 break;
+            case "kanal":
+                handleChannel(event, guild, waitingRoomManager);
+                break;
             default:
-                event.reply("Unbekannter Unterbefehl: " + subcommand).setEphemeral(true).queue();
+                InteractionReplies.replyEphemeral(event, "Unbekannter Unterbefehl: " + subcommand);
         }
     }
 
@@ -115,13 +138,14 @@ public class WarteraumCommand {
      */
     private static void handleActivate(SlashCommandInteractionEvent event, Guild guild,
                                        WaitingRoomManager waitingRoomManager) {
-        String playlistName = event.getOption("playlist").getAsString();
+        String playlistName = event.getOption("playlist") != null
+                ? event.getOption("playlist").getAsString()
+                : GuildSettingsStore.getInstance().get(guild.getIdLong()).getWaitingRoomPlaylist();
 
         // Prüfe, ob die Playlist existiert
-        List<String> playlistFiles = musicLibraryManager.findAudioFilesInPlaylist(playlistName);
+        List<String> playlistFiles = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName);
         if (playlistFiles.isEmpty()) {
-            event.reply("❌ Keine Audiodateien in der Playlist '" + playlistName + "' gefunden.")
-                    .setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Keine Audiodateien in der Playlist '" + playlistName + "' gefunden.");
             return;
         }
 
@@ -130,18 +154,7 @@ public class WarteraumCommand {
 
         if (success) {
             // Hole den Channel-Namen für die Bestätigungsnachricht
-            String channelIdStr = Config.getProperty("warteraum.channel_id");
-            String channelName = "Unbekannt";
-
-            try {
-                long channelId = Long.parseLong(channelIdStr);
-                VoiceChannel channel = guild.getVoiceChannelById(channelId);
-                if (channel != null) {
-                    channelName = channel.getName();
-                }
-            } catch (NumberFormatException e) {
-                // Ignorieren
-            }
+            String channelName = getWaitingRoomChannelName(guild);
 
             WaitingRoomManager.WaitingRoomState state = waitingRoomManager.getWaitingRoomState(guild.getIdLong());
             String stateMsg = "";
@@ -152,13 +165,11 @@ public class WarteraumCommand {
                 stateMsg = "Der Bot überwacht den Channel und wird automatisch verbinden, sobald ein User beitritt.";
             }
 
-            event.reply("✅ Warteraum-Modus aktiviert! Die Playlist '" + playlistName + "' wird im Channel '" +
+            InteractionReplies.reply(event, "✅ Warteraum-Modus aktiviert! Die Playlist '" + playlistName + "' wird im Channel '" +
                             channelName + "' abgespielt.\n" + stateMsg + "\n" +
-                            "Der `/play` Befehl ist deaktiviert, solange der Warteraum-Modus aktiv ist.")
-                    .queue();
+                            "Der `/play` Befehl ist deaktiviert, solange der Warteraum-Modus aktiv ist.");
         } else {
-            event.reply("❌ Fehler beim Aktivieren des Warteraum-Modus. Überprüfe die Logs für Details.")
-                    .setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Fehler beim Aktivieren des Warteraum-Modus. Überprüfe die Logs für Details.");
         }
     }
 
@@ -173,7 +184,7 @@ public class WarteraumCommand {
                                          WaitingRoomManager waitingRoomManager) {
         // Prüfe, ob der Warteraum überhaupt aktiviert ist
         if (!waitingRoomManager.isWaitingRoomActive(guild.getIdLong())) {
-            event.reply("Der Warteraum-Modus ist nicht aktiviert.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Der Warteraum-Modus ist nicht aktiviert.");
             return;
         }
 
@@ -181,12 +192,11 @@ public class WarteraumCommand {
         boolean success = waitingRoomManager.deactivateWaitingRoom(guild);
 
         if (success) {
-            event.reply("✅ Warteraum-Modus vollständig deaktiviert! Der Bot wird nicht mehr automatisch " +
+            InteractionReplies.reply(event, "✅ Warteraum-Modus vollständig deaktiviert! Der Bot wird nicht mehr automatisch " +
                     "dem Warteraum beitreten.\n" +
-                    "Der `/play` Befehl ist wieder verfügbar.").queue();
+                    "Der `/play` Befehl ist wieder verfügbar.");
         } else {
-            event.reply("❌ Fehler beim Deaktivieren des Warteraum-Modus. Überprüfe die Logs für Details.")
-                    .setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "❌ Fehler beim Deaktivieren des Warteraum-Modus. Überprüfe die Logs für Details.");
         }
     }
 
@@ -207,23 +217,12 @@ public class WarteraumCommand {
         statusMessage.append("**Warteraum-Status:**\n");
 
         if (isConfigured) {
-            String channelIdStr = Config.getProperty("warteraum.channel_id");
-            String channelName = "Unbekannt";
-
-            try {
-                long channelId = Long.parseLong(channelIdStr);
-                VoiceChannel channel = guild.getVoiceChannelById(channelId);
-                if (channel != null) {
-                    channelName = channel.getName();
-                }
-            } catch (NumberFormatException e) {
-                // Ignorieren
-            }
+            String channelName = getWaitingRoomChannelName(guild);
 
             statusMessage.append("- Konfigurierter Kanal: ").append(channelName).append("\n");
-            statusMessage.append("- Timeout: ").append(Config.getProperty("warteraum.auto_leave_timeout", "60")).append(" Sekunden\n");
+            statusMessage.append("- Timeout: ").append(Config.get().waitingRoomTimeout()).append(" Sekunden\n");
         } else {
-            statusMessage.append("⚠️ Der Warteraum ist nicht konfiguriert. Bitte konfiguriere den Channel in der config.properties.\n");
+            statusMessage.append("⚠️ Der Warteraum ist nicht konfiguriert. Lege den Channel mit `/warteraum kanal` fest.\n");
         }
 
         statusMessage.append("- Status: ");
@@ -251,6 +250,38 @@ public class WarteraumCommand {
             statusMessage.append("\nVerwende `/warteraum aktivieren`, um den Warteraum-Modus zu starten.");
         }
 
-        event.reply(statusMessage.toString()).queue();
+        InteractionReplies.reply(event, statusMessage.toString());
+    }
+
+    /**
+     * Behandelt den Unterbefehl zum Festlegen des Warteraum-Channels.
+     *
+     * @param event Das SlashCommandInteractionEvent
+     * @param guild Die Guild, für die der Channel festgelegt werden soll
+     * @param waitingRoomManager Der WaitingRoomManager
+     */
+    private static void handleChannel(SlashCommandInteractionEvent event, Guild guild,
+                                      WaitingRoomManager waitingRoomManager) {
+        VoiceChannel channel = event.getOption("channel").getAsChannel().asVoiceChannel();
+
+        if (waitingRoomManager.isWaitingRoomActive(guild.getIdLong())) {
+            InteractionReplies.replyEphemeral(event, "Bitte deaktiviere zuerst den Warteraum-Modus, bevor du den Channel änderst.");
+            return;
+        }
+
+        waitingRoomManager.setWaitingRoomChannel(guild, channel);
+        InteractionReplies.reply(event, "✅ Der Warteraum für diesen Server ist jetzt der Channel '" + channel.getName() + "'.");
+    }
+
+    /**
+     * Gibt den Namen des konfigurierten Warteraum-Channels zurück.
+     *
+     * @param guild Die Guild, in der der Channel gesucht wird
+     * @return Der Channel-Name oder "Unbekannt", wenn der Channel nicht gefunden wurde
+     */
+    private static String getWaitingRoomChannelName(Guild guild) {
+        long channelId = WaitingRoomManager.getInstance().getWaitingRoomChannelId(guild.getIdLong());
+        VoiceChannel channel = channelId != 0L ? guild.getVoiceChannelById(channelId) : null;
+        return channel != null ? channel.getName() : "Unbekannt";
     }
-}
\ No newline at end of file
+}
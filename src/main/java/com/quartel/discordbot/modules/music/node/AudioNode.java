@@ -0,0 +1,441 @@
+package com.quartel.discordbot.modules.music.node;
+
+import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ein Audio-Node: spielt Tracks mit eigenen LavaPlayer-Playern ab und schickt die fertig kodierten Opus-Frames
+ * über das {@link AudioNodeProtocol} an den Bot.
+ * <p>
+ * Dekodieren, Resampling, Lautstärke und Opus-Kodierung laufen damit nicht mehr in der Bot-JVM. Der Node kann
+ * als eigener Prozess gestartet ({@link #main(String[])}) oder für Tests im Bot-Prozess auf 127.0.0.1 betrieben
+ * werden ({@code audio.node=loopback}). Jede Verbindung verwaltet ihre eigenen Player; bricht sie ab, werden sie
+ * verworfen und der Bot startet seine Tracks nach dem Wiederverbinden neu.
+ */
+public final class AudioNode {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudioNode.class);
+    private static final int DEFAULT_PORT = 9470;
+    private static final int MAX_TRACK_BYTES = 64 * 1024;
+
+    // Wartezeit des Sendethreads, wenn kein Player einen Frame bereit hatte
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AudioPlayerManager playerManager;
+    private final ServerSocket serverSocket;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCounter = new AtomicInteger();
+    private volatile boolean running = true;
+
+    private AudioNode(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.playerManager = new DefaultAudioPlayerManager();
+        // Dieselben Quellen wie im Bot, damit jeder dort geladene Track hier dekodiert werden kann
+        PlayerManager.registerSources(playerManager);
+    }
+
+    /**
+     * Startet einen Node, der auf der angegebenen Adresse Verbindungen annimmt.
+     *
+     * @param bindAddress Die Adresse, z. B. {@link InetAddress#getLoopbackAddress()}
+     * @param port        Der Port oder 0 für einen freien Port
+     * @return Der laufende Node
+     * @throws IOException wenn der Port nicht belegt werden kann
+     */
+    public static AudioNode start(InetAddress bindAddress, int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(bindAddress, port));
+
+        AudioNode node = new AudioNode(serverSocket);
+        Thread acceptor = new Thread(node::acceptLoop, "audio-node-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("Audio-Node lauscht auf {}:{}", bindAddress.getHostAddress(), node.getPort());
+        return node;
+    }
+
+    /**
+     * Startet einen eigenständigen Node.
+     * Optionen: {@code --port=<port>} (Standard {@value #DEFAULT_PORT}) und {@code --bind=<adresse>}
+     * (Standard 127.0.0.1).
+     *
+     * @param args Die Kommandozeilenargumente
+     * @throws Exception wenn der Node nicht gestartet werden kann
+     */
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--bind=")) {
+                bindAddress = InetAddress.getByName(arg.substring("--bind=".length()));
+            } else {
+                System.err.println("Unbekannte Option: " + arg);
+                System.err.println("Verwendung: AudioNode [--port=" + DEFAULT_PORT + "] [--bind=127.0.0.1]");
+                System.exit(2);
+            }
+        }
+
+        AudioNode node = start(bindAddress, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(node::shutdown, "audio-node-shutdown"));
+
+        // Der Annahme-Thread ist ein Daemon; der Hauptthread hält den Prozess am Leben
+        while (node.running) {
+            Thread.sleep(1000);
+        }
+    }
+
+    /**
+     * Gibt den belegten Port zurück.
+     *
+     * @return Der Port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Trennt alle Verbindungen und gibt die Player frei.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.debug("Fehler beim Schließen des Server-Sockets", e);
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        playerManager.shutdown();
+        LOGGER.info("Audio-Node beendet");
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket, connectionCounter.incrementAndGet());
+                connections.add(connection);
+                connection.start();
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.error("Fehler beim Annehmen einer Verbindung", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Eine Verbindung zu einem Bot-Prozess mit den Playern seiner Server.
+     * Der Lesethread führt die Befehle des Bots aus, der Sendethread holt reihum die Frames aller Player ab.
+     */
+    private final class Connection {
+        private final Socket socket;
+        private final int id;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Map<Long, NodePlayer> players = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+
+        private Connection(Socket socket, int id) throws IOException {
+            this.socket = socket;
+            this.id = id;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        private void start() {
+            Thread reader = new Thread(this::readLoop, "audio-node-read-" + id);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readLoop() {
+            try {
+                AudioNodeProtocol.readHandshake(in);
+                synchronized (out) {
+                    AudioNodeProtocol.writeHandshake(out);
+                }
+                LOGGER.info("Bot verbunden von {}", socket.getRemoteSocketAddress());
+
+                Thread sender = new Thread(this::sendLoop, "audio-node-send-" + id);
+                sender.setDaemon(true);
+                sender.start();
+
+                while (open) {
+                    byte type = in.readByte();
+                    long guildId = in.readLong();
+                    handle(type, guildId);
+                }
+            } catch (EOFException | SocketException e) {
+                if (open) {
+                    LOGGER.info("Bot-Verbindung {} getrennt", socket.getRemoteSocketAddress());
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Fehler in der Bot-Verbindung {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        private void handle(byte type, long guildId) throws IOException {
+            switch (type) {
+                case AudioNodeProtocol.PLAY -> {
+                    int seq = in.readInt();
+                    int volume = in.readInt();
+                    boolean paused = in.readBoolean();
+                    int window = in.readInt();
+                    byte[] encoded = AudioNodeProtocol.readBytes(in, MAX_TRACK_BYTES);
+                    players.computeIfAbsent(guildId, NodePlayer::new).play(seq, volume, paused, window, encoded);
+                }
+                case AudioNodeProtocol.STOP -> {
+                    NodePlayer player = players.get(guildId);
+                    if (player != null) {
+                        player.stop();
+                    }
+                }
+                case AudioNodeProtocol.PAUSE -> {
+                    boolean paused = in.readBoolean();
+                    NodePlayer player = players.get(guildId);
+                    if (player != null) {
+                        player.player.setPaused(paused);
+                    }
+                }
+                case AudioNodeProtocol.VOLUME -> {
+                    int volume = in.readInt();
+                    NodePlayer player = players.get(guildId);
+                    if (player != null) {
+                        player.player.setVolume(volume);
+                    }
+                }
+                case AudioNodeProtocol.CREDIT -> {
+                    int credits = in.readInt();
+                    NodePlayer player = players.get(guildId);
+                    if (player != null) {
+                        player.credit(credits);
+                    }
+                }
+                case AudioNodeProtocol.DESTROY -> {
+                    NodePlayer player = players.remove(guildId);
+                    if (player != null) {
+                        player.player.destroy();
+                    }
+                }
+                default -> throw new IOException("Unbekannter Nachrichtentyp " + type);
+            }
+        }
+
+        private void sendLoop() {
+            try {
+                while (open) {
+                    boolean sent = false;
+                    for (NodePlayer player : players.values()) {
+                        sent |= player.sendFrames();
+                    }
+                    synchronized (out) {
+                        out.flush();
+                    }
+                    if (!sent) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                }
+            } catch (IOException e) {
+                if (open) {
+                    LOGGER.warn("Senden an {} fehlgeschlagen: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                }
+                close();
+            }
+        }
+
+        private void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.debug("Fehler beim Schließen der Bot-Verbindung", e);
+            }
+            players.values().forEach(player -> player.player.destroy());
+            players.clear();
+        }
+
+        /**
+         * Ein LavaPlayer-Player für einen Server samt Tracknummer und freigegebenen Frames.
+         * Änderungen am Track und das Abholen der Frames sind über den Player synchronisiert.
+         */
+        private final class NodePlayer extends AudioEventAdapter {
+            private final long guildId;
+            private final AudioPlayer player;
+            private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+            private final MutableAudioFrame frame = new MutableAudioFrame();
+            private AudioTrack track;
+            private int seq;
+            private int credits;
+
+            private NodePlayer(long guildId) {
+                this.guildId = guildId;
+                this.player = playerManager.createPlayer();
+                this.frame.setBuffer(buffer);
+                player.addListener(this);
+            }
+
+            private synchronized void play(int seq, int volume, boolean paused, int window, byte[] encoded) {
+                DecodedTrackHolder holder;
+                try {
+                    holder = playerManager.decodeTrack(new MessageInput(new ByteArrayInputStream(encoded)));
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warn("Track für Server {} nicht dekodierbar: {}", guildId, e.getMessage());
+                    holder = null;
+                }
+                if (holder == null || holder.decodedTrack == null) {
+                    stop();
+                    sendException(seq, "Track kann vom Audio-Node nicht dekodiert werden", FriendlyException.Severity.COMMON);
+                    sendEnd(seq, AudioTrackEndReason.LOAD_FAILED);
+                    return;
+                }
+
+                // Track und Nummer vor dem Start setzen: das Ende des ersetzten Tracks wird dann nicht gemeldet
+                this.seq = seq;
+                this.track = holder.decodedTrack;
+                this.credits = window;
+                player.setVolume(volume);
+                player.setPaused(paused);
+                player.playTrack(track);
+            }
+
+            private synchronized void stop() {
+                track = null;
+                credits = 0;
+                player.stopTrack();
+            }
+
+            private synchronized void credit(int count) {
+                credits += count;
+            }
+
+            /**
+             * Schickt so viele bereitliegende Frames, wie der Bot freigegeben hat.
+             *
+             * @return true, wenn mindestens ein Frame geschickt wurde
+             */
+            private synchronized boolean sendFrames() throws IOException {
+                boolean sent = false;
+                while (credits > 0 && track != null && player.provide(frame)) {
+                    synchronized (out) {
+                        AudioNodeProtocol.writeHeader(out, AudioNodeProtocol.FRAME, guildId);
+                        out.writeInt(seq);
+                        out.writeLong(frame.getTimecode());
+                        AudioNodeProtocol.writeBytes(out, buffer.array(), frame.getDataLength());
+                    }
+                    credits--;
+                    sent = true;
+                }
+                return sent;
+            }
+
+            @Override
+            public void onTrackEnd(AudioPlayer player, AudioTrack endedTrack, AudioTrackEndReason endReason) {
+                // Gestoppte und ersetzte Tracks meldet der Bot selbst
+                if (endedTrack == track) {
+                    sendEnd(seq, endReason);
+                }
+            }
+
+            @Override
+            public void onTrackException(AudioPlayer player, AudioTrack failedTrack, FriendlyException exception) {
+                if (failedTrack == track) {
+                    sendException(seq, exception.getMessage(), exception.severity);
+                }
+            }
+
+            @Override
+            public void onTrackStuck(AudioPlayer player, AudioTrack stuckTrack, long thresholdMs) {
+                if (stuckTrack == track) {
+                    send(out -> {
+                        AudioNodeProtocol.writeHeader(out, AudioNodeProtocol.STUCK, guildId);
+                        out.writeInt(seq);
+                        out.writeLong(thresholdMs);
+                    });
+                }
+            }
+
+            private void sendEnd(int seq, AudioTrackEndReason endReason) {
+                send(out -> {
+                    AudioNodeProtocol.writeHeader(out, AudioNodeProtocol.END, guildId);
+                    out.writeInt(seq);
+                    out.writeUTF(endReason.name());
+                });
+            }
+
+            private void sendException(int seq, String message, FriendlyException.Severity severity) {
+                send(out -> {
+                    AudioNodeProtocol.writeHeader(out, AudioNodeProtocol.EXCEPTION, guildId);
+                    out.writeInt(seq);
+                    out.writeUTF(severity.name());
+                    out.writeUTF(message != null ? message : "Unbekannter Fehler");
+                });
+            }
+        }
+
+        /**
+         * Schreibt ein Ereignis; der Sendethread schickt es mit dem nächsten Durchlauf ab.
+         */
+        private void send(MessageWriter writer) {
+            try {
+                synchronized (out) {
+                    writer.write(out);
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Ereignis an getrennten Bot nicht zugestellt", e);
+            }
+        }
+    }
+
+    /**
+     * Schreibt eine Nachricht in den Ausgabestrom einer Verbindung.
+     */
+    @FunctionalInterface
+    interface MessageWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,315 @@
+package com.quartel.discordbot.modules.music.node;
+
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Die Verbindung des Bots zu einem Audio-Node.
+ * <p>
+ * Der {@code PlayerManager} legt hier pro Server einen {@link RemoteAudioPlayer} an; Laden und Warteschlange
+ * bleiben im Bot, nur das Abspielen übernimmt der Node. Befehle an den Node werden von einem eigenen Thread
+ * geschrieben, damit weder Befehle noch der Audio-Thread von JDA auf das Netzwerk warten. Bricht die Verbindung
+ * ab, wird sie mit wachsender Pause neu aufgebaut und jeder laufende Track an seiner letzten Position neu
+ * gestartet; bis dahin liefern die Player keine Frames.
+ */
+public final class AudioNodeClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudioNodeClient.class);
+    private static final int MAX_FRAME_BYTES = 4096;
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final String[] GAUGES = {"audio_node.connected", "audio_node.buffered_frames",
+            "audio_node.reconnects", "audio_node.frames_received", "audio_node.frames_dropped"};
+
+    private final String host;
+    private final int port;
+    private final int window;
+    private final AudioPlayerManager playerManager;
+    private final Map<Long, RemoteAudioPlayer> players = new ConcurrentHashMap<>();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    // Schreibt die Befehle an den Node in Aufrufreihenfolge
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audio-node-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Meldet Ende, Fehler und Hänger des Nodes nacheinander an die Listener der Player
+    private final ExecutorService events = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audio-node-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Thread connector;
+    private volatile Socket socket;
+    private volatile DataOutputStream out;
+    private volatile boolean running = true;
+
+    /**
+     * Schreibt die Nutzdaten einer Nachricht an den Node.
+     */
+    @FunctionalInterface
+    interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Erstellt den Client und beginnt im Hintergrund, sich mit dem Node zu verbinden.
+     *
+     * @param host          Der Host des Nodes
+     * @param port          Der Port des Nodes
+     * @param window        Die Anzahl der Frames, die der Node pro Server vorausschicken darf
+     * @param playerManager Der AudioPlayerManager des Bots, mit dem Tracks für den Node kodiert werden
+     */
+    public AudioNodeClient(String host, int port, int window, AudioPlayerManager playerManager) {
+        this.host = host;
+        this.port = port;
+        this.window = Math.max(2, window);
+        this.playerManager = playerManager;
+        this.connector = new Thread(this::connectLoop, "audio-node-client");
+        this.connector.setDaemon(true);
+        this.connector.start();
+        registerGauges();
+    }
+
+    /**
+     * Gibt den Player eines Servers zurück oder legt ihn an.
+     *
+     * @param guildId Die Server-ID
+     * @return Der Player des Servers
+     */
+    public RemoteAudioPlayer createPlayer(long guildId) {
+        return players.computeIfAbsent(guildId, id -> new RemoteAudioPlayer(this, id, window));
+    }
+
+    /**
+     * Prüft, ob die Verbindung zum Node besteht.
+     *
+     * @return true, wenn verbunden
+     */
+    public boolean isConnected() {
+        return out != null;
+    }
+
+    /**
+     * Trennt die Verbindung und beendet die Threads des Clients.
+     */
+    public void shutdown() {
+        running = false;
+        connector.interrupt();
+        closeSocket();
+        writer.shutdown();
+        events.shutdown();
+        for (String gauge : GAUGES) {
+            MetricsRegistry.getInstance().unregisterGauge(gauge);
+        }
+        LOGGER.info("Verbindung zum Audio-Node {}:{} beendet", host, port);
+    }
+
+    AudioPlayerManager getPlayerManager() {
+        return playerManager;
+    }
+
+    void removePlayer(long guildId) {
+        players.remove(guildId);
+    }
+
+    /**
+     * Stellt eine Nachricht zum Senden an; ohne Verbindung wird sie verworfen.
+     *
+     * @param guildId Die Server-ID
+     * @param type    Der Nachrichtentyp
+     * @param payload Die Nutzdaten oder null
+     */
+    void send(long guildId, byte type, Payload payload) {
+        onWriter(() -> {
+            DataOutputStream stream = out;
+            if (stream == null) {
+                return;
+            }
+            try {
+                AudioNodeProtocol.writeHeader(stream, type, guildId);
+                if (payload != null) {
+                    payload.write(stream);
+                }
+                stream.flush();
+            } catch (IOException e) {
+                LOGGER.debug("Senden an den Audio-Node fehlgeschlagen", e);
+                closeSocket();
+            }
+        });
+    }
+
+    /**
+     * Führt eine Ereigniszustellung auf dem Ereignis-Thread aus.
+     *
+     * @param task Die Zustellung
+     */
+    void dispatch(Runnable task) {
+        try {
+            events.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Client wird gerade beendet
+        }
+    }
+
+    private void onWriter(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Client wird gerade beendet
+        }
+    }
+
+    private void connectLoop() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Socket connection = new Socket()) {
+                connection.connect(new InetSocketAddress(host, port), 5000);
+                connection.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                AudioNodeProtocol.writeHandshake(stream);
+                AudioNodeProtocol.readHandshake(in);
+
+                socket = connection;
+                if (connectedBefore) {
+                    reconnects.incrementAndGet();
+                }
+                connectedBefore = true;
+                backoff = MIN_BACKOFF_MILLIS;
+
+                // Die Verbindung über den Schreib-Thread freigeben, damit Neustarts nach allen älteren Befehlen kommen
+                onWriter(() -> out = stream);
+                LOGGER.info("Mit Audio-Node {}:{} verbunden", host, port);
+                players.values().forEach(RemoteAudioPlayer::resync);
+
+                readLoop(in);
+            } catch (EOFException | SocketException e) {
+                if (running && socket != null) {
+                    LOGGER.warn("Verbindung zum Audio-Node {}:{} getrennt, verbinde neu", host, port);
+                } else if (running) {
+                    logUnreachable(backoff, e);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logUnreachable(backoff, e);
+                }
+            } finally {
+                socket = null;
+                onWriter(() -> out = null);
+            }
+
+            if (!running) {
+                break;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void logUnreachable(long backoff, IOException e) {
+        // Nur den ersten Fehlversuch einer Serie melden, die weiteren bis zur maximalen Pause auf Debug
+        if (backoff == MIN_BACKOFF_MILLIS || backoff == MAX_BACKOFF_MILLIS) {
+            LOGGER.warn("Audio-Node {}:{} nicht erreichbar: {}", host, port, e.getMessage());
+        } else {
+            LOGGER.debug("Audio-Node {}:{} nicht erreichbar: {}", host, port, e.getMessage());
+        }
+    }
+
+    private void readLoop(DataInputStream in) throws IOException {
+        while (running) {
+            byte type = in.readByte();
+            long guildId = in.readLong();
+            int seq = in.readInt();
+            RemoteAudioPlayer player = players.get(guildId);
+            switch (type) {
+                case AudioNodeProtocol.FRAME -> {
+                    long timecode = in.readLong();
+                    byte[] data = AudioNodeProtocol.readBytes(in, MAX_FRAME_BYTES);
+                    framesReceived.incrementAndGet();
+                    if (player != null && !player.onFrame(seq, timecode, data)) {
+                        framesDropped.incrementAndGet();
+                    }
+                }
+                case AudioNodeProtocol.END -> {
+                    String reason = in.readUTF();
+                    if (player != null) {
+                        player.onEnd(seq, reason);
+                    }
+                }
+                case AudioNodeProtocol.EXCEPTION -> {
+                    String severity = in.readUTF();
+                    String message = in.readUTF();
+                    if (player != null) {
+                        dispatch(() -> player.onException(seq, parseSeverity(severity), message));
+                    }
+                }
+                case AudioNodeProtocol.STUCK -> {
+                    long thresholdMs = in.readLong();
+                    if (player != null) {
+                        dispatch(() -> player.onStuck(seq, thresholdMs));
+                    }
+                }
+                default -> throw new IOException("Unbekannter Nachrichtentyp " + type);
+            }
+        }
+    }
+
+    private static FriendlyException.Severity parseSeverity(String severity) {
+        try {
+            return FriendlyException.Severity.valueOf(severity);
+        } catch (IllegalArgumentException e) {
+            return FriendlyException.Severity.FAULT;
+        }
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                LOGGER.debug("Fehler beim Schließen der Verbindung zum Audio-Node", e);
+            }
+        }
+    }
+
+    private void registerGauges() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.registerGauge("audio_node.connected", "Mit dem Audio-Node verbunden", () -> isConnected() ? 1 : 0);
+        metrics.registerGauge("audio_node.buffered_frames", "Vom Audio-Node gepufferte Frames aller Server",
+                () -> players.values().stream().mapToInt(RemoteAudioPlayer::getBufferedFrames).sum());
+        metrics.registerCounter("audio_node.reconnects", "Wiederverbindungen zum Audio-Node", reconnects::get);
+        metrics.registerCounter("audio_node.frames_received", "Vom Audio-Node empfangene Frames", framesReceived::get);
+        metrics.registerCounter("audio_node.frames_dropped", "Wegen vollem Puffer verworfene Frames des Audio-Nodes",
+                framesDropped::get);
+    }
+}
@@ -0,0 +1,125 @@
+package com.quartel.discordbot.modules.music.node;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Das Binärprotokoll zwischen Bot und Audio-Node über eine TCP-Verbindung.
+ * <p>
+ * Nach dem Verbindungsaufbau senden beide Seiten {@link #MAGIC} und {@link #VERSION}. Danach beginnt jede
+ * Nachricht mit ihrem Typ und der Server-ID, über die mehrere Player auf einer Verbindung gebündelt werden.
+ * <ul>
+ *   <li>Bot an Node: {@link #PLAY}, {@link #STOP}, {@link #PAUSE}, {@link #VOLUME}, {@link #CREDIT},
+ *   {@link #DESTROY}</li>
+ *   <li>Node an Bot: {@link #FRAME}, {@link #END}, {@link #EXCEPTION}, {@link #STUCK}</li>
+ * </ul>
+ * Jeder Track erhält vom Bot eine fortlaufende Nummer; Frames und Ereignisse des Nodes tragen sie mit, damit der
+ * Bot Nachzügler eines bereits ersetzten Tracks verwerfen kann. Der Node schickt nur so viele Frames, wie der Bot
+ * mit {@link #PLAY} und {@link #CREDIT} freigegeben hat.
+ */
+public final class AudioNodeProtocol {
+    /** Kennung am Anfang jeder Verbindung ("ADLN"). */
+    public static final int MAGIC = 0x41444C4E;
+    /** Version des Protokolls; beide Seiten müssen übereinstimmen. */
+    public static final int VERSION = 1;
+
+    /** Startet einen Track: Nummer, Lautstärke, Pause, Frame-Fenster und der mit LavaPlayer kodierte Track. */
+    public static final byte PLAY = 1;
+    /** Stoppt die Wiedergabe. */
+    public static final byte STOP = 2;
+    /** Pausiert die Wiedergabe oder setzt sie fort. */
+    public static final byte PAUSE = 3;
+    /** Setzt die Lautstärke. */
+    public static final byte VOLUME = 4;
+    /** Gibt weitere Frames frei, nachdem der Bot gepufferte Frames verbraucht hat. */
+    public static final byte CREDIT = 5;
+    /** Entfernt den Player des Servers. */
+    public static final byte DESTROY = 6;
+
+    /** Ein Opus-Frame: Tracknummer, Zeitstempel und Daten. */
+    public static final byte FRAME = 11;
+    /** Der Track ist beendet: Tracknummer und Grund. */
+    public static final byte END = 12;
+    /** Fehler bei der Wiedergabe: Tracknummer, Schweregrad und Meldung. */
+    public static final byte EXCEPTION = 13;
+    /** Der Track hängt: Tracknummer und Schwellwert in Millisekunden. */
+    public static final byte STUCK = 14;
+
+    private AudioNodeProtocol() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Sendet die Kennung und Version dieser Seite.
+     *
+     * @param out Der Ausgabestrom der Verbindung
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public static void writeHandshake(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+    }
+
+    /**
+     * Liest und prüft Kennung und Version der Gegenseite.
+     *
+     * @param in Der Eingabestrom der Verbindung
+     * @throws IOException bei Verbindungsfehlern oder wenn die Gegenseite kein passender Audio-Node ist
+     */
+    public static void readHandshake(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Gegenseite ist kein Audio-Node");
+        }
+        if (version != VERSION) {
+            throw new IOException("Protokollversion " + version + " wird nicht unterstützt, erwartet " + VERSION);
+        }
+    }
+
+    /**
+     * Schreibt den Kopf einer Nachricht.
+     *
+     * @param out     Der Ausgabestrom der Verbindung
+     * @param type    Der Nachrichtentyp
+     * @param guildId Die Server-ID
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public static void writeHeader(DataOutputStream out, byte type, long guildId) throws IOException {
+        out.writeByte(type);
+        out.writeLong(guildId);
+    }
+
+    /**
+     * Schreibt ein Byte-Array mit vorangestellter Länge.
+     *
+     * @param out    Der Ausgabestrom der Verbindung
+     * @param data   Die Daten
+     * @param length Die Anzahl der zu schreibenden Bytes
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public static void writeBytes(DataOutputStream out, byte[] data, int length) throws IOException {
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+
+    /**
+     * Liest ein mit {@link #writeBytes} geschriebenes Byte-Array.
+     *
+     * @param in        Der Eingabestrom der Verbindung
+     * @param maxLength Die größte zulässige Länge
+     * @return Die gelesenen Daten
+     * @throws IOException bei Verbindungsfehlern oder einer unzulässigen Länge
+     */
+    public static byte[] readBytes(DataInputStream in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new IOException("Ungültige Länge " + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+}
@@ -0,0 +1,442 @@
+package com.quartel.discordbot.modules.music.node;
+
+import com.sedmelluq.discord.lavaplayer.filter.PcmFilterFactory;
+import com.sedmelluq.discord.lavaplayer.format.StandardAudioDataFormats;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventListener;
+import com.sedmelluq.discord.lavaplayer.player.event.PlayerPauseEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.PlayerResumeEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.TrackEndEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.TrackExceptionEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.TrackStartEvent;
+import com.sedmelluq.discord.lavaplayer.player.event.TrackStuckEvent;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrame;
+import com.sedmelluq.discord.lavaplayer.track.playback.ImmutableAudioFrame;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ein {@link AudioPlayer}, dessen Tracks ein Audio-Node abspielt.
+ * <p>
+ * Für {@code TrackScheduler}, Befehle und {@code AudioPlayerSendHandler} verhält er sich wie ein lokaler
+ * LavaPlayer-Player: Start-, Ersetzungs-, Stopp- und Pause-Ereignisse werden sofort im aufrufenden Thread
+ * gemeldet, Ende, Fehler und Hänger des Nodes nacheinander auf einem eigenen Thread. Die Frames des Nodes
+ * werden in einem kleinen Puffer gehalten; {@link #provide(MutableAudioFrame)} entnimmt sie ohne zu warten und
+ * gibt verbrauchte Plätze per {@link AudioNodeProtocol#CREDIT} frei. Die Position des Tracks folgt dem
+ * Zeitstempel des zuletzt gelieferten Frames, damit Fortschrittsanzeigen und ein Neustart nach dem Wiederverbinden
+ * an der richtigen Stelle weitermachen.
+ */
+public class RemoteAudioPlayer implements AudioPlayer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteAudioPlayer.class);
+
+    // Nicht unterstützte Einstellungen nur beim ersten Aufruf melden
+    private static final AtomicBoolean FILTER_WARNED = new AtomicBoolean();
+    private static final AtomicBoolean BUFFER_WARNED = new AtomicBoolean();
+
+    private final AudioNodeClient client;
+    private final long guildId;
+    private final int window;
+    private final int creditBatch;
+    private final ArrayBlockingQueue<NodeFrame> frames;
+    private final List<AudioEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Verbrauchte Frames, die dem Node noch nicht gemeldet wurden
+    private final AtomicInteger pendingCredits = new AtomicInteger();
+
+    private volatile AudioTrack playingTrack;
+    private volatile int seq;
+    private volatile int volume = 100;
+    private volatile boolean paused;
+
+    // Vom Node gemeldetes Ende, das nach dem Abspielen der gepufferten Frames zugestellt wird
+    private volatile AudioTrackEndReason pendingEnd;
+    private int pendingEndSeq;
+
+    /**
+     * Ein Frame des Nodes.
+     *
+     * @param seq      Die Nummer des Tracks
+     * @param timecode Die Position im Track in Millisekunden
+     * @param data     Die Opus-Daten
+     */
+    private record NodeFrame(int seq, long timecode, byte[] data) {
+    }
+
+    /**
+     * Erstellt einen Player; wird vom {@link AudioNodeClient} angelegt.
+     *
+     * @param client  Die Verbindung zum Node
+     * @param guildId Die Server-ID
+     * @param window  Die Anzahl der Frames, die der Node vorausschicken darf
+     */
+    RemoteAudioPlayer(AudioNodeClient client, long guildId, int window) {
+        this.client = client;
+        this.guildId = guildId;
+        this.window = window;
+        this.creditBatch = Math.max(1, window / 5);
+        this.frames = new ArrayBlockingQueue<>(window);
+    }
+
+    @Override
+    public AudioTrack getPlayingTrack() {
+        return playingTrack;
+    }
+
+    @Override
+    public void playTrack(AudioTrack track) {
+        startTrack(track, false);
+    }
+
+    @Override
+    public boolean startTrack(AudioTrack track, boolean noInterrupt) {
+        AudioTrack previous;
+        synchronized (this) {
+            if (noInterrupt && playingTrack != null) {
+                return false;
+            }
+            previous = playingTrack;
+            playingTrack = track;
+            seq++;
+            frames.clear();
+            pendingCredits.set(0);
+            pendingEnd = null;
+
+            if (track != null) {
+                sendPlay(track);
+            } else if (previous != null) {
+                client.send(guildId, AudioNodeProtocol.STOP, null);
+            }
+        }
+
+        // Wie LavaPlayer: erst das Ende des bisherigen, dann der Start des neuen Tracks
+        if (previous != null) {
+            dispatch(new TrackEndEvent(this, previous,
+                    track != null ? AudioTrackEndReason.REPLACED : AudioTrackEndReason.STOPPED));
+        }
+        if (track == null) {
+            return false;
+        }
+        dispatch(new TrackStartEvent(this, track));
+        return true;
+    }
+
+    @Override
+    public void stopTrack() {
+        startTrack(null, false);
+    }
+
+    @Override
+    public int getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setVolume(int volume) {
+        this.volume = Math.max(0, Math.min(1000, volume));
+        int value = this.volume;
+        client.send(guildId, AudioNodeProtocol.VOLUME, out -> out.writeInt(value));
+    }
+
+    /**
+     * Filter werden vom Audio-Node nicht unterstützt; der Aufruf wird ignoriert und einmalig gemeldet.
+     */
+    @Override
+    public void setFilterFactory(PcmFilterFactory factory) {
+        if (factory != null && FILTER_WARNED.compareAndSet(false, true)) {
+            LOGGER.warn("Filter werden vom Audio-Node nicht unterstützt und ignoriert");
+        }
+    }
+
+    /**
+     * Der Puffer wird über {@code audio.node.buffer_frames} eingestellt; der Aufruf wird ignoriert und einmalig
+     * gemeldet.
+     */
+    @Override
+    public void setFrameBufferDuration(Integer duration) {
+        if (duration != null && BUFFER_WARNED.compareAndSet(false, true)) {
+            LOGGER.warn("Die Puffergröße des Audio-Nodes wird über audio.node.buffer_frames eingestellt, "
+                    + "setFrameBufferDuration wird ignoriert");
+        }
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void setPaused(boolean value) {
+        synchronized (this) {
+            if (paused == value) {
+                return;
+            }
+            paused = value;
+            client.send(guildId, AudioNodeProtocol.PAUSE, out -> out.writeBoolean(value));
+        }
+        dispatch(value ? new PlayerPauseEvent(this) : new PlayerResumeEvent(this));
+    }
+
+    @Override
+    public void destroy() {
+        stopTrack();
+        client.send(guildId, AudioNodeProtocol.DESTROY, null);
+        client.removePlayer(guildId);
+    }
+
+    @Override
+    public void addListener(AudioEventListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(AudioEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void checkCleanup(long threshold) {
+        // Verwaiste Tracks räumt der Node beim Trennen der Verbindung auf
+    }
+
+    @Override
+    public AudioFrame provide() {
+        NodeFrame frame = nextFrame();
+        return frame != null ? toAudioFrame(frame) : null;
+    }
+
+    @Override
+    public AudioFrame provide(long timeout, TimeUnit unit) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            NodeFrame frame = nextFrame();
+            if (frame != null) {
+                return toAudioFrame(frame);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(5)));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public boolean provide(MutableAudioFrame targetFrame) {
+        NodeFrame frame = nextFrame();
+        if (frame == null) {
+            return false;
+        }
+        targetFrame.setTimecode(frame.timecode());
+        targetFrame.setVolume(volume);
+        targetFrame.setFormat(StandardAudioDataFormats.DISCORD_OPUS);
+        targetFrame.store(frame.data(), 0, frame.data().length);
+        return true;
+    }
+
+    @Override
+    public boolean provide(MutableAudioFrame targetFrame, long timeout, TimeUnit unit)
+            throws TimeoutException, InterruptedException {
+        AudioFrame frame = provide(timeout, unit);
+        targetFrame.setTimecode(frame.getTimecode());
+        targetFrame.setVolume(frame.getVolume());
+        targetFrame.setFormat(frame.getFormat());
+        targetFrame.store(frame.getData(), 0, frame.getDataLength());
+        return true;
+    }
+
+    /**
+     * Entnimmt den nächsten Frame des aktuellen Tracks, ohne zu warten.
+     * Läuft im Audio-Thread von JDA und darf deshalb weder blockieren noch auf das Netzwerk warten.
+     */
+    private NodeFrame nextFrame() {
+        AudioTrack track = playingTrack;
+        if (track == null || paused) {
+            return null;
+        }
+
+        int currentSeq = seq;
+        NodeFrame frame;
+        do {
+            frame = frames.poll();
+        } while (frame != null && frame.seq() != currentSeq);
+
+        if (frame == null) {
+            // Puffer leer: ein bereits gemeldetes Ende kann jetzt zugestellt werden
+            completePendingEnd(currentSeq);
+            return null;
+        }
+
+        track.setPosition(frame.timecode());
+        if (pendingCredits.incrementAndGet() >= creditBatch) {
+            int credits = pendingCredits.getAndSet(0);
+            if (credits > 0) {
+                client.send(guildId, AudioNodeProtocol.CREDIT, out -> out.writeInt(credits));
+            }
+        }
+        return frame;
+    }
+
+    private ImmutableAudioFrame toAudioFrame(NodeFrame frame) {
+        return new ImmutableAudioFrame(frame.timecode(), frame.data(), volume, StandardAudioDataFormats.DISCORD_OPUS);
+    }
+
+    /**
+     * Sendet den Track mit seiner aktuellen Position, Lautstärke und Pause an den Node.
+     * Muss unter der Sperre dieses Players aufgerufen werden, nachdem {@link #seq} erhöht wurde.
+     */
+    private void sendPlay(AudioTrack track) {
+        byte[] encoded;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            MessageOutput output = new MessageOutput(buffer);
+            client.getPlayerManager().encodeTrack(output, track);
+            output.commitMessage();
+            encoded = buffer.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Track {} kann nicht an den Audio-Node übergeben werden", track.getInfo().title, e);
+            int failedSeq = seq;
+            client.dispatch(() -> {
+                onException(failedSeq, FriendlyException.Severity.FAULT, "Track kann nicht übertragen werden");
+                onEnd(failedSeq, AudioTrackEndReason.LOAD_FAILED.name());
+            });
+            return;
+        }
+
+        int playSeq = seq;
+        int playVolume = volume;
+        boolean playPaused = paused;
+        client.send(guildId, AudioNodeProtocol.PLAY, out -> {
+            out.writeInt(playSeq);
+            out.writeInt(playVolume);
+            out.writeBoolean(playPaused);
+            out.writeInt(window);
+            AudioNodeProtocol.writeBytes(out, encoded, encoded.length);
+        });
+    }
+
+    /**
+     * Startet den aktuellen Track nach dem Wiederverbinden erneut auf dem Node, ab der zuletzt gespielten Position.
+     */
+    synchronized void resync() {
+        frames.clear();
+        pendingCredits.set(0);
+        AudioTrack track = playingTrack;
+        if (track != null) {
+            seq++;
+            pendingEnd = null;
+            LOGGER.info("Setze Wiedergabe für Server {} bei {} ms fort", guildId, track.getPosition());
+            sendPlay(track);
+        }
+    }
+
+    /**
+     * Nimmt einen Frame des Nodes an. Läuft im Lesethread des Clients.
+     *
+     * @return false, wenn der Puffer voll war und der Frame verworfen wurde
+     */
+    boolean onFrame(int frameSeq, long timecode, byte[] data) {
+        if (frameSeq != seq) {
+            return true;
+        }
+        return frames.offer(new NodeFrame(frameSeq, timecode, data));
+    }
+
+    /**
+     * Merkt sich das vom Node gemeldete Ende; zugestellt wird es, sobald die gepufferten Frames abgespielt sind.
+     */
+    void onEnd(int endSeq, String reason) {
+        AudioTrackEndReason endReason;
+        try {
+            endReason = AudioTrackEndReason.valueOf(reason);
+        } catch (IllegalArgumentException e) {
+            endReason = AudioTrackEndReason.LOAD_FAILED;
+        }
+        synchronized (this) {
+            if (endSeq != seq) {
+                return;
+            }
+            pendingEnd = endReason;
+            pendingEndSeq = endSeq;
+        }
+        if (frames.isEmpty()) {
+            completePendingEnd(endSeq);
+        }
+    }
+
+    void onException(int exceptionSeq, FriendlyException.Severity severity, String message) {
+        AudioTrack track = playingTrack;
+        if (exceptionSeq == seq && track != null) {
+            dispatch(new TrackExceptionEvent(this, track, new FriendlyException(message, severity, null)));
+        }
+    }
+
+    void onStuck(int stuckSeq, long thresholdMs) {
+        AudioTrack track = playingTrack;
+        if (stuckSeq == seq && track != null) {
+            dispatch(new TrackStuckEvent(this, track, thresholdMs, new StackTraceElement[0]));
+        }
+    }
+
+    /**
+     * Stellt ein gemeldetes Ende zu, wenn es noch zum aktuellen Track gehört.
+     * Die Zustellung läuft über den Ereignis-Thread des Clients, nie im Audio-Thread.
+     */
+    private void completePendingEnd(int endSeq) {
+        if (pendingEnd == null) {
+            return;
+        }
+        AudioTrack track;
+        AudioTrackEndReason reason;
+        synchronized (this) {
+            if (pendingEnd == null || pendingEndSeq != endSeq || seq != endSeq) {
+                return;
+            }
+            reason = pendingEnd;
+            track = playingTrack;
+            pendingEnd = null;
+            playingTrack = null;
+        }
+        if (track != null) {
+            client.dispatch(() -> dispatch(new TrackEndEvent(this, track, reason)));
+        }
+    }
+
+    private void dispatch(AudioEvent event) {
+        for (AudioEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (Exception e) {
+                LOGGER.error("Fehler in einem Listener des Audio-Node-Players für Server {}", guildId, e);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der gepufferten Frames zurück.
+     *
+     * @return Die Frames im Puffer
+     */
+    int getBufferedFrames() {
+        return frames.size();
+    }
+}
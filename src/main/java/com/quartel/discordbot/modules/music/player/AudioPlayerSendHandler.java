@@ -1,30 +1,56 @@
 package com.quartel.discordbot.modules.music.player;
 
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.metrics.jfr.AudioFrameEvent;
+import com.quartel.discordbot.trace.FrameRecorder;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Diese Klasse verbindet den LavaPlayer mit dem JDA Audio-System.
  * Sie wandelt die Audio-Daten vom LavaPlayer in ein Format um, das JDA verarbeiten kann.
+ * Gelieferte und fehlende Frames werden über alle Server hinweg gezählt; das Zählen allokiert nichts.
+ * Mit {@code trace.frames.enabled} werden die Frames zusätzlich für die Wiedergabe im Benchmark aufgezeichnet.
  */
 public class AudioPlayerSendHandler implements AudioSendHandler {
+    // Zähler über alle Server; jeder Audio-Thread schreibt in eine eigene Zelle, gelesen wird nur beim Abruf der Metriken
+    private static final LongAdder FRAMES_PROVIDED = new LongAdder();
+    private static final LongAdder FRAMES_MISSED = new LongAdder();
+
+    // Prüft ohne Allokation, ob Frame-Stichproben gerade aufgezeichnet werden
+    private static final AudioFrameEvent FRAME_EVENT_PROBE = new AudioFrameEvent();
+
     private final AudioPlayer audioPlayer;
+    private final long guildId;
     private final ByteBuffer buffer;
     private final MutableAudioFrame frame;
 
+    // Jeder wievielte Abruf als JFR-Stichprobe erfasst wird; der Zähler wird nur vom Audio-Thread geschrieben
+    private final int frameSampleInterval;
+    private int framesUntilSample;
+
+    // Aufzeichnung der gelieferten Frames, null wenn trace.frames.enabled nicht gesetzt ist
+    private final FrameRecorder.Channel frameRecorder;
+
     /**
      * Erstellt einen neuen AudioPlayerSendHandler.
      *
      * @param audioPlayer Der AudioPlayer, dessen Daten gesendet werden sollen
+     * @param guildId     Die ID des Servers, für JFR-Ereignisse
      */
-    public AudioPlayerSendHandler(AudioPlayer audioPlayer) {
+    public AudioPlayerSendHandler(AudioPlayer audioPlayer, long guildId) {
         this.audioPlayer = audioPlayer;
+        this.guildId = guildId;
+        this.frameSampleInterval = readSampleInterval();
+        this.framesUntilSample = frameSampleInterval;
         this.buffer = ByteBuffer.allocate(1024); // Größe des Puffers für Audiodaten
         this.frame = new MutableAudioFrame();
         this.frame.setBuffer(buffer);
+        this.frameRecorder = FrameRecorder.getInstance().forGuild(guildId);
     }
 
     /**
@@ -34,8 +60,71 @@ public class AudioPlayerSendHandler implements AudioSendHandler {
      */
     @Override
     public boolean canProvide() {
+        boolean provided = pollFrame();
+        if (!provided && frameRecorder != null) {
+            frameRecorder.recordMiss();
+        }
+        return provided;
+    }
+
+    /**
+     * Fragt den nächsten Frame beim AudioPlayer ab und zählt das Ergebnis.
+     */
+    private boolean pollFrame() {
+        if (--framesUntilSample <= 0) {
+            framesUntilSample = frameSampleInterval;
+            if (FRAME_EVENT_PROBE.isEnabled()) {
+                return provideSampled();
+            }
+        }
+
         // Versucht, den nächsten Frame zu schreiben und prüft, ob Daten verfügbar sind
-        return audioPlayer.provide(frame);
+        if (audioPlayer.provide(frame)) {
+            FRAMES_PROVIDED.increment();
+            return true;
+        }
+
+        // Ein fehlender Frame zählt nur, wenn eigentlich gerade etwas spielen sollte
+        if (audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused()) {
+            FRAMES_MISSED.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Ruft einen Frame ab und erfasst den Abruf als JFR-Stichprobe.
+     */
+    private boolean provideSampled() {
+        AudioFrameEvent event = new AudioFrameEvent();
+        event.begin();
+        boolean provided = audioPlayer.provide(frame);
+        event.end();
+
+        boolean playing = audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused();
+        if (provided) {
+            FRAMES_PROVIDED.increment();
+        } else if (playing) {
+            FRAMES_MISSED.increment();
+        }
+
+        if (event.shouldCommit()) {
+            event.guildId = guildId;
+            event.provided = provided;
+            event.playing = playing;
+            event.commit();
+        }
+        return provided;
+    }
+
+    /**
+     * Liest den Abstand der Frame-Stichproben aus der Konfiguration.
+     */
+    private static int readSampleInterval() {
+        try {
+            return Math.max(1, Integer.parseInt(Config.getProperty("jfr.frame_sample_interval", "50").trim()));
+        } catch (NumberFormatException e) {
+            return 50;
+        }
     }
 
     /**
@@ -47,9 +136,30 @@ public class AudioPlayerSendHandler implements AudioSendHandler {
     public ByteBuffer provide20MsAudio() {
         // Puffer auf die Leseposition zurücksetzen (wichtig für JDA)
         buffer.flip();
+        if (frameRecorder != null) {
+            frameRecorder.recordFrame(buffer);
+        }
         return buffer;
     }
 
+    /**
+     * Gibt die Anzahl der an JDA gelieferten Frames aller Server zurück.
+     *
+     * @return Die Anzahl der gelieferten Frames
+     */
+    public static long getFramesProvided() {
+        return FRAMES_PROVIDED.sum();
+    }
+
+    /**
+     * Gibt die Anzahl der Frames aller Server zurück, die während einer Wiedergabe nicht rechtzeitig bereit waren.
+     *
+     * @return Die Anzahl der fehlenden Frames
+     */
+    public static long getFramesMissed() {
+        return FRAMES_MISSED.sum();
+    }
+
     /**
      * Gibt an, ob die Audiodaten in Opus-Format codiert sind.
      *
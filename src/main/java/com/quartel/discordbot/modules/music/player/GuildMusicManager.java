@@ -1,6 +1,8 @@
 package com.quartel.discordbot.modules.music.player;
 
 import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import com.quartel.discordbot.config.GuildSettingsStore;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import net.dv8tion.jda.api.entities.Guild;
@@ -18,6 +20,7 @@ import org.slf4j.LoggerFactory;
 public class GuildMusicManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(GuildMusicManager.class);
 
+    private final long guildId;
     private final AudioPlayer audioPlayer;
     private final TrackScheduler trackScheduler;
     private final AudioPlayerSendHandler sendHandler;
@@ -31,27 +34,31 @@ public class GuildMusicManager {
      * Erstellt einen neuen GuildMusicManager mit dem gegebenen PlayerManager.
      *
      * @param playerManager Der AudioPlayerManager, der die Audio-Ressourcen verwaltet
+     * @param guildId       Die ID des Servers, für den der Manager erstellt wird
      */
-    public GuildMusicManager(AudioPlayerManager playerManager) {
-        this.audioPlayer = playerManager.createPlayer();
-        this.trackScheduler = new TrackScheduler(audioPlayer);
-        this.sendHandler = new AudioPlayerSendHandler(audioPlayer);
-
-        // Standard-Timeout aus der Konfiguration laden (Fallback: 60 Sekunden)
-        try {
-            this.disconnectTimeout = Integer.parseInt(Config.getProperty("music.timeout", "60"));
-        } catch (NumberFormatException e) {
-            LOGGER.warn("Ungültiger Wert für music.timeout in config.properties, verwende Standardwert: 60");
-            this.disconnectTimeout = 60;
-        }
+    public GuildMusicManager(AudioPlayerManager playerManager, long guildId) {
+        this(playerManager.createPlayer(), guildId);
+    }
 
-        // Standard-Lautstärke setzen
-        int defaultVolume = 50;
-        try {
-            defaultVolume = Integer.parseInt(Config.getProperty("music.volume.default", "50"));
-        } catch (NumberFormatException e) {
-            LOGGER.warn("Ungültiger Wert für music.volume.default in config.properties, verwende Standardwert: 50");
-        }
+    /**
+     * Erstellt einen neuen GuildMusicManager für einen bereits erstellten Player,
+     * z. B. einen Player, dessen Tracks ein Audio-Node abspielt.
+     *
+     * @param audioPlayer Der AudioPlayer des Servers
+     * @param guildId     Die ID des Servers, für den der Manager erstellt wird
+     */
+    public GuildMusicManager(AudioPlayer audioPlayer, long guildId) {
+        this.guildId = guildId;
+        this.audioPlayer = audioPlayer;
+        this.trackScheduler = new TrackScheduler(audioPlayer, guildId);
+        this.sendHandler = new AudioPlayerSendHandler(audioPlayer, guildId);
+
+        // Standard-Timeout und Lautstärke aus der bereits validierten Konfiguration laden
+        ConfigSnapshot config = Config.get();
+        this.disconnectTimeout = config.musicTimeout();
+
+        // Standard-Lautstärke setzen (Servereinstellung vor globaler Konfiguration)
+        int defaultVolume = GuildSettingsStore.getInstance().get(guildId).getDefaultVolume();
         audioPlayer.setVolume(defaultVolume);
 
         // AudioPlayer mit dem TrackScheduler verbinden
@@ -72,6 +79,15 @@ public class GuildMusicManager {
         this.audioManager = audioManager;
     }
 
+    /**
+     * Gibt die ID des Servers zurück.
+     *
+     * @return Die Server-ID
+     */
+    public long getGuildId() {
+        return guildId;
+    }
+
     /**
      * Gibt den AudioPlayer zurück.
      *
@@ -0,0 +1,152 @@
+package com.quartel.discordbot.modules.music.player;
+
+import com.quartel.discordbot.util.RestScheduler;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fortschrittsanzeige für alle Ladevorgänge einer Interaktion.
+ * <p>
+ * Statt einer Folgenachricht pro geladenem Track wird die ursprüngliche (zurückgestellte) Antwort bearbeitet,
+ * höchstens einmal pro {@link #MIN_EDIT_INTERVAL_MILLIS}. Sobald alle Quellen geladen oder fehlgeschlagen sind,
+ * wird die Nachricht sofort mit dem Endergebnis bearbeitet. Damit fallen pro Befehl nur wenige REST-Aufrufe an,
+ * unabhängig von der Anzahl der Tracks.
+ */
+final class LoadProgress {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadProgress.class);
+
+    // Mindestabstand zwischen zwei Zwischenständen
+    private static final long MIN_EDIT_INTERVAL_MILLIS = 1000;
+
+    private final IReplyCallback event;
+    private final String batchName;
+    private final int total;
+    private final ScheduledExecutorService scheduler;
+
+    private int completed;
+    private int addedTracks;
+    private int failedSources;
+    private String startedTitle;
+    private String lastMessage;
+    private long lastEditMillis;
+    private ScheduledFuture<?> pendingEdit;
+    private boolean finished;
+
+    /**
+     * Erstellt eine neue Fortschrittsanzeige.
+     *
+     * @param event     Die bereits zurückgestellte Interaktion
+     * @param batchName Der Name der Playlist oder null bei einer einzelnen Quelle
+     * @param total     Die Anzahl der zu ladenden Quellen
+     * @param scheduler Der Scheduler für verzögerte Zwischenstände
+     */
+    LoadProgress(IReplyCallback event, String batchName, int total, ScheduledExecutorService scheduler) {
+        this.event = event;
+        this.batchName = batchName;
+        this.total = total;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Meldet eine erfolgreich geladene Quelle.
+     *
+     * @param tracks       Die Anzahl der zur Warteschlange hinzugefügten Tracks
+     * @param startedTrack Der sofort gestartete Track oder null
+     * @param message      Die Meldung für diese Quelle, wenn sie die einzige ist
+     */
+    synchronized void loaded(int tracks, AudioTrack startedTrack, String message) {
+        addedTracks += tracks;
+        if (startedTrack != null && startedTitle == null) {
+            startedTitle = startedTrack.getInfo().title;
+        }
+        complete(message);
+    }
+
+    /**
+     * Meldet eine Quelle, die nicht geladen werden konnte.
+     *
+     * @param message Die Fehlermeldung für diese Quelle
+     */
+    synchronized void failed(String message) {
+        failedSources++;
+        complete(message);
+    }
+
+    /**
+     * Schließt eine Quelle ab und stößt eine (gedrosselte) Aktualisierung an.
+     */
+    private synchronized void complete(String message) {
+        completed++;
+        lastMessage = message;
+
+        if (completed >= total) {
+            finished = true;
+            if (pendingEdit != null) {
+                pendingEdit.cancel(false);
+                pendingEdit = null;
+            }
+            edit(render());
+        } else if (pendingEdit == null) {
+            long delay = Math.max(0, lastEditMillis + MIN_EDIT_INTERVAL_MILLIS - System.currentTimeMillis());
+            pendingEdit = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sendet den aktuellen Zwischenstand.
+     */
+    private synchronized void flush() {
+        pendingEdit = null;
+        if (finished) {
+            return;
+        }
+        lastEditMillis = System.currentTimeMillis();
+        edit(render());
+    }
+
+    /**
+     * Bearbeitet die ursprüngliche Antwort; noch wartende Bearbeitungen werden zusammengefasst.
+     * Wird unter der Sperre dieser Instanz aufgerufen, damit der Endstand nie von einem Zwischenstand überholt wird.
+     */
+    private void edit(String content) {
+        RestScheduler.getInstance()
+                .submit(RestScheduler.Priority.FOLLOW_UP, "progress:" + event.getIdLong(),
+                        () -> event.getHook().editOriginal(content))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        LOGGER.warn("Fortschritt für Interaktion {} konnte nicht aktualisiert werden: {}",
+                                event.getIdLong(), error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Erstellt den Nachrichtentext für den aktuellen Stand.
+     */
+    private synchronized String render() {
+        if (total == 1 && finished) {
+            return lastMessage;
+        }
+
+        String name = batchName != null ? batchName : "Auswahl";
+        if (!finished) {
+            return String.format("⏳ Lade Playlist **%s**: %d/%d Dateien geladen", name, completed, total);
+        }
+
+        StringBuilder message = new StringBuilder(String.format(
+                "🎵 Playlist **%s**: **%d** Tracks zur Warteschlange hinzugefügt", name, addedTracks));
+        if (failedSources > 0) {
+            message.append(String.format(" (%d fehlgeschlagen)", failedSources));
+        }
+        if (startedTitle != null) {
+            message.append("\n▶️ Spiele jetzt: **").append(startedTitle).append("**");
+        }
+        return message.toString();
+    }
+}
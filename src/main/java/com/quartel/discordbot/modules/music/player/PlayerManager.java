@@ -1,6 +1,14 @@
 package com.quartel.discordbot.modules.music.player;
 
 import com.quartel.discordbot.Bot;
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.core.InteractionReplies;
+import com.quartel.discordbot.core.Shards;
+import com.quartel.discordbot.metrics.MetricsRegistry;
+import com.quartel.discordbot.metrics.jfr.TrackLoadEvent;
+import com.quartel.discordbot.modules.music.node.AudioNode;
+import com.quartel.discordbot.modules.music.node.AudioNodeClient;
+import com.quartel.discordbot.util.LogSampler;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
@@ -13,15 +21,20 @@ import com.sedmelluq.discord.lavaplayer.source.vimeo.VimeoAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -34,13 +47,23 @@ public class PlayerManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PlayerManager.class);
     private static PlayerManager INSTANCE;
 
+    // Begrenzt die Meldungen erfolgreicher Ladevorgänge; Fehler werden immer geloggt
+    private static final LogSampler LOG_SAMPLER = new LogSampler(LOGGER, "loader");
+
     // AudioPlayerManager für die gesamte Anwendung
     private final AudioPlayerManager audioPlayerManager;
 
-    // JDA-Instanz für den Zugriff auf die Guilds
-    private JDA jda;
+    // Verbindung zum Audio-Node, null wenn die Tracks in dieser JVM abgespielt werden
+    private final AudioNodeClient audioNodeClient;
+
+    // Node im eigenen Prozess bei audio.node=loopback
+    private AudioNode loopbackNode;
 
-    // Map, die jedem Server seinen eigenen GuildMusicManager zuordnet
+    // ShardManager für den Zugriff auf die Guilds aller Shards
+    private ShardManager shardManager;
+
+    // Map, die jedem Server seinen eigenen GuildMusicManager zuordnet; Erstellen und Entfernen geschieht unter
+    // dem Monitor, der Scheduler liest ohne ihn
     private final Map<Long, GuildMusicManager> musicManagers;
 
     // Für regelmäßige Überprüfung auf inaktive Verbindungen
@@ -50,10 +73,28 @@ public class PlayerManager {
      * Privater Konstruktor für Singleton-Muster.
      */
     private PlayerManager() {
-        this.musicManagers = new HashMap<>();
+        this.musicManagers = new ConcurrentHashMap<>();
         this.audioPlayerManager = new DefaultAudioPlayerManager();
         this.scheduler = Executors.newScheduledThreadPool(1);
 
+        registerSources(audioPlayerManager);
+
+        // Optional spielt ein Audio-Node die Tracks ab; geladen wird weiterhin hier
+        this.audioNodeClient = createAudioNodeClient();
+
+        // Starte einen Timer, der inaktive Verbindungen überprüft
+        scheduler.scheduleAtFixedRate(this::checkInactiveConnections, 1, 1, TimeUnit.MINUTES);
+
+        LOGGER.info("PlayerManager initialisiert");
+    }
+
+    /**
+     * Registriert die unterstützten Audioquellen. Ein Audio-Node registriert dieselben Quellen, damit er jeden hier
+     * geladenen Track dekodieren kann.
+     *
+     * @param audioPlayerManager Der AudioPlayerManager, bei dem die Quellen registriert werden
+     */
+    public static void registerSources(AudioPlayerManager audioPlayerManager) {
         // SoundCloud unterstützen
         audioPlayerManager.registerSourceManager(SoundCloudAudioSourceManager.createDefault());
 
@@ -71,11 +112,49 @@ public class PlayerManager {
 
         // Lokale Dateien unterstützen
         AudioSourceManagers.registerLocalSource(audioPlayerManager);
+    }
 
-        // Starte einen Timer, der inaktive Verbindungen überprüft
-        scheduler.scheduleAtFixedRate(this::checkInactiveConnections, 1, 1, TimeUnit.MINUTES);
+    /**
+     * Erstellt die Verbindung zum Audio-Node laut {@code audio.node}.
+     * Bei {@code loopback} wird zuvor ein Node im eigenen Prozess auf 127.0.0.1 gestartet.
+     *
+     * @return Der Client oder null, wenn der Bot selbst abspielt
+     */
+    private AudioNodeClient createAudioNodeClient() {
+        String target = Config.getProperty("audio.node", "off").trim();
+        if (target.isEmpty() || target.equalsIgnoreCase("off")) {
+            return null;
+        }
 
-        LOGGER.info("PlayerManager initialisiert");
+        int window = readBufferFrames();
+        try {
+            if (target.equalsIgnoreCase("loopback")) {
+                loopbackNode = AudioNode.start(InetAddress.getLoopbackAddress(), 0);
+                LOGGER.info("Spiele über einen Audio-Node im eigenen Prozess ab");
+                return new AudioNodeClient(InetAddress.getLoopbackAddress().getHostAddress(), loopbackNode.getPort(),
+                        window, audioPlayerManager);
+            }
+
+            int separator = target.lastIndexOf(':');
+            String host = target.substring(0, separator);
+            int port = Integer.parseInt(target.substring(separator + 1));
+            LOGGER.info("Spiele über den Audio-Node {}:{} ab", host, port);
+            return new AudioNodeClient(host, port, window, audioPlayerManager);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Audio-Node \"{}\" aus audio.node nicht nutzbar, spiele im Bot ab", target, e);
+            return null;
+        }
+    }
+
+    /**
+     * Liest die Anzahl der vorausgeschickten Frames pro Server aus der Konfiguration.
+     */
+    private static int readBufferFrames() {
+        try {
+            return Math.max(2, Integer.parseInt(Config.getProperty("audio.node.buffer_frames", "25").trim()));
+        } catch (NumberFormatException e) {
+            return 25;
+        }
     }
 
     /**
@@ -104,7 +183,9 @@ public class PlayerManager {
 
         // Wenn nicht, erstelle einen neuen
         if (musicManager == null) {
-            musicManager = new GuildMusicManager(audioPlayerManager);
+            musicManager = audioNodeClient != null
+                    ? new GuildMusicManager(audioNodeClient.createPlayer(guildId), guildId)
+                    : new GuildMusicManager(audioPlayerManager, guildId);
             musicManagers.put(guildId, musicManager);
 
             // Setze den AudioManager
@@ -118,6 +199,36 @@ public class PlayerManager {
         return musicManager;
     }
 
+    /**
+     * Gibt den GuildMusicManager eines Servers zurück, ohne einen neuen zu erstellen.
+     *
+     * @param guildId Die Server-ID
+     * @return Der GuildMusicManager oder null, wenn für den Server noch keiner existiert
+     */
+    public synchronized GuildMusicManager getExistingMusicManager(long guildId) {
+        return musicManagers.get(guildId);
+    }
+
+    /**
+     * Entfernt den GuildMusicManager eines Servers und gibt seinen Player frei, z.B. nachdem der Bot den Server
+     * verlassen hat. Ein späterer Aufruf von {@link #getMusicManager(Guild)} erstellt einen neuen Manager.
+     *
+     * @param guildId Die Server-ID
+     */
+    public void removeMusicManager(long guildId) {
+        GuildMusicManager musicManager;
+        synchronized (this) {
+            musicManager = musicManagers.remove(guildId);
+        }
+        if (musicManager == null) {
+            return;
+        }
+
+        musicManager.getTrackScheduler().clearQueue();
+        musicManager.getAudioPlayer().destroy();
+        LOGGER.debug("GuildMusicManager für Server {} entfernt", guildId);
+    }
+
     /**
      * Lädt und spielt eine Audioquelle auf einem Server.
      *
@@ -125,85 +236,101 @@ public class PlayerManager {
      * @param trackUrl  Die URL oder Suchbegriff für den abzuspielenden Track
      */
     public void loadAndPlay(SlashCommandInteractionEvent event, String trackUrl) {
+        loadAndPlay(event, List.of(trackUrl), null);
+    }
+
+    /**
+     * Lädt und spielt mehrere Audioquellen als eine Ladeoperation.
+     * Der Fortschritt wird in einer einzigen Antwort angezeigt, die gedrosselt bearbeitet und nach dem Laden
+     * der letzten Quelle mit dem Endergebnis abgeschlossen wird.
+     *
+     * @param event     Der SlashCommandInteractionEvent, der den Befehl ausgelöst hat
+     * @param trackUrls Die URLs oder Dateipfade der abzuspielenden Tracks, in Abspielreihenfolge
+     * @param batchName Der Name der Playlist für die Fortschrittsanzeige oder null
+     */
+    public void loadAndPlay(SlashCommandInteractionEvent event, List<String> trackUrls, String batchName) {
         Guild guild = event.getGuild();
         if (guild == null) {
-            event.reply("Dieser Befehl kann nur auf einem Server verwendet werden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Dieser Befehl kann nur auf einem Server verwendet werden.");
             return;
         }
 
-        TextChannel channel = event.getChannel().asTextChannel();
         GuildMusicManager musicManager = getMusicManager(guild);
         musicManager.updateActivity();
 
         // Deferred Reply senden, da Laden länger dauern kann
-        event.deferReply().queue();
+        InteractionReplies.defer(event);
 
-        // Lade den Track mit LavaPlayer
-        audioPlayerManager.loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
+        LoadProgress progress = new LoadProgress(event, batchName, trackUrls.size(), scheduler);
+        for (String trackUrl : trackUrls) {
+            load(musicManager, trackUrl, progress);
+        }
+    }
+
+    /**
+     * Lädt eine einzelne Quelle mit LavaPlayer und meldet das Ergebnis an die Fortschrittsanzeige.
+     * {@code loadItemOrdered} sorgt dafür, dass die Tracks in der übergebenen Reihenfolge eingereiht werden.
+     */
+    private void load(GuildMusicManager musicManager, String trackUrl, LoadProgress progress) {
+        audioPlayerManager.loadItemOrdered(musicManager, trackUrl, timed(musicManager, trackUrl, new AudioLoadResultHandler() {
             @Override
             public void trackLoaded(AudioTrack track) {
                 // Ein einzelner Track wurde geladen
-                LOGGER.info("Track geladen: {} - {}", track.getInfo().title, track.getInfo().uri);
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Track geladen: {} - {}", track.getInfo().title, track.getInfo().uri);
+                }
 
                 boolean playingNow = musicManager.getTrackScheduler().queue(track);
                 String message = playingNow
                         ? "🎵 Spiele jetzt: **" + track.getInfo().title + "**"
                         : "🎵 Zur Warteschlange hinzugefügt: **" + track.getInfo().title + "**";
 
-                event.getHook().sendMessage(message).queue();
+                progress.loaded(1, playingNow ? track : null, message);
             }
 
             @Override
             public void playlistLoaded(AudioPlaylist playlist) {
                 // Eine Playlist wurde geladen
-                LOGGER.info("Playlist geladen: {} mit {} Tracks", playlist.getName(), playlist.getTracks().size());
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Playlist geladen: {} mit {} Tracks", playlist.getName(), playlist.getTracks().size());
+                }
 
                 // Bei Suche wird der erste Track verwendet
                 if (playlist.isSearchResult()) {
-                    AudioTrack firstTrack = playlist.getTracks().get(0);
-                    boolean playingNow = musicManager.getTrackScheduler().queue(firstTrack);
-
-                    String message = playingNow
-                            ? "🎵 Spiele jetzt: **" + firstTrack.getInfo().title + "**"
-                            : "🎵 Zur Warteschlange hinzugefügt: **" + firstTrack.getInfo().title + "**";
-
-                    event.getHook().sendMessage(message).queue();
+                    trackLoaded(playlist.getTracks().get(0));
                     return;
                 }
 
                 // Bei einer tatsächlichen Playlist, alle Tracks zur Warteschlange hinzufügen
-                int addedTracks = 0;
-                boolean firstTrackStarted = false;
-
+                AudioTrack startedTrack = null;
                 for (AudioTrack track : playlist.getTracks()) {
-                    if (addedTracks == 0) {
-                        firstTrackStarted = musicManager.getTrackScheduler().queue(track);
-                    } else {
-                        musicManager.getTrackScheduler().queue(track);
+                    if (musicManager.getTrackScheduler().queue(track) && startedTrack == null) {
+                        startedTrack = track;
                     }
-                    addedTracks++;
                 }
 
                 String message = String.format("🎵 **%d** Tracks aus Playlist **%s** zur Warteschlange hinzugefügt",
-                        addedTracks, playlist.getName());
+                        playlist.getTracks().size(), playlist.getName());
 
-                event.getHook().sendMessage(message).queue();
+                progress.loaded(playlist.getTracks().size(), startedTrack, message);
             }
 
             @Override
             public void noMatches() {
                 // Keine Treffer gefunden
-                LOGGER.info("Keine Treffer gefunden für: {}", trackUrl);
-                event.getHook().sendMessage("❌ Ich konnte nichts für `" + trackUrl + "` finden.").queue();
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Keine Treffer gefunden für: {}", trackUrl);
+                }
+                progress.failed("❌ Ich konnte nichts für `" + trackUrl + "` finden.");
             }
 
             @Override
             public void loadFailed(FriendlyException exception) {
                 // Laden fehlgeschlagen
                 LOGGER.error("Fehler beim Laden des Tracks: {}", exception.getMessage(), exception);
-                event.getHook().sendMessage("❌ Fehler beim Laden: " + exception.getMessage()).queue();
+                progress.failed("❌ Fehler beim Laden: " + exception.getMessage());
             }
-        });
+        }));
     }
 
     /**
@@ -223,19 +350,23 @@ public class PlayerManager {
         musicManager.updateActivity();
 
         // Lade den Track mit LavaPlayer
-        audioPlayerManager.loadItemOrdered(musicManager, trackUrl, new AudioLoadResultHandler() {
+        audioPlayerManager.loadItemOrdered(musicManager, trackUrl, timed(musicManager, trackUrl, new AudioLoadResultHandler() {
             @Override
             public void trackLoaded(AudioTrack track) {
                 // Ein einzelner Track wurde geladen
-                LOGGER.info("Track geladen für Warteraum: {} - {}", track.getInfo().title, track.getInfo().uri);
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Track geladen für Warteraum: {} - {}", track.getInfo().title, track.getInfo().uri);
+                }
                 musicManager.getTrackScheduler().queue(track);
             }
 
             @Override
             public void playlistLoaded(AudioPlaylist playlist) {
                 // Eine Playlist wurde geladen
-                LOGGER.info("Playlist geladen für Warteraum: {} mit {} Tracks",
-                        playlist.getName(), playlist.getTracks().size());
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Playlist geladen für Warteraum: {} mit {} Tracks",
+                            playlist.getName(), playlist.getTracks().size());
+                }
 
                 for (AudioTrack track : playlist.getTracks()) {
                     musicManager.getTrackScheduler().queue(track);
@@ -253,7 +384,7 @@ public class PlayerManager {
                 // Laden fehlgeschlagen
                 LOGGER.error("Fehler beim Laden des Warteraum-Tracks: {}", exception.getMessage(), exception);
             }
-        });
+        }));
     }
 
     /**
@@ -263,16 +394,9 @@ public class PlayerManager {
         LOGGER.debug("Überprüfe inaktive Verbindungen...");
 
         musicManagers.forEach((guildId, manager) -> {
-            Guild guild = null;
             try {
-                // Versuche, die Guild-Instanz zu bekommen
-                for (Guild g : PlayerManager.getInstance().getConnectedGuilds()) {
-                    if (g.getIdLong() == guildId) {
-                        guild = g;
-                        break;
-                    }
-                }
-
+                // Guild über die zuständige Shard auflösen
+                Guild guild = getGuild(guildId);
                 if (guild != null && manager.shouldDisconnect()) {
                     LOGGER.info("Trenne inaktive Verbindung für Server: {}", guild.getName());
                     guild.getAudioManager().closeAudioConnection();
@@ -283,25 +407,121 @@ public class PlayerManager {
         });
     }
 
+    /**
+     * Erfasst die Ladedauer einer Quelle im {@link MetricsRegistry}, unterschieden nach Ergebnis,
+     * und als JFR-Ereignis mit Quelle und Ergebnis.
+     *
+     * @param musicManager Der Musik-Manager des Servers
+     * @param trackUrl     Die geladene URL oder der Dateipfad
+     * @param handler      Der eigentliche Handler
+     * @return Ein Handler, der die Dauer misst und an {@code handler} weiterleitet
+     */
+    private static AudioLoadResultHandler timed(GuildMusicManager musicManager, String trackUrl,
+                                                AudioLoadResultHandler handler) {
+        long startNanos = System.nanoTime();
+        TrackLoadEvent loadEvent = new TrackLoadEvent();
+        loadEvent.begin();
+
+        return new AudioLoadResultHandler() {
+            @Override
+            public void trackLoaded(AudioTrack track) {
+                record("track", 1);
+                handler.trackLoaded(track);
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist playlist) {
+                record(playlist.isSearchResult() ? "suche" : "playlist", playlist.getTracks().size());
+                handler.playlistLoaded(playlist);
+            }
+
+            @Override
+            public void noMatches() {
+                record("keine_treffer", 0);
+                handler.noMatches();
+            }
+
+            @Override
+            public void loadFailed(FriendlyException exception) {
+                record("fehler", 0);
+                handler.loadFailed(exception);
+            }
+
+            private void record(String outcome, int tracks) {
+                MetricsRegistry.getInstance().recordSince(MetricsRegistry.Kind.TRACK_LOAD, outcome, startNanos);
+
+                loadEvent.end();
+                if (loadEvent.shouldCommit()) {
+                    loadEvent.guildId = musicManager.getGuildId();
+                    loadEvent.source = describeSource(trackUrl);
+                    loadEvent.identifier = trackUrl;
+                    loadEvent.result = outcome;
+                    loadEvent.tracks = tracks;
+                    loadEvent.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * Beschreibt die Herkunft einer Quelle für Auswertungen: Host einer URL oder "datei".
+     */
+    private static String describeSource(String trackUrl) {
+        try {
+            URI uri = new URI(trackUrl);
+            if (uri.getHost() != null) {
+                return uri.getHost();
+            }
+        } catch (URISyntaxException e) {
+            // Kein URI, also ein Dateipfad
+        }
+        return "datei";
+    }
+
+    /**
+     * Gibt alle Musik-Manager zurück, die bisher für einen Server erstellt wurden.
+     *
+     * @return Eine Kopie der Liste aller Musik-Manager
+     */
+    public synchronized List<GuildMusicManager> getMusicManagers() {
+        return new ArrayList<>(musicManagers.values());
+    }
+
     /**
      * Gibt alle verbundenen Server zurück.
      *
      * @return Eine Sammlung aller Server, mit denen der Bot verbunden ist
      */
     public Iterable<Guild> getConnectedGuilds() {
-        if (jda == null) {
-            jda = Bot.getInstance().getJda();
-        }
-        return jda.getGuilds();
+        ShardManager manager = getShardManager();
+        return manager != null ? manager.getGuilds() : List.of();
+    }
+
+    /**
+     * Löst einen Server über die für ihn zuständige Shard auf.
+     *
+     * @param guildId Die Server-ID
+     * @return Der Server oder null, wenn er keiner Shard dieses Prozesses bekannt ist
+     */
+    public Guild getGuild(long guildId) {
+        ShardManager manager = getShardManager();
+        return manager != null ? Shards.getGuild(manager, guildId) : null;
     }
 
     /**
-     * Setzt die JDA-Instanz.
+     * Setzt den ShardManager.
      *
-     * @param jda Die zu setzende JDA-Instanz
+     * @param shardManager Der ShardManager des Bots
      */
-    public void setJDA(JDA jda) {
-        this.jda = jda;
+    public void setShardManager(ShardManager shardManager) {
+        this.shardManager = shardManager;
+    }
+
+    private ShardManager getShardManager() {
+        if (shardManager == null) {
+            shardManager = Bot.getInstance().getShardManager();
+        }
+        return shardManager;
     }
 
     /**
@@ -309,6 +529,12 @@ public class PlayerManager {
      */
     public void shutdown() {
         scheduler.shutdown();
+        if (audioNodeClient != null) {
+            audioNodeClient.shutdown();
+        }
+        if (loopbackNode != null) {
+            loopbackNode.shutdown();
+        }
         audioPlayerManager.shutdown();
         LOGGER.info("PlayerManager heruntergefahren");
     }
@@ -1,35 +1,55 @@
 package com.quartel.discordbot.modules.music.player;
 
+import com.quartel.discordbot.metrics.jfr.TrackTransitionEvent;
+import com.quartel.discordbot.util.LogSampler;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
+import com.sedmelluq.discord.lavaplayer.tools.Units;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
 
 /**
  * Diese Klasse verwaltet die Warteschlange der Musik-Tracks und
  * behandelt Ereignisse, die während der Wiedergabe auftreten.
+ * <p>
+ * Jede Änderung an der Warteschlange oder am aktuellen Track erhöht die {@link #getVersion() Version}.
+ * Darüber können gerenderte Ansichten der Warteschlange zwischengespeichert werden, solange sich nichts ändert.
+ * Die Gesamtdauer der Warteschlange wird laufend mitgeführt, statt bei jeder Anzeige neu summiert zu werden.
  */
 public class TrackScheduler extends AudioEventAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(TrackScheduler.class);
 
+    // Trackwechsel aller Server teilen sich ein Limit, damit viele Server das Log nicht fluten
+    private static final LogSampler LOG_SAMPLER = new LogSampler(LOGGER, "player");
+
     private final AudioPlayer player;
-    private final Queue<AudioTrack> queue;
-    private boolean repeating = false;
+    private final long guildId;
+    private final ArrayDeque<AudioTrack> queue;
+    private volatile boolean repeating = false;
+
+    // Wird bei jeder Änderung der Warteschlange oder des aktuellen Tracks erhöht
+    private volatile long version;
+
+    // Summe der bekannten Trackdauern in der Warteschlange (Streams ohne Dauer zählen nicht)
+    private long queuedDuration;
 
     /**
      * Erstellt einen neuen TrackScheduler.
      *
-     * @param player Der AudioPlayer, für den dieser Scheduler zuständig ist
+     * @param player  Der AudioPlayer, für den dieser Scheduler zuständig ist
+     * @param guildId Die ID des Servers, für JFR-Ereignisse
      */
-    public TrackScheduler(AudioPlayer player) {
+    public TrackScheduler(AudioPlayer player, long guildId) {
         this.player = player;
-        this.queue = new LinkedList<>();
+        this.guildId = guildId;
+        this.queue = new ArrayDeque<>();
     }
 
     /**
@@ -41,9 +61,14 @@ public class TrackScheduler extends AudioEventAdapter {
      */
     public boolean queue(AudioTrack track) {
         // Wenn der Player gerade nichts abspielt, spielen wir den Track sofort
+        // (außerhalb der Sperre, da der Player dabei synchron Events an diesen Scheduler sendet)
         if (!player.startTrack(track, true)) {
             // Ansonsten fügen wir ihn der Warteschlange hinzu
-            queue.offer(track);
+            synchronized (this) {
+                queue.offer(track);
+                queuedDuration += knownDuration(track);
+                version++;
+            }
             return false;
         }
         return true;
@@ -60,12 +85,24 @@ public class TrackScheduler extends AudioEventAdapter {
         }
 
         // Nimmt den nächsten Track aus der Warteschlange und spielt ihn ab
-        AudioTrack track = queue.poll();
+        AudioTrack track;
+        synchronized (this) {
+            track = queue.poll();
+            if (track != null) {
+                queuedDuration -= knownDuration(track);
+                version++;
+            }
+        }
+
         if (track != null) {
-            LOGGER.info("Spiele nächsten Track: {}", track.getInfo().title);
+            if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                LOGGER.info("Spiele nächsten Track: {}", track.getInfo().title);
+            }
             player.startTrack(track, false);
         } else {
-            LOGGER.info("Keine weiteren Tracks in der Warteschlange.");
+            if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                LOGGER.info("Keine weiteren Tracks in der Warteschlange.");
+            }
         }
     }
 
@@ -73,7 +110,11 @@ public class TrackScheduler extends AudioEventAdapter {
      * Leert die Warteschlange und stoppt die aktuelle Wiedergabe.
      */
     public void clearQueue() {
-        queue.clear();
+        synchronized (this) {
+            queue.clear();
+            queuedDuration = 0;
+            version++;
+        }
         player.stopTrack();
         LOGGER.info("Warteschlange geleert und Wiedergabe gestoppt.");
     }
@@ -83,8 +124,54 @@ public class TrackScheduler extends AudioEventAdapter {
      *
      * @return Eine Liste aller Tracks in der Warteschlange
      */
-    public List<AudioTrack> getQueue() {
-        return new LinkedList<>(queue);
+    public synchronized List<AudioTrack> getQueue() {
+        return new ArrayList<>(queue);
+    }
+
+    /**
+     * Gibt einen Ausschnitt der Warteschlange zurück, ohne die gesamte Warteschlange zu kopieren.
+     *
+     * @param offset Der Index des ersten Tracks
+     * @param limit  Die maximale Anzahl an Tracks
+     * @return Die Tracks im angegebenen Bereich
+     */
+    public synchronized List<AudioTrack> getQueueSlice(int offset, int limit) {
+        List<AudioTrack> slice = new ArrayList<>(Math.min(limit, Math.max(0, queue.size() - offset)));
+        Iterator<AudioTrack> iterator = queue.iterator();
+        for (int i = 0; iterator.hasNext() && slice.size() < limit; i++) {
+            AudioTrack track = iterator.next();
+            if (i >= offset) {
+                slice.add(track);
+            }
+        }
+        return slice;
+    }
+
+    /**
+     * Gibt die Anzahl der Tracks in der Warteschlange zurück.
+     *
+     * @return Die Länge der Warteschlange
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Gibt die Gesamtdauer aller Tracks in der Warteschlange zurück.
+     *
+     * @return Die Dauer in Millisekunden (Streams ohne bekannte Dauer nicht mitgezählt)
+     */
+    public synchronized long getQueuedDuration() {
+        return queuedDuration;
+    }
+
+    /**
+     * Gibt die aktuelle Version der Warteschlange zurück.
+     *
+     * @return Ein Zähler, der sich bei jeder Änderung der Warteschlange oder des aktuellen Tracks erhöht
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -106,18 +193,37 @@ public class TrackScheduler extends AudioEventAdapter {
         return repeating;
     }
 
+    /**
+     * Wird aufgerufen, wenn ein Track startet. Der aktuelle Track ist Teil der Warteschlangen-Anzeige.
+     */
+    @Override
+    public void onTrackStart(AudioPlayer player, AudioTrack track) {
+        synchronized (this) {
+            version++;
+        }
+        recordTransition("start", track, null);
+    }
+
     /**
      * Wird aufgerufen, wenn ein Track endet.
      * Wenn der Track normal zu Ende ging, wird der nächste Track in der Warteschlange abgespielt.
      */
     public void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) {
-        LOGGER.debug("Track beendet: {} - Grund: {}", track.getInfo().title, endReason);
+        if (LOGGER.isDebugEnabled() && LOG_SAMPLER.allow()) {
+            LOGGER.debug("Track beendet: {} - Grund: {}", track.getInfo().title, endReason);
+        }
+        synchronized (this) {
+            version++;
+        }
+        recordTransition("ende", track, endReason.name());
 
         // Wenn der Track beendet wurde, weil er zu Ende war (nicht wegen eines Fehlers oder manuellen Stopps)
         if (endReason.mayStartNext) {
             if (repeating) {
                 // Im Wiederholungsmodus spielen wir den gleichen Track nochmal
-                LOGGER.info("Wiederhole Track: {}", track.getInfo().title);
+                if (LOGGER.isInfoEnabled() && LOG_SAMPLER.allow()) {
+                    LOGGER.info("Wiederhole Track: {}", track.getInfo().title);
+                }
                 player.startTrack(track.makeClone(), false);
             } else {
                 // Sonst spielen wir den nächsten Track
@@ -131,6 +237,7 @@ public class TrackScheduler extends AudioEventAdapter {
      */
     public void onTrackException(AudioPlayer player, AudioTrack track, Exception exception) {
         LOGGER.error("Fehler bei der Wiedergabe von {}: {}", track.getInfo().title, exception.getMessage(), exception);
+        recordTransition("fehler", track, exception.getMessage());
     }
 
     /**
@@ -138,6 +245,7 @@ public class TrackScheduler extends AudioEventAdapter {
      */
     public void onTrackStuck(AudioPlayer player, AudioTrack track, long thresholdMs) {
         LOGGER.warn("Track hängt: {} ({}ms)", track.getInfo().title, thresholdMs);
+        recordTransition("haengt", track, null);
         nextTrack(true);
     }
 
@@ -149,4 +257,27 @@ public class TrackScheduler extends AudioEventAdapter {
         LOGGER.error("Fehler beim Starten des Tracks: {}", track.getInfo().title, exception);
         nextTrack(true);
     }
-}
\ No newline at end of file
+
+    /**
+     * Zeichnet einen Zustandswechsel als JFR-Ereignis auf, sofern gerade aufgezeichnet wird.
+     */
+    private void recordTransition(String transition, AudioTrack track, String endReason) {
+        TrackTransitionEvent event = new TrackTransitionEvent();
+        if (event.shouldCommit()) {
+            event.guildId = guildId;
+            event.transition = transition;
+            event.title = track.getInfo().title;
+            event.endReason = endReason;
+            event.queueSize = getQueueSize();
+            event.commit();
+        }
+    }
+
+    /**
+     * Gibt die Dauer eines Tracks zurück, oder 0 bei Streams ohne bekannte Dauer.
+     */
+    private static long knownDuration(AudioTrack track) {
+        long duration = track.getDuration();
+        return duration == Units.DURATION_MS_UNKNOWN ? 0 : duration;
+    }
+}
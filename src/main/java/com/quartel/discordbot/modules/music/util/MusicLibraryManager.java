@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
  */
 public class MusicLibraryManager {
     private static final Logger logger = LoggerFactory.getLogger(MusicLibraryManager.class);
+    private static MusicLibraryManager instance;
 
     // Pfade für die Konfigurationsdatei
     private static final String[] POSSIBLE_CONFIG_PATHS = {
@@ -45,6 +46,18 @@ public class MusicLibraryManager {
         initializeLibraries();
     }
 
+    /**
+     * Gibt die gemeinsame Instanz zurück; die Bibliotheksordner werden beim ersten Aufruf initialisiert.
+     *
+     * @return Die MusicLibraryManager-Instanz
+     */
+    public static synchronized MusicLibraryManager getInstance() {
+        if (instance == null) {
+            instance = new MusicLibraryManager();
+        }
+        return instance;
+    }
+
     /**
      * Initialisiert die Musikbibliothek-Ordner basierend auf der Konfiguration oder Standardwerten.
      */
@@ -1,7 +1,10 @@
 package com.quartel.discordbot.modules.music.util;
 
+import com.quartel.discordbot.core.InteractionReplies;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.modules.music.player.TrackScheduler;
+import com.sedmelluq.discord.lavaplayer.tools.Units;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -11,6 +14,8 @@ import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.managers.AudioManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +30,15 @@ import java.util.concurrent.TimeUnit;
 public class MusicUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(MusicUtil.class);
 
+    /**
+     * Präfix der Schaltflächen-IDs zum Blättern in der Warteschlange; gefolgt vom Ziel-Seitenindex.
+     */
+    public static final String QUEUE_PAGE_BUTTON_PREFIX = "queue:page:";
+
+    // Länge des Fortschrittsbalkens und alle möglichen Balken, einmalig erstellt
+    private static final int PROGRESS_BAR_LENGTH = 20;
+    private static final String[] PROGRESS_BARS = createProgressBars();
+
     /**
      * Überprüft, ob der Bot mit dem Benutzer im gleichen Sprachkanal ist.
      *
@@ -40,7 +54,7 @@ public class MusicUtil {
 
         GuildVoiceState memberVoiceState = member.getVoiceState();
         if (memberVoiceState == null || !memberVoiceState.inAudioChannel()) {
-            event.reply("Du musst in einem Sprachkanal sein, um diesen Befehl zu verwenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Du musst in einem Sprachkanal sein, um diesen Befehl zu verwenden.");
             return false;
         }
 
@@ -54,7 +68,7 @@ public class MusicUtil {
 
         // Prüfe, ob der Bot und der Benutzer im gleichen Kanal sind
         if (memberVoiceState.getChannel() != selfVoiceState.getChannel()) {
-            event.reply("Du musst im gleichen Sprachkanal wie der Bot sein, um diesen Befehl zu verwenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Du musst im gleichen Sprachkanal wie der Bot sein, um diesen Befehl zu verwenden.");
             return false;
         }
 
@@ -76,7 +90,7 @@ public class MusicUtil {
 
         GuildVoiceState memberVoiceState = member.getVoiceState();
         if (memberVoiceState == null || !memberVoiceState.inAudioChannel()) {
-            event.reply("Du musst in einem Sprachkanal sein, um diesen Befehl zu verwenden.").setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Du musst in einem Sprachkanal sein, um diesen Befehl zu verwenden.");
             return false;
         }
 
@@ -89,7 +103,7 @@ public class MusicUtil {
             return true;
         } catch (Exception e) {
             LOGGER.error("Fehler beim Verbinden mit dem Sprachkanal", e);
-            event.reply("Ich konnte nicht mit dem Sprachkanal verbinden: " + e.getMessage()).setEphemeral(true).queue();
+            InteractionReplies.replyEphemeral(event, "Ich konnte nicht mit dem Sprachkanal verbinden: " + e.getMessage());
             return false;
         }
     }
@@ -134,20 +148,10 @@ public class MusicUtil {
         long position = currentTrack.getPosition();
         long duration = currentTrack.getDuration();
 
-        // Fortschrittsbalken erstellen
-        int totalBars = 20; // Länge des Balkens
-        int progressBars = (int) ((double) position / duration * totalBars);
-        StringBuilder progressBar = new StringBuilder();
-
-        for (int i = 0; i < totalBars; i++) {
-            if (i == progressBars) {
-                progressBar.append("🔘"); // Aktuelle Position
-            } else if (i < progressBars) {
-                progressBar.append("▬"); // Fortschritt
-            } else {
-                progressBar.append("▭"); // Verbleibend
-            }
-        }
+        // Fortschrittsbalken aus den vorberechneten Varianten wählen
+        int progressBars = duration > 0 && duration != Units.DURATION_MS_UNKNOWN
+                ? (int) Math.min(PROGRESS_BAR_LENGTH, (double) position / duration * PROGRESS_BAR_LENGTH)
+                : 0;
 
         return new EmbedBuilder()
                 .setTitle("Aktuelle Wiedergabe")
@@ -155,7 +159,7 @@ public class MusicUtil {
                 .addField("Dauer", formatDuration(position) + " / " + formatDuration(duration), true)
                 .addField("Kanal/Künstler", info.author, true)
                 .addField("Lautstärke", musicManager.getVolume() + "%", true)
-                .addField("Fortschritt", progressBar.toString(), false)
+                .addField("Fortschritt", PROGRESS_BARS[progressBars], false)
                 .setColor(Color.GREEN)
                 .setThumbnail(getMusicThumbnail(info.uri))
                 .setFooter("Angefordert von " + guild.getSelfMember().getUser().getName(), guild.getSelfMember().getUser().getAvatarUrl())
@@ -163,86 +167,101 @@ public class MusicUtil {
     }
 
     /**
-     * Erstellt ein Embed für die aktuelle Warteschlange.
+     * Erstellt ein Embed für die erste Seite der aktuellen Warteschlange.
      *
      * @param guild Die Guild, für die das Embed erstellt werden soll
      * @return Ein MessageEmbed mit Informationen zur Warteschlange
      */
     public static MessageEmbed createQueueEmbed(Guild guild) {
+        return createQueueEmbed(guild, 0);
+    }
+
+    /**
+     * Erstellt ein Embed für eine Seite der aktuellen Warteschlange.
+     * Die Trackliste stammt aus dem {@link QueueRenderCache}; nur Gesamtdauer und Lautstärke werden neu berechnet.
+     *
+     * @param guild Die Guild, für die das Embed erstellt werden soll
+     * @param page  Der Seitenindex (ab 0)
+     * @return Ein MessageEmbed mit Informationen zur Warteschlange
+     */
+    public static MessageEmbed createQueueEmbed(Guild guild, int page) {
         GuildMusicManager musicManager = PlayerManager.getInstance().getMusicManager(guild);
+        TrackScheduler scheduler = musicManager.getTrackScheduler();
         AudioTrack currentTrack = musicManager.getAudioPlayer().getPlayingTrack();
-        List<AudioTrack> queue = musicManager.getTrackScheduler().getQueue();
+        int queueSize = scheduler.getQueueSize();
 
         EmbedBuilder embedBuilder = new EmbedBuilder()
                 .setTitle("Musik-Warteschlange")
                 .setColor(Color.BLUE);
 
-        if (currentTrack == null && queue.isEmpty()) {
+        if (currentTrack == null && queueSize == 0) {
             return embedBuilder
                     .setDescription("Die Warteschlange ist leer.")
                     .build();
         }
 
-        StringBuilder description = new StringBuilder();
-
-        // Aktueller Track
-        if (currentTrack != null) {
-            AudioTrackInfo info = currentTrack.getInfo();
-            description.append("**Aktuell:** [")
-                    .append(info.title)
-                    .append("](")
-                    .append(info.uri)
-                    .append(") `")
-                    .append(formatDuration(currentTrack.getDuration()))
-                    .append("`\n\n");
-        }
-
-        // Warteschlange (maximal 10 Einträge)
-        if (!queue.isEmpty()) {
-            description.append("**Warteschlange:**\n");
-            int trackCount = Math.min(queue.size(), 10);
-
-            for (int i = 0; i < trackCount; i++) {
-                AudioTrack track = queue.get(i);
-                AudioTrackInfo info = track.getInfo();
-
-                description.append("`")
-                        .append(i + 1)
-                        .append(".` [")
-                        .append(info.title)
-                        .append("](")
-                        .append(info.uri)
-                        .append(") `")
-                        .append(formatDuration(track.getDuration()))
-                        .append("`\n");
-            }
-
-            // Wenn mehr als 10 Tracks in der Warteschlange sind
-            if (queue.size() > 10) {
-                description.append("*... und ")
-                        .append(queue.size() - 10)
-                        .append(" weitere Tracks*");
-            }
-        }
-
-        // Berechnen der Gesamtdauer
-        long totalDuration = queue.stream()
-                .mapToLong(AudioTrack::getDuration)
-                .sum();
+        QueueRenderCache.QueuePage queuePage = QueueRenderCache.getInstance()
+                .getPage(guild.getIdLong(), scheduler, currentTrack, page);
 
-        if (currentTrack != null) {
+        // Gesamtdauer aus der laufend mitgeführten Summe
+        long totalDuration = scheduler.getQueuedDuration();
+        if (currentTrack != null && currentTrack.getDuration() != Units.DURATION_MS_UNKNOWN) {
             totalDuration += currentTrack.getDuration() - currentTrack.getPosition();
         }
 
         // Embed fertigstellen
-        embedBuilder.setDescription(description.toString());
-        embedBuilder.addField("Tracks insgesamt", (currentTrack != null ? "1 + " : "") + queue.size(), true);
+        embedBuilder.setDescription(queuePage.body());
+        embedBuilder.addField("Tracks insgesamt", (currentTrack != null ? "1 + " : "") + queueSize, true);
         embedBuilder.addField("Gesamtdauer", formatDuration(totalDuration), true);
         embedBuilder.addField("Lautstärke", musicManager.getVolume() + "%", true);
+        if (queuePage.pageCount() > 1) {
+            embedBuilder.setFooter("Seite " + (queuePage.page() + 1) + "/" + queuePage.pageCount());
+        }
 
         return embedBuilder.build();
     }
 
+    /**
+     * Erstellt die Schaltflächen zum Blättern in der Warteschlange.
+     *
+     * @param guild Die Guild, deren Warteschlange angezeigt wird
+     * @param page  Der angezeigte Seitenindex (ab 0)
+     * @return Die Schaltflächen, oder eine leere Liste, wenn die Warteschlange auf eine Seite passt
+     */
+    public static List<ActionRow> createQueuePager(Guild guild, int page) {
+        int pageCount = QueueRenderCache.getPageCount(
+                PlayerManager.getInstance().getMusicManager(guild).getTrackScheduler().getQueueSize());
+        if (pageCount <= 1) {
+            return List.of();
+        }
+
+        int current = Math.max(0, Math.min(page, pageCount - 1));
+        return List.of(ActionRow.of(
+                Button.secondary(QUEUE_PAGE_BUTTON_PREFIX + (current - 1), "◀️").withDisabled(current == 0),
+                Button.secondary(QUEUE_PAGE_BUTTON_PREFIX + (current + 1), "▶️").withDisabled(current >= pageCount - 1)));
+    }
+
+    /**
+     * Erstellt alle Varianten des Fortschrittsbalkens, eine pro möglicher Position.
+     */
+    private static String[] createProgressBars() {
+        String[] bars = new String[PROGRESS_BAR_LENGTH + 1];
+        for (int progress = 0; progress <= PROGRESS_BAR_LENGTH; progress++) {
+            StringBuilder progressBar = new StringBuilder();
+            for (int i = 0; i < PROGRESS_BAR_LENGTH; i++) {
+                if (i == progress) {
+                    progressBar.append("🔘"); // Aktuelle Position
+                } else if (i < progress) {
+                    progressBar.append("▬"); // Fortschritt
+                } else {
+                    progressBar.append("▭"); // Verbleibend
+                }
+            }
+            bars[progress] = progressBar.toString();
+        }
+        return bars;
+    }
+
     /**
      * Holt die Thumbnail-URL für eine Musikquelle.
      * Gibt standardmäßig ein generisches Musiksymbol zurück, da die direkte Thumbnail-Extraktion
@@ -0,0 +1,313 @@
+package com.quartel.discordbot.modules.music.util;
+
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.modules.music.player.GuildMusicManager;
+import com.quartel.discordbot.modules.music.player.PlayerManager;
+import com.quartel.discordbot.util.RestScheduler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aktualisiert die Live-Anzeigen der aktuellen Wiedergabe ({@code /nowplaying live:true}) aller Server.
+ * <p>
+ * Pro Server gibt es höchstens eine Anzeige. Ein einziger Thread prüft jede Sekunde, welche Anzeigen fällig sind,
+ * und bearbeitet davon höchstens {@code music.nowplaying.edits_per_second} - die am längsten nicht aktualisierten
+ * zuerst. Jede Anzeige wird höchstens alle {@code music.nowplaying.min_interval_seconds} Sekunden bearbeitet,
+ * und nur, wenn sich ihr Inhalt sichtbar geändert hat. Trackwechsel, Pause und Fortsetzen werden sofort angezeigt.
+ * Damit bleibt die Anzahl der REST-Aufrufe pro Sekunde unabhängig von der Anzahl der Server begrenzt.
+ * <p>
+ * Jede Anzeige merkt sich den Player, bei dem sie angemeldet ist. Wird der Musik-Manager des Servers entfernt,
+ * endet die Anzeige bei ihrer nächsten Prüfung; wird er neu erstellt, meldet sie sich beim neuen Player an.
+ */
+public final class NowPlayingPanelUpdater {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NowPlayingPanelUpdater.class);
+
+    private static NowPlayingPanelUpdater instance;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "nowplaying-panels");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Panel> panels = new ConcurrentHashMap<>();
+    private final AtomicLong edits = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * Eine Live-Anzeige in einem Textkanal.
+     */
+    private final class Panel extends AudioEventAdapter {
+        private final JDA jda;
+        private final long guildId;
+        private final long channelId;
+        private final long messageId;
+        private volatile AudioPlayer player;
+        private MessageEmbed lastEmbed;
+        private long lastEditMillis;
+
+        private Panel(JDA jda, long guildId, long channelId, long messageId, AudioPlayer player, MessageEmbed embed) {
+            this.jda = jda;
+            this.guildId = guildId;
+            this.channelId = channelId;
+            this.messageId = messageId;
+            this.player = player;
+            this.lastEmbed = embed;
+            this.lastEditMillis = System.currentTimeMillis();
+        }
+
+        @Override
+        public void onTrackStart(AudioPlayer player, AudioTrack track) {
+            scheduler.execute(() -> refresh(this, RestScheduler.Priority.FOLLOW_UP));
+        }
+
+        @Override
+        public void onPlayerPause(AudioPlayer player) {
+            scheduler.execute(() -> refresh(this, RestScheduler.Priority.FOLLOW_UP));
+        }
+
+        @Override
+        public void onPlayerResume(AudioPlayer player) {
+            scheduler.execute(() -> refresh(this, RestScheduler.Priority.FOLLOW_UP));
+        }
+    }
+
+    private NowPlayingPanelUpdater() {
+        scheduler.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die NowPlayingPanelUpdater-Instanz
+     */
+    public static synchronized NowPlayingPanelUpdater getInstance() {
+        if (instance == null) {
+            instance = new NowPlayingPanelUpdater();
+        }
+        return instance;
+    }
+
+    /**
+     * Sendet eine neue Live-Anzeige in den Kanal und ersetzt eine vorhandene Anzeige des Servers.
+     *
+     * @param guild   Der Server
+     * @param channel Der Kanal, in dem die Anzeige erscheinen soll
+     */
+    public void open(Guild guild, GuildMessageChannel channel) {
+        MessageEmbed embed = MusicUtil.createNowPlayingEmbed(guild);
+        RestScheduler.getInstance()
+                .submit(RestScheduler.Priority.FOLLOW_UP, () -> channel.sendMessageEmbeds(embed))
+                .whenComplete((message, error) -> {
+                    if (error != null) {
+                        LOGGER.warn("Live-Anzeige für Guild {} konnte nicht gesendet werden: {}",
+                                guild.getName(), error.getMessage());
+                        return;
+                    }
+
+                    AudioPlayer player = PlayerManager.getInstance().getMusicManager(guild).getAudioPlayer();
+                    Panel panel = new Panel(guild.getJDA(), guild.getIdLong(), channel.getIdLong(),
+                            message.getIdLong(), player, embed);
+                    player.addListener(panel);
+                    Panel previous = panels.put(guild.getIdLong(), panel);
+                    if (previous != null) {
+                        remove(previous, true);
+                    }
+                    LOGGER.debug("Live-Anzeige für Guild {} in Kanal {} geöffnet", guild.getName(), channel.getName());
+                });
+    }
+
+    /**
+     * Beendet die Live-Anzeige eines Servers und löscht ihre Nachricht.
+     *
+     * @param guildId Die ID des Servers
+     * @return true, wenn eine Anzeige beendet wurde
+     */
+    public boolean close(long guildId) {
+        Panel panel = panels.remove(guildId);
+        if (panel == null) {
+            return false;
+        }
+        remove(panel, true);
+        return true;
+    }
+
+    /**
+     * Prüft, ob ein Server eine Live-Anzeige hat.
+     *
+     * @param guildId Die ID des Servers
+     * @return true, wenn eine Anzeige aktiv ist
+     */
+    public boolean hasPanel(long guildId) {
+        return panels.containsKey(guildId);
+    }
+
+    /**
+     * Gibt die Anzahl der aktiven Live-Anzeigen zurück.
+     *
+     * @return Die Anzahl der Anzeigen
+     */
+    public int getPanelCount() {
+        return panels.size();
+    }
+
+    /**
+     * Gibt die Anzahl der gesendeten Bearbeitungen zurück.
+     *
+     * @return Die Anzahl der Bearbeitungen
+     */
+    public long getEditCount() {
+        return edits.get();
+    }
+
+    /**
+     * Gibt die Anzahl der ausgelassenen Bearbeitungen zurück, weil sich nichts sichtbar geändert hat.
+     *
+     * @return Die Anzahl der ausgelassenen Bearbeitungen
+     */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    /**
+     * Bearbeitet die fälligen Anzeigen im Rahmen des Budgets; läuft einmal pro Sekunde.
+     */
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            long minInterval = TimeUnit.SECONDS.toMillis(readInt("music.nowplaying.min_interval_seconds", 10));
+            int budget = readInt("music.nowplaying.edits_per_second", 5);
+
+            List<Panel> due = new ArrayList<>();
+            for (Panel panel : panels.values()) {
+                if (now - panel.lastEditMillis >= minInterval) {
+                    due.add(panel);
+                }
+            }
+            due.sort(Comparator.comparingLong(panel -> panel.lastEditMillis));
+
+            for (Panel panel : due) {
+                if (budget <= 0) {
+                    break;
+                }
+                if (refresh(panel, RestScheduler.Priority.BACKGROUND)) {
+                    budget--;
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Fehler beim Aktualisieren der Live-Anzeigen", e);
+        }
+    }
+
+    /**
+     * Rendert eine Anzeige neu und bearbeitet sie, wenn sich der Inhalt geändert hat.
+     * Läuft immer auf dem Updater-Thread.
+     *
+     * @return true, wenn eine Bearbeitung gesendet wurde
+     */
+    private boolean refresh(Panel panel, RestScheduler.Priority priority) {
+        if (panels.get(panel.guildId) != panel) {
+            return false;
+        }
+
+        // Ohne Musik-Manager gibt es nichts mehr anzuzeigen; ein neu erstellter Manager hat einen neuen Player
+        GuildMusicManager musicManager = PlayerManager.getInstance().getExistingMusicManager(panel.guildId);
+        if (musicManager == null) {
+            panels.remove(panel.guildId, panel);
+            remove(panel, true);
+            return false;
+        }
+        if (musicManager.getAudioPlayer() != panel.player) {
+            panel.player.removeListener(panel);
+            panel.player = musicManager.getAudioPlayer();
+            panel.player.addListener(panel);
+        }
+
+        Guild guild = panel.jda.getGuildById(panel.guildId);
+        GuildMessageChannel channel = guild != null ? guild.getChannelById(GuildMessageChannel.class, panel.channelId) : null;
+        if (channel == null) {
+            panels.remove(panel.guildId, panel);
+            remove(panel, false);
+            return false;
+        }
+
+        MessageEmbed embed = MusicUtil.createNowPlayingEmbed(guild);
+        panel.lastEditMillis = System.currentTimeMillis();
+        if (embed.equals(panel.lastEmbed)) {
+            skipped.incrementAndGet();
+            return false;
+        }
+
+        panel.lastEmbed = embed;
+        edits.incrementAndGet();
+        RestScheduler.getInstance()
+                .submit(priority, "nowplaying:" + panel.messageId,
+                        () -> channel.editMessageEmbedsById(panel.messageId, embed))
+                .whenComplete((message, error) -> {
+                    if (error instanceof ErrorResponseException response && isGone(response.getErrorResponse())) {
+                        LOGGER.info("Live-Anzeige für Guild {} wurde gelöscht, beende Aktualisierung", guild.getName());
+                        if (panels.remove(panel.guildId, panel)) {
+                            remove(panel, false);
+                        }
+                    } else if (error != null) {
+                        LOGGER.debug("Live-Anzeige für Guild {} nicht aktualisiert: {}", guild.getName(), error.getMessage());
+                    }
+                });
+        return true;
+    }
+
+    /**
+     * Meldet eine Anzeige vom Player ab und löscht auf Wunsch ihre Nachricht.
+     */
+    private void remove(Panel panel, boolean deleteMessage) {
+        panel.player.removeListener(panel);
+        Guild guild = panel.jda.getGuildById(panel.guildId);
+        if (guild == null) {
+            return;
+        }
+
+        GuildMessageChannel channel = guild.getChannelById(GuildMessageChannel.class, panel.channelId);
+        if (deleteMessage && channel != null) {
+            RestScheduler.getInstance().submit(RestScheduler.Priority.BACKGROUND, "delete:" + panel.messageId,
+                    () -> channel.deleteMessageById(panel.messageId));
+        }
+    }
+
+    /**
+     * Prüft, ob die Nachricht oder der Kanal nicht mehr erreichbar ist.
+     */
+    private static boolean isGone(ErrorResponse response) {
+        return response == ErrorResponse.UNKNOWN_MESSAGE
+                || response == ErrorResponse.UNKNOWN_CHANNEL
+                || response == ErrorResponse.MISSING_ACCESS;
+    }
+
+    /**
+     * Liest einen positiven Integer-Wert aus der Konfiguration.
+     */
+    private static int readInt(String key, int fallback) {
+        try {
+            return Math.max(1, Integer.parseInt(Config.getProperty(key, String.valueOf(fallback)).trim()));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.quartel.discordbot.modules.music.util;
+
+import com.quartel.discordbot.modules.music.player.TrackScheduler;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zwischenspeicher für gerenderte Seiten der Warteschlangen-Anzeige.
+ * <p>
+ * Seiten werden pro Server unter der {@link TrackScheduler#getVersion() Version} der Warteschlange abgelegt.
+ * Solange sich die Warteschlange nicht ändert, liefern wiederholte {@code /queue}-Aufrufe und das Blättern
+ * die bereits gerenderte Seite; nach einer Änderung wird jede Seite beim ersten Abruf einmal neu erstellt.
+ */
+public final class QueueRenderCache {
+    private static QueueRenderCache instance;
+
+    /**
+     * Anzahl der Tracks pro Seite.
+     */
+    public static final int PAGE_SIZE = 10;
+
+    /**
+     * Eine gerenderte Seite der Warteschlange.
+     *
+     * @param page      Der Index der Seite (ab 0)
+     * @param pageCount Die Anzahl der Seiten
+     * @param body      Der gerenderte Text mit aktuellem Track und den Tracks dieser Seite
+     */
+    public record QueuePage(int page, int pageCount, String body) {
+    }
+
+    /**
+     * Alle Seiten eines Servers zu einer Version der Warteschlange.
+     */
+    private record VersionedPages(long version, Map<Integer, QueuePage> pages) {
+    }
+
+    private final Map<Long, VersionedPages> cache = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private QueueRenderCache() {
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die QueueRenderCache-Instanz
+     */
+    public static synchronized QueueRenderCache getInstance() {
+        if (instance == null) {
+            instance = new QueueRenderCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gibt eine Seite der Warteschlange zurück und rendert sie nur, wenn sie für die aktuelle Version fehlt.
+     *
+     * @param guildId      Die ID des Servers
+     * @param scheduler    Der TrackScheduler des Servers
+     * @param currentTrack Der aktuell spielende Track oder null
+     * @param page         Der gewünschte Seitenindex; wird auf den gültigen Bereich begrenzt
+     * @return Die gerenderte Seite
+     */
+    public QueuePage getPage(long guildId, TrackScheduler scheduler, AudioTrack currentTrack, int page) {
+        // Version vor den Daten lesen: eine Seite ist damit höchstens neuer als ihre Version, nie älter
+        long version = scheduler.getVersion();
+        VersionedPages pages = cache.compute(guildId, (id, existing) ->
+                existing != null && existing.version() == version
+                        ? existing
+                        : new VersionedPages(version, new ConcurrentHashMap<>()));
+
+        int pageIndex = clampPage(page, scheduler.getQueueSize());
+        QueuePage cached = pages.pages().get(pageIndex);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        return pages.pages().computeIfAbsent(pageIndex, index -> render(scheduler, currentTrack, index));
+    }
+
+    /**
+     * Berechnet die Anzahl der Seiten für eine Warteschlange.
+     *
+     * @param queueSize Die Länge der Warteschlange
+     * @return Die Anzahl der Seiten, mindestens 1
+     */
+    public static int getPageCount(int queueSize) {
+        return Math.max(1, (queueSize + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /**
+     * Gibt die Anzahl der aus dem Zwischenspeicher gelieferten Seiten zurück.
+     *
+     * @return Die Anzahl der Treffer
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gibt die Anzahl der neu gerenderten Seiten zurück.
+     *
+     * @return Die Anzahl der Fehlzugriffe
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Begrenzt einen Seitenindex auf den gültigen Bereich.
+     */
+    private static int clampPage(int page, int queueSize) {
+        return Math.max(0, Math.min(page, getPageCount(queueSize) - 1));
+    }
+
+    /**
+     * Rendert eine Seite; kopiert nur die Tracks dieser Seite aus der Warteschlange.
+     */
+    private static QueuePage render(TrackScheduler scheduler, AudioTrack currentTrack, int page) {
+        int queueSize = scheduler.getQueueSize();
+        int offset = page * PAGE_SIZE;
+        List<AudioTrack> tracks = scheduler.getQueueSlice(offset, PAGE_SIZE);
+        StringBuilder body = new StringBuilder();
+
+        // Aktueller Track
+        if (currentTrack != null) {
+            AudioTrackInfo info = currentTrack.getInfo();
+            body.append("**Aktuell:** [")
+                    .append(info.title)
+                    .append("](")
+                    .append(info.uri)
+                    .append(") `")
+                    .append(MusicUtil.formatDuration(currentTrack.getDuration()))
+                    .append("`\n\n");
+        }
+
+        if (!tracks.isEmpty()) {
+            body.append("**Warteschlange:**\n");
+            for (int i = 0; i < tracks.size(); i++) {
+                AudioTrackInfo info = tracks.get(i).getInfo();
+                body.append("`")
+                        .append(offset + i + 1)
+                        .append(".` [")
+                        .append(info.title)
+                        .append("](")
+                        .append(info.uri)
+                        .append(") `")
+                        .append(MusicUtil.formatDuration(tracks.get(i).getDuration()))
+                        .append("`\n");
+            }
+        }
+
+        return new QueuePage(page, getPageCount(queueSize), body.toString());
+    }
+}
@@ -1,9 +1,13 @@
 package com.quartel.discordbot.modules.music.util;
 
 import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import com.quartel.discordbot.config.GuildSettings;
+import com.quartel.discordbot.config.GuildSettingsStore;
+import com.quartel.discordbot.core.Shards;
+import com.quartel.discordbot.metrics.jfr.WaitingRoomStateEvent;
 import com.quartel.discordbot.modules.music.player.GuildMusicManager;
 import com.quartel.discordbot.modules.music.player.PlayerManager;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.GuildVoiceState;
 import net.dv8tion.jda.api.entities.Member;
@@ -11,6 +15,7 @@ import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceUpdateEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.managers.AudioManager;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,12 +23,15 @@ import org.slf4j.LoggerFactory;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Verwaltet den Warteraum-Modus des Bots.
+ * Warteraum-Channel, Playlist und Aktivierungsstatus werden pro Server im {@link GuildSettingsStore}
+ * gespeichert und überstehen so einen Neustart des Bots.
  * Diese Klasse ist als Singleton implementiert.
  */
 public class WaitingRoomManager extends ListenerAdapter {
@@ -38,7 +46,7 @@ public class WaitingRoomManager extends ListenerAdapter {
     }
 
     // Map, die für jeden Server den Warteraum-Zustand speichert
-    private final Map<Long, WaitingRoomState> waitingRoomStates = new HashMap<>();
+    private final Map<Long, WaitingRoomState> waitingRoomStates = new ConcurrentHashMap<>();
 
     // Map, die die verwendete Playlist für jeden Server speichert
     private final Map<Long, String> activePlaylists = new HashMap<>();
@@ -49,18 +57,14 @@ public class WaitingRoomManager extends ListenerAdapter {
     // Scheduler für regelmäßige Überprüfungen
     private final ScheduledExecutorService scheduler;
 
-    // JDA-Instanz für den Zugriff auf Guilds und Channels
-    private JDA jda;
-
-    // MusicLibraryManager für den Zugriff auf Playlists
-    private final MusicLibraryManager musicLibraryManager;
+    // ShardManager für den Zugriff auf Guilds und Channels aller Shards
+    private ShardManager shardManager;
 
     /**
      * Privater Konstruktor für Singleton-Muster.
      */
     private WaitingRoomManager() {
         this.scheduler = Executors.newScheduledThreadPool(1);
-        this.musicLibraryManager = new MusicLibraryManager();
 
         // Starte einen Timer, der alle 15 Sekunden prüft
         scheduler.scheduleAtFixedRate(this::checkWaitingRooms, 15, 15, TimeUnit.SECONDS);
@@ -81,25 +85,58 @@ public class WaitingRoomManager extends ListenerAdapter {
     }
 
     /**
-     * Setzt die JDA-Instanz und registriert den Event-Listener.
+     * Setzt den ShardManager und registriert den Event-Listener bei allen Shards.
      *
-     * @param jda Die JDA-Instanz
+     * @param shardManager Der ShardManager des Bots
      */
-    public void setJDA(JDA jda) {
-        this.jda = jda;
+    public void setShardManager(ShardManager shardManager) {
+        this.shardManager = shardManager;
 
         // Entferne zuerst diesen Listener, falls er bereits registriert ist
-        jda.removeEventListener(this);
+        shardManager.removeEventListener(this);
 
         // Registriere diesen Manager als Event-Listener für Voice-Events
-        jda.addEventListener(this);
+        shardManager.addEventListener(this);
         LOGGER.debug("WaitingRoomManager als Event-Listener registriert");
 
+        // Stelle gespeicherte Warteräume im Monitoring-Modus wieder her
+        GuildSettingsStore store = GuildSettingsStore.getInstance();
+        for (Guild guild : shardManager.getGuilds()) {
+            GuildSettings settings = store.get(guild.getIdLong());
+            if (settings.isWaitingRoomActive()) {
+                setState(guild.getIdLong(), WaitingRoomState.MONITORING);
+                activePlaylists.put(guild.getIdLong(), settings.getWaitingRoomPlaylist());
+                LOGGER.info("Warteraum für Server {} aus den Servereinstellungen wiederhergestellt", guild.getName());
+            }
+        }
+
         // Prüfe alle Guilds auf bereits aktivierte Warteräume
         // und stelle initialen Zustand wieder her
         scheduler.schedule(this::checkWaitingRooms, 5, TimeUnit.SECONDS);
     }
 
+    /**
+     * Gibt die Channel-ID des Warteraums für einen Server zurück.
+     * Eine Servereinstellung hat Vorrang vor der globalen Konfiguration.
+     *
+     * @param guildId Die ID der Guild
+     * @return Die Channel-ID oder 0, wenn kein Warteraum konfiguriert ist
+     */
+    public long getWaitingRoomChannelId(long guildId) {
+        return GuildSettingsStore.getInstance().get(guildId).getWaitingRoomChannelId();
+    }
+
+    /**
+     * Legt den Warteraum-Channel für einen Server fest.
+     *
+     * @param guild   Die Guild
+     * @param channel Der neue Warteraum-Channel
+     */
+    public void setWaitingRoomChannel(Guild guild, VoiceChannel channel) {
+        GuildSettingsStore.getInstance().set(guild.getIdLong(), GuildSettings.WAITING_ROOM_CHANNEL, channel.getId());
+        LOGGER.info("Warteraum-Channel für Server {} auf {} gesetzt", guild.getName(), channel.getName());
+    }
+
     /**
      * Prüft, ob der Warteraum für ein bestimmten Server konfiguriert ist.
      *
@@ -111,19 +148,13 @@ public class WaitingRoomManager extends ListenerAdapter {
             return false;
         }
 
-        // Hole die Channel-ID aus der Konfiguration
-        String channelIdStr = Config.getProperty("warteraum.channel_id");
-        if (channelIdStr == null || channelIdStr.isEmpty() || "YOUR_CHANNEL_ID_HERE".equals(channelIdStr)) {
+        // Hole die Channel-ID aus den Servereinstellungen
+        long channelId = getWaitingRoomChannelId(guild.getIdLong());
+        if (channelId == 0L) {
             return false;
         }
 
-        try {
-            long channelId = Long.parseLong(channelIdStr);
-            VoiceChannel waitingRoom = guild.getVoiceChannelById(channelId);
-            return waitingRoom != null;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return guild.getVoiceChannelById(channelId) != null;
     }
 
     /**
@@ -149,6 +180,7 @@ public class WaitingRoomManager extends ListenerAdapter {
 
             // Aktualisiere die Playlist, falls sie geändert wurde
             activePlaylists.put(guildId, playlistName);
+            GuildSettingsStore.getInstance().set(guildId, GuildSettings.WAITING_ROOM_PLAYLIST, playlistName);
 
             // Wenn der Bot nicht verbunden ist, prüfe, ob User im Channel sind
             if (currentState == WaitingRoomState.MONITORING) {
@@ -159,14 +191,13 @@ public class WaitingRoomManager extends ListenerAdapter {
         }
 
         // Prüfe die Gültigkeit der Channel-ID
-        String channelIdStr = Config.getProperty("warteraum.channel_id");
-        if (channelIdStr == null || channelIdStr.isEmpty() || "YOUR_CHANNEL_ID_HERE".equals(channelIdStr)) {
-            LOGGER.error("Keine gültige Warteraum-Channel-ID in der Konfiguration gefunden");
+        long channelId = getWaitingRoomChannelId(guildId);
+        if (channelId == 0L) {
+            LOGGER.error("Keine gültige Warteraum-Channel-ID für Server {} gefunden", guild.getName());
             return false;
         }
 
         try {
-            long channelId = Long.parseLong(channelIdStr);
             VoiceChannel waitingRoom = guild.getVoiceChannelById(channelId);
 
             if (waitingRoom == null) {
@@ -175,14 +206,17 @@ public class WaitingRoomManager extends ListenerAdapter {
             }
 
             // Playlist überprüfen
-            List<String> playlistFiles = musicLibraryManager.findAudioFilesInPlaylist(playlistName);
+            List<String> playlistFiles = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName);
             if (playlistFiles.isEmpty()) {
                 LOGGER.error("Keine Audiodateien in der Playlist '{}' gefunden", playlistName);
                 return false;
             }
 
-            // Speichere die aktive Playlist
+            // Speichere die aktive Playlist, auch über einen Neustart hinaus
             activePlaylists.put(guildId, playlistName);
+            GuildSettingsStore store = GuildSettingsStore.getInstance();
+            store.set(guildId, GuildSettings.WAITING_ROOM_PLAYLIST, playlistName);
+            store.set(guildId, GuildSettings.WAITING_ROOM_ACTIVE, "true");
 
             // Prüfe, ob User im Channel sind
             boolean usersPresent = countHumanMembersInChannel(waitingRoom) > 0;
@@ -191,27 +225,24 @@ public class WaitingRoomManager extends ListenerAdapter {
                 // Verbinden und Musik abspielen, wenn User da sind
                 if (connectToChannel(guild, waitingRoom)) {
                     playPlaylist(guild, playlistFiles);
-                    waitingRoomStates.put(guildId, WaitingRoomState.CONNECTED);
+                    setState(guildId, WaitingRoomState.CONNECTED);
                     updateActivity(guildId);
                     LOGGER.info("Warteraum für Server {} aktiviert mit Playlist '{}' und direkt verbunden",
                             guild.getName(), playlistName);
                 } else {
                     // Verbindung fehlgeschlagen, aber trotzdem im Monitoring-Modus
-                    waitingRoomStates.put(guildId, WaitingRoomState.MONITORING);
+                    setState(guildId, WaitingRoomState.MONITORING);
                     LOGGER.warn("Verbindung zum Warteraum-Channel fehlgeschlagen, starte im Monitoring-Modus");
                 }
             } else {
                 // Keine User im Channel, starte im Monitoring-Modus
-                waitingRoomStates.put(guildId, WaitingRoomState.MONITORING);
+                setState(guildId, WaitingRoomState.MONITORING);
                 LOGGER.info("Warteraum für Server {} aktiviert im Monitoring-Modus (keine User im Channel)",
                         guild.getName());
             }
 
             return true;
 
-        } catch (NumberFormatException e) {
-            LOGGER.error("Ungültige Channel-ID in der Konfiguration", e);
-            return false;
         } catch (Exception e) {
             LOGGER.error("Fehler beim Aktivieren des Warteraums für Server {}", guild.getName(), e);
             return false;
@@ -246,8 +277,9 @@ public class WaitingRoomManager extends ListenerAdapter {
             }
 
             // Status auf inaktiv setzen
-            waitingRoomStates.put(guildId, WaitingRoomState.INACTIVE);
+            setState(guildId, WaitingRoomState.INACTIVE);
             activePlaylists.remove(guildId);
+            GuildSettingsStore.getInstance().remove(guildId, GuildSettings.WAITING_ROOM_ACTIVE);
 
             LOGGER.info("Warteraum für Server {} vollständig deaktiviert", guild.getName());
             return true;
@@ -269,9 +301,8 @@ public class WaitingRoomManager extends ListenerAdapter {
         if (guild == null) return false;
 
         try {
-            String channelIdStr = Config.getProperty("warteraum.channel_id");
-            long channelId = Long.parseLong(channelIdStr);
-            VoiceChannel waitingRoom = guild.getVoiceChannelById(channelId);
+            long channelId = getWaitingRoomChannelId(guild.getIdLong());
+            VoiceChannel waitingRoom = channelId != 0L ? guild.getVoiceChannelById(channelId) : null;
 
             if (waitingRoom == null) {
                 LOGGER.error("Warteraum-Channel nicht gefunden");
@@ -284,9 +315,9 @@ public class WaitingRoomManager extends ListenerAdapter {
             if (usersPresent) {
                 // Verbinden und Musik abspielen
                 if (connectToChannel(guild, waitingRoom)) {
-                    List<String> playlistFiles = musicLibraryManager.findAudioFilesInPlaylist(playlistName);
+                    List<String> playlistFiles = MusicLibraryManager.getInstance().findAudioFilesInPlaylist(playlistName);
                     playPlaylist(guild, playlistFiles);
-                    waitingRoomStates.put(guild.getIdLong(), WaitingRoomState.CONNECTED);
+                    setState(guild.getIdLong(), WaitingRoomState.CONNECTED);
                     updateActivity(guild.getIdLong());
                     LOGGER.info("Mit Warteraum-Channel verbunden wegen Benutzeranwesenheit");
                     return true;
@@ -413,6 +444,34 @@ public class WaitingRoomManager extends ListenerAdapter {
         return waitingRoomStates.getOrDefault(guildId, WaitingRoomState.INACTIVE);
     }
 
+    /**
+     * Setzt den Warteraum-Zustand eines Servers und zeichnet den Wechsel als JFR-Ereignis auf.
+     *
+     * @param guildId Die ID der Guild
+     * @param state   Der neue Zustand
+     */
+    private void setState(long guildId, WaitingRoomState state) {
+        WaitingRoomState previous = waitingRoomStates.put(guildId, state);
+
+        WaitingRoomStateEvent event = new WaitingRoomStateEvent();
+        if (previous != state && event.shouldCommit()) {
+            event.guildId = guildId;
+            event.previousState = previous != null ? previous.name() : WaitingRoomState.INACTIVE.name();
+            event.newState = state.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Zählt die Server in einem Warteraum-Zustand.
+     *
+     * @param state Der Zustand
+     * @return Die Anzahl der Server in diesem Zustand
+     */
+    public long countWaitingRooms(WaitingRoomState state) {
+        return waitingRoomStates.values().stream().filter(current -> current == state).count();
+    }
+
     /**
      * Aktualisiert die Aktivitätszeit für den angegebenen Server.
      *
@@ -428,72 +487,71 @@ public class WaitingRoomManager extends ListenerAdapter {
      * Trennt Verbindungen zu leeren Channels (geht in Monitoring-Modus).
      */
     private void checkWaitingRooms() {
-        if (jda == null) {
+        if (shardManager == null) {
             return;
         }
 
         try {
-            for (Guild guild : jda.getGuilds()) {
-                long guildId = guild.getIdLong();
-                WaitingRoomState currentState = waitingRoomStates.getOrDefault(guildId, WaitingRoomState.INACTIVE);
+            // Konfiguration einmal pro Durchlauf lesen statt für jede Guild
+            ConfigSnapshot config = Config.get();
+            GuildSettingsStore store = GuildSettingsStore.getInstance();
+
+            // Nur Server mit Warteraum prüfen und über ihre Shard auflösen, statt alle Server aller Shards zu durchlaufen
+            for (Map.Entry<Long, WaitingRoomState> entry : waitingRoomStates.entrySet()) {
+                long guildId = entry.getKey();
+                WaitingRoomState currentState = entry.getValue();
 
                 // Überspringen, wenn der Warteraum nicht aktiv ist
                 if (currentState == WaitingRoomState.INACTIVE) {
                     continue;
                 }
 
-                // Hole Channel-ID aus der Konfiguration
-                String channelIdStr = Config.getProperty("warteraum.channel_id");
-                if (channelIdStr == null || channelIdStr.isEmpty()) {
+                Guild guild = Shards.getGuild(shardManager, guildId);
+                if (guild == null) {
                     continue;
                 }
 
-                try {
-                    long channelId = Long.parseLong(channelIdStr);
-                    VoiceChannel waitingRoom = guild.getVoiceChannelById(channelId);
+                GuildSettings settings = store.get(guildId);
+                long channelId = settings.getWaitingRoomChannelId();
+                VoiceChannel waitingRoom = channelId != 0L ? guild.getVoiceChannelById(channelId) : null;
+                if (waitingRoom == null) {
+                    continue;
+                }
 
-                    if (waitingRoom == null) {
-                        continue;
-                    }
+                // Zähle menschliche Mitglieder im Warteraum
+                long humanMembersCount = countHumanMembersInChannel(waitingRoom);
 
-                    // Zähle menschliche Mitglieder im Warteraum
-                    long humanMembersCount = countHumanMembersInChannel(waitingRoom);
-
-                    if (currentState == WaitingRoomState.CONNECTED) {
-                        // Bot ist verbunden - prüfen ob er trennen soll
-                        if (humanMembersCount == 0) {
-                            // Prüfe auf Timeout
-                            long currentTime = System.currentTimeMillis();
-                            long lastActivity = lastActivityTimes.getOrDefault(guildId, currentTime);
-                            int timeout = Integer.parseInt(Config.getProperty("warteraum.auto_leave_timeout", "60"));
-
-                            // Wenn der Timeout überschritten wurde, trenne Verbindung (aber bleibe im Monitoring-Modus)
-                            if ((currentTime - lastActivity) / 1000 >= timeout) {
-                                LOGGER.info("Keine User im Warteraum für Server {} - Trenne Verbindung und wechsle in Monitoring-Modus",
-                                        guild.getName());
-
-                                disconnectFromChannel(guild);
-                                waitingRoomStates.put(guildId, WaitingRoomState.MONITORING);
-                            }
-                        } else {
-                            // User sind anwesend, aktualisiere Aktivitätszeit
-                            updateActivity(guildId);
-                        }
-                    } else if (currentState == WaitingRoomState.MONITORING) {
-                        // Bot ist im Monitoring-Modus - prüfen ob er verbinden soll
-                        if (humanMembersCount > 0) {
-                            LOGGER.info("User im Warteraum für Server {} entdeckt - Verbinde und starte Musik",
-                                    guild.getName());
+                if (currentState == WaitingRoomState.CONNECTED) {
+                    // Bot ist verbunden - prüfen ob er trennen soll
+                    if (humanMembersCount == 0) {
+                        // Prüfe auf Timeout
+                        long currentTime = System.currentTimeMillis();
+                        long lastActivity = lastActivityTimes.getOrDefault(guildId, currentTime);
+                        int timeout = config.waitingRoomTimeout();
 
-                            String playlistName = activePlaylists.getOrDefault(guildId,
-                                    Config.getProperty("warteraum.default_playlist", "chill"));
+                        // Wenn der Timeout überschritten wurde, trenne Verbindung (aber bleibe im Monitoring-Modus)
+                        if ((currentTime - lastActivity) / 1000 >= timeout) {
+                            LOGGER.info("Keine User im Warteraum für Server {} - Trenne Verbindung und wechsle in Monitoring-Modus",
+                                    guild.getName());
 
-                            connectIfUsersPresent(guild, playlistName);
+                            disconnectFromChannel(guild);
+                            setState(guildId, WaitingRoomState.MONITORING);
                         }
+                    } else {
+                        // User sind anwesend, aktualisiere Aktivitätszeit
+                        updateActivity(guildId);
                     }
+                } else if (currentState == WaitingRoomState.MONITORING) {
+                    // Bot ist im Monitoring-Modus - prüfen ob er verbinden soll
+                    if (humanMembersCount > 0) {
+                        LOGGER.info("User im Warteraum für Server {} entdeckt - Verbinde und starte Musik",
+                                guild.getName());
+
+                        String playlistName = activePlaylists.getOrDefault(guildId,
+                                settings.getWaitingRoomPlaylist());
 
-                } catch (NumberFormatException e) {
-                    LOGGER.error("Ungültige Channel-ID in der Konfiguration", e);
+                        connectIfUsersPresent(guild, playlistName);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -522,14 +580,13 @@ public class WaitingRoomManager extends ListenerAdapter {
                 return;
             }
 
-            // Hole Channel-ID aus der Konfiguration
-            String channelIdStr = Config.getProperty("warteraum.channel_id");
-            if (channelIdStr == null || channelIdStr.isEmpty()) {
+            // Hole Channel-ID aus den Servereinstellungen
+            GuildSettings settings = GuildSettingsStore.getInstance().get(guildId);
+            long channelId = settings.getWaitingRoomChannelId();
+            if (channelId == 0L) {
                 return;
             }
 
-            long channelId = Long.parseLong(channelIdStr);
-
             // Überprüfe, ob der User dem Warteraum beigetreten ist
             if (event.getChannelJoined().getIdLong() == channelId) {
                 // Vermeide Reaktion auf Bots
@@ -541,7 +598,7 @@ public class WaitingRoomManager extends ListenerAdapter {
                         event.getMember().getEffectiveName(), guild.getName());
 
                 String playlistName = activePlaylists.getOrDefault(guildId,
-                        Config.getProperty("warteraum.default_playlist", "chill"));
+                        settings.getWaitingRoomPlaylist());
 
                 // Mit einiger Verzögerung verbinden, um sicherzustellen, dass der Join vollständig ist
                 scheduler.schedule(() -> connectIfUsersPresent(guild, playlistName), 1, TimeUnit.SECONDS);
@@ -559,8 +616,8 @@ public class WaitingRoomManager extends ListenerAdapter {
 
         // Deaktiviere alle aktiven Warteräume
         for (Map.Entry<Long, WaitingRoomState> entry : waitingRoomStates.entrySet()) {
-            if (entry.getValue() != WaitingRoomState.INACTIVE && jda != null) {
-                Guild guild = jda.getGuildById(entry.getKey());
+            if (entry.getValue() != WaitingRoomState.INACTIVE && shardManager != null) {
+                Guild guild = Shards.getGuild(shardManager, entry.getKey());
                 if (guild != null) {
                     disconnectFromChannel(guild);
                 }
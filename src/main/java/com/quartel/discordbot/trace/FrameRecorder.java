@@ -0,0 +1,267 @@
+package com.quartel.discordbot.trace;
+
+import com.quartel.discordbot.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zeichnet die Opus-Frames auf, die der {@code AudioPlayerSendHandler} an JDA übergibt, samt Abrufzeitpunkten
+ * (Format siehe {@link FrameTrace}). Eine Aufzeichnung beginnt mit dem ersten Frame eines Servers und endet nach
+ * fünf Sekunden ohne Frame oder nach {@code trace.frames.max_seconds}; jede landet in einer eigenen Datei unter
+ * {@code trace.directory}. Das Benchmark-Projekt spielt sie ohne Decodierung und Discord wieder ab.
+ * <p>
+ * Aktiviert über {@code trace.frames.enabled}, ausgewertet beim Erstellen der Send-Handler. Der Audio-Thread
+ * kopiert nur den Frame in eine Warteschlange; geschrieben wird von einem gemeinsamen Hintergrund-Thread. Ist die
+ * Warteschlange voll, werden Abrufe verworfen und gezählt.
+ */
+public final class FrameRecorder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameRecorder.class);
+    private static FrameRecorder instance;
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int QUEUE_CAPACITY = 8_192;
+
+    // Abrufe ohne Frame, nach denen eine Aufzeichnung endet (250 x 20 ms = 5 s)
+    private static final int SESSION_IDLE_POLLS = 250;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSessionNanos;
+    private final BlockingQueue<Poll> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    // Nur vom Schreib-Thread verwendet
+    private final List<Session> openSessions = new ArrayList<>();
+
+    private record Poll(Session session, long offsetMicros, byte[] frame) {
+    }
+
+    /**
+     * Eine Aufzeichnung; die Datei wird erst beim ersten Schreiben angelegt.
+     */
+    private static final class Session {
+        private final long guildId;
+        private final long startEpochMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean ended;
+
+        // Nur vom Schreib-Thread verwendet
+        private Path file;
+        private FrameTrace.Writer writer;
+        private boolean closed;
+
+        private Session(long guildId) {
+            this.guildId = guildId;
+        }
+    }
+
+    private FrameRecorder() {
+        this.enabled = "true".equalsIgnoreCase(Config.getProperty("trace.frames.enabled", "false").trim());
+        this.directory = Path.of(Config.getProperty("trace.directory", "logs/traces").trim());
+        long maxSeconds;
+        try {
+            maxSeconds = Long.parseLong(Config.getProperty("trace.frames.max_seconds", "600").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültiger Wert für trace.frames.max_seconds: \"{}\", verwende 600",
+                    Config.getProperty("trace.frames.max_seconds"));
+            maxSeconds = 600;
+        }
+        this.maxSessionNanos = TimeUnit.SECONDS.toNanos(Math.max(1, maxSeconds));
+
+        if (enabled) {
+            writerThread = new Thread(this::writeLoop, "frame-trace");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            LOGGER.info("Audio-Frames werden nach {} aufgezeichnet", directory.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die FrameRecorder-Instanz
+     */
+    public static synchronized FrameRecorder getInstance() {
+        if (instance == null) {
+            instance = new FrameRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Erstellt die Aufzeichnung für einen Server.
+     *
+     * @param guildId Die ID des Servers
+     * @return Die Aufzeichnung oder null, wenn keine Frames aufgezeichnet werden
+     */
+    public Channel forGuild(long guildId) {
+        return enabled ? new Channel(guildId) : null;
+    }
+
+    /**
+     * Beendet alle Aufzeichnungen und schreibt ausstehende Frames.
+     */
+    public void close() {
+        if (!enabled || closed) {
+            return;
+        }
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.get() > 0) {
+            LOGGER.warn("Frame-Aufzeichnung: {} Abrufe wegen voller Warteschlange verworfen", dropped.get());
+        }
+    }
+
+    /**
+     * Aufzeichnung der Abrufe eines Servers. Wird nur vom Audio-Thread dieses Servers verwendet.
+     */
+    public final class Channel {
+        private final long guildId;
+        private Session session;
+        private int idlePolls;
+
+        private Channel(long guildId) {
+            this.guildId = guildId;
+        }
+
+        /**
+         * Zeichnet einen gelieferten Frame auf; beginnt bei Bedarf eine neue Aufzeichnung.
+         *
+         * @param frame Der Frame zwischen Position und Limit; die Position wird nicht verändert
+         */
+        public void recordFrame(ByteBuffer frame) {
+            if (closed) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (session != null && now - session.startNanos >= maxSessionNanos) {
+                endSession();
+            }
+            if (session == null) {
+                session = new Session(guildId);
+            }
+            idlePolls = 0;
+
+            byte[] copy = new byte[frame.remaining()];
+            frame.get(frame.position(), copy);
+            enqueue(new Poll(session, (now - session.startNanos) / 1_000, copy));
+        }
+
+        /**
+         * Zeichnet einen Abruf ohne Frame auf; nach fünf Sekunden ohne Frame endet die Aufzeichnung.
+         */
+        public void recordMiss() {
+            if (session == null) {
+                return;
+            }
+            enqueue(new Poll(session, (System.nanoTime() - session.startNanos) / 1_000, null));
+            if (++idlePolls >= SESSION_IDLE_POLLS) {
+                endSession();
+            }
+        }
+
+        private void endSession() {
+            session.ended = true;
+            session = null;
+            idlePolls = 0;
+        }
+    }
+
+    private void enqueue(Poll poll) {
+        if (!queue.offer(poll) && dropped.getAndIncrement() == 0) {
+            LOGGER.warn("Frame-Aufzeichnung verwirft Abrufe (Warteschlange voll)");
+        }
+    }
+
+    /**
+     * Schreibt Abrufe aus der Warteschlange und schließt beendete Aufzeichnungen, sobald die Warteschlange leer
+     * ist oder spätestens jede Sekunde.
+     */
+    private void writeLoop() {
+        long nextSweep = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!closed) {
+            Poll poll;
+            try {
+                poll = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (poll != null) {
+                write(poll);
+            }
+            if (poll == null || System.nanoTime() >= nextSweep) {
+                closeSessions(false);
+                nextSweep = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+
+        for (Poll poll = queue.poll(); poll != null; poll = queue.poll()) {
+            write(poll);
+        }
+        closeSessions(true);
+    }
+
+    private void write(Poll poll) {
+        Session session = poll.session();
+        if (session.closed) {
+            return;
+        }
+        try {
+            if (session.writer == null) {
+                Files.createDirectories(directory);
+                session.file = directory.resolve("frames-" + session.guildId + "-"
+                        + LocalDateTime.now().format(FILE_TIME) + ".trace");
+                session.writer = new FrameTrace.Writer(session.file, session.startEpochMillis, session.guildId);
+                openSessions.add(session);
+            }
+            session.writer.write(poll.offsetMicros(), poll.frame());
+        } catch (IOException e) {
+            LOGGER.error("Frame-Aufzeichnung für Server {} abgebrochen", session.guildId, e);
+            close(session);
+        }
+    }
+
+    private void closeSessions(boolean all) {
+        for (Session session : List.copyOf(openSessions)) {
+            if (all || session.ended) {
+                close(session);
+            }
+        }
+    }
+
+    private void close(Session session) {
+        session.closed = true;
+        openSessions.remove(session);
+        if (session.writer == null) {
+            return;
+        }
+        try {
+            session.writer.close();
+            LOGGER.info("Frame-Aufzeichnung für Server {} gespeichert: {} ({} Frames, {} s)", session.guildId,
+                    session.file.toAbsolutePath(), session.writer.getFrames(),
+                    TimeUnit.MICROSECONDS.toSeconds(session.writer.getLastOffsetMicros()));
+        } catch (IOException e) {
+            LOGGER.warn("Frame-Aufzeichnung {} konnte nicht geschlossen werden", session.file.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.quartel.discordbot.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binäres Format für aufgezeichnete Audio-Frames eines Servers.
+ * <p>
+ * Eine Aufzeichnung ist ein GZIP-Strom mit Kopf ({@code ADFR}, Version, Startzeit in Epoch-Millisekunden,
+ * Server-ID) und einem Eintrag pro Abruf durch JDA: Abstand zum vorherigen Abruf in Mikrosekunden (Varint),
+ * Länge des Opus-Frames (Varint, 0 = kein Frame bereit) und der Frame selbst. Fehlende Frames werden
+ * mitgeschrieben, damit Lücken und Abrufzeitpunkte bei der Wiedergabe erhalten bleiben.
+ */
+public final class FrameTrace {
+    private static final int MAGIC = 0x41444652; // "ADFR"
+    private static final int VERSION = 1;
+
+    private FrameTrace() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Ein aufgezeichneter Abruf.
+     *
+     * @param offsetMicros Zeitpunkt relativ zum Beginn der Aufzeichnung
+     * @param frame        Der Opus-Frame oder null, wenn kein Frame bereit war
+     */
+    public record Entry(long offsetMicros, byte[] frame) {
+    }
+
+    /**
+     * Schreibt eine Aufzeichnung. Nicht threadsicher.
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long lastOffsetMicros;
+        private long frames;
+
+        /**
+         * Erstellt die Datei und schreibt den Kopf.
+         *
+         * @throws IOException Wenn die Datei nicht geschrieben werden kann
+         */
+        public Writer(Path file, long startEpochMillis, long guildId) throws IOException {
+            this.out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file)), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startEpochMillis);
+            out.writeLong(guildId);
+        }
+
+        /**
+         * Schreibt einen Abruf.
+         *
+         * @param offsetMicros Zeitpunkt relativ zum Beginn
+         * @param frame        Der Frame oder null für einen fehlenden Frame
+         */
+        public void write(long offsetMicros, byte[] frame) throws IOException {
+            long delta = Math.max(0, offsetMicros - lastOffsetMicros);
+            lastOffsetMicros += delta;
+
+            VarInts.write(out, delta);
+            if (frame == null) {
+                out.writeByte(0);
+            } else {
+                VarInts.write(out, frame.length);
+                out.write(frame);
+                frames++;
+            }
+        }
+
+        /**
+         * Gibt die Anzahl der bisher geschriebenen Frames zurück, ohne fehlende.
+         */
+        public long getFrames() {
+            return frames;
+        }
+
+        /**
+         * Gibt den Zeitpunkt des zuletzt geschriebenen Abrufs zurück.
+         */
+        public long getLastOffsetMicros() {
+            return lastOffsetMicros;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Liest eine Aufzeichnung Eintrag für Eintrag.
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final long startEpochMillis;
+        private final long guildId;
+        private long offsetMicros;
+
+        /**
+         * Öffnet eine Aufzeichnung und liest den Kopf.
+         *
+         * @throws IOException Wenn die Datei keine Frame-Aufzeichnung in einer bekannten Version ist
+         */
+        public Reader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+            if (in.readInt() != MAGIC) {
+                in.close();
+                throw new IOException("Keine Frame-Aufzeichnung: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("Unbekannte Version " + version + " der Frame-Aufzeichnung: " + file);
+            }
+            this.startEpochMillis = in.readLong();
+            this.guildId = in.readLong();
+        }
+
+        public long getStartEpochMillis() {
+            return startEpochMillis;
+        }
+
+        public long getGuildId() {
+            return guildId;
+        }
+
+        /**
+         * Liest den nächsten Abruf.
+         *
+         * @return Der Abruf oder null am Ende der Aufzeichnung
+         * @throws IOException Wenn die Datei beschädigt ist
+         */
+        public Entry next() throws IOException {
+            long delta;
+            try {
+                delta = VarInts.read(in);
+            } catch (EOFException e) {
+                return null;
+            }
+
+            try {
+                int length = (int) VarInts.read(in);
+                byte[] frame = null;
+                if (length > 0) {
+                    frame = new byte[length];
+                    in.readFully(frame);
+                }
+                offsetMicros += delta;
+                return new Entry(offsetMicros, frame);
+            } catch (EOFException e) {
+                // Unvollständiger letzter Eintrag, z. B. nach einem Absturz während des Schreibens
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.quartel.discordbot.trace;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.quartel.discordbot.config.Config;
+import net.dv8tion.jda.api.events.RawGatewayEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Zeichnet die Gateway-Ereignisse, die die Listener des Bots erhalten, mit ihrem zeitlichen Abstand auf
+ * (Format siehe {@link GatewayTrace}). Die Aufzeichnung lässt sich mit dem Discord-Ersatz aus dem
+ * Benchmark-Projekt in Echtzeit oder beschleunigt wiedergeben.
+ * <p>
+ * Aktiviert über {@code trace.enabled}; aufgezeichnet werden die Typen aus {@code trace.events}. Der
+ * Gateway-Thread serialisiert nur den Inhalt und legt ihn in eine Warteschlange; Schreiben und Entfernen der
+ * Interaktions-Token erledigt ein eigener Thread. Ist die Warteschlange voll oder {@code trace.max_events}
+ * erreicht, werden Ereignisse verworfen statt das Gateway aufzuhalten. Sprachstatus-Änderungen des Bots selbst
+ * werden nicht aufgezeichnet, da sie bei der Wiedergabe aus seinen eigenen Anfragen entstehen.
+ */
+public final class GatewayRecorder extends ListenerAdapter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GatewayRecorder.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int QUEUE_CAPACITY = 16_384;
+
+    private record Pending(long offsetMillis, String type, byte[] payload) {
+    }
+
+    private final Set<String> eventTypes;
+    private final long maxEvents;
+    private final Path file;
+    private final GatewayTrace.Writer writer;
+    private final long startNanos = System.nanoTime();
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile String selfId;
+    private volatile boolean closed;
+
+    private GatewayRecorder(Path file, Set<String> eventTypes, long maxEvents) throws IOException {
+        this.file = file;
+        this.eventTypes = eventTypes;
+        this.maxEvents = maxEvents;
+        this.writer = new GatewayTrace.Writer(file, System.currentTimeMillis());
+
+        writerThread = new Thread(this::writeLoop, "gateway-trace");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Erstellt einen Recorder, wenn {@code trace.enabled} gesetzt ist. Der Recorder muss vor dem Verbinden
+     * registriert werden, damit der Anfangszustand (GUILD_CREATE) enthalten ist, und benötigt Raw-Events.
+     *
+     * @return Der Recorder oder null, wenn nicht aufgezeichnet wird oder die Datei nicht angelegt werden kann
+     */
+    public static GatewayRecorder createIfEnabled() {
+        if (!"true".equalsIgnoreCase(Config.getProperty("trace.enabled", "false").trim())) {
+            return null;
+        }
+
+        Set<String> eventTypes = Arrays.stream(Config.getProperty("trace.events",
+                        "GUILD_CREATE,GUILD_DELETE,VOICE_STATE_UPDATE,INTERACTION_CREATE").split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        long maxEvents;
+        try {
+            maxEvents = Long.parseLong(Config.getProperty("trace.max_events", "1000000").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültiger Wert für trace.max_events: \"{}\", verwende 1000000",
+                    Config.getProperty("trace.max_events"));
+            maxEvents = 1_000_000;
+        }
+
+        Path directory = Path.of(Config.getProperty("trace.directory", "logs/traces").trim());
+        Path file = directory.resolve("gateway-" + LocalDateTime.now().format(FILE_TIME) + ".trace");
+        try {
+            Files.createDirectories(directory);
+            GatewayRecorder recorder = new GatewayRecorder(file, eventTypes, maxEvents);
+            LOGGER.info("Gateway-Ereignisse {} werden nach {} aufgezeichnet", eventTypes, file.toAbsolutePath());
+            return recorder;
+        } catch (IOException e) {
+            LOGGER.error("Gateway-Aufzeichnung {} konnte nicht angelegt werden", file.toAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void onRawGateway(RawGatewayEvent event) {
+        String type = event.getType();
+        if (closed || !eventTypes.contains(type)) {
+            return;
+        }
+        if ("VOICE_STATE_UPDATE".equals(type) && selfId != null
+                && selfId.equals(event.getPayload().getString("user_id", ""))) {
+            return;
+        }
+        enqueue(type, event.getPayload().toJson());
+    }
+
+    @Override
+    public void onReady(ReadyEvent event) {
+        selfId = event.getJDA().getSelfUser().getId();
+        JsonObject marker = new JsonObject();
+        marker.addProperty("self_id", selfId);
+        marker.addProperty("application_id", event.getJDA().getSelfUser().getApplicationId());
+        enqueue(GatewayTrace.READY_MARKER, marker.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Beendet die Aufzeichnung und schreibt alle ausstehenden Ereignisse.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Gateway-Aufzeichnung {} beendet: {} Ereignisse, {} verworfen",
+                file.toAbsolutePath(), accepted.get(), dropped.get());
+    }
+
+    private void enqueue(String type, byte[] payload) {
+        if (accepted.get() >= maxEvents
+                || !queue.offer(new Pending((System.nanoTime() - startNanos) / 1_000_000, type, payload))) {
+            if (dropped.getAndIncrement() == 0) {
+                LOGGER.warn("Gateway-Aufzeichnung verwirft Ereignisse (Warteschlange voll oder trace.max_events erreicht)");
+            }
+            return;
+        }
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * Schreibt Ereignisse aus der Warteschlange; ist sie eine Sekunde leer, wird die Datei geleert.
+     */
+    private void writeLoop() {
+        try {
+            while (!closed) {
+                Pending pending;
+                try {
+                    pending = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (pending == null) {
+                    writer.flush();
+                } else {
+                    write(pending);
+                }
+            }
+
+            for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+                write(pending);
+            }
+        } catch (IOException e) {
+            closed = true;
+            LOGGER.error("Gateway-Aufzeichnung {} abgebrochen", file.toAbsolutePath(), e);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.warn("Gateway-Aufzeichnung {} konnte nicht geschlossen werden", file.toAbsolutePath(), e);
+            }
+        }
+    }
+
+    private void write(Pending pending) throws IOException {
+        byte[] payload = pending.payload();
+        if ("INTERACTION_CREATE".equals(pending.type())) {
+            // Interaktions-Token sind 15 Minuten gültig und gehören nicht in eine Datei
+            JsonObject interaction = JsonParser.parseString(new String(payload, StandardCharsets.UTF_8)).getAsJsonObject();
+            interaction.addProperty("token", "trace");
+            payload = interaction.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        writer.write(pending.offsetMillis(), pending.type(), payload);
+    }
+}
@@ -0,0 +1,193 @@
+package com.quartel.discordbot.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binäres Format für aufgezeichnete Gateway-Ereignisse.
+ * <p>
+ * Eine Aufzeichnung ist ein GZIP-Strom mit Kopf ({@code ADTR}, Version, Startzeit in Epoch-Millisekunden) und
+ * einem Eintrag pro Ereignis: Abstand zum vorherigen Ereignis in Millisekunden (Varint), Typcode (ein Byte;
+ * 0 = Typname folgt als UTF-String), Länge des Inhalts (Varint) und der Inhalt als UTF-8-JSON, so wie ihn das
+ * Gateway gesendet hat. Häufige Ereignistypen haben feste Codes, damit ein Eintrag nur wenige Bytes Kopf hat.
+ * <p>
+ * Der Eintrag {@link #READY_MARKER} trennt den Anfangszustand (GUILD_CREATE beim Verbinden) von den später
+ * empfangenen Ereignissen und enthält die IDs des Bots.
+ */
+public final class GatewayTrace {
+    /**
+     * Markiert das Ende des Anfangszustands; Inhalt: {@code {"self_id": ..., "application_id": ...}}.
+     */
+    public static final String READY_MARKER = "ADELHEIT_READY";
+
+    private static final int MAGIC = 0x41445452; // "ADTR"
+    private static final int VERSION = 1;
+
+    // Feste Typcodes; die Reihenfolge ist Teil des Formats und darf nur erweitert werden
+    private static final List<String> TYPE_CODES = List.of(
+            "",
+            READY_MARKER,
+            "GUILD_CREATE",
+            "GUILD_DELETE",
+            "VOICE_STATE_UPDATE",
+            "INTERACTION_CREATE",
+            "GUILD_MEMBER_ADD",
+            "GUILD_MEMBER_REMOVE",
+            "GUILD_ROLE_UPDATE",
+            "MESSAGE_CREATE");
+
+    private GatewayTrace() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Ein aufgezeichnetes Ereignis.
+     *
+     * @param offsetMillis Zeitpunkt relativ zum Beginn der Aufzeichnung
+     * @param type         Der Ereignistyp, z. B. {@code INTERACTION_CREATE}
+     * @param payload      Der Inhalt ({@code d}) als UTF-8-JSON
+     */
+    public record Entry(long offsetMillis, String type, byte[] payload) {
+    }
+
+    /**
+     * Schreibt eine Aufzeichnung. Nicht threadsicher.
+     */
+    public static final class Writer implements Closeable, Flushable {
+        private final DataOutputStream out;
+        private long lastOffsetMillis;
+
+        /**
+         * Erstellt die Datei und schreibt den Kopf.
+         *
+         * @param file            Die Zieldatei
+         * @param startEpochMillis Der Beginn der Aufzeichnung
+         * @throws IOException Wenn die Datei nicht geschrieben werden kann
+         */
+        public Writer(Path file, long startEpochMillis) throws IOException {
+            // Sync-Flush, damit nach flush() alles bis dahin Geschriebene lesbar ist, auch wenn der Bot abstürzt
+            this.out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file)), 64 * 1024, true));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startEpochMillis);
+        }
+
+        /**
+         * Schreibt ein Ereignis.
+         *
+         * @param offsetMillis Zeitpunkt relativ zum Beginn; kleinere Werte als beim vorherigen Ereignis werden
+         *                     auf dessen Zeitpunkt angehoben
+         */
+        public void write(long offsetMillis, String type, byte[] payload) throws IOException {
+            long delta = Math.max(0, offsetMillis - lastOffsetMillis);
+            lastOffsetMillis += delta;
+
+            VarInts.write(out, delta);
+            int code = TYPE_CODES.indexOf(type);
+            if (code > 0) {
+                out.writeByte(code);
+            } else {
+                out.writeByte(0);
+                out.writeUTF(type);
+            }
+            VarInts.write(out, payload.length);
+            out.write(payload);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Liest eine Aufzeichnung Eintrag für Eintrag.
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final long startEpochMillis;
+        private long offsetMillis;
+
+        /**
+         * Öffnet eine Aufzeichnung und liest den Kopf.
+         *
+         * @throws IOException Wenn die Datei keine Aufzeichnung in einer bekannten Version ist
+         */
+        public Reader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+            if (in.readInt() != MAGIC) {
+                in.close();
+                throw new IOException("Keine Gateway-Aufzeichnung: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("Unbekannte Version " + version + " der Gateway-Aufzeichnung: " + file);
+            }
+            this.startEpochMillis = in.readLong();
+        }
+
+        /**
+         * Gibt den Beginn der Aufzeichnung zurück.
+         */
+        public long getStartEpochMillis() {
+            return startEpochMillis;
+        }
+
+        /**
+         * Liest das nächste Ereignis.
+         *
+         * @return Das Ereignis oder null am Ende der Aufzeichnung
+         * @throws IOException Wenn die Datei beschädigt ist
+         */
+        public Entry next() throws IOException {
+            long delta;
+            try {
+                delta = VarInts.read(in);
+            } catch (EOFException e) {
+                return null;
+            }
+
+            try {
+                int code = in.readUnsignedByte();
+                String type = code == 0 ? in.readUTF() : typeForCode(code);
+                byte[] payload = new byte[(int) VarInts.read(in)];
+                in.readFully(payload);
+                offsetMillis += delta;
+                return new Entry(offsetMillis, type, payload);
+            } catch (EOFException e) {
+                // Unvollständiger letzter Eintrag, z. B. nach einem Absturz während des Schreibens
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private static String typeForCode(int code) throws IOException {
+            if (code >= TYPE_CODES.size()) {
+                throw new IOException("Unbekannter Typcode " + code + " in der Gateway-Aufzeichnung");
+            }
+            return TYPE_CODES.get(code);
+        }
+    }
+}
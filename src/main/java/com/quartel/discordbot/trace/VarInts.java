@@ -0,0 +1,42 @@
+package com.quartel.discordbot.trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Längenangaben und Zeitabstände mit variabler Länge (7 Bit pro Byte, kleine Werte zuerst), wie sie die
+ * Aufzeichnungsformate verwenden. Werte unter 128 belegen ein Byte.
+ */
+final class VarInts {
+
+    private VarInts() {
+        // Utility-Klasse
+    }
+
+    static void write(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Liest einen Wert.
+     *
+     * @throws java.io.EOFException Wenn die Datei vor dem ersten oder innerhalb des Werts endet
+     * @throws IOException          Wenn der Wert länger als 64 Bit ist
+     */
+    static long read(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Ungültige Längenangabe in der Aufzeichnung");
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import java.awt.Color;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -40,7 +41,7 @@ public class BotUtils {
      * @return true, wenn die Nachricht mit dem Präfix beginnt, sonst false
      */
     public static boolean startsWithPrefix(String content) {
-        return content.startsWith(Config.getPrefix());
+        return content.startsWith(Config.get().prefix());
     }
 
     /**
@@ -50,7 +51,7 @@ public class BotUtils {
      * @return Der Befehl ohne Präfix
      */
     public static String getCommand(String content) {
-        String prefix = Config.getPrefix();
+        String prefix = Config.get().prefix();
         if (content.startsWith(prefix)) {
             String withoutPrefix = content.substring(prefix.length()).trim();
 
@@ -72,7 +73,7 @@ public class BotUtils {
      * @return Ein Array der Argumente (nach dem Befehl)
      */
     public static String[] getArgs(String content) {
-        String prefix = Config.getPrefix();
+        String prefix = Config.get().prefix();
         if (content.startsWith(prefix)) {
             String withoutPrefix = content.substring(prefix.length()).trim();
 
@@ -136,15 +137,18 @@ public class BotUtils {
 
     /**
      * Sendet eine Nachricht und löscht sie nach einer bestimmten Zeit.
+     * Die Antwort läuft als Folgenachricht, das spätere Löschen als Hintergrundarbeit über den {@link RestScheduler}.
      *
      * @param message  Die Nachricht, die geantwortet werden soll
      * @param content  Der Inhalt der neuen Nachricht
      * @param duration Die Dauer, nach der die Nachricht gelöscht werden soll
      */
     public static void sendTemporaryMessage(Message message, String content, Duration duration) {
-        message.reply(content).queue(sentMessage -> {
-            sentMessage.delete().queueAfter(duration.toMillis(), TimeUnit.MILLISECONDS);
-        });
+        RestScheduler scheduler = RestScheduler.getInstance();
+        scheduler.submit(RestScheduler.Priority.FOLLOW_UP, () -> message.reply(content))
+                .thenAccept(sentMessage -> CompletableFuture.delayedExecutor(duration.toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(() -> scheduler.submit(RestScheduler.Priority.BACKGROUND,
+                                "delete:" + sentMessage.getId(), sentMessage::delete)));
     }
 
     /**
@@ -1,77 +1,66 @@
 package com.quartel.discordbot.util;
 
-import net.dv8tion.jda.api.JDA;
+import com.quartel.discordbot.core.CommandRegistrar;
+import com.quartel.discordbot.core.Shards;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * Hilfsprogramm zum Bereinigen aller Befehle - sowohl global als auch guild-spezifisch.
  * Kann zum Zurücksetzen des Bots verwendet werden, wenn Probleme mit doppelten Befehlen auftreten.
+ * Die Löschaufrufe laufen mit begrenzter Parallelität als Hintergrundarbeit im {@link RestScheduler},
+ * damit sie die Rate-Limits nicht überfluten und Antworten auf Interaktionen nicht verzögern.
  */
 public class CommandCleaner {
     private static final Logger LOGGER = LoggerFactory.getLogger(CommandCleaner.class);
 
+    // Maximale Anzahl gleichzeitiger Löschaufrufe
+    private static final int PARALLELISM = 4;
+
     /**
-     * Löscht alle Befehle (global und guild-spezifisch) und gibt die Kontrolle zurück, sobald die Löschung abgeschlossen ist.
+     * Löscht alle Befehle (global und guild-spezifisch).
+     * Die gespeicherten Befehls-Hashes werden verworfen, sodass der nächste Abgleich alle Befehle neu registriert.
      *
-     * @param jda Die JDA-Instanz
-     * @param callback Ein Callback, der ausgeführt wird, wenn der Löschvorgang abgeschlossen ist
+     * @param shardManager Der ShardManager mit allen Shards des Bots
+     * @return Ein Future, das abgeschlossen wird, sobald alle Löschaufrufe beendet sind
      */
-    public static void cleanAllCommands(JDA jda, Runnable callback) {
+    public static CompletableFuture<RestBatch.Result> cleanAllCommands(ShardManager shardManager) {
         LOGGER.info("Starte vollständige Bereinigung aller Befehle...");
 
-        // Zuerst alle globalen Befehle löschen
-        LOGGER.info("Lösche alle globalen Befehle...");
-        jda.updateCommands().queue(
-                globalSuccess -> {
-                    LOGGER.info("Globale Befehle erfolgreich gelöscht");
-
-                    // Zähler für die Anzahl der Guilds
-                    final int[] remainingGuilds = {jda.getGuilds().size()};
-
-                    if (remainingGuilds[0] == 0) {
-                        LOGGER.info("Keine Guilds gefunden. Bereinigung abgeschlossen.");
-                        callback.run();
-                        return;
-                    }
-
-                    // Dann alle guild-spezifischen Befehle löschen
-                    for (Guild guild : jda.getGuilds()) {
-                        LOGGER.info("Lösche Befehle für Guild: {}", guild.getName());
-                        guild.updateCommands().queue(
-                                guildSuccess -> {
-                                    LOGGER.info("Befehle für Guild {} erfolgreich gelöscht", guild.getName());
-
-                                    // Reduziere den Zähler
-                                    remainingGuilds[0]--;
+        List<Supplier<CompletableFuture<?>>> tasks = new ArrayList<>();
 
-                                    // Wenn alle Guilds bearbeitet wurden, führe den Callback aus
-                                    if (remainingGuilds[0] == 0) {
-                                        LOGGER.info("Alle Befehle vollständig bereinigt.");
-                                        callback.run();
-                                    }
-                                },
-                                guildError -> {
-                                    LOGGER.error("Fehler beim Löschen der Befehle für Guild {}: {}",
-                                            guild.getName(), guildError.getMessage());
+        // Globale Befehle löschen
+        tasks.add(() -> RestScheduler.getInstance()
+                .submit(RestScheduler.Priority.BACKGROUND, () -> Shards.anyShard(shardManager).updateCommands())
+                .thenRun(() -> CommandRegistrar.forget(CommandRegistrar.GLOBAL_SCOPE)));
 
-                                    // Reduziere den Zähler trotz Fehler
-                                    remainingGuilds[0]--;
+        // Guild-spezifische Befehle löschen
+        for (Guild guild : shardManager.getGuilds()) {
+            tasks.add(() -> RestScheduler.getInstance()
+                    .submit(RestScheduler.Priority.BACKGROUND, guild::updateCommands)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            LOGGER.error("Fehler beim Löschen der Befehle für Guild {}: {}",
+                                    guild.getName(), error.getMessage());
+                        } else {
+                            CommandRegistrar.forget(guild.getIdLong());
+                        }
+                    }));
+        }
 
-                                    // Wenn alle Guilds bearbeitet wurden, führe den Callback aus
-                                    if (remainingGuilds[0] == 0) {
-                                        LOGGER.info("Bereinigung abgeschlossen (mit einigen Fehlern).");
-                                        callback.run();
-                                    }
-                                }
-                        );
-                    }
-                },
-                globalError -> {
-                    LOGGER.error("Fehler beim Löschen globaler Befehle: {}", globalError.getMessage());
-                    callback.run(); // Führe den Callback trotz Fehler aus
-                }
-        );
+        return RestBatch.run(tasks, PARALLELISM).whenComplete((result, error) -> {
+            if (result != null && result.failed() == 0) {
+                LOGGER.info("Alle Befehle vollständig bereinigt ({} Bereiche).", result.succeeded());
+            } else if (result != null) {
+                LOGGER.info("Bereinigung abgeschlossen (mit {} Fehlern).", result.failed());
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.quartel.discordbot.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Überträgt die Logging-Level aus der Konfiguration auf Logback, beim Start und bei jeder Änderung der
+ * config.properties.
+ * <p>
+ * {@code logging.level} setzt das Level des Root-Loggers, {@code logging.level.<logger>} das Level eines
+ * einzelnen Loggers (z. B. {@code logging.level.net.dv8tion.jda=DEBUG}). Wird eine solche Überschreibung
+ * entfernt, erhält der Logger wieder das Level aus der logback.xml.
+ */
+public final class LogLevels {
+    private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(LogLevels.class);
+
+    private static final String LEVEL_KEY = "logging.level";
+    private static final String OVERRIDE_PREFIX = LEVEL_KEY + ".";
+
+    // Von der Konfiguration gesetzte Logger und ihr ursprüngliches Level aus der logback.xml
+    private static final Map<String, Level> originalLevels = new HashMap<>();
+    private static boolean installed = false;
+
+    private LogLevels() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Übernimmt die aktuellen Logging-Level und registriert sich für spätere Änderungen der Konfiguration.
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+
+        apply(Config.get());
+        Config.addChangeListener(LogLevels::apply);
+    }
+
+    /**
+     * Setzt die Level des Root-Loggers und aller überschriebenen Logger.
+     */
+    private static synchronized void apply(ConfigSnapshot snapshot) {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext context)) {
+            LOGGER.debug("Kein Logback aktiv, Logging-Level aus der Konfiguration werden ignoriert");
+            return;
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        Level rootLevel = Level.toLevel(snapshot.loggingLevel(), Level.INFO);
+        if (!rootLevel.equals(root.getLevel())) {
+            root.setLevel(rootLevel);
+            LOGGER.info("Logging-Level auf {} gesetzt", rootLevel);
+        }
+
+        Set<String> configured = new HashSet<>();
+        snapshot.values().forEach((key, value) -> {
+            if (!key.startsWith(OVERRIDE_PREFIX) || key.length() == OVERRIDE_PREFIX.length()) {
+                return;
+            }
+            String name = key.substring(OVERRIDE_PREFIX.length());
+            Logger logger = context.getLogger(name);
+            configured.add(name);
+            originalLevels.putIfAbsent(name, logger.getLevel());
+
+            Level level = Level.toLevel(value.trim(), null);
+            if (level == null) {
+                LOGGER.warn("Ungültiges Logging-Level für {}: \"{}\"", key, value);
+            } else if (!level.equals(logger.getLevel())) {
+                logger.setLevel(level);
+                LOGGER.info("Logging-Level von {} auf {} gesetzt", name, level);
+            }
+        });
+
+        // Entfernte Überschreibungen zurücksetzen
+        originalLevels.entrySet().removeIf(entry -> {
+            if (configured.contains(entry.getKey())) {
+                return false;
+            }
+            context.getLogger(entry.getKey()).setLevel(entry.getValue());
+            LOGGER.info("Logging-Level von {} zurückgesetzt", entry.getKey());
+            return true;
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.quartel.discordbot.util;
+
+import com.quartel.discordbot.config.Config;
+import com.quartel.discordbot.config.ConfigSnapshot;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Begrenzt häufige Logmeldungen eines Teilsystems auf eine Höchstzahl pro Sekunde.
+ * <p>
+ * Aufrufer prüfen vor dem Loggen mit {@link #allow()}, ob die Meldung geschrieben werden darf. Verworfene
+ * Meldungen werden gezählt und in der nächsten Sekunde als eine Sammelmeldung ausgegeben. Die Prüfung kommt
+ * ohne Sperren aus und ist daher auch auf Gateway- und Audio-Threads unbedenklich.
+ * <p>
+ * Das Limit stammt aus {@code logging.sample.<teilsystem>}, sonst aus {@code logging.sample_per_second};
+ * 0 schaltet die Meldungen des Teilsystems ganz ab.
+ */
+public final class LogSampler {
+    private static final LongAdder TOTAL_SUPPRESSED = new LongAdder();
+
+    // Sekunde (obere Bits) und Anzahl der Meldungen in dieser Sekunde (untere 20 Bits)
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    // System.nanoTime() kann negativ sein; Sekunden werden ab diesem Zeitpunkt gezählt und sind daher nie negativ
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    private final Logger logger;
+    private final String subsystem;
+    // Beginnt vor Sekunde 0, damit die erste Meldung das Limit liest
+    private final AtomicLong window = new AtomicLong(-1L << COUNT_BITS);
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private volatile ConfigSnapshot limitSource;
+    private volatile int limit;
+
+    /**
+     * Erstellt einen Sampler für ein Teilsystem.
+     *
+     * @param logger    Der Logger, über den die Sammelmeldung ausgegeben wird
+     * @param subsystem Der Name des Teilsystems in der Konfiguration, z. B. {@code player}
+     */
+    public LogSampler(Logger logger, String subsystem) {
+        this.logger = logger;
+        this.subsystem = subsystem;
+    }
+
+    /**
+     * Prüft, ob in der aktuellen Sekunde noch eine Meldung geschrieben werden darf.
+     *
+     * @return true, wenn die Meldung geloggt werden soll
+     */
+    public boolean allow() {
+        long second = (System.nanoTime() - ORIGIN_NANOS) / 1_000_000_000L;
+        while (true) {
+            long current = window.get();
+            long currentSecond = current >> COUNT_BITS;
+            long count = current & COUNT_MASK;
+
+            if (currentSecond != second) {
+                if (window.compareAndSet(current, (second << COUNT_BITS) | 1)) {
+                    reportSuppressed();
+                    return refreshLimit() > 0 || suppress();
+                }
+                continue;
+            }
+
+            if (count >= limit) {
+                return suppress();
+            }
+            if (window.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl aller bisher unterdrückten Meldungen über alle Teilsysteme zurück.
+     *
+     * @return Die Anzahl unterdrückter Meldungen
+     */
+    public static long getTotalSuppressed() {
+        return TOTAL_SUPPRESSED.sum();
+    }
+
+    private boolean suppress() {
+        suppressed.incrementAndGet();
+        TOTAL_SUPPRESSED.increment();
+        return false;
+    }
+
+    /**
+     * Meldet die in der vorherigen Sekunde verworfenen Meldungen.
+     */
+    private void reportSuppressed() {
+        long count = suppressed.getAndSet(0);
+        if (count > 0) {
+            logger.info("{} weitere Meldungen ({}) in der letzten Sekunde unterdrückt", count, subsystem);
+        }
+    }
+
+    /**
+     * Liest das Limit neu, wenn sich die Konfiguration geändert hat; geschieht höchstens einmal pro Sekunde.
+     */
+    private int refreshLimit() {
+        ConfigSnapshot snapshot = Config.get();
+        if (snapshot != limitSource) {
+            String value = Config.getProperty("logging.sample." + subsystem,
+                    Config.getProperty("logging.sample_per_second", "20"));
+            int parsed;
+            try {
+                parsed = Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                parsed = 20;
+            }
+            limit = (int) Math.min(parsed, COUNT_MASK);
+            limitSource = snapshot;
+        }
+        return limit;
+    }
+}
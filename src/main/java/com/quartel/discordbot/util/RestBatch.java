@@ -0,0 +1,113 @@
+package com.quartel.discordbot.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Führt viele REST-Aufrufe mit begrenzter Parallelität aus.
+ * Statt tausende Anfragen gleichzeitig in die Rate-Limit-Warteschlangen von JDA zu stellen, laufen höchstens
+ * {@code parallelism} Anfragen gleichzeitig; jede abgeschlossene Anfrage startet die nächste.
+ */
+public final class RestBatch {
+
+    /**
+     * Ergebnis eines Batch-Laufs.
+     *
+     * @param succeeded Die Anzahl erfolgreicher Aufrufe
+     * @param failed    Die Anzahl fehlgeschlagener Aufrufe
+     */
+    public record Result(int succeeded, int failed) {
+    }
+
+    private RestBatch() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Startet alle Aufgaben mit der angegebenen Parallelität.
+     * Fehlgeschlagene Aufgaben brechen den Batch nicht ab, sondern werden im Ergebnis gezählt.
+     *
+     * @param tasks       Die Aufgaben; jede liefert beim Aufruf das Future ihres REST-Aufrufs
+     * @param parallelism Die maximale Anzahl gleichzeitig laufender Aufgaben
+     * @return Ein Future, das abgeschlossen wird, sobald alle Aufgaben beendet sind
+     */
+    public static CompletableFuture<Result> run(List<Supplier<CompletableFuture<?>>> tasks, int parallelism) {
+        Batch batch = new Batch(tasks);
+        if (tasks.isEmpty()) {
+            batch.done.complete(new Result(0, 0));
+            return batch.done;
+        }
+
+        int workers = Math.max(1, Math.min(parallelism, tasks.size()));
+        for (int i = 0; i < workers; i++) {
+            batch.drive();
+        }
+        return batch.done;
+    }
+
+    /**
+     * Zustand eines laufenden Batches.
+     */
+    private static final class Batch {
+        private final List<Supplier<CompletableFuture<?>>> tasks;
+        private final CompletableFuture<Result> done = new CompletableFuture<>();
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private Batch(List<Supplier<CompletableFuture<?>>> tasks) {
+            this.tasks = tasks;
+            this.remaining = new AtomicInteger(tasks.size());
+        }
+
+        /**
+         * Startet Aufgaben nacheinander, bis eine davon noch läuft; deren Abschluss setzt die Schleife fort.
+         * Bereits abgeschlossene Futures werden in der Schleife weiterverarbeitet statt im Callback, damit
+         * synchron abgeschlossene Aufgaben den Stack nicht mit jeder Aufgabe tiefer machen.
+         */
+        private void drive() {
+            while (true) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= tasks.size()) {
+                    return;
+                }
+
+                CompletableFuture<?> future;
+                try {
+                    future = tasks.get(index).get();
+                } catch (Exception e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+
+                // Wer zuerst umschaltet, gibt ab: läuft der Callback noch in diesem Aufruf, macht die Schleife
+                // weiter, sonst setzt der spätere Callback mit einem neuen drive() fort
+                AtomicBoolean pending = new AtomicBoolean(true);
+                future.whenComplete((result, error) -> {
+                    finish(error);
+                    if (!pending.compareAndSet(true, false)) {
+                        drive();
+                    }
+                });
+                if (pending.compareAndSet(true, false)) {
+                    return;
+                }
+            }
+        }
+
+        private void finish(Throwable error) {
+            if (error != null) {
+                failed.incrementAndGet();
+            } else {
+                succeeded.incrementAndGet();
+            }
+
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(new Result(succeeded.get(), failed.get()));
+            }
+        }
+    }
+}
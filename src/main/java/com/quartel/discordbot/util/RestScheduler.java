@@ -0,0 +1,301 @@
+package com.quartel.discordbot.util;
+
+import com.quartel.discordbot.config.Config;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Priorisierte Warteschlange für ausgehende REST-Aufrufe des Bots.
+ * <p>
+ * Alle Aufrufe teilen sich die Rate-Limits von Discord. Damit Antworten auf Interaktionen nicht hinter
+ * Befehlsregistrierungen oder Löschaufrufen warten, werden Aufrufe in drei Klassen eingeteilt:
+ * <ul>
+ *     <li>{@link Priority#INTERACTION}: Bestätigungen und Antworten, werden immer sofort gestartet</li>
+ *     <li>{@link Priority#FOLLOW_UP}: sichtbare Folgenachrichten, bevorzugt vor Hintergrundarbeit</li>
+ *     <li>{@link Priority#BACKGROUND}: Löschen, Aufräumen und Registrierung, zusätzlich gedrosselt</li>
+ * </ul>
+ * Höchstens {@code rest.max_in_flight} Aufrufe laufen gleichzeitig, davon höchstens
+ * {@code rest.background_max_in_flight} aus der Hintergrundklasse. Aufrufe mit gleichem Schlüssel, die noch
+ * warten, werden zusammengefasst: nur der zuletzt übergebene Aufruf wird gesendet.
+ */
+public final class RestScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestScheduler.class);
+
+    private static RestScheduler instance;
+
+    /**
+     * Prioritätsklasse eines REST-Aufrufs, absteigend nach Dringlichkeit.
+     */
+    public enum Priority {
+        INTERACTION,
+        FOLLOW_UP,
+        BACKGROUND
+    }
+
+    /**
+     * Laufzeitwerte einer Prioritätsklasse.
+     *
+     * @param priority          Die Prioritätsklasse
+     * @param queued            Die Anzahl aktuell wartender Aufrufe
+     * @param inFlight          Die Anzahl aktuell laufender Aufrufe
+     * @param submitted         Die Anzahl insgesamt übergebener Aufrufe
+     * @param coalesced         Die Anzahl der Aufrufe, die mit einem wartenden Aufruf zusammengefasst wurden
+     * @param failed            Die Anzahl fehlgeschlagener Aufrufe
+     * @param averageWaitMillis Die durchschnittliche Wartezeit bis zum Start in Millisekunden
+     * @param maxWaitMillis     Die längste Wartezeit bis zum Start in Millisekunden
+     */
+    public record ClassStats(Priority priority, int queued, int inFlight, long submitted, long coalesced,
+                             long failed, double averageWaitMillis, long maxWaitMillis) {
+    }
+
+    private final Object lock = new Object();
+    private final Map<Priority, ArrayDeque<Task<?>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counters> counters = new EnumMap<>(Priority.class);
+    private final Map<String, Task<?>> pendingByKey = new HashMap<>();
+    private final int maxInFlight;
+    private final int maxBackgroundInFlight;
+    private int inFlight;
+
+    /**
+     * Ein wartender oder laufender Aufruf.
+     */
+    private static final class Task<T> {
+        private final Priority priority;
+        private final String key;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+        private Supplier<? extends RestAction<T>> action;
+
+        private Task(Priority priority, String key, Supplier<? extends RestAction<T>> action) {
+            this.priority = priority;
+            this.key = key;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Zähler einer Prioritätsklasse.
+     */
+    private static final class Counters {
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private int inFlight;
+    }
+
+    private RestScheduler() {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            counters.put(priority, new Counters());
+        }
+        this.maxInFlight = Math.max(1, readInt("rest.max_in_flight", 8));
+        this.maxBackgroundInFlight = Math.max(1, Math.min(maxInFlight, readInt("rest.background_max_in_flight", 2)));
+        LOGGER.debug("RestScheduler: max. {} gleichzeitige Aufrufe, davon {} im Hintergrund",
+                maxInFlight, maxBackgroundInFlight);
+    }
+
+    /**
+     * Gibt die Singleton-Instanz zurück.
+     *
+     * @return Die RestScheduler-Instanz
+     */
+    public static synchronized RestScheduler getInstance() {
+        if (instance == null) {
+            instance = new RestScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Reiht einen REST-Aufruf ein.
+     *
+     * @param priority Die Prioritätsklasse
+     * @param action   Erzeugt den Aufruf erst, wenn er gestartet wird
+     * @param <T>      Der Ergebnistyp des Aufrufs
+     * @return Ein Future mit dem Ergebnis des Aufrufs
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<? extends RestAction<T>> action) {
+        return submit(priority, null, action);
+    }
+
+    /**
+     * Reiht einen REST-Aufruf mit Zusammenfassungsschlüssel ein.
+     * Wartet bereits ein Aufruf mit demselben Schlüssel, wird dessen Aufruf durch den neuen ersetzt und beide
+     * Aufrufer erhalten dasselbe Future. Aufrufe der Klasse {@link Priority#INTERACTION} werden nie zusammengefasst.
+     *
+     * @param priority Die Prioritätsklasse
+     * @param key      Der Schlüssel, z.B. {@code "edit:<messageId>"}, oder null
+     * @param action   Erzeugt den Aufruf erst, wenn er gestartet wird
+     * @param <T>      Der Ergebnistyp des Aufrufs
+     * @return Ein Future mit dem Ergebnis des Aufrufs
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(Priority priority, String key, Supplier<? extends RestAction<T>> action) {
+        Counters classCounters = counters.get(priority);
+        classCounters.submitted.incrementAndGet();
+
+        Task<T> task = new Task<>(priority, key, action);
+        boolean startNow;
+        synchronized (lock) {
+            if (key != null && priority != Priority.INTERACTION) {
+                Task<?> pending = pendingByKey.get(key);
+                if (pending != null && pending.priority == priority) {
+                    ((Task<T>) pending).action = action;
+                    classCounters.coalesced.incrementAndGet();
+                    return ((Task<T>) pending).future;
+                }
+            }
+
+            if (priority == Priority.INTERACTION) {
+                // Antworten haben ein festes Zeitfenster und warten nie
+                acquire(task);
+                startNow = true;
+            } else {
+                queues.get(priority).addLast(task);
+                if (key != null) {
+                    pendingByKey.put(key, task);
+                }
+                startNow = false;
+            }
+        }
+
+        if (startNow) {
+            start(task);
+        } else {
+            drain();
+        }
+        return task.future;
+    }
+
+    /**
+     * Startet wartende Aufrufe, solange Kapazität frei ist; Folgenachrichten vor Hintergrundarbeit.
+     */
+    private void drain() {
+        while (true) {
+            Task<?> next;
+            synchronized (lock) {
+                next = poll();
+                if (next == null) {
+                    return;
+                }
+                acquire(next);
+            }
+            start(next);
+        }
+    }
+
+    /**
+     * Entnimmt den nächsten startbaren Aufruf. Muss unter {@link #lock} aufgerufen werden.
+     */
+    private Task<?> poll() {
+        if (inFlight >= maxInFlight) {
+            return null;
+        }
+
+        Task<?> next = queues.get(Priority.FOLLOW_UP).pollFirst();
+        if (next == null && counters.get(Priority.BACKGROUND).inFlight < maxBackgroundInFlight) {
+            next = queues.get(Priority.BACKGROUND).pollFirst();
+        }
+
+        if (next != null && next.key != null) {
+            pendingByKey.remove(next.key, next);
+        }
+        return next;
+    }
+
+    /**
+     * Belegt einen Platz für den Aufruf. Muss unter {@link #lock} aufgerufen werden.
+     */
+    private void acquire(Task<?> task) {
+        inFlight++;
+        counters.get(task.priority).inFlight++;
+    }
+
+    /**
+     * Startet einen Aufruf und gibt seinen Platz nach Abschluss wieder frei.
+     */
+    private <T> void start(Task<T> task) {
+        Counters classCounters = counters.get(task.priority);
+        long waited = System.nanoTime() - task.enqueuedNanos;
+        classCounters.started.incrementAndGet();
+        classCounters.totalWaitNanos.addAndGet(waited);
+        classCounters.maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        CompletableFuture<T> request;
+        try {
+            request = task.action.get().submit();
+        } catch (Exception e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+
+        request.whenComplete((result, error) -> {
+            synchronized (lock) {
+                inFlight--;
+                classCounters.inFlight--;
+            }
+
+            if (error != null) {
+                classCounters.failed.incrementAndGet();
+                LOGGER.debug("REST-Aufruf ({}) fehlgeschlagen: {}", task.priority, error.getMessage());
+                task.future.completeExceptionally(error);
+            } else {
+                task.future.complete(result);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Gibt die Laufzeitwerte aller Prioritätsklassen zurück.
+     *
+     * @return Eine Liste der Laufzeitwerte, absteigend nach Priorität
+     */
+    public List<ClassStats> getStats() {
+        List<ClassStats> stats = new ArrayList<>();
+        synchronized (lock) {
+            for (Priority priority : Priority.values()) {
+                Counters classCounters = counters.get(priority);
+                long startedCount = classCounters.started.get();
+                double averageWait = startedCount == 0 ? 0.0
+                        : classCounters.totalWaitNanos.get() / (double) startedCount / 1_000_000.0;
+                stats.add(new ClassStats(
+                        priority,
+                        queues.get(priority).size(),
+                        classCounters.inFlight,
+                        classCounters.submitted.get(),
+                        classCounters.coalesced.get(),
+                        classCounters.failed.get(),
+                        averageWait,
+                        TimeUnit.NANOSECONDS.toMillis(classCounters.maxWaitNanos.get())));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Liest einen Integer-Wert aus der Konfiguration.
+     */
+    private static int readInt(String key, int fallback) {
+        try {
+            return Integer.parseInt(Config.getProperty(key, String.valueOf(fallback)).trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ungültiger Wert für {}, verwende {}", key, fallback);
+            return fallback;
+        }
+    }
+}